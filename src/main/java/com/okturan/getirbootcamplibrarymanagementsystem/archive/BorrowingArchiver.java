@@ -0,0 +1,88 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.archive;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRun;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingArchiveRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineRunRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves borrowings returned more than {@code library.archive.after-days} ago out of the
+ * hot table, a chunk per short transaction, so circulation never waits behind one long
+ * delete. A run stops after {@code library.archive.max-chunks} chunks and the next one
+ * carries on; a crash loses nothing, since each chunk moves atomically.
+ * <p>
+ * Once fees have been assessed, borrowings the next fee run may still charge are left
+ * alone: the cutoff never passes the last completed run.
+ */
+@Slf4j
+@Component
+public class BorrowingArchiver {
+
+	private final BorrowingArchiveRepository archiveRepo;
+
+	private final FineRunRepository fineRunRepo;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int afterDays;
+
+	private final int chunkSize;
+
+	private final int maxChunks;
+
+	public BorrowingArchiver(BorrowingArchiveRepository archiveRepo, FineRunRepository fineRunRepo,
+			TransactionTemplate transactionTemplate, @Value("${library.archive.after-days:365}") int afterDays,
+			@Value("${library.archive.chunk-size:1000}") int chunkSize,
+			@Value("${library.archive.max-chunks:1000}") int maxChunks) {
+		this.archiveRepo = archiveRepo;
+		this.fineRunRepo = fineRunRepo;
+		this.transactionTemplate = transactionTemplate;
+		this.afterDays = afterDays;
+		this.chunkSize = chunkSize;
+		this.maxChunks = maxChunks;
+	}
+
+	@Scheduled(cron = "${library.archive.cron:0 0 4 * * *}")
+	public void archiveNightly() {
+		archive(LocalDate.now());
+	}
+
+	/**
+	 * @return number of borrowings moved to the archive
+	 */
+	public long archive(LocalDate today) {
+		LocalDate cutoff = cutoff(today);
+		long moved = 0;
+		for (int chunk = 0; chunk < maxChunks; chunk++) {
+			Integer count = transactionTemplate.execute(status -> {
+				List<Long> ids = archiveRepo.findArchivable(cutoff, chunkSize);
+				return ids.isEmpty() ? 0 : archiveRepo.move(ids, LocalDateTime.now());
+			});
+			if (count == null || count == 0) {
+				break;
+			}
+			moved += count;
+		}
+		log.info("Archived {} borrowings returned before {}", moved, cutoff);
+		return moved;
+	}
+
+	private LocalDate cutoff(LocalDate today) {
+		LocalDate cutoff = today.minusDays(afterDays);
+		return fineRunRepo.findFirstByRunDateBeforeAndStatusOrderByRunDateDesc(today.plusDays(1),
+				FineRunStatus.COMPLETED)
+			.map(FineRun::getRunDate)
+			.filter(lastRun -> lastRun.isBefore(cutoff))
+			.orElse(cutoff);
+	}
+
+}
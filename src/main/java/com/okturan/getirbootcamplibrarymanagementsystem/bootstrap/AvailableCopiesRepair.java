@@ -0,0 +1,53 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bootstrap;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repairs {@code books.available_copies} from the borrowings table. Runs at startup after
+ * seeding, which covers borrowings inserted outside the circulation service. Can be
+ * invoked again as a repair job.
+ */
+@Slf4j
+@Component
+@Order(3)
+@Transactional
+@RequiredArgsConstructor
+public class AvailableCopiesRepair implements CommandLineRunner {
+
+	private final BookRepository bookRepository;
+
+	@Value("${library.availability.repair-on-startup:true}")
+	private boolean repairOnStartup;
+
+	@Override
+	public void run(String... args) {
+		if (!repairOnStartup) {
+			log.info("Available-copies repair on startup is disabled. Skipping...");
+			return;
+		}
+		repair();
+	}
+
+	/**
+	 * Re-derives every drifted shelf count in a single statement.
+	 * @return number of books corrected
+	 */
+	public int repair() {
+		int repaired = bookRepository.repairAvailableCopies();
+		if (repaired > 0) {
+			log.warn("Repaired available copies on {} books", repaired);
+		}
+		else {
+			log.info("Available copies are consistent");
+		}
+		return repaired;
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bootstrap;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingPartitionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps the monthly {@code borrowings} partitions on PostgreSQL: creates the coming
+ * {@code library.partitions.months-ahead} months before any borrowing needs them, and
+ * detaches and drops partitions older than {@code library.partitions.retain-months} once
+ * the archiver has emptied them. A partition still holding open or recent borrowings is
+ * kept. Does nothing where the table is not partitioned, such as on H2.
+ */
+@Slf4j
+@Component
+@Order(3)
+public class BorrowingPartitionMaintenance implements CommandLineRunner {
+
+	private final BorrowingPartitionRepository partitionRepository;
+
+	private final int monthsAhead;
+
+	private final int retainMonths;
+
+	public BorrowingPartitionMaintenance(BorrowingPartitionRepository partitionRepository,
+			@Value("${library.partitions.months-ahead:3}") int monthsAhead,
+			@Value("${library.partitions.retain-months:13}") int retainMonths) {
+		this.partitionRepository = partitionRepository;
+		this.monthsAhead = monthsAhead;
+		this.retainMonths = retainMonths;
+	}
+
+	@Override
+	public void run(String... args) {
+		maintain(YearMonth.now());
+	}
+
+	@Scheduled(cron = "${library.partitions.cron:0 30 4 * * *}")
+	public void maintainNightly() {
+		maintain(YearMonth.now());
+	}
+
+	/**
+	 * @return number of partitions created plus number dropped
+	 */
+	public int maintain(YearMonth current) {
+		if (!partitionRepository.isPartitioned()) {
+			log.debug("Borrowings are not partitioned. Skipping partition maintenance...");
+			return 0;
+		}
+		List<YearMonth> existing = partitionRepository.findPartitionMonths();
+		int changed = 0;
+		for (YearMonth month = current; !month.isAfter(current.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+			if (!existing.contains(month)) {
+				try {
+					partitionRepository.create(month);
+					changed++;
+					log.info("Created borrowings partition for {}", month);
+				}
+				catch (DataAccessException e) {
+					log.error("Could not create borrowings partition for {}; its rows stay in the default partition",
+							month, e);
+				}
+			}
+		}
+		YearMonth oldestKept = current.minusMonths(retainMonths);
+		for (YearMonth month : existing) {
+			if (month.isBefore(oldestKept) && partitionRepository.isEmpty(month)) {
+				partitionRepository.detachAndDrop(month);
+				changed++;
+				log.info("Detached and dropped empty borrowings partition for {}", month);
+			}
+		}
+		return changed;
+	}
+
+}
@@ -0,0 +1,64 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bootstrap;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserBorrowingStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reconciles {@code user_borrowing_stats} with the borrowings table. Runs at startup after
+ * seeding, which covers borrowings inserted outside the circulation service, and then on
+ * a schedule to catch any counter that drifted. Each patron is repaired in its own
+ * transaction under their counter row's lock, so a repair cannot overwrite a borrow or
+ * return that commits while it runs.
+ */
+@Slf4j
+@Component
+@Order(3)
+@RequiredArgsConstructor
+public class BorrowingStatsRepair implements CommandLineRunner {
+
+	private final UserBorrowingStatsRepository statsRepository;
+
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${library.borrow.stats-repair-on-startup:true}")
+	private boolean repairOnStartup;
+
+	@Override
+	public void run(String... args) {
+		if (!repairOnStartup) {
+			log.info("Borrowing stats repair on startup is disabled. Skipping...");
+			return;
+		}
+		repair();
+	}
+
+	/**
+	 * Adds missing counter rows, then re-derives drifted ones a patron at a time.
+	 * @return number of patrons whose counters were added or corrected
+	 */
+	@Scheduled(cron = "${library.borrow.stats-repair-cron:0 30 3 * * *}")
+	public int repair() {
+		int repaired = transactionTemplate.execute(status -> statsRepository.insertMissing());
+		for (long userId : statsRepository.findDriftedUserIds()) {
+			repaired += transactionTemplate.execute(status -> {
+				statsRepository.lockActiveBorrowings(userId);
+				return statsRepository.repairCounts(userId);
+			});
+		}
+		if (repaired > 0) {
+			log.warn("Repaired borrowing counters of {} patrons", repaired);
+		}
+		else {
+			log.info("Borrowing counters are consistent");
+		}
+		return repaired;
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bootstrap;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.index.RebuildableIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds every in-memory index once the database has been seeded and repaired. Runs after
+ * the other initializers so the indexes see their rows.
+ */
+@Slf4j
+@Component
+@Order(4)
+@RequiredArgsConstructor
+public class IndexInitializer implements CommandLineRunner {
+
+	private final ObjectProvider<RebuildableIndex> indexes;
+
+	@Override
+	public void run(String... args) {
+		indexes.orderedStream().forEach(index -> {
+			log.info("Building in-memory index {}", index.getClass().getSimpleName());
+			index.rebuild();
+		});
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bootstrap;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.Isbn;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Fills {@code books.isbn_key} for rows written before the column existed. Books whose
+ * stored ISBN cannot be normalized, or normalizes to another book's key, are logged and
+ * left without a key, so they are only reachable by id until their ISBN is corrected.
+ */
+@Slf4j
+@Component
+@Order(3)
+@Transactional
+@RequiredArgsConstructor
+public class IsbnKeyBackfill implements CommandLineRunner {
+
+	private final BookRepository bookRepository;
+
+	@Override
+	public void run(String... args) {
+		List<Book> missing = bookRepository.findByIsbnKeyIsNull();
+		if (missing.isEmpty()) {
+			return;
+		}
+		int filled = 0;
+		Set<Long> assigned = new HashSet<>();
+		for (Book book : missing) {
+			long key;
+			try {
+				key = Isbn.toKey(book.getIsbn());
+			}
+			catch (IllegalArgumentException e) {
+				log.warn("Book {} has an unparseable ISBN '{}'; leaving isbn_key empty", book.getId(), book.getIsbn());
+				continue;
+			}
+			if (!assigned.add(key) || bookRepository.existsByIsbnKey(key)) {
+				log.warn("Book {} has ISBN '{}' which duplicates another book; leaving isbn_key empty", book.getId(),
+						book.getIsbn());
+				continue;
+			}
+			book.syncIsbnKey();
+			filled++;
+		}
+		log.info("Backfilled isbn_key on {} of {} books", filled, missing.size());
+	}
+
+}
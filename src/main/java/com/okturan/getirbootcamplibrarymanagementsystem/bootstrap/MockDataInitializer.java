@@ -239,7 +239,7 @@ public class MockDataInitializer implements CommandLineRunner {
             }
             
             LocalDate borrowDate = LocalDate.now().minusDays(random.nextInt(10) + 1);
-            LocalDate dueDate = borrowDate.plusDays(14); // 2 weeks loan period
+            LocalDate dueDate = borrowDate.plus(Borrowing.LOAN_PERIOD);
             
             Borrowing borrowing = new Borrowing();
             borrowing.setUser(patron);
@@ -260,7 +260,7 @@ public class MockDataInitializer implements CommandLineRunner {
             Book book = books.get(random.nextInt(books.size()));
             
             LocalDate borrowDate = LocalDate.now().minusDays(random.nextInt(30) + 15);
-            LocalDate dueDate = borrowDate.plusDays(14); // 2 weeks loan period
+            LocalDate dueDate = borrowDate.plus(Borrowing.LOAN_PERIOD);
             LocalDate returnDate = borrowDate.plusDays(random.nextInt(14) + 1); // Return within loan period
             
             Borrowing borrowing = new Borrowing();
@@ -288,7 +288,7 @@ public class MockDataInitializer implements CommandLineRunner {
             }
             
             LocalDate borrowDate = LocalDate.now().minusDays(random.nextInt(30) + 20);
-            LocalDate dueDate = borrowDate.plusDays(14); // 2 weeks loan period, now overdue
+            LocalDate dueDate = borrowDate.plus(Borrowing.LOAN_PERIOD); // now overdue
             
             Borrowing borrowing = new Borrowing();
             borrowing.setUser(patron);
@@ -0,0 +1,49 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bulkimport;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+
+/**
+ * Pulls book records one at a time from an import body so that the body is never held
+ * in memory. Records that cannot be parsed are returned as failed records rather than
+ * aborting the import; only an unusable body as a whole (such as a CSV header missing a
+ * column) raises an exception.
+ */
+public abstract class BookRecordReader implements Closeable {
+
+	private final BufferedReader reader;
+
+	protected BookRecordReader(BufferedReader reader) {
+		this.reader = reader;
+	}
+
+	public static BookRecordReader open(ImportFormat format, InputStream body, Charset charset,
+			ObjectMapper objectMapper) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+		return switch (format) {
+			case CSV -> new CsvBookRecordReader(reader);
+			case NDJSON -> new NdjsonBookRecordReader(reader, objectMapper);
+		};
+	}
+
+	/**
+	 * @return the next record, or {@code null} at the end of the body
+	 */
+	public abstract ImportRecord next() throws IOException;
+
+	protected BufferedReader reader() {
+		return reader;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
@@ -0,0 +1,149 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bulkimport;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 CSV with a header row naming the columns {@code title}, {@code author},
+ * {@code isbn}, {@code publicationDate} (ISO date) and {@code genre}, in any order and
+ * case, with or without underscores. Other columns are ignored so richer catalog dumps
+ * can be imported as they are. Quoted fields may contain commas, doubled quotes and line
+ * breaks.
+ */
+class CsvBookRecordReader extends BookRecordReader {
+
+	private static final List<String> COLUMNS = List.of("title", "author", "isbn", "publicationdate", "genre");
+
+	private final int[] positions = new int[COLUMNS.size()];
+
+	private final int requiredFields;
+
+	private final StringBuilder field = new StringBuilder();
+
+	private long row;
+
+	CsvBookRecordReader(BufferedReader reader) throws IOException {
+		super(reader);
+		List<String> header = readFields();
+		if (header == null) {
+			throw new IllegalArgumentException("CSV import is empty; expected a header row");
+		}
+		Map<String, Integer> byName = new HashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			byName.putIfAbsent(normalize(header.get(i)), i);
+		}
+		for (int i = 0; i < COLUMNS.size(); i++) {
+			Integer position = byName.get(COLUMNS.get(i));
+			if (position == null) {
+				throw new IllegalArgumentException("CSV header is missing the column " + COLUMNS.get(i));
+			}
+			positions[i] = position;
+		}
+		requiredFields = Arrays.stream(positions).max().orElseThrow() + 1;
+	}
+
+	@Override
+	public ImportRecord next() throws IOException {
+		List<String> fields;
+		do {
+			fields = readFields();
+			if (fields == null) {
+				return null;
+			}
+		}
+		while (fields.size() == 1 && fields.get(0).isBlank());
+
+		row++;
+		if (fields.size() < requiredFields) {
+			return ImportRecord.failed(row,
+					"Expected at least " + requiredFields + " columns but found " + fields.size());
+		}
+
+		String publicationDate = column(fields, 3);
+		LocalDate date = null;
+		if (publicationDate != null) {
+			try {
+				date = LocalDate.parse(publicationDate);
+			}
+			catch (DateTimeParseException e) {
+				return ImportRecord.failed(row, "Invalid publication date: " + publicationDate);
+			}
+		}
+		return ImportRecord.parsed(row, new BookRequestDTO(column(fields, 0), column(fields, 1), column(fields, 2),
+				date, column(fields, 4)));
+	}
+
+	private String column(List<String> fields, int column) {
+		String value = fields.get(positions[column]).strip();
+		return value.isEmpty() ? null : value;
+	}
+
+	/**
+	 * @return the fields of the next record, or {@code null} at the end of the body
+	 */
+	private List<String> readFields() throws IOException {
+		int c = reader().read();
+		if (c == -1) {
+			return null;
+		}
+		List<String> fields = new ArrayList<>();
+		field.setLength(0);
+		boolean quoted = false;
+		while (true) {
+			if (quoted) {
+				if (c == -1) {
+					throw new IllegalArgumentException("CSV import ends inside a quoted field");
+				}
+				if (c == '"') {
+					reader().mark(1);
+					if (reader().read() == '"') {
+						field.append('"');
+					}
+					else {
+						reader().reset();
+						quoted = false;
+					}
+				}
+				else {
+					field.append((char) c);
+				}
+			}
+			else if (c == '"' && field.isEmpty()) {
+				quoted = true;
+			}
+			else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			}
+			else if (c == '\n' || c == '\r' || c == -1) {
+				if (c == '\r') {
+					reader().mark(1);
+					if (reader().read() != '\n') {
+						reader().reset();
+					}
+				}
+				fields.add(field.toString());
+				return fields;
+			}
+			else {
+				field.append((char) c);
+			}
+			c = reader().read();
+		}
+	}
+
+	private static String normalize(String header) {
+		return header.strip().replace("_", "").replace(" ", "").replace("\uFEFF", "").toLowerCase(Locale.ROOT);
+	}
+
+}
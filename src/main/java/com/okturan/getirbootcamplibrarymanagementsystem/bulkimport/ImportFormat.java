@@ -0,0 +1,29 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bulkimport;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Body formats accepted by the catalog import, selected by the request content type.
+ */
+public enum ImportFormat {
+
+	CSV(MediaType.parseMediaType("text/csv")),
+
+	NDJSON(MediaType.APPLICATION_NDJSON);
+
+	private final MediaType mediaType;
+
+	ImportFormat(MediaType mediaType) {
+		this.mediaType = mediaType;
+	}
+
+	public static ImportFormat of(MediaType contentType) {
+		for (ImportFormat format : values()) {
+			if (format.mediaType.isCompatibleWith(contentType)) {
+				return format;
+			}
+		}
+		throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bulkimport;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.ImportErrorDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.ImportReportDTO;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one running or finished import. Written by the importing request thread and
+ * read by status polls, so counters are atomic and the error list is guarded by the job.
+ */
+public class ImportJob {
+
+	public enum Status {
+
+		RUNNING, COMPLETED, FAILED
+
+	}
+
+	@Getter
+	private final UUID id = UUID.randomUUID();
+
+	private final ImportFormat format;
+
+	private final int maxErrors;
+
+	private final Instant startedAt = Instant.now();
+
+	private final AtomicLong rowsRead = new AtomicLong();
+
+	private final AtomicLong inserted = new AtomicLong();
+
+	private final AtomicLong updated = new AtomicLong();
+
+	private final AtomicLong rejected = new AtomicLong();
+
+	private final List<ImportErrorDTO> errors = new ArrayList<>();
+
+	private volatile Status status = Status.RUNNING;
+
+	private volatile String failure;
+
+	@Getter
+	private volatile Instant finishedAt;
+
+	ImportJob(ImportFormat format, int maxErrors) {
+		this.format = format;
+		this.maxErrors = maxErrors;
+	}
+
+	public void recordRead() {
+		rowsRead.incrementAndGet();
+	}
+
+	public void recordWritten(int insertedRows, int updatedRows) {
+		inserted.addAndGet(insertedRows);
+		updated.addAndGet(updatedRows);
+	}
+
+	public void reject(long row, String isbn, String message) {
+		rejected.incrementAndGet();
+		synchronized (this) {
+			if (errors.size() < maxErrors) {
+				errors.add(new ImportErrorDTO(row, isbn, message));
+			}
+		}
+	}
+
+	public void complete() {
+		finish(Status.COMPLETED, null);
+	}
+
+	public void fail(String reason) {
+		finish(Status.FAILED, reason);
+	}
+
+	public boolean isFinished() {
+		return finishedAt != null;
+	}
+
+	public ImportReportDTO toReport() {
+		List<ImportErrorDTO> errorsSoFar;
+		long rejectedSoFar;
+		synchronized (this) {
+			errorsSoFar = List.copyOf(errors);
+			rejectedSoFar = rejected.get();
+		}
+		return new ImportReportDTO(id, status, format, rowsRead.get(), inserted.get(), updated.get(), rejectedSoFar,
+				errorsSoFar, rejectedSoFar > errorsSoFar.size(), failure, startedAt, finishedAt);
+	}
+
+	private void finish(Status finalStatus, String reason) {
+		failure = reason;
+		status = finalStatus;
+		finishedAt = Instant.now();
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bulkimport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps running imports and the most recent finished ones so their reports can be polled.
+ * Jobs live in memory only and are lost on restart.
+ */
+@Component
+public class ImportJobRegistry {
+
+	private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+	private final int maxErrors;
+
+	private final int retainedJobs;
+
+	public ImportJobRegistry(@Value("${library.import.max-errors:1000}") int maxErrors,
+			@Value("${library.import.retained-jobs:20}") int retainedJobs) {
+		this.maxErrors = maxErrors;
+		this.retainedJobs = retainedJobs;
+	}
+
+	public ImportJob start(ImportFormat format) {
+		pruneFinished();
+		ImportJob job = new ImportJob(format, maxErrors);
+		jobs.put(job.getId(), job);
+		return job;
+	}
+
+	public Optional<ImportJob> find(UUID id) {
+		return Optional.ofNullable(jobs.get(id));
+	}
+
+	private synchronized void pruneFinished() {
+		long excess = jobs.values().stream().filter(ImportJob::isFinished).count() - retainedJobs + 1;
+		if (excess > 0) {
+			jobs.values()
+				.stream()
+				.filter(ImportJob::isFinished)
+				.sorted(Comparator.comparing(ImportJob::getFinishedAt))
+				.limit(excess)
+				.toList()
+				.forEach(job -> jobs.remove(job.getId()));
+		}
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bulkimport;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
+
+/**
+ * One data record of an import body. Exactly one of {@code book} and {@code error} is
+ * set: {@code error} describes why the record could not be parsed.
+ *
+ * @param row 1-based position of the record among the data records of the body
+ */
+public record ImportRecord(long row, BookRequestDTO book, String error) {
+
+	static ImportRecord parsed(long row, BookRequestDTO book) {
+		return new ImportRecord(row, book, null);
+	}
+
+	static ImportRecord failed(long row, String error) {
+		return new ImportRecord(row, null, error);
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bulkimport;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Reads one JSON book object per line. Blank lines are skipped.
+ */
+class NdjsonBookRecordReader extends BookRecordReader {
+
+	private final ObjectReader bookReader;
+
+	private long row;
+
+	NdjsonBookRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+		super(reader);
+		this.bookReader = objectMapper.readerFor(BookRequestDTO.class);
+	}
+
+	@Override
+	public ImportRecord next() throws IOException {
+		String line;
+		do {
+			line = reader().readLine();
+			if (line == null) {
+				return null;
+			}
+		}
+		while (line.isBlank());
+
+		row++;
+		try {
+			return ImportRecord.parsed(row, bookReader.readValue(line));
+		}
+		catch (JsonProcessingException e) {
+			return ImportRecord.failed(row, "Malformed JSON: " + e.getOriginalMessage());
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.CacheStatsDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of book responses by id. Misses are cached too, with a shorter
+ * lifetime, so repeated lookups of unknown ids do not reach the database. ISBN lookups
+ * resolve to an id through the in-memory ISBN index first and then share this cache.
+ * <p>
+ * Entries are weighed by their approximate size in bytes. Writers evict after commit so
+ * a rolled-back change never empties the cache and a concurrent reader cannot re-cache
+ * the pre-commit state.
+ */
+@Component
+public class BookCache {
+
+	private static final String BY_ID = "books-by-id";
+
+	/** Rough per-entry overhead of the cache node, key and record header. */
+	private static final int ENTRY_OVERHEAD = 96;
+
+	private final Cache<Long, Optional<BookResponseDTO>> byId;
+
+	public BookCache(@Value("${library.cache.books.maximum-weight:8000000}") long maximumWeight,
+			@Value("${library.cache.books.ttl:10m}") Duration ttl,
+			@Value("${library.cache.books.negative-ttl:30s}") Duration negativeTtl) {
+		this.byId = Caffeine.newBuilder()
+			.maximumWeight(maximumWeight)
+			.<Long, Optional<BookResponseDTO>>weigher((id, book) -> weigh(book))
+			.expireAfter(new LookupExpiry<>(ttl, negativeTtl))
+			.recordStats()
+			.build();
+	}
+
+	public Optional<BookResponseDTO> getById(Long id, Supplier<Optional<BookResponseDTO>> loader) {
+		return byId.get(id, key -> loader.get());
+	}
+
+	/**
+	 * Evicts the book, or a cached miss for its id, once the current transaction commits.
+	 */
+	public void evict(Long id) {
+		AfterCommit.run(() -> byId.invalidate(id));
+	}
+
+	public void clear() {
+		byId.invalidateAll();
+	}
+
+	public List<CacheStatsDTO> stats() {
+		return List.of(stats(BY_ID, byId));
+	}
+
+	private static CacheStatsDTO stats(String name, Cache<?, ?> cache) {
+		CacheStats stats = cache.stats();
+		long weightedSize = cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L);
+		return new CacheStatsDTO(name, cache.estimatedSize(), weightedSize, stats.hitCount(), stats.missCount(),
+				stats.hitRate(), stats.evictionCount());
+	}
+
+	private static int weigh(Optional<BookResponseDTO> book) {
+		return ENTRY_OVERHEAD + book.map(b -> 2 * (b.title().length() + b.author().length() + b.isbn().length()
+				+ b.genre().length())).orElse(0);
+	}
+
+	/**
+	 * Keeps found books for {@code ttl} and cached misses for {@code negativeTtl}.
+	 */
+	private record LookupExpiry<K>(Duration ttl, Duration negativeTtl) implements Expiry<K, Optional<BookResponseDTO>> {
+
+		@Override
+		public long expireAfterCreate(K key, Optional<BookResponseDTO> value, long currentTime) {
+			return (value.isPresent() ? ttl : negativeTtl).toNanos();
+		}
+
+		@Override
+		public long expireAfterUpdate(K key, Optional<BookResponseDTO> value, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(K key, Optional<BookResponseDTO> value, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
+}
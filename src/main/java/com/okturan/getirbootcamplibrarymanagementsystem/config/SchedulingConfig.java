@@ -0,0 +1,55 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Runs the periodic maintenance jobs, such as expiring uncollected holds. Tests switch it
+ * off so jobs never interleave with their transactions.
+ * <p>
+ * Most jobs share {@code taskScheduler}, sized by {@code spring.task.scheduling.*}.
+ * Jobs that must keep running while a nightly batch job holds that scheduler name a
+ * single-thread scheduler of their own, which also keeps their runs from overlapping.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "library.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+	/** Relays outbox events, whose lag would otherwise grow while a nightly job runs. */
+	public static final String OUTBOX_SCHEDULER = "outboxScheduler";
+
+	/** Refreshes the heartbeats of idempotency keys whose requests are being served. */
+	public static final String HEARTBEAT_SCHEDULER = "heartbeatScheduler";
+
+	/**
+	 * The shared scheduler Boot would otherwise configure; declared here because the
+	 * dedicated schedulers below would replace it.
+	 */
+	@Bean
+	public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+		return builder.build();
+	}
+
+	@Bean(OUTBOX_SCHEDULER)
+	public ThreadPoolTaskScheduler outboxScheduler() {
+		return singleThread("outbox-relay-");
+	}
+
+	@Bean(HEARTBEAT_SCHEDULER)
+	public ThreadPoolTaskScheduler heartbeatScheduler() {
+		return singleThread("idempotency-heartbeat-");
+	}
+
+	private static ThreadPoolTaskScheduler singleThread(String threadNamePrefix) {
+		ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setPoolSize(1);
+		scheduler.setThreadNamePrefix(threadNamePrefix);
+		return scheduler;
+	}
+
+}
@@ -1,6 +1,7 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.config;
 
 import com.okturan.getirbootcamplibrarymanagementsystem.security.*;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -62,6 +63,11 @@ public class SecurityConfig {
 		http.csrf(csrf -> csrf.disable()) // Disable CSRF for dev
 				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 				.authorizeHttpRequests(auth -> auth
+						// Async dispatches finish a response (export streams, SSE) whose
+						// request was already authorized; the JWT is not re-read for them
+						.dispatcherTypeMatchers(DispatcherType.ASYNC)
+						.permitAll()
+
 						// Public endpoints - grouped for easier maintenance
 						.requestMatchers(PUBLIC)
 						.permitAll() // Allow all public endpoints
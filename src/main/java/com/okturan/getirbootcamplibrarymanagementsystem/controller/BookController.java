@@ -1,7 +1,11 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.controller;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.ImportFormat;
 import com.okturan.getirbootcamplibrarymanagementsystem.controller.api.BookApi;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.*;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.BookImportService;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.BookService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +15,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +24,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/books")
 @RequiredArgsConstructor
@@ -27,6 +38,8 @@ public class BookController implements BookApi {
 
 	private final BookService bookService;
 
+	private final BookImportService bookImportService;
+
 	@Override
 	@PostMapping
 	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
@@ -55,6 +68,29 @@ public class BookController implements BookApi {
 		return ResponseEntity.ok(PageDTO.from(booksPage));
 	}
 
+	@Override
+	@GetMapping(params = { "count=none", "!cursor" })
+	public ResponseEntity<SliceDTO<BookResponseDTO>> getAllBooksSlice(
+			@ParameterObject @PageableDefault(size = 20, sort = "title", direction = Direction.ASC) Pageable pageable) {
+		return ResponseEntity.ok(SliceDTO.from(bookService.getAllBooksSlice(pageable)));
+	}
+
+	@Override
+	@GetMapping(params = { "count=approximate", "!cursor" })
+	public ResponseEntity<PageDTO<BookResponseDTO>> getAllBooksWithApproximateTotal(
+			@ParameterObject @PageableDefault(size = 20, sort = "title", direction = Direction.ASC) Pageable pageable) {
+		return ResponseEntity.ok(PageDTO.from(bookService.getAllBooksWithApproximateTotal(pageable)));
+	}
+
+	@Override
+	@GetMapping(params = "cursor")
+	public ResponseEntity<CursorPageDTO<BookResponseDTO>> getAllBooks(
+			@RequestParam String cursor,
+			@ParameterObject @PageableDefault(size = 20, sort = "title", direction = Direction.ASC) Pageable pageable) {
+		CursorRequest request = CursorRequest.of(cursor, pageable, Book.class);
+		return ResponseEntity.ok(CursorPageDTO.from(bookService.getAllBooks(request), request));
+	}
+
 	@GetMapping("/search")
 	public ResponseEntity<PageDTO<BookResponseDTO>> searchBooks(
 			@ModelAttribute BookSearchFilterDTO filter,
@@ -63,6 +99,78 @@ public class BookController implements BookApi {
 		return ResponseEntity.ok(PageDTO.from(booksPage));
 	}
 
+	@Override
+	@GetMapping(path = "/search", params = { "count=none", "!cursor" })
+	public ResponseEntity<SliceDTO<BookResponseDTO>> searchBooksSlice(
+			@ModelAttribute BookSearchFilterDTO filter,
+			@ParameterObject @PageableDefault(size = 20, sort = "title", direction = Direction.ASC) Pageable pageable) {
+		return ResponseEntity.ok(SliceDTO.from(bookService.searchSlice(filter, pageable)));
+	}
+
+	@Override
+	@GetMapping(path = "/search", params = { "count=approximate", "!cursor" })
+	public ResponseEntity<PageDTO<BookResponseDTO>> searchBooksWithApproximateTotal(
+			@ModelAttribute BookSearchFilterDTO filter,
+			@ParameterObject @PageableDefault(size = 20, sort = "title", direction = Direction.ASC) Pageable pageable) {
+		return ResponseEntity.ok(PageDTO.from(bookService.searchWithApproximateTotal(filter, pageable)));
+	}
+
+	@Override
+	@GetMapping(path = "/search", params = "cursor")
+	public ResponseEntity<CursorPageDTO<BookResponseDTO>> searchBooks(
+			@ModelAttribute BookSearchFilterDTO filter,
+			@RequestParam String cursor,
+			@ParameterObject @PageableDefault(size = 20, sort = "title", direction = Direction.ASC) Pageable pageable) {
+		CursorRequest request = CursorRequest.of(cursor, pageable, Book.class);
+		return ResponseEntity.ok(CursorPageDTO.from(bookService.search(filter, request), request));
+	}
+
+	@Override
+	@GetMapping("/facets")
+	public ResponseEntity<BookFacetsDTO> getFacets(@ModelAttribute BookSearchFilterDTO filter) {
+		return ResponseEntity.ok(bookService.getFacets(filter));
+	}
+
+	@Override
+	@PostMapping("/search/reindex")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<Void> rebuildSearchIndex() {
+		bookService.rebuildSearchIndex();
+		return ResponseEntity.noContent().build();
+	}
+
+	@Override
+	@GetMapping("/cache")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+		return ResponseEntity.ok(bookService.getCacheStats());
+	}
+
+	@Override
+	@DeleteMapping("/cache")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<Void> clearCache() {
+		bookService.clearCache();
+		return ResponseEntity.noContent().build();
+	}
+
+	@Override
+	@PostMapping(path = "/import", consumes = { "text/csv", MediaType.APPLICATION_NDJSON_VALUE })
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<ImportReportDTO> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+			InputStream body) {
+		MediaType mediaType = MediaType.parseMediaType(contentType);
+		Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+		return ResponseEntity.ok(bookImportService.importBooks(body, ImportFormat.of(mediaType), charset));
+	}
+
+	@Override
+	@GetMapping("/import/{jobId}")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<ImportReportDTO> getImportJob(@PathVariable UUID jobId) {
+		return ResponseEntity.ok(bookImportService.getImportJob(jobId));
+	}
+
 	@PutMapping("/{id}")
 	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
 	public ResponseEntity<BookResponseDTO> updateBook(
@@ -1,11 +1,17 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.controller;
 
 import com.okturan.getirbootcamplibrarymanagementsystem.controller.api.BorrowingApi;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationResultDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingHistoryDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.CursorPageDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.OverdueReportDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.PageDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.SliceDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.BorrowingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -37,15 +43,23 @@ public class BorrowingController implements BorrowingApi {
 
 	@Override
 	@PostMapping("/{borrowingId}/return")
-	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN') or @borrowingService.isOwner(#borrowingId, authentication.principal.username)")
+	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN') or @borrowingService.isOwner(#borrowingId, authentication.principal.id)")
 	public ResponseEntity<BorrowingResponseDTO> returnBook(@PathVariable Long borrowingId) {
 		BorrowingResponseDTO response = borrowingService.returnBook(borrowingId);
 		return ResponseEntity.ok(response);
 	}
 
+	@Override
+	@PostMapping("/batch")
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<BatchCirculationResultDTO> processBatch(
+			@Valid @RequestBody BatchCirculationRequestDTO request) {
+		return ResponseEntity.ok(borrowingService.processBatch(request));
+	}
+
 	@Override
 	@GetMapping("/{borrowingId}")
-	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN') or @borrowingService.isOwner(#borrowingId, authentication.principal.username)")
+	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN') or @borrowingService.isOwner(#borrowingId, authentication.principal.id)")
 	public ResponseEntity<BorrowingResponseDTO> getBorrowingById(@PathVariable Long borrowingId) {
 		BorrowingResponseDTO response = borrowingService.getBorrowingById(borrowingId);
 		return ResponseEntity.ok(response);
@@ -59,6 +73,32 @@ public class BorrowingController implements BorrowingApi {
 		return ResponseEntity.ok(response);
 	}
 
+	@Override
+	@GetMapping(path = "/history", params = { "count=none", "!cursor" })
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<SliceDTO<BorrowingResponseDTO>> getCurrentUserBorrowingsSlice(
+			@ParameterObject @PageableDefault(sort = "borrowDate", direction = Direction.DESC, size = 10) Pageable pageable) {
+		return ResponseEntity.ok(SliceDTO.from(borrowingService.getCurrentUserBorrowingsSlice(pageable)));
+	}
+
+	@Override
+	@GetMapping(path = "/history", params = { "count=approximate", "!cursor" })
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<BorrowingHistoryDTO> getCurrentUserBorrowingHistoryWithApproximateTotals(
+			@ParameterObject @PageableDefault(sort = "borrowDate", direction = Direction.DESC, size = 10) Pageable pageable) {
+		return ResponseEntity.ok(borrowingService.getCurrentUserBorrowingHistoryWithApproximateTotals(pageable));
+	}
+
+	@Override
+	@GetMapping(path = "/history", params = "cursor")
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<CursorPageDTO<BorrowingResponseDTO>> getCurrentUserBorrowingHistory(
+			@RequestParam String cursor,
+			@ParameterObject @PageableDefault(sort = "borrowDate", direction = Direction.DESC, size = 10) Pageable pageable) {
+		CursorRequest request = CursorRequest.of(cursor, pageable, Borrowing.class);
+		return ResponseEntity.ok(CursorPageDTO.from(borrowingService.getCurrentUserBorrowings(request), request));
+	}
+
 	@Override
 	@GetMapping("/users/{userId}/history")
 	@PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
@@ -69,6 +109,17 @@ public class BorrowingController implements BorrowingApi {
 		return ResponseEntity.ok(response);
 	}
 
+	@Override
+	@GetMapping(path = "/users/{userId}/history", params = "cursor")
+	@PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
+	public ResponseEntity<CursorPageDTO<BorrowingResponseDTO>> getUserBorrowingHistory(
+			@RequestParam String cursor,
+			@ParameterObject @PageableDefault(sort = "borrowDate", direction = Direction.DESC, size = 10) Pageable pageable,
+			@PathVariable Long userId) {
+		CursorRequest request = CursorRequest.of(cursor, pageable, Borrowing.class);
+		return ResponseEntity.ok(CursorPageDTO.from(borrowingService.getUserBorrowings(userId, request), request));
+	}
+
 	@GetMapping("/active")
 	@PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
 	public ResponseEntity<PageDTO<BorrowingResponseDTO>> getAllActiveBorrowings(
@@ -77,6 +128,16 @@ public class BorrowingController implements BorrowingApi {
 		return ResponseEntity.ok(PageDTO.from(page));
 	}
 
+	@Override
+	@GetMapping(path = "/active", params = "cursor")
+	@PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
+	public ResponseEntity<CursorPageDTO<BorrowingResponseDTO>> getAllActiveBorrowings(
+			@RequestParam String cursor,
+			@ParameterObject @PageableDefault(sort = "borrowDate", direction = Direction.DESC, size = 20) Pageable pageable) {
+		CursorRequest request = CursorRequest.of(cursor, pageable, Borrowing.class);
+		return ResponseEntity.ok(CursorPageDTO.from(borrowingService.getAllActiveBorrowings(request), request));
+	}
+
 	@Override
 	@GetMapping("/overdue")
 	@PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
@@ -86,6 +147,16 @@ public class BorrowingController implements BorrowingApi {
 		return ResponseEntity.ok(PageDTO.from(page));
 	}
 
+	@Override
+	@GetMapping(path = "/overdue", params = "cursor")
+	@PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
+	public ResponseEntity<CursorPageDTO<BorrowingResponseDTO>> getAllOverdueBorrowings(
+			@RequestParam String cursor,
+			@ParameterObject @PageableDefault(sort = "borrowDate", direction = Direction.DESC, size = 20) Pageable pageable) {
+		CursorRequest request = CursorRequest.of(cursor, pageable, Borrowing.class);
+		return ResponseEntity.ok(CursorPageDTO.from(borrowingService.getAllOverdueBorrowings(request), request));
+	}
+
 	@Override
 	@GetMapping("/reports/overdue")
 	@PreAuthorize("hasAnyRole('LIBRARIAN', 'ADMIN')")
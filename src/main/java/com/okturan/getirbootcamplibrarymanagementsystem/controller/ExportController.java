@@ -0,0 +1,53 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.controller;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.controller.api.ExportApi;
+import com.okturan.getirbootcamplibrarymanagementsystem.export.ExportFormat;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Streams exports on an MVC async thread, so the request thread is released and the
+ * service transaction, with its connection, lasts only as long as the writing.
+ */
+@RestController
+@RequestMapping("/api/export")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class ExportController implements ExportApi {
+
+	private final ExportService exportService;
+
+	@Override
+	@GetMapping("/books")
+	public ResponseEntity<StreamingResponseBody> exportBooks(
+			@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+		return format.attachment("books", out -> exportService.exportBooks(format, out));
+	}
+
+	@Override
+	@GetMapping("/users")
+	public ResponseEntity<StreamingResponseBody> exportUsers(
+			@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+		return format.attachment("users", out -> exportService.exportUsers(format, out));
+	}
+
+	@Override
+	@GetMapping("/borrowings")
+	public ResponseEntity<StreamingResponseBody> exportBorrowings(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since,
+			@RequestParam(required = false) Boolean returned,
+			@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+		return format.attachment("borrowings", out -> exportService.exportBorrowings(since, returned, format, out));
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.controller;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.controller.api.FineApi;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineBalanceDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineRunDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.FineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/fines")
+@RequiredArgsConstructor
+public class FineController implements FineApi {
+
+	private final FineService fineService;
+
+	@Override
+	@GetMapping("/me/balance")
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<FineBalanceDTO> getCurrentUserBalance() {
+		return ResponseEntity.ok(fineService.getCurrentUserBalance());
+	}
+
+	@Override
+	@GetMapping("/users/{userId}/balance")
+	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
+	public ResponseEntity<FineBalanceDTO> getUserBalance(@PathVariable Long userId) {
+		return ResponseEntity.ok(fineService.getUserBalance(userId));
+	}
+
+	@Override
+	@PostMapping("/runs")
+	@PreAuthorize("hasRole('ADMIN')")
+	public ResponseEntity<FineRunDTO> assessFines(
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+		return ResponseEntity.ok(fineService.assessFines(date != null ? date : LocalDate.now()));
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.controller;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.controller.api.HoldApi;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.HoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/holds")
+@RequiredArgsConstructor
+public class HoldController implements HoldApi {
+
+	private final HoldService holdService;
+
+	@Override
+	@PostMapping
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<HoldResponseDTO> placeHold(@Valid @RequestBody HoldRequestDTO holdRequestDTO) {
+		return new ResponseEntity<>(holdService.placeHold(holdRequestDTO), HttpStatus.CREATED);
+	}
+
+	@Override
+	@GetMapping("/me")
+	@PreAuthorize("isAuthenticated()")
+	public ResponseEntity<List<HoldResponseDTO>> getCurrentUserHolds() {
+		return ResponseEntity.ok(holdService.getCurrentUserHolds());
+	}
+
+	@Override
+	@GetMapping("/{holdId}")
+	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN') or @holdService.isOwner(#holdId, authentication.principal.id)")
+	public ResponseEntity<HoldResponseDTO> getHold(@PathVariable Long holdId) {
+		return ResponseEntity.ok(holdService.getHold(holdId));
+	}
+
+	@Override
+	@DeleteMapping("/{holdId}")
+	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN') or @holdService.isOwner(#holdId, authentication.principal.id)")
+	public ResponseEntity<Void> cancelHold(@PathVariable Long holdId) {
+		holdService.cancelHold(holdId);
+		return ResponseEntity.noContent().build();
+	}
+
+}
@@ -2,9 +2,12 @@ package com.okturan.getirbootcamplibrarymanagementsystem.controller;
 
 import com.okturan.getirbootcamplibrarymanagementsystem.controller.api.UserApi;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.AdminUserUpdateDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.CursorPageDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.PageDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserDetailsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserUpdateDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -56,6 +59,16 @@ public class UserController implements UserApi {
 		return ResponseEntity.ok(pageDTO);
 	}
 
+	@Override
+	@GetMapping(params = "cursor")
+	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
+	public ResponseEntity<CursorPageDTO<UserDetailsDTO>> getAllUsers(
+			@RequestParam String cursor,
+			@ParameterObject @PageableDefault(size = 20, sort = "id", direction = Direction.ASC) Pageable pageable) {
+		CursorRequest request = CursorRequest.of(cursor, pageable, User.class);
+		return ResponseEntity.ok(CursorPageDTO.from(userService.getAllUsers(request), request));
+	}
+
 	@Override
 	@GetMapping("/{id}")
 	@PreAuthorize("hasAnyRole('ADMIN', 'LIBRARIAN')")
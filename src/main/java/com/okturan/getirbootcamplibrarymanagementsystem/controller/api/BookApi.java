@@ -12,6 +12,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Flux;
 
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
 @Tag(name = "Book Management", description = "Operations for managing books in the library system")
 public interface BookApi {
 
@@ -43,9 +47,78 @@ public interface BookApi {
 					schema = @Schema(implementation = BookResponseDTO.class)))
 	ResponseEntity<PageDTO<BookResponseDTO>> getAllBooks(Pageable pageable);
 
-	@Operation(summary = "Search books by any combination of filters")
+	@Operation(summary = "Get all books without a total",
+			description = "Selected with count=none. Returns only whether a next page exists, which saves the count query")
+	@ApiResponse(responseCode = "200", description = "Slice of books retrieved successfully")
+	ResponseEntity<SliceDTO<BookResponseDTO>> getAllBooksSlice(Pageable pageable);
+
+	@Operation(summary = "Get all books with an approximate total",
+			description = "Selected with count=approximate. The totals may lag recent catalog changes")
+	@ApiResponse(responseCode = "200", description = "Page of books retrieved successfully")
+	ResponseEntity<PageDTO<BookResponseDTO>> getAllBooksWithApproximateTotal(Pageable pageable);
+
+	@Operation(summary = "Get all books by cursor",
+			description = "Keyset-paginated variant of the book list. Pass an empty cursor for the first page and the returned nextCursor for the following ones")
+	@ApiResponse(responseCode = "200", description = "Page of books retrieved successfully")
+	@ApiResponse(responseCode = "400", description = "Invalid cursor")
+	ResponseEntity<CursorPageDTO<BookResponseDTO>> getAllBooks(String cursor, Pageable pageable);
+
+	@Operation(summary = "Search books by any combination of filters",
+			description = "When the search engine is enabled, title and author searches are ranked by relevance and the sort parameter is ignored")
 	ResponseEntity<PageDTO<BookResponseDTO>> searchBooks(BookSearchFilterDTO filter, Pageable pageable);
 
+	@Operation(summary = "Search books without a total",
+			description = "Selected with count=none. Returns only whether a next page exists, which saves the count query")
+	@ApiResponse(responseCode = "200", description = "Slice of books retrieved successfully")
+	ResponseEntity<SliceDTO<BookResponseDTO>> searchBooksSlice(BookSearchFilterDTO filter, Pageable pageable);
+
+	@Operation(summary = "Search books with an approximate total",
+			description = "Selected with count=approximate. The totals may lag recent catalog changes")
+	@ApiResponse(responseCode = "200", description = "Page of books retrieved successfully")
+	ResponseEntity<PageDTO<BookResponseDTO>> searchBooksWithApproximateTotal(BookSearchFilterDTO filter,
+			Pageable pageable);
+
+	@Operation(summary = "Search books by cursor",
+			description = "Keyset-paginated variant of the book search. Results follow the requested sort rather than relevance")
+	@ApiResponse(responseCode = "200", description = "Page of books retrieved successfully")
+	@ApiResponse(responseCode = "400", description = "Invalid cursor")
+	ResponseEntity<CursorPageDTO<BookResponseDTO>> searchBooks(BookSearchFilterDTO filter, String cursor,
+			Pageable pageable);
+
+	@Operation(summary = "Count books per genre and author",
+			description = "Returns available and total counts per genre and per author for the books matching the filter. Served from in-memory counters unless a title is given")
+	@ApiResponse(responseCode = "200", description = "Facet counts retrieved successfully",
+			content = @Content(mediaType = "application/json",
+					schema = @Schema(implementation = BookFacetsDTO.class)))
+	ResponseEntity<BookFacetsDTO> getFacets(BookSearchFilterDTO filter);
+
+	@Operation(summary = "Rebuild the search index",
+			description = "Rebuilds the in-memory search index from the database and swaps it in without interrupting searches")
+	@ApiResponse(responseCode = "204", description = "Index rebuilt")
+	@ApiResponse(responseCode = "400", description = "A rebuild is already running")
+	ResponseEntity<Void> rebuildSearchIndex();
+
+	@Operation(summary = "Inspect the book cache", description = "Returns hit, miss and eviction statistics (admin only)")
+	@ApiResponse(responseCode = "200", description = "Cache statistics retrieved")
+	ResponseEntity<List<CacheStatsDTO>> getCacheStats();
+
+	@Operation(summary = "Clear the book cache", description = "Drops every cached book lookup (admin only)")
+	@ApiResponse(responseCode = "204", description = "Cache cleared")
+	ResponseEntity<Void> clearCache();
+
+	@Operation(summary = "Import books in bulk",
+			description = "Streams a CSV (text/csv, with a header row) or NDJSON (application/x-ndjson) body and upserts the books by ISBN in batches. Invalid or repeated records are listed in the report instead of failing the import (admin only)")
+	@ApiResponse(responseCode = "200", description = "Import finished; see the report for rejected records",
+			content = @Content(mediaType = "application/json",
+					schema = @Schema(implementation = ImportReportDTO.class)))
+	@ApiResponse(responseCode = "400", description = "Unsupported content type or unusable body")
+	ResponseEntity<ImportReportDTO> importBooks(String contentType, InputStream body);
+
+	@Operation(summary = "Get an import job", description = "Returns the progress of a running import or the report of a recent one (admin only)")
+	@ApiResponse(responseCode = "200", description = "Import job found")
+	@ApiResponse(responseCode = "404", description = "Import job not found")
+	ResponseEntity<ImportReportDTO> getImportJob(UUID jobId);
+
 	@Operation(summary = "Update a book", description = "Updates an existing book by its ID")
 	@ApiResponse(responseCode = "200", description = "Book updated successfully",
 			content = @Content(mediaType = "application/json",
@@ -1,11 +1,17 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.controller.api;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationResultDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingHistoryDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.CursorPageDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.OverdueReportDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.PageDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.SliceDTO;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,13 +22,18 @@ import org.springframework.http.ResponseEntity;
 @Tag(name = "Borrowing", description = "Borrowing management APIs")
 public interface BorrowingApi {
 
+	String IDEMPOTENCY_KEY = "Optional client-chosen key; retries with the same key replay the first response "
+			+ "instead of running again";
+
 	@Operation(summary = "Borrow a book", description = "Borrow a book for the current user")
 	@ApiResponse(responseCode = "201", description = "Book borrowed successfully",
 			content = @Content(mediaType = "application/json",
 					schema = @Schema(implementation = BorrowingResponseDTO.class)))
 	@ApiResponse(responseCode = "400", description = "Invalid input")
 	@ApiResponse(responseCode = "404", description = "Book not found")
-	@ApiResponse(responseCode = "409", description = "Book not available")
+	@ApiResponse(responseCode = "409", description = "Book not available, or a retry of a request still in progress")
+	@ApiResponse(responseCode = "422", description = "Idempotency key already used for a different request")
+	@Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = IDEMPOTENCY_KEY)
 	ResponseEntity<BorrowingResponseDTO> borrowBook(BorrowingRequestDTO borrowingRequestDTO);
 
 	@Operation(summary = "Return a book", description = "Return a borrowed book")
@@ -32,8 +43,22 @@ public interface BorrowingApi {
 	@ApiResponse(responseCode = "404", description = "Borrowing not found")
 	@ApiResponse(responseCode = "400", description = "Book already returned")
 	@ApiResponse(responseCode = "403", description = "Not authorized to return this book")
+	@ApiResponse(responseCode = "409", description = "Retry of a request still in progress")
+	@ApiResponse(responseCode = "422", description = "Idempotency key already used for a different request")
+	@Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, description = IDEMPOTENCY_KEY)
 	ResponseEntity<BorrowingResponseDTO> returnBook(Long borrowingId);
 
+	@Operation(summary = "Check out and return several items",
+			description = "Returns and then borrows many items for one patron in a single transaction. Each item "
+					+ "gets its own outcome; items that fail do not roll back the rest")
+	@ApiResponse(responseCode = "200", description = "Batch processed; see the per-item statuses",
+			content = @Content(mediaType = "application/json",
+					schema = @Schema(implementation = BatchCirculationResultDTO.class)))
+	@ApiResponse(responseCode = "400", description = "Invalid input or empty batch")
+	@ApiResponse(responseCode = "403", description = "Not authorized to act for this user")
+	@ApiResponse(responseCode = "404", description = "User not found")
+	ResponseEntity<BatchCirculationResultDTO> processBatch(BatchCirculationRequestDTO request);
+
 	@Operation(summary = "Get borrowing by ID", description = "Get a borrowing by its ID")
 	@ApiResponse(responseCode = "200", description = "Borrowing found",
 			content = @Content(mediaType = "application/json",
@@ -70,6 +95,44 @@ public interface BorrowingApi {
 	@ApiResponse(responseCode = "403", description = "Not authorized to view overdue borrowings")
 	ResponseEntity<PageDTO<BorrowingResponseDTO>> getAllOverdueBorrowings(Pageable pageable);
 
+	@Operation(summary = "Get current user's borrowings without totals",
+			description = "Selected with count=none. Returns only whether a next page exists and no summary counts")
+	@ApiResponse(responseCode = "200", description = "Borrowings retrieved")
+	ResponseEntity<SliceDTO<BorrowingResponseDTO>> getCurrentUserBorrowingsSlice(Pageable pageable);
+
+	@Operation(summary = "Get current user's borrowing history with approximate totals",
+			description = "Selected with count=approximate. The page total and summary counts may lag recent borrows and returns")
+	@ApiResponse(responseCode = "200", description = "Borrowing history retrieved",
+			content = @Content(mediaType = "application/json",
+					schema = @Schema(implementation = BorrowingHistoryDTO.class)))
+	ResponseEntity<BorrowingHistoryDTO> getCurrentUserBorrowingHistoryWithApproximateTotals(Pageable pageable);
+
+	@Operation(summary = "Get current user's borrowings by cursor",
+			description = "Keyset-paginated borrowings of the current user, without the summary counts")
+	@ApiResponse(responseCode = "200", description = "Borrowings retrieved")
+	@ApiResponse(responseCode = "400", description = "Invalid cursor")
+	ResponseEntity<CursorPageDTO<BorrowingResponseDTO>> getCurrentUserBorrowingHistory(String cursor, Pageable pageable);
+
+	@Operation(summary = "Get user's borrowings by cursor",
+			description = "Keyset-paginated borrowings of a specific user, without the summary counts (librarians and admins only)")
+	@ApiResponse(responseCode = "200", description = "Borrowings retrieved")
+	@ApiResponse(responseCode = "400", description = "Invalid cursor")
+	@ApiResponse(responseCode = "404", description = "User not found")
+	ResponseEntity<CursorPageDTO<BorrowingResponseDTO>> getUserBorrowingHistory(String cursor, Pageable pageable,
+			Long userId);
+
+	@Operation(summary = "Get active borrowings by cursor",
+			description = "Keyset-paginated variant of the active borrowings list (librarians and admins only)")
+	@ApiResponse(responseCode = "200", description = "Active borrowings retrieved")
+	@ApiResponse(responseCode = "400", description = "Invalid cursor")
+	ResponseEntity<CursorPageDTO<BorrowingResponseDTO>> getAllActiveBorrowings(String cursor, Pageable pageable);
+
+	@Operation(summary = "Get overdue borrowings by cursor",
+			description = "Keyset-paginated variant of the overdue borrowings list (librarians and admins only)")
+	@ApiResponse(responseCode = "200", description = "Overdue borrowings retrieved")
+	@ApiResponse(responseCode = "400", description = "Invalid cursor")
+	ResponseEntity<CursorPageDTO<BorrowingResponseDTO>> getAllOverdueBorrowings(String cursor, Pageable pageable);
+
 	@Operation(summary = "Generate overdue books report",
 			description = "Generate a comprehensive report of all overdue books (librarians only)")
 	@ApiResponse(responseCode = "200", description = "Overdue books report generated")
@@ -0,0 +1,35 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.controller.api;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.export.ExportFormat;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@Tag(name = "Data Export", description = "Streaming full-table exports for data warehouse syncs (admin only)")
+public interface ExportApi {
+
+	@Operation(summary = "Export all books", description = "Streams every book in id order as NDJSON or CSV")
+	@ApiResponse(responseCode = "200", description = "Export streamed")
+	ResponseEntity<StreamingResponseBody> exportBooks(
+			@Parameter(description = "Output format", example = "NDJSON") ExportFormat format);
+
+	@Operation(summary = "Export all users",
+			description = "Streams every user in id order as NDJSON or CSV. Passwords are never exported")
+	@ApiResponse(responseCode = "200", description = "Export streamed")
+	ResponseEntity<StreamingResponseBody> exportUsers(
+			@Parameter(description = "Output format", example = "NDJSON") ExportFormat format);
+
+	@Operation(summary = "Export borrowings", description = "Streams borrowings in id order as NDJSON or CSV")
+	@ApiResponse(responseCode = "200", description = "Export streamed")
+	ResponseEntity<StreamingResponseBody> exportBorrowings(
+			@Parameter(description = "Only borrowings lent or returned on or after this date",
+					example = "2024-01-31") LocalDate since,
+			@Parameter(description = "Only returned (true) or only active (false) borrowings") Boolean returned,
+			@Parameter(description = "Output format", example = "NDJSON") ExportFormat format);
+
+}
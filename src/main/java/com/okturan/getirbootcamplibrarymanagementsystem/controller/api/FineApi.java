@@ -0,0 +1,36 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.controller.api;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineBalanceDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineRunDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+
+@Tag(name = "Fines", description = "Late fee APIs")
+public interface FineApi {
+
+	@Operation(summary = "Get current user's fee balance", description = "Sum of the late fees assessed so far")
+	@ApiResponse(responseCode = "200", description = "Balance retrieved",
+			content = @Content(mediaType = "application/json", schema = @Schema(implementation = FineBalanceDTO.class)))
+	ResponseEntity<FineBalanceDTO> getCurrentUserBalance();
+
+	@Operation(summary = "Get a patron's fee balance", description = "Sum of a patron's late fees (admin/librarian only)")
+	@ApiResponse(responseCode = "200", description = "Balance retrieved",
+			content = @Content(mediaType = "application/json", schema = @Schema(implementation = FineBalanceDTO.class)))
+	@ApiResponse(responseCode = "404", description = "User not found")
+	ResponseEntity<FineBalanceDTO> getUserBalance(Long userId);
+
+	@Operation(summary = "Assess late fees",
+			description = "Runs the nightly fee assessment through the given day, today by default, resuming it "
+					+ "from its checkpoint if it was interrupted (admin only)")
+	@ApiResponse(responseCode = "200", description = "Run completed or already complete",
+			content = @Content(mediaType = "application/json", schema = @Schema(implementation = FineRunDTO.class)))
+	@ApiResponse(responseCode = "400", description = "Fees are already assessed past the given day")
+	ResponseEntity<FineRunDTO> assessFines(LocalDate date);
+
+}
@@ -0,0 +1,46 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.controller.api;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldResponseDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+@Tag(name = "Holds", description = "Hold queue APIs")
+public interface HoldApi {
+
+	@Operation(summary = "Place a hold",
+			description = "Queue for a book with no copy on the shelf. The next returned copy is set aside for the "
+					+ "head of the queue until its pickup deadline")
+	@ApiResponse(responseCode = "201", description = "Hold placed",
+			content = @Content(mediaType = "application/json", schema = @Schema(implementation = HoldResponseDTO.class)))
+	@ApiResponse(responseCode = "400", description = "Invalid input, book on the shelf or hold already placed")
+	@ApiResponse(responseCode = "403", description = "Not authorized to place holds for this user")
+	@ApiResponse(responseCode = "404", description = "Book or user not found")
+	ResponseEntity<HoldResponseDTO> placeHold(HoldRequestDTO holdRequestDTO);
+
+	@Operation(summary = "Get current user's holds", description = "Waiting and ready holds with queue positions")
+	@ApiResponse(responseCode = "200", description = "Holds retrieved")
+	ResponseEntity<List<HoldResponseDTO>> getCurrentUserHolds();
+
+	@Operation(summary = "Get hold by ID", description = "Get a hold and its current queue position")
+	@ApiResponse(responseCode = "200", description = "Hold found",
+			content = @Content(mediaType = "application/json", schema = @Schema(implementation = HoldResponseDTO.class)))
+	@ApiResponse(responseCode = "403", description = "Not authorized to view this hold")
+	@ApiResponse(responseCode = "404", description = "Hold not found")
+	ResponseEntity<HoldResponseDTO> getHold(Long holdId);
+
+	@Operation(summary = "Cancel a hold",
+			description = "Leave the queue. A copy set aside for the hold passes to the next patron in line")
+	@ApiResponse(responseCode = "204", description = "Hold cancelled")
+	@ApiResponse(responseCode = "400", description = "Hold no longer open")
+	@ApiResponse(responseCode = "403", description = "Not authorized to cancel this hold")
+	@ApiResponse(responseCode = "404", description = "Hold not found")
+	ResponseEntity<Void> cancelHold(Long holdId);
+
+}
@@ -1,6 +1,7 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.controller.api;
 
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.AdminUserUpdateDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.CursorPageDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.PageDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserDetailsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserUpdateDTO;
@@ -39,6 +40,12 @@ public interface UserApi {
 			content = @Content(mediaType = "application/json", schema = @Schema(implementation = PageDTO.class)))
 	ResponseEntity<PageDTO<UserDetailsDTO>> getAllUsers(Pageable pageable);
 
+	@Operation(summary = "Get all users by cursor",
+			description = "Keyset-paginated variant of the user list. Pass an empty cursor for the first page and the returned nextCursor for the following ones")
+	@ApiResponse(responseCode = "200", description = "Users retrieved successfully")
+	@ApiResponse(responseCode = "400", description = "Invalid cursor")
+	ResponseEntity<CursorPageDTO<UserDetailsDTO>> getAllUsers(String cursor, Pageable pageable);
+
 	@Operation(summary = "Get user by ID", description = "Returns a user by ID (admin/librarian only)")
 	@ApiResponse(responseCode = "200", description = "User retrieved successfully",
 			content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDetailsDTO.class)))
@@ -0,0 +1,28 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Request object for checking out and returning several items in one transaction")
+public record BatchCirculationRequestDTO(
+		@Schema(description = "ID of the patron at the desk. Optional for patrons (who act for themselves), but required for admins and librarians when the batch borrows anything.", example = "5", required = false)
+		Long userId,
+
+		@Schema(description = "IDs of the books to borrow; repeat an ID to borrow several copies", example = "[1, 2, 3]")
+		@Size(max = 50, message = "At most 50 books can be borrowed in one batch")
+		List<@NotNull(message = "Book ID is required") @Positive(message = "Book ID must be positive") Long> borrowBookIds,
+
+		@Schema(description = "IDs of the borrowings to return", example = "[10, 11]")
+		@Size(max = 50, message = "At most 50 borrowings can be returned in one batch")
+		List<@NotNull(message = "Borrowing ID is required") @Positive(message = "Borrowing ID must be positive") Long> returnBorrowingIds) {
+
+	public BatchCirculationRequestDTO {
+		borrowBookIds = borrowBookIds == null ? List.of() : borrowBookIds;
+		returnBorrowingIds = returnBorrowingIds == null ? List.of() : returnBorrowingIds;
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Per-item outcomes of a batch, in request order")
+public record BatchCirculationResultDTO(
+		@Schema(description = "One result per requested book")
+		List<BatchItemResultDTO> borrowed,
+
+		@Schema(description = "One result per requested borrowing")
+		List<BatchItemResultDTO> returned) {
+}
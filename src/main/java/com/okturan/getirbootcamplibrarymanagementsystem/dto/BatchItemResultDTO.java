@@ -0,0 +1,31 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Outcome of one item of a batch checkout or return")
+public record BatchItemResultDTO(
+		@Schema(description = "ID of the book, when known", example = "1")
+		Long bookId,
+
+		@Schema(description = "ID of the borrowing created or returned, when there is one", example = "10")
+		Long borrowingId,
+
+		@Schema(description = "What happened to the item", example = "BORROWED")
+		Status status,
+
+		@Schema(description = "Due date of a new borrowing", example = "2023-05-29")
+		LocalDate dueDate) {
+
+	public enum Status {
+
+		BORROWED, RETURNED, NOT_FOUND, NOT_AVAILABLE, ALREADY_RETURNED, FORBIDDEN, LIMIT_REACHED
+
+	}
+
+	public static BatchItemResultDTO failed(Long bookId, Long borrowingId, Status status) {
+		return new BatchItemResultDTO(bookId, borrowingId, status, null);
+	}
+
+}
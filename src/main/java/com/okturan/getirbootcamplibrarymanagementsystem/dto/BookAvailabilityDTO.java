@@ -13,9 +13,15 @@ public record BookAvailabilityDTO(
 		@Schema(description = "ISBN of the book", example = "978-3-16-148410-0")
 		String isbn,
 
-		@Schema(description = "Availability status of the book", example = "true")
+		@Schema(description = "Whether at least one copy is on the shelf", example = "true")
 		boolean available,
 
+		@Schema(description = "Copies the library owns", example = "5")
+		int totalCopies,
+
+		@Schema(description = "Copies currently on the shelf", example = "3")
+		int availableCopies,
+
 		@Schema(description = "Timestamp of the availability update", example = "2023-05-15T14:30:45.123Z")
 		String timestamp) {
 }
@@ -0,0 +1,11 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the book export. Built by a JPQL constructor expression so streamed rows
+ * never become managed entities.
+ */
+public record BookExportDTO(Long id, String title, String author, String isbn, LocalDate publicationDate,
+		String genre, int totalCopies, int availableCopies) {
+}
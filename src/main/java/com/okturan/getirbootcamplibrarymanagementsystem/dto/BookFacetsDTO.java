@@ -0,0 +1,11 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Per-genre and per-author book counts for the books matching a search filter")
+public record BookFacetsDTO(@Schema(description = "Counts per genre, largest first") List<FacetCountDTO> genres,
+
+		@Schema(description = "Counts per author, largest first") List<FacetCountDTO> authors) {
+}
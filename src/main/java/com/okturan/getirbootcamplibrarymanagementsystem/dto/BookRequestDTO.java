@@ -2,6 +2,8 @@ package com.okturan.getirbootcamplibrarymanagementsystem.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import org.hibernate.validator.constraints.ISBN;
@@ -23,5 +25,14 @@ public record BookRequestDTO(@Schema(description = "Title of the book", example
 				example = "2020-01-01") @NotNull(message = "Publication date is required") LocalDate publicationDate,
 
 		@Schema(description = "Genre of the book", example = "Fiction") @NotBlank(message = "Genre is required") @Size(
-				max = 100, message = "Genre cannot exceed 100 characters") String genre) {
+				max = 100, message = "Genre cannot exceed 100 characters") String genre,
+
+		@Schema(description = "Copies the library owns; defaults to 1 on create and is left unchanged on update "
+				+ "when omitted", example = "5") @Min(value = 1, message = "A book needs at least one copy") @Max(
+						value = 10_000, message = "Total copies cannot exceed 10000") Integer totalCopies) {
+
+	public BookRequestDTO(String title, String author, String isbn, LocalDate publicationDate, String genre) {
+		this(title, author, isbn, publicationDate, genre, null);
+	}
+
 }
@@ -17,5 +17,9 @@ public record BookResponseDTO(@Schema(description = "Unique identifier of the bo
 
 		@Schema(description = "Genre of the book", example = "Fiction") String genre,
 
-		@Schema(description = "Availability status of the book", example = "true") boolean available) {
+		@Schema(description = "Whether at least one copy is on the shelf", example = "true") boolean available,
+
+		@Schema(description = "Copies the library owns", example = "5") int totalCopies,
+
+		@Schema(description = "Copies currently on the shelf", example = "3") int availableCopies) {
 }
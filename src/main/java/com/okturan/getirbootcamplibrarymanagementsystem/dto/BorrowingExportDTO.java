@@ -0,0 +1,10 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the borrowing export, referencing the user and book by id.
+ */
+public record BorrowingExportDTO(Long id, Long userId, Long bookId, LocalDate borrowDate, LocalDate dueDate,
+		LocalDate returnDate, boolean returned) {
+}
@@ -0,0 +1,19 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Usage statistics of one in-process cache")
+public record CacheStatsDTO(@Schema(description = "Cache name", example = "books-by-id") String name,
+
+		@Schema(description = "Approximate number of entries, including cached misses", example = "1200") long entries,
+
+		@Schema(description = "Approximate memory held by the entries, in bytes", example = "350000") long weightedSize,
+
+		@Schema(description = "Lookups answered from the cache", example = "98000") long hitCount,
+
+		@Schema(description = "Lookups that had to load from the database", example = "2000") long missCount,
+
+		@Schema(description = "Share of lookups answered from the cache", example = "0.98") double hitRate,
+
+		@Schema(description = "Entries removed for size or age", example = "15") long evictionCount) {
+}
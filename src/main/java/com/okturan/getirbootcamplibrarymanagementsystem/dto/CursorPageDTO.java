@@ -0,0 +1,25 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorCodec;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated counterpart of {@link PageDTO}. There is no total count; pass
+ * {@code nextCursor} back as {@code cursor} to fetch the following page.
+ */
+public record CursorPageDTO<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+
+	public static <T> CursorPageDTO<T> from(Window<T> window, CursorRequest request) {
+		String nextCursor = null;
+		if (window.hasNext() && !window.isEmpty()) {
+			KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+			nextCursor = CursorCodec.encode(last, request.sort());
+		}
+		return new CursorPageDTO<>(window.getContent(), request.size(), window.hasNext(), nextCursor);
+	}
+
+}
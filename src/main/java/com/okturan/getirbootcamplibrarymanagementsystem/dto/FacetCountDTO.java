@@ -0,0 +1,11 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Number of books sharing one facet value")
+public record FacetCountDTO(@Schema(description = "Facet value", example = "Fiction") String value,
+
+		@Schema(description = "Books with this value that are on the shelf", example = "12") long available,
+
+		@Schema(description = "All books with this value", example = "15") long total) {
+}
@@ -0,0 +1,14 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "A patron's outstanding late fees")
+public record FineBalanceDTO(
+		@Schema(description = "ID of the patron", example = "5")
+		Long userId,
+
+		@Schema(description = "Sum of the fees assessed so far", example = "3.75")
+		BigDecimal balance) {
+}
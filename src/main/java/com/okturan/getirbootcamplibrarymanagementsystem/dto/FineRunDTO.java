@@ -0,0 +1,35 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Schema(description = "A nightly late-fee assessment")
+public record FineRunDTO(
+		@Schema(description = "Day the run charges fees through", example = "2025-05-20")
+		LocalDate runDate,
+
+		@Schema(description = "Previous completed run; null if this run charges from each due date")
+		LocalDate chargedSince,
+
+		@Schema(description = "State of the run", example = "COMPLETED")
+		FineRunStatus status,
+
+		@Schema(description = "Checkpoint: the last borrowing id the run has committed", example = "120000")
+		long lastBorrowingId,
+
+		@Schema(description = "Ledger entries written", example = "842")
+		long entries,
+
+		@Schema(description = "Sum of the fees charged", example = "210.50")
+		BigDecimal totalAmount,
+
+		@Schema(description = "When the run started")
+		LocalDateTime startedAt,
+
+		@Schema(description = "When the run completed; null while running")
+		LocalDateTime finishedAt) {
+}
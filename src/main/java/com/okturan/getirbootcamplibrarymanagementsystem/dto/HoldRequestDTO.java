@@ -0,0 +1,16 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+@Schema(description = "Request object for placing a hold on a book")
+public record HoldRequestDTO(
+		@Schema(description = "ID of the book to queue for", example = "1", required = true)
+		@NotNull(message = "Book ID is required")
+		@Positive(message = "Book ID must be positive")
+		Long bookId,
+
+		@Schema(description = "ID of the patron the hold is for. Optional for patrons (who queue for themselves), but required for admins and librarians.", example = "5", required = false)
+		Long userId) {
+}
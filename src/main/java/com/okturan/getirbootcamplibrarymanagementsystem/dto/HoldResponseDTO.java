@@ -0,0 +1,33 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "A patron's hold on a book")
+public record HoldResponseDTO(
+		@Schema(description = "Unique identifier of the hold", example = "1")
+		Long id,
+
+		@Schema(description = "ID of the book", example = "1")
+		Long bookId,
+
+		@Schema(description = "Title of the book", example = "The Great Gatsby")
+		String bookTitle,
+
+		@Schema(description = "ID of the patron", example = "5")
+		Long userId,
+
+		@Schema(description = "State of the hold", example = "WAITING")
+		HoldStatus status,
+
+		@Schema(description = "Place in the book's queue, 1 being next; null unless waiting", example = "2")
+		Integer position,
+
+		@Schema(description = "When the hold was placed")
+		LocalDateTime createdAt,
+
+		@Schema(description = "When a copy set aside for the hold goes back on the shelf; null unless ready")
+		LocalDateTime pickupDeadline) {
+}
@@ -0,0 +1,11 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "A record rejected by a catalog import")
+public record ImportErrorDTO(@Schema(description = "1-based data record number", example = "42") long row,
+
+		@Schema(description = "ISBN of the record, when it could be read", example = "978-3-16-148410-0") String isbn,
+
+		@Schema(description = "Why the record was rejected", example = "ISBN is invalid") String message) {
+}
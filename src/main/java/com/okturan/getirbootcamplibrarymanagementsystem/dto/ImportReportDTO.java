@@ -0,0 +1,35 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.ImportFormat;
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.ImportJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Progress and outcome of a catalog import")
+public record ImportReportDTO(@Schema(description = "Id for polling the import while it runs") UUID jobId,
+
+		@Schema(description = "Import status", example = "COMPLETED") ImportJob.Status status,
+
+		@Schema(description = "Body format", example = "CSV") ImportFormat format,
+
+		@Schema(description = "Data records read so far", example = "500000") long rowsRead,
+
+		@Schema(description = "Books created", example = "499000") long inserted,
+
+		@Schema(description = "Existing books updated by ISBN", example = "900") long updated,
+
+		@Schema(description = "Records rejected", example = "100") long rejected,
+
+		@Schema(description = "Rejected records; capped, see errorsTruncated") List<ImportErrorDTO> errors,
+
+		@Schema(description = "Whether more records were rejected than are listed") boolean errorsTruncated,
+
+		@Schema(description = "Why the import stopped early, when it failed") String failure,
+
+		@Schema(description = "When the import started") Instant startedAt,
+
+		@Schema(description = "When the import finished, or null while running") Instant finishedAt) {
+}
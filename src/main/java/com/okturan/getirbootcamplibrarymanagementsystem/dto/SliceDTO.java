@@ -0,0 +1,21 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Count-free counterpart of {@link PageDTO}: it only says whether another page exists, so
+ * producing it needs no {@code COUNT(*)} query.
+ */
+public record SliceDTO<T>(List<T> content, int number, int size, boolean first, boolean last, boolean empty) {
+
+	public static <T> SliceDTO<T> from(Slice<T> slice) {
+		return new SliceDTO<>(slice.getContent(),
+		                      slice.getNumber(),
+		                      slice.getSize(),
+		                      slice.isFirst(),
+		                      slice.isLast(),
+		                      slice.isEmpty());
+	}
+}
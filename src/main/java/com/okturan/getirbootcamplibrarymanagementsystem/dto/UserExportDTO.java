@@ -0,0 +1,13 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.dto;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * One row of the user export. Credentials are never exported.
+ */
+public record UserExportDTO(Long id, String username, String email, String firstName, String lastName,
+		String address, String phoneNumber, LocalDate dateOfBirth, Set<Role> roles) {
+}
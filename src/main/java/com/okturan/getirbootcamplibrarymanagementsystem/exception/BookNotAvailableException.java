@@ -0,0 +1,15 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.exception;
+
+/**
+ * Thrown when a borrow loses to another borrowing of the same book, whether it was
+ * already committed, still in flight, or rejected by the database's one-open-borrowing
+ * guard.
+ */
+public class BookNotAvailableException extends IllegalStateException {
+
+	public BookNotAvailableException(Long bookId) {
+		super("Book " + bookId
+				+ " is currently borrowed by another patron and not available for borrowing. Please try again when the book has been returned.");
+	}
+
+}
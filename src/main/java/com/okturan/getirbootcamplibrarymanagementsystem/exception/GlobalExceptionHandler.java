@@ -12,6 +12,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -35,6 +36,12 @@ public class GlobalExceptionHandler {
 		return body(HttpStatus.BAD_REQUEST, ex.getMessage());
 	}
 
+	@ExceptionHandler(BookNotAvailableException.class)
+	public ResponseEntity<ErrorResponse> handleBookNotAvailable(BookNotAvailableException ex) {
+		log.warn("Borrow conflict – {}", ex.getMessage());
+		return body(HttpStatus.CONFLICT, ex.getMessage());
+	}
+
 	@ExceptionHandler(IllegalStateException.class)
 	public ResponseEntity<ErrorResponse> handleIllegalState(IllegalStateException ex) {
 		log.warn("Illegal state – {}", ex.getMessage());
@@ -56,6 +63,12 @@ public class GlobalExceptionHandler {
 					errors));
 	}
 
+	@ExceptionHandler(MethodArgumentTypeMismatchException.class)
+	public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+		log.warn("Bad request parameter – {}", ex.getName());
+		return body(HttpStatus.BAD_REQUEST, "Invalid value for parameter " + ex.getName());
+	}
+
 	@ExceptionHandler(ConstraintViolationException.class)
 	public ResponseEntity<ErrorResponse> handleConstraintViolation(ConstraintViolationException ex) {
 		log.warn("Constraint violation – {}", ex.getMessage());
@@ -0,0 +1,83 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+/**
+ * Writes RFC 4180 CSV with a header row of the record component names. Nulls become
+ * empty fields and collections are joined with {@code |}.
+ */
+class CsvRecordWriter<T extends Record> extends RecordWriter<T> {
+
+	private final Method[] accessors;
+
+	private final BufferedWriter writer;
+
+	CsvRecordWriter(Class<T> type, OutputStream out) throws IOException {
+		RecordComponent[] components = type.getRecordComponents();
+		this.accessors = new Method[components.length];
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		for (int i = 0; i < components.length; i++) {
+			accessors[i] = components[i].getAccessor();
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write(escape(components[i].getName()));
+		}
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void write(T row) throws IOException {
+		for (int i = 0; i < accessors.length; i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			writer.write(escape(format(value(accessors[i], row))));
+		}
+		writer.write("\r\n");
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.flush();
+	}
+
+	private static Object value(Method accessor, Record row) {
+		try {
+			return accessor.invoke(row);
+		}
+		catch (IllegalAccessException | InvocationTargetException e) {
+			throw new IllegalStateException("Cannot read " + accessor.getName(), e);
+		}
+	}
+
+	private static String format(Object value) {
+		if (value == null) {
+			return "";
+		}
+		if (value instanceof Collection<?> values) {
+			return values.stream().map(String::valueOf).sorted().collect(Collectors.joining("|"));
+		}
+		return value.toString();
+	}
+
+	private static String escape(String field) {
+		for (int i = 0; i < field.length(); i++) {
+			char c = field.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+				return '"' + field.replace("\"", "\"\"") + '"';
+			}
+		}
+		return field;
+	}
+
+}
@@ -0,0 +1,38 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.export;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Output formats of the table exports.
+ */
+public enum ExportFormat {
+
+	NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+
+	CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+	private final MediaType mediaType;
+
+	private final String extension;
+
+	ExportFormat(MediaType mediaType, String extension) {
+		this.mediaType = mediaType;
+		this.extension = extension;
+	}
+
+	/**
+	 * Wraps {@code body} in a download response named after the exported table.
+	 */
+	public ResponseEntity<StreamingResponseBody> attachment(String table, StreamingResponseBody body) {
+		return ResponseEntity.ok()
+			.contentType(mediaType)
+			.header(HttpHeaders.CONTENT_DISPOSITION,
+					ContentDisposition.attachment().filename(table + "." + extension).build().toString())
+			.body(body);
+	}
+
+}
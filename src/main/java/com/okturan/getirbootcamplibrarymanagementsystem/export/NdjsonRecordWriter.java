@@ -0,0 +1,39 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes each row as one JSON object followed by a newline.
+ */
+class NdjsonRecordWriter<T extends Record> extends RecordWriter<T> {
+
+	private final JsonGenerator generator;
+
+	private final ObjectWriter rowWriter;
+
+	NdjsonRecordWriter(Class<T> type, OutputStream out, ObjectMapper objectMapper) throws IOException {
+		this.generator = objectMapper.getFactory().createGenerator(out);
+		this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.generator.setRootValueSeparator(null);
+		// Leave flushing to the generator's buffer instead of pushing every row to the socket
+		this.rowWriter = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	@Override
+	public void write(T row) throws IOException {
+		rowWriter.writeValue(generator, row);
+		generator.writeRaw('\n');
+	}
+
+	@Override
+	public void close() throws IOException {
+		generator.close();
+	}
+
+}
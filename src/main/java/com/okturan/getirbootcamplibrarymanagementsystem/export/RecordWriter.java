@@ -0,0 +1,28 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes export rows to an output stream one at a time, buffering only what the current
+ * row needs. Closing flushes the writer but leaves the underlying stream open for its
+ * owner.
+ *
+ * @param <T> the row type; CSV columns are its record components, in order
+ */
+public abstract class RecordWriter<T extends Record> implements Closeable {
+
+	public static <T extends Record> RecordWriter<T> open(ExportFormat format, Class<T> type, OutputStream out,
+			ObjectMapper objectMapper) throws IOException {
+		return switch (format) {
+			case NDJSON -> new NdjsonRecordWriter<>(type, out, objectMapper);
+			case CSV -> new CsvRecordWriter<>(type, out);
+		};
+	}
+
+	public abstract void write(T row) throws IOException;
+
+}
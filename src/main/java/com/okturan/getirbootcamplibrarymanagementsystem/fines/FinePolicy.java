@@ -0,0 +1,52 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.fines;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineCandidate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Late fees: a daily rate for each day past the due date, capped per borrowing. A run
+ * charges the difference between the fee accrued at the end of its window and at the
+ * start, so consecutive runs add up to the fee of the whole loan however many nights are
+ * skipped in between.
+ */
+@Component
+public class FinePolicy {
+
+	private final BigDecimal dailyRate;
+
+	private final BigDecimal maxPerBorrowing;
+
+	public FinePolicy(@Value("${library.fines.daily-rate:0.25}") BigDecimal dailyRate,
+			@Value("${library.fines.max-per-borrowing:10.00}") BigDecimal maxPerBorrowing) {
+		this.dailyRate = dailyRate;
+		this.maxPerBorrowing = maxPerBorrowing;
+	}
+
+	/**
+	 * @param chargedSince end of the previous window, or null if nothing was charged yet
+	 * @return the fee for the days overdue in {@code (chargedSince, runDate]}, up to the
+	 * return date; zero if none fall in it
+	 */
+	public BigDecimal charge(FineCandidate candidate, LocalDate chargedSince, LocalDate runDate) {
+		LocalDate due = candidate.dueDate();
+		LocalDate end = candidate.returnDate() != null && candidate.returnDate().isBefore(runDate)
+				? candidate.returnDate() : runDate;
+		LocalDate start = chargedSince != null && chargedSince.isAfter(due) ? chargedSince : due;
+		if (!end.isAfter(start)) {
+			return BigDecimal.ZERO;
+		}
+		return accrued(due, end).subtract(accrued(due, start));
+	}
+
+	private BigDecimal accrued(LocalDate due, LocalDate through) {
+		long days = ChronoUnit.DAYS.between(due, through);
+		return dailyRate.multiply(BigDecimal.valueOf(days)).min(maxPerBorrowing).setScale(2, RoundingMode.HALF_UP);
+	}
+
+}
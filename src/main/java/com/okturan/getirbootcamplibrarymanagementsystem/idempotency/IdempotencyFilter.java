@@ -0,0 +1,229 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.exception.GlobalExceptionHandler.ErrorResponse;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.IdempotencyRecord;
+import com.okturan.getirbootcamplibrarymanagementsystem.security.LibraryUserDetails;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Makes borrow and return requests sent with an {@code Idempotency-Key} header safe to
+ * retry. The first request with a key is served and its response recorded; a retry with
+ * the same key gets that response back, marked {@code Idempotent-Replayed}, without
+ * running again. A key reused for a different request is refused with 422, and a retry
+ * arriving while the first attempt is still being served with 409.
+ * <p>
+ * Registered as a plain servlet filter at the lowest precedence, so it runs after the
+ * security chain has authenticated the caller and before the dispatcher opens the
+ * persistence context or any transaction. Keys are scoped to the authenticated user.
+ * Responses of 5xx are not recorded: the key is released and a retry runs again.
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+	public static final String KEY_HEADER = "Idempotency-Key";
+
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	private static final int MAX_KEY_LENGTH = 255;
+
+	private static final Pattern IDEMPOTENT_PATHS = Pattern.compile("/api/borrowings/(borrow|\\d+/return)");
+
+	private final IdempotencyStore store;
+
+	private final ObjectMapper objectMapper;
+
+	public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper) {
+		this.store = store;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+		return !"POST".equals(request.getMethod()) || request.getHeader(KEY_HEADER) == null
+				|| !IDEMPOTENT_PATHS.matcher(path(request)).matches();
+	}
+
+	@Override
+	protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+			@NonNull FilterChain filterChain) throws ServletException, IOException {
+		Long userId = currentUserId();
+		if (userId == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		String key = request.getHeader(KEY_HEADER);
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			error(response, HttpStatus.BAD_REQUEST,
+					KEY_HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+			return;
+		}
+
+		CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+		String fingerprint = fingerprint(request.getMethod(), path(request), cachedRequest.body);
+		Optional<IdempotencyRecord> existing = store.claim(userId, key, fingerprint);
+		if (existing.isPresent()) {
+			replay(existing.get(), fingerprint, response);
+			return;
+		}
+
+		ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+		try {
+			filterChain.doFilter(cachedRequest, cachedResponse);
+		}
+		catch (IOException | ServletException | RuntimeException ex) {
+			store.release(userId, key);
+			throw ex;
+		}
+		int status = cachedResponse.getStatus();
+		if (status >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+			store.release(userId, key);
+		}
+		else {
+			store.complete(userId, key, fingerprint, status, cachedResponse.getContentType(),
+					new String(cachedResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+		}
+		cachedResponse.copyBodyToResponse();
+	}
+
+	private void replay(IdempotencyRecord existing, String fingerprint, HttpServletResponse response)
+			throws IOException {
+		if (!existing.fingerprint().equals(fingerprint)) {
+			error(response, HttpStatus.UNPROCESSABLE_ENTITY, KEY_HEADER + " was already used for a different request");
+		}
+		else if (!existing.isCompleted()) {
+			error(response, HttpStatus.CONFLICT, "A request with this " + KEY_HEADER + " is still being processed");
+		}
+		else {
+			log.debug("Replaying response recorded at {}", existing.createdAt());
+			response.setStatus(existing.status());
+			response.setHeader(REPLAYED_HEADER, "true");
+			if (existing.contentType() != null) {
+				response.setContentType(existing.contentType());
+			}
+			if (existing.body() != null) {
+				response.getOutputStream().write(existing.body().getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	private void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+		response.setStatus(status.value());
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(),
+				new ErrorResponse(status.value(), message, LocalDateTime.now()));
+	}
+
+	private static Long currentUserId() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.getPrincipal() instanceof LibraryUserDetails user) {
+			return user.getId();
+		}
+		return null;
+	}
+
+	private static String path(HttpServletRequest request) {
+		return request.getRequestURI().substring(request.getContextPath().length());
+	}
+
+	/**
+	 * @return SHA-256 of the method, path and body, hex encoded
+	 */
+	private static String fingerprint(String method, String path, byte[] body) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest.digest(body));
+		}
+		catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Reads the body up front for the fingerprint and serves it again to the controller.
+	 */
+	private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+		private final byte[] body;
+
+		CachedBodyRequest(HttpServletRequest request) throws IOException {
+			super(request);
+			this.body = request.getInputStream().readAllBytes();
+		}
+
+		@Override
+		public ServletInputStream getInputStream() {
+			ByteArrayInputStream in = new ByteArrayInputStream(body);
+			return new ServletInputStream() {
+
+				@Override
+				public boolean isFinished() {
+					return in.available() == 0;
+				}
+
+				@Override
+				public boolean isReady() {
+					return true;
+				}
+
+				@Override
+				public void setReadListener(ReadListener listener) {
+					throw new UnsupportedOperationException();
+				}
+
+				@Override
+				public int read() {
+					return in.read();
+				}
+
+				@Override
+				public int read(byte[] b, int off, int len) {
+					return in.read(b, off, len);
+				}
+
+			};
+		}
+
+		@Override
+		public BufferedReader getReader() {
+			String encoding = getCharacterEncoding();
+			return new BufferedReader(new InputStreamReader(getInputStream(),
+					encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+		}
+
+	}
+
+}
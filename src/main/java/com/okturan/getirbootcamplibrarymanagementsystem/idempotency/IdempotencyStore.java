@@ -0,0 +1,161 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.okturan.getirbootcamplibrarymanagementsystem.config.SchedulingConfig;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.IdempotencyKey;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.IdempotencyKeyRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.IdempotencyRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Idempotency keys per user, persisted in {@code idempotency_keys} and kept for
+ * {@code library.idempotency.ttl}. Finished responses are also held in a bounded
+ * in-memory cache, so a retry is usually answered without touching the database; a key
+ * seen for the first time costs one insert.
+ * <p>
+ * A key being served is recorded with this instance as its owner, which refreshes its
+ * heartbeat every {@code library.idempotency.heartbeat-interval} for as long as the
+ * request runs, on a scheduler thread of its own so no other job can hold it up. Only a
+ * key whose heartbeat has stopped for {@code library.idempotency.abandon-after}, because
+ * its instance died mid-request, is taken over by a retry; a slow request is never run
+ * twice. Completion and release only touch a key this instance still owns.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+
+	private final IdempotencyKeyRepository repository;
+
+	private final Cache<IdempotencyKey, IdempotencyRecord> completed;
+
+	/** Keys this instance is serving a request for. */
+	private final Set<IdempotencyKey> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final String owner = UUID.randomUUID().toString();
+
+	private final Duration ttl;
+
+	private final Duration abandonAfter;
+
+	public IdempotencyStore(IdempotencyKeyRepository repository,
+			@Value("${library.idempotency.max-cached:10000}") long maxCached,
+			@Value("${library.idempotency.ttl:24h}") Duration ttl,
+			@Value("${library.idempotency.abandon-after:1m}") Duration abandonAfter,
+			@Value("${library.idempotency.heartbeat-interval:PT10S}") Duration heartbeatInterval) {
+		if (abandonAfter.compareTo(heartbeatInterval.multipliedBy(3)) < 0) {
+			throw new IllegalArgumentException(
+					"library.idempotency.abandon-after must be at least three heartbeat intervals");
+		}
+		this.repository = repository;
+		this.completed = Caffeine.newBuilder().maximumSize(maxCached).expireAfterWrite(ttl).build();
+		this.ttl = ttl;
+		this.abandonAfter = abandonAfter;
+	}
+
+	/**
+	 * Takes the key for a request with the given fingerprint unless it is already taken.
+	 * @return the record already held under the key, or empty if the caller now holds the
+	 * key and must serve the request, then {@link #complete} or {@link #release} it
+	 */
+	public Optional<IdempotencyRecord> claim(long userId, String key, String fingerprint) {
+		IdempotencyKey id = new IdempotencyKey(userId, key);
+		IdempotencyRecord cached = completed.getIfPresent(id);
+		if (cached != null) {
+			return Optional.of(cached);
+		}
+		LocalDateTime now = LocalDateTime.now();
+		if (take(id, fingerprint, now)) {
+			return Optional.empty();
+		}
+		if (repository.deleteStale(userId, key, now.minus(ttl), now.minus(abandonAfter))) {
+			log.warn("Taking over idempotency key of user {} whose request stopped sending heartbeats", userId);
+			if (take(id, fingerprint, now)) {
+				return Optional.empty();
+			}
+		}
+		// Released by its request between our insert and this read: still busy as far as
+		// this caller can tell
+		return Optional.of(repository.find(userId, key)
+			.orElseGet(() -> new IdempotencyRecord(fingerprint, null, null, null, now)));
+	}
+
+	private boolean take(IdempotencyKey id, String fingerprint, LocalDateTime now) {
+		// Tracked only once taken: a concurrent duplicate that loses the insert must not
+		// untrack the winner. The insert itself records the first heartbeat.
+		if (!repository.insert(id.userId(), id.key(), fingerprint, owner, now)) {
+			return false;
+		}
+		inFlight.add(id);
+		return true;
+	}
+
+	/**
+	 * Records the response of a request that holds the key, for replay to its retries.
+	 */
+	public void complete(long userId, String key, String fingerprint, int status, String contentType, String body) {
+		IdempotencyKey id = new IdempotencyKey(userId, key);
+		inFlight.remove(id);
+		if (!repository.complete(userId, key, owner, status, contentType, body)) {
+			log.warn("Idempotency key of user {} was taken over before its response was recorded", userId);
+			return;
+		}
+		completed.put(id, new IdempotencyRecord(fingerprint, status, contentType, body, LocalDateTime.now()));
+	}
+
+	/**
+	 * Gives the key up without a response, so a retry runs the request again.
+	 */
+	public void release(long userId, String key) {
+		inFlight.remove(new IdempotencyKey(userId, key));
+		repository.delete(userId, key, owner);
+	}
+
+	@Scheduled(fixedDelayString = "${library.idempotency.heartbeat-interval:PT10S}",
+			scheduler = SchedulingConfig.HEARTBEAT_SCHEDULER)
+	public void sendHeartbeats() {
+		heartbeat(LocalDateTime.now());
+	}
+
+	/**
+	 * Confirms that this instance is still serving the requests of its keys.
+	 * @return number of keys in flight
+	 */
+	public int heartbeat(LocalDateTime now) {
+		List<IdempotencyKey> keys = List.copyOf(inFlight);
+		if (!keys.isEmpty()) {
+			repository.heartbeat(owner, keys, now);
+		}
+		return keys.size();
+	}
+
+	@Scheduled(fixedDelayString = "${library.idempotency.sweep-interval:PT10M}")
+	public void sweepExpired() {
+		sweep(LocalDateTime.now());
+	}
+
+	/**
+	 * Deletes the keys recorded longer than the TTL before {@code now}. Cached responses
+	 * expire on their own.
+	 * @return number of keys deleted
+	 */
+	public int sweep(LocalDateTime now) {
+		int deleted = repository.deleteExpired(now.minus(ttl));
+		if (deleted > 0) {
+			log.info("Swept {} expired idempotency keys", deleted);
+		}
+		return deleted;
+	}
+
+}
@@ -0,0 +1,164 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookFacetsDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookFacetRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps per-genre and per-author book counts, split into available and total, in memory so
+ * facet requests need no {@code GROUP BY}. Catalog writes and borrow/return update the
+ * counters after commit. Until the first rebuild finishes callers must fall back to the
+ * database; see {@link #isReady()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookFacetIndex implements RebuildableIndex {
+
+	private static final int REBUILD_BATCH_SIZE = 5000;
+
+	private final BookRepository bookRepository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Object refreshLock = new Object();
+
+	private FacetCounters counters = new FacetCounters();
+
+	/** Changes committed while a rebuild is running; guarded by the write lock. */
+	private List<Consumer<FacetCounters>> pendingChanges;
+
+	private volatile boolean ready;
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * Records after commit the book's genre, author and availability, re-read then rather
+	 * than taken from the entity: callbacks of transactions that commit close together can
+	 * run in either order, and a value captured before commit could overwrite a later one.
+	 */
+	public void put(Book book) {
+		long id = book.getId();
+		AfterCommit.run(() -> refresh(id));
+	}
+
+	/**
+	 * Like {@link #put} for writers that do not load availability, such as the bulk
+	 * import: an already counted book keeps its availability.
+	 */
+	public void putKeepingAvailability(Book book) {
+		long id = book.getId();
+		String genre = book.getGenre();
+		String author = book.getAuthor();
+		AfterCommit.run(() -> apply(counters -> counters.put(id, genre, author, null)));
+	}
+
+	public void remove(Long bookId) {
+		AfterCommit.run(() -> apply(counters -> counters.remove(bookId)));
+	}
+
+	/**
+	 * Returns the facet counts of the books matching the filter. Blank arguments are
+	 * ignored.
+	 * @see FacetCounters#facets
+	 */
+	public BookFacetsDTO facets(String genre, String author, Boolean available) {
+		lock.readLock().lock();
+		try {
+			return counters.facets(blankToNull(genre), blankToNull(author), available);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Counts every book into fresh counters while the current ones keep serving, replays
+	 * changes committed in the meantime and swaps them in.
+	 */
+	@Override
+	public synchronized void rebuild() {
+		withWriteLock(() -> pendingChanges = new ArrayList<>());
+
+		FacetCounters fresh = new FacetCounters();
+		try {
+			long lastId = 0;
+			List<BookFacetRow> batch;
+			do {
+				batch = bookRepository.findFacetRowsAfter(lastId, Limit.of(REBUILD_BATCH_SIZE));
+				for (BookFacetRow row : batch) {
+					fresh.put(row.id(), row.genre(), row.author(), row.available());
+					lastId = row.id();
+				}
+			}
+			while (batch.size() == REBUILD_BATCH_SIZE);
+		}
+		catch (RuntimeException e) {
+			withWriteLock(() -> pendingChanges = null);
+			throw e;
+		}
+
+		withWriteLock(() -> {
+			pendingChanges.forEach(change -> change.accept(fresh));
+			pendingChanges = null;
+			counters = fresh;
+			ready = true;
+		});
+		log.info("Facet counters rebuilt with {} books", fresh.size());
+	}
+
+	/**
+	 * Reads and applies under one lock, so the refresh applied last is also the one that
+	 * read last and the counters end on the latest committed row. A book deleted meanwhile
+	 * is dropped.
+	 */
+	private void refresh(long id) {
+		synchronized (refreshLock) {
+			List<BookFacetRow> rows = bookRepository.findFacetRowsAfter(id - 1, Limit.of(1));
+			if (rows.isEmpty() || rows.get(0).id() != id) {
+				apply(counters -> counters.remove(id));
+				return;
+			}
+			BookFacetRow row = rows.get(0);
+			apply(counters -> counters.put(id, row.genre(), row.author(), row.available()));
+		}
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value;
+	}
+
+	private void withWriteLock(Runnable action) {
+		lock.writeLock().lock();
+		try {
+			action.run();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void apply(Consumer<FacetCounters> change) {
+		withWriteLock(() -> {
+			change.accept(counters);
+			if (pendingChanges != null) {
+				pendingChanges.add(change);
+			}
+		});
+	}
+
+}
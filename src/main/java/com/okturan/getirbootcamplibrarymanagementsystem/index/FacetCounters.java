@@ -0,0 +1,128 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookFacetsDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FacetCountDTO;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Book counts per (genre, author) pair, plus the pair and availability each book was last
+ * counted under so that a repeated or replayed change never counts a book twice. Not
+ * thread-safe; {@link BookFacetIndex} guards it.
+ */
+class FacetCounters {
+
+	private final Map<Long, Counted> books = new HashMap<>();
+
+	private final Map<Group, Counts> groups = new HashMap<>();
+
+	int size() {
+		return books.size();
+	}
+
+	/**
+	 * Counts the book under its current genre and author, moving it out of the pair it
+	 * was counted under before.
+	 * @param available the book's availability, or {@code null} to keep what was last
+	 * recorded for it (books seen for the first time count as available)
+	 */
+	void put(long bookId, String genre, String author, Boolean available) {
+		Counted previous = books.get(bookId);
+		boolean nowAvailable = available != null ? available : previous == null || previous.available();
+		if (previous != null) {
+			previous.counts().add(-1, previous.available() ? -1 : 0);
+		}
+		Counts counts = groups.computeIfAbsent(new Group(genre, author), Counts::new);
+		counts.add(1, nowAvailable ? 1 : 0);
+		books.put(bookId, new Counted(counts, nowAvailable));
+		if (previous != null && previous.counts().total == 0) {
+			groups.remove(previous.counts().group);
+		}
+	}
+
+	void remove(long bookId) {
+		Counted previous = books.remove(bookId);
+		if (previous != null) {
+			previous.counts().add(-1, previous.available() ? -1 : 0);
+			if (previous.counts().total == 0) {
+				groups.remove(previous.counts().group);
+			}
+		}
+	}
+
+	/**
+	 * Sums the counters of every pair matching the filter; cost grows with the number of
+	 * distinct pairs, not with the number of books.
+	 * @param genre case-insensitive exact genre, or {@code null}
+	 * @param author case-insensitive author substring, or {@code null}
+	 * @param available restricts the books counted to those on or off the shelf, or
+	 * {@code null}
+	 */
+	BookFacetsDTO facets(String genre, String author, Boolean available) {
+		String authorPart = author == null ? null : author.toLowerCase(Locale.ROOT);
+		Map<String, long[]> byGenre = new HashMap<>();
+		Map<String, long[]> byAuthor = new HashMap<>();
+		for (Counts counts : groups.values()) {
+			Group group = counts.group;
+			if (genre != null && !group.genre().equalsIgnoreCase(genre)) {
+				continue;
+			}
+			if (authorPart != null && !group.author().toLowerCase(Locale.ROOT).contains(authorPart)) {
+				continue;
+			}
+			long onShelf = Boolean.FALSE.equals(available) ? 0 : counts.available;
+			long total = available == null ? counts.total
+					: available ? counts.available : counts.total - counts.available;
+			if (total == 0) {
+				continue;
+			}
+			accumulate(byGenre, group.genre(), onShelf, total);
+			accumulate(byAuthor, group.author(), onShelf, total);
+		}
+		return new BookFacetsDTO(sorted(byGenre), sorted(byAuthor));
+	}
+
+	private static void accumulate(Map<String, long[]> facet, String value, long available, long total) {
+		long[] sums = facet.computeIfAbsent(value, v -> new long[2]);
+		sums[0] += available;
+		sums[1] += total;
+	}
+
+	private static List<FacetCountDTO> sorted(Map<String, long[]> facet) {
+		List<FacetCountDTO> counts = new ArrayList<>(facet.size());
+		facet.forEach((value, sums) -> counts.add(new FacetCountDTO(value, sums[0], sums[1])));
+		counts.sort(Comparator.comparingLong(FacetCountDTO::total).reversed().thenComparing(FacetCountDTO::value));
+		return counts;
+	}
+
+	private record Group(String genre, String author) {
+	}
+
+	private record Counted(Counts counts, boolean available) {
+	}
+
+	private static final class Counts {
+
+		private final Group group;
+
+		private long total;
+
+		private long available;
+
+		private Counts(Group group) {
+			this.group = group;
+		}
+
+		private void add(long totalDelta, long availableDelta) {
+			total += totalDelta;
+			available += availableDelta;
+		}
+
+	}
+
+}
@@ -0,0 +1,221 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.HoldQueueRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.HoldRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the hold queues, so a return can find the head of its book's queue,
+ * and a patron their place in it, without a query. Every waiting hold holds a ticket
+ * numbered from its book's queue; its position is the ticket number minus the tickets
+ * already served, so serving the head is one increment and reading a position is one
+ * lookup. Only holds leaving from the middle of a queue renumber the tickets behind them.
+ * <p>
+ * Changes apply after commit and are idempotent, so a change committed while
+ * {@link #rebuild()} reads the table is not counted twice. Until the first rebuild
+ * finishes the index answers conservatively and callers must fall back to the database;
+ * see {@link #isReady()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HoldQueueIndex implements RebuildableIndex {
+
+	private final HoldRepository holdRepository;
+
+	/** Guarded by {@code this}. */
+	private Map<Long, BookQueue> queues = new HashMap<>();
+
+	private final Map<Long, Ticket> tickets = new ConcurrentHashMap<>();
+
+	/** Ready hold id to its book; guarded by {@code this}. */
+	private final Map<Long, Long> readyHolds = new HashMap<>();
+
+	private volatile boolean ready;
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	/**
+	 * @return the 1-based queue position of a waiting hold, or {@code null} when the hold
+	 * is not waiting or the index is not built yet
+	 */
+	public Integer position(long holdId) {
+		Ticket ticket = tickets.get(holdId);
+		return ready && ticket != null ? (int) (ticket.number - ticket.queue.served) : null;
+	}
+
+	/**
+	 * @return the waiting hold at the head of the book's queue, or {@code null}
+	 */
+	public synchronized Long head(long bookId) {
+		BookQueue queue = queues.get(bookId);
+		return queue == null || queue.waiting.isEmpty() ? null : queue.waiting.firstKey();
+	}
+
+	/**
+	 * Whether anyone may be waiting for the book. Always true until the index is built.
+	 */
+	public synchronized boolean hasWaiting(long bookId) {
+		BookQueue queue = queues.get(bookId);
+		return !ready || queue != null && !queue.waiting.isEmpty();
+	}
+
+	/**
+	 * Whether a copy of the book may be set aside for a hold. Always true until the index
+	 * is built.
+	 */
+	public synchronized boolean hasReadyHolds(long bookId) {
+		BookQueue queue = queues.get(bookId);
+		return !ready || queue != null && queue.ready > 0;
+	}
+
+	/**
+	 * @return the number of holds waiting for the book
+	 */
+	public synchronized int waitingCount(long bookId) {
+		BookQueue queue = queues.get(bookId);
+		return queue == null ? 0 : queue.waiting.size();
+	}
+
+	/**
+	 * Records after commit that a hold joined its book's queue.
+	 */
+	public void enqueued(long holdId, long bookId) {
+		AfterCommit.run(() -> enqueue(holdId, bookId));
+	}
+
+	/**
+	 * Records after commit that a copy was set aside for a waiting hold.
+	 */
+	public void promoted(long holdId, long bookId) {
+		AfterCommit.run(() -> promote(holdId, bookId));
+	}
+
+	/**
+	 * Records after commit that a hold was fulfilled, cancelled or expired.
+	 */
+	public void closed(long holdId, long bookId) {
+		AfterCommit.run(() -> close(holdId, bookId));
+	}
+
+	/**
+	 * Drops a deleted book's queue after commit; its holds are deleted with it.
+	 */
+	public void removeBook(long bookId) {
+		AfterCommit.run(() -> {
+			synchronized (this) {
+				BookQueue queue = queues.remove(bookId);
+				if (queue != null) {
+					queue.waiting.keySet().forEach(tickets::remove);
+					readyHolds.values().removeIf(id -> id == bookId);
+				}
+			}
+		});
+	}
+
+	@Override
+	public synchronized void rebuild() {
+		queues = new HashMap<>();
+		tickets.clear();
+		readyHolds.clear();
+		int count = 0;
+		for (HoldQueueRow row : holdRepository.findOpenQueueRows()) {
+			if (row.status() == HoldStatus.READY) {
+				promote(row.id(), row.bookId());
+			}
+			else {
+				enqueue(row.id(), row.bookId());
+			}
+			count++;
+		}
+		ready = true;
+		log.info("Hold queues rebuilt with {} open holds on {} books", count, queues.size());
+	}
+
+	private synchronized void enqueue(long holdId, long bookId) {
+		if (tickets.containsKey(holdId) || readyHolds.containsKey(holdId)) {
+			return;
+		}
+		BookQueue queue = queues.computeIfAbsent(bookId, id -> new BookQueue());
+		// Holds normally commit in id order; one that commits late still takes its place
+		Map<Long, Ticket> behind = queue.waiting.tailMap(holdId, false);
+		long number = behind.isEmpty() ? queue.served + queue.waiting.size() + 1
+				: behind.values().iterator().next().number;
+		behind.values().forEach(ticket -> ticket.number++);
+		Ticket ticket = new Ticket(queue, number);
+		queue.waiting.put(holdId, ticket);
+		tickets.put(holdId, ticket);
+	}
+
+	private synchronized void promote(long holdId, long bookId) {
+		if (readyHolds.containsKey(holdId)) {
+			return;
+		}
+		leaveQueue(holdId, bookId);
+		queues.computeIfAbsent(bookId, id -> new BookQueue()).ready++;
+		readyHolds.put(holdId, bookId);
+	}
+
+	private synchronized void close(long holdId, long bookId) {
+		leaveQueue(holdId, bookId);
+		BookQueue queue = queues.get(bookId);
+		if (readyHolds.remove(holdId) != null && queue != null) {
+			queue.ready--;
+		}
+		if (queue != null && queue.waiting.isEmpty() && queue.ready == 0) {
+			queues.remove(bookId);
+		}
+	}
+
+	private void leaveQueue(long holdId, long bookId) {
+		Ticket ticket = tickets.remove(holdId);
+		if (ticket == null) {
+			return;
+		}
+		BookQueue queue = queues.get(bookId);
+		queue.waiting.remove(holdId);
+		if (ticket.number == queue.served + 1) {
+			queue.served++;
+		}
+		else {
+			queue.waiting.tailMap(holdId, false).values().forEach(behind -> behind.number--);
+		}
+	}
+
+	private static final class BookQueue {
+
+		/** Waiting holds by id, which is queue order. */
+		private final TreeMap<Long, Ticket> waiting = new TreeMap<>();
+
+		/** Tickets handed out before the current head. */
+		private volatile long served;
+
+		private int ready;
+
+	}
+
+	private static final class Ticket {
+
+		private final BookQueue queue;
+
+		private volatile long number;
+
+		private Ticket(BookQueue queue, long number) {
+			this.queue = queue;
+			this.number = number;
+		}
+
+	}
+
+}
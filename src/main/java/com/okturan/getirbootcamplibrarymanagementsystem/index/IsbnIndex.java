@@ -0,0 +1,133 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookIsbnKey;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.LongLongHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Maps canonical ISBN keys to book ids in a primitive hash map, answering ISBN lookups
+ * and duplicate checks without SQL. Until the first rebuild finishes callers must fall
+ * back to the database; see {@link #isReady()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IsbnIndex implements RebuildableIndex {
+
+	/** Returned by {@link #findBookId} when the ISBN is unknown. */
+	public static final long NOT_FOUND = -1L;
+
+	private static final int REBUILD_BATCH_SIZE = 5000;
+
+	private final BookRepository bookRepository;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private LongLongHashMap bookIds = new LongLongHashMap(16);
+
+	/** Changes committed while a rebuild is running; guarded by the write lock. */
+	private List<Consumer<LongLongHashMap>> pendingChanges;
+
+	private volatile boolean ready;
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public long findBookId(long isbnKey) {
+		lock.readLock().lock();
+		try {
+			return bookIds.get(isbnKey, NOT_FOUND);
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Records after commit that the book now carries {@code isbnKey}, dropping
+	 * {@code previousKey} if the ISBN changed.
+	 */
+	public void put(long bookId, long isbnKey, Long previousKey) {
+		AfterCommit.run(() -> apply(map -> {
+			if (previousKey != null && previousKey != isbnKey && map.get(previousKey, NOT_FOUND) == bookId) {
+				map.remove(previousKey);
+			}
+			map.put(isbnKey, bookId);
+		}));
+	}
+
+	public void remove(long bookId, long isbnKey) {
+		AfterCommit.run(() -> apply(map -> {
+			if (map.get(isbnKey, NOT_FOUND) == bookId) {
+				map.remove(isbnKey);
+			}
+		}));
+	}
+
+	/**
+	 * Fills a fresh map from the database while the current one keeps serving, replays
+	 * changes committed in the meantime and swaps it in.
+	 */
+	@Override
+	public synchronized void rebuild() {
+		withWriteLock(() -> pendingChanges = new ArrayList<>());
+
+		LongLongHashMap fresh = new LongLongHashMap(Math.toIntExact(bookRepository.count()));
+		try {
+			long lastId = 0;
+			List<BookIsbnKey> batch;
+			do {
+				batch = bookRepository.findIsbnKeysAfter(lastId, Limit.of(REBUILD_BATCH_SIZE));
+				for (BookIsbnKey entry : batch) {
+					fresh.put(entry.isbnKey(), entry.id());
+					lastId = entry.id();
+				}
+			}
+			while (batch.size() == REBUILD_BATCH_SIZE);
+		}
+		catch (RuntimeException e) {
+			withWriteLock(() -> pendingChanges = null);
+			throw e;
+		}
+
+		withWriteLock(() -> {
+			pendingChanges.forEach(change -> change.accept(fresh));
+			pendingChanges = null;
+			bookIds = fresh;
+			ready = true;
+		});
+		log.info("ISBN index rebuilt with {} books", fresh.size());
+	}
+
+	private void withWriteLock(Runnable action) {
+		lock.writeLock().lock();
+		try {
+			action.run();
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void apply(Consumer<LongLongHashMap> change) {
+		withWriteLock(() -> {
+			change.accept(bookIds);
+			if (pendingChanges != null) {
+				pendingChanges.add(change);
+			}
+		});
+	}
+
+}
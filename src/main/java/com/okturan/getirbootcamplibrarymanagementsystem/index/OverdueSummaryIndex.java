@@ -0,0 +1,155 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OverdueSummary;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.LongLongHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized overdue summary: the overdue borrowings by id, with per-patron and per-book
+ * counts so the distinct totals survive returns. The per-patron counts also serve the
+ * overdue figure of each patron's borrowing history. Borrowings only become overdue when the
+ * day changes, and only stop being overdue when returned, so the summary is kept by
+ * adding the borrowings that fell due on each rollover and removing returned ones after
+ * commit. Reads are a volatile snapshot.
+ * <p>
+ * The rollover query runs under the same lock as removals, so a return committing while
+ * it reads is removed after its borrowing has been added, never before. Until the first
+ * rebuild finishes callers must fall back to the database; see {@link #isReady()}.
+ */
+@Slf4j
+@Component
+public class OverdueSummaryIndex implements RebuildableIndex {
+
+	private final BorrowingRepository borrowingRepository;
+
+	private final Clock clock;
+
+	/** Guarded by {@code this}, as are the counters. */
+	private Map<Long, BorrowingRow> overdue = new HashMap<>();
+
+	private LongLongHashMap perUser = new LongLongHashMap(16);
+
+	private LongLongHashMap perBook = new LongLongHashMap(16);
+
+	/** The day the summary is current for; borrowings due before it are overdue. */
+	private volatile LocalDate asOf;
+
+	private volatile OverdueSummary snapshot = new OverdueSummary(0, 0, 0);
+
+	@Autowired
+	public OverdueSummaryIndex(BorrowingRepository borrowingRepository) {
+		this(borrowingRepository, Clock.systemDefaultZone());
+	}
+
+	OverdueSummaryIndex(BorrowingRepository borrowingRepository, Clock clock) {
+		this.borrowingRepository = borrowingRepository;
+		this.clock = clock;
+	}
+
+	public boolean isReady() {
+		return asOf != null;
+	}
+
+	/**
+	 * @return the day the current summary applies to, rolling it forward first if the date
+	 * has changed
+	 */
+	public LocalDate today() {
+		LocalDate today = LocalDate.now(clock);
+		if (asOf != null && asOf.isBefore(today)) {
+			rollTo(today);
+		}
+		return today;
+	}
+
+	/**
+	 * @return the summary as of {@link #today()}
+	 */
+	public OverdueSummary summary() {
+		today();
+		return snapshot;
+	}
+
+	/**
+	 * @return the patron's overdue borrowings as of {@link #today()}
+	 */
+	public long overdueCount(long userId) {
+		today();
+		synchronized (this) {
+			return perUser.get(userId, 0);
+		}
+	}
+
+	/**
+	 * Drops the borrowing after commit if it was overdue.
+	 */
+	public void returned(long borrowingId) {
+		AfterCommit.run(() -> remove(borrowingId));
+	}
+
+	@Override
+	public synchronized void rebuild() {
+		LocalDate today = LocalDate.now(clock);
+		overdue = new HashMap<>();
+		perUser = new LongLongHashMap(16);
+		perBook = new LongLongHashMap(16);
+		borrowingRepository.findOverdueRows(today).forEach(this::add);
+		publish();
+		asOf = today;
+		log.info("Overdue summary rebuilt with {} overdue borrowings", overdue.size());
+	}
+
+	private synchronized void rollTo(LocalDate today) {
+		if (!asOf.isBefore(today)) {
+			return;
+		}
+		List<BorrowingRow> fellDue = borrowingRepository.findOpenRowsDueBetween(asOf, today);
+		fellDue.forEach(this::add);
+		publish();
+		asOf = today;
+		log.info("Overdue summary rolled to {}: {} borrowings fell due", today, fellDue.size());
+	}
+
+	private synchronized void remove(long borrowingId) {
+		BorrowingRow row = overdue.remove(borrowingId);
+		if (row == null) {
+			return;
+		}
+		decrement(perUser, row.userId());
+		decrement(perBook, row.bookId());
+		publish();
+	}
+
+	private void add(BorrowingRow row) {
+		if (overdue.putIfAbsent(row.id(), row) == null) {
+			perUser.put(row.userId(), perUser.get(row.userId(), 0) + 1);
+			perBook.put(row.bookId(), perBook.get(row.bookId(), 0) + 1);
+		}
+	}
+
+	private void publish() {
+		snapshot = new OverdueSummary(overdue.size(), perUser.size(), perBook.size());
+	}
+
+	private static void decrement(LongLongHashMap counts, long key) {
+		long count = counts.get(key, 0);
+		if (count <= 1) {
+			counts.remove(key);
+		}
+		else {
+			counts.put(key, count - 1);
+		}
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+/**
+ * An in-memory structure derived from the database that is built once at startup and
+ * kept current incrementally afterwards.
+ */
+public interface RebuildableIndex {
+
+	/**
+	 * Rebuilds the structure from the database and marks it ready for reads.
+	 */
+	void rebuild();
+
+}
@@ -0,0 +1,60 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free table of books with no copy left on the shelf, which turns away borrows of
+ * them before they open a transaction. Each book id maps to one slot holding {@code 0}
+ * (nothing known) or the id of a sold-out book.
+ * <p>
+ * A book is only marked by a borrow that took its last copy off the shelf, while the
+ * conditional decrement still holds the row lock, so a return of that book can only
+ * commit, and clear the mark, after the mark is set. A borrow that claims a copy set
+ * aside for a hold takes no lock and never marks the book. The table only ever rejects
+ * a borrow when its own slot names the book; a slot held by another book leaves the
+ * borrow to the database's conditional decrement, which remains the authoritative guard.
+ */
+@Component
+public class SoldOutTable {
+
+	private static final long FREE = 0L;
+
+	private final AtomicLongArray slots;
+
+	private final int mask;
+
+	public SoldOutTable(@Value("${library.borrow.sold-out-slots:65536}") int slots) {
+		int capacity = Integer.highestOneBit(Math.max(slots, 2) - 1) << 1;
+		this.slots = new AtomicLongArray(capacity);
+		this.mask = capacity - 1;
+	}
+
+	public boolean isSoldOut(long bookId) {
+		return slots.get(slot(bookId)) == bookId;
+	}
+
+	/**
+	 * Records that the book's last copy is out. Does nothing when its slot already belongs
+	 * to another book.
+	 */
+	public void markSoldOut(long bookId) {
+		slots.compareAndSet(slot(bookId), FREE, bookId);
+	}
+
+	/**
+	 * Clears the book's mark once a copy is back on the shelf, the book has gained copies
+	 * or has been deleted.
+	 */
+	public void restocked(long bookId) {
+		slots.compareAndSet(slot(bookId), bookId, FREE);
+	}
+
+	private int slot(long bookId) {
+		// Fibonacci hashing spreads sequential ids across the table
+		return (int) ((bookId * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+	}
+
+}
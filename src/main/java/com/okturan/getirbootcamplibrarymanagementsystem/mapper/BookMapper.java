@@ -11,10 +11,18 @@ public interface BookMapper {
 
 	BookResponseDTO mapToDTO(Book book);
 
+	// New books start with every copy on the shelf
 	@Mapping(target = "id", ignore = true)
+	@Mapping(target = "availableCopies", source = "totalCopies")
+	@Mapping(target = "isbnKey", ignore = true)
 	Book mapToEntity(BookRequestDTO dto);
 
 	@BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+	// Copy counts change through BookRepository's conditional updates only
+	@Mapping(target = "id", ignore = true)
+	@Mapping(target = "totalCopies", ignore = true)
+	@Mapping(target = "availableCopies", ignore = true)
+	@Mapping(target = "isbnKey", ignore = true)
 	void updateEntityFromDto(BookRequestDTO dto, @MappingTarget Book book);
 
 	BookAvailabilityDTO createAvailabilityDTO(Book book, String timestamp);
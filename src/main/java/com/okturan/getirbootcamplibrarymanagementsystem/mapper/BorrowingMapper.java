@@ -3,6 +3,7 @@ package com.okturan.getirbootcamplibrarymanagementsystem.mapper;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingResponseDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.BorrowingRecord;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -26,6 +27,16 @@ public interface BorrowingMapper {
 	@Mapping(target = "username", source = "user.username")
 	BorrowingResponseDTO mapToDTO(Borrowing borrowing);
 
+	/**
+	 * Map a BorrowingRecord, hot or archived, to BorrowingResponseDTO
+	 */
+	@Mapping(target = "bookId", source = "book.id")
+	@Mapping(target = "bookTitle", source = "book.title")
+	@Mapping(target = "bookIsbn", source = "book.isbn")
+	@Mapping(target = "userId", source = "user.id")
+	@Mapping(target = "username", source = "user.username")
+	BorrowingResponseDTO mapToDTO(BorrowingRecord borrowing);
+
 	/**
 	 * Initialize a Borrowing entity for a new borrowing
 	 */
@@ -33,8 +44,9 @@ public interface BorrowingMapper {
 	default void initBorrowing(Borrowing borrowing, Book book, User user) {
 		borrowing.setBook(book);
 		borrowing.setUser(user);
-		borrowing.setBorrowDate(LocalDate.now());
-		borrowing.setDueDate(LocalDate.now().plusDays(14)); // 2 weeks TODO: extract magic number elsewhere
+		LocalDate today = LocalDate.now();
+		borrowing.setBorrowDate(today);
+		borrowing.setDueDate(today.plus(Borrowing.LOAN_PERIOD));
 		borrowing.setReturned(false);
 	}
 
@@ -0,0 +1,15 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.mapper;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineRunDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRun;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapper interface for converting fee assessment runs to DTOs
+ */
+@Mapper(componentModel = "spring")
+public interface FineMapper {
+
+	FineRunDTO mapToDTO(FineRun run);
+
+}
@@ -0,0 +1,27 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.mapper;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Hold;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+/**
+ * Mapper interface for converting Hold entities to DTOs
+ */
+@Mapper(componentModel = "spring")
+public interface HoldMapper {
+
+	/**
+	 * Map a Hold entity and its queue position to HoldResponseDTO
+	 */
+	@Mapping(target = "id", source = "hold.id")
+	@Mapping(target = "bookId", source = "hold.book.id")
+	@Mapping(target = "bookTitle", source = "hold.book.title")
+	@Mapping(target = "userId", source = "hold.user.id")
+	@Mapping(target = "status", source = "hold.status")
+	@Mapping(target = "position", source = "position")
+	@Mapping(target = "createdAt", source = "hold.createdAt")
+	@Mapping(target = "pickupDeadline", source = "hold.pickupDeadline")
+	HoldResponseDTO mapToDTO(Hold hold, Integer position);
+
+}
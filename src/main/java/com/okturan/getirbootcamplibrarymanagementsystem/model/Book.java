@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.Isbn;
 import lombok.*;
 import org.hibernate.validator.constraints.ISBN;
 
@@ -11,7 +12,8 @@ import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "books")
+@Table(name = "books",
+		indexes = { @Index(name = "uk_books_isbn_key", columnList = "isbn_key", unique = true) })
 @Getter
 @Setter
 @ToString
@@ -38,6 +40,15 @@ public class Book {
 	@Column(unique = true, nullable = false)
 	private String isbn;
 
+	/**
+	 * Canonical ISBN-13 as a number, derived from {@link #isbn} on every write so that
+	 * ISBN-10 and hyphenated spellings of the same book collide. Nullable in the schema
+	 * only so rows predating the column can be backfilled.
+	 */
+	@Setter(AccessLevel.NONE)
+	@Column(name = "isbn_key")
+	private Long isbnKey;
+
 	@NotNull(message = "Publication date is required")
 	@Column(name = "publication_date", nullable = false)
 	private LocalDate publicationDate;
@@ -47,8 +58,30 @@ public class Book {
 	@Column(nullable = false)
 	private String genre;
 
+	/**
+	 * Copies the library owns. Set on insert; afterwards only changed by the conditional
+	 * updates in {@code BookRepository}, so a stale entity can never overwrite it.
+	 */
+	@Column(name = "total_copies", nullable = false, updatable = false)
+	private int totalCopies = 1;
+
+	/**
+	 * Copies on the shelf. Borrow and return adjust it with a single conditional
+	 * {@code UPDATE}; the in-memory value is refreshed by the caller afterwards.
+	 */
+	@Column(name = "available_copies", nullable = false, updatable = false)
+	private int availableCopies = 1;
+
 	@Transient
-	private Boolean available;
+	public boolean isAvailable() {
+		return availableCopies > 0;
+	}
+
+	@PrePersist
+	@PreUpdate
+	public void syncIsbnKey() {
+		isbnKey = Isbn.toKey(isbn);
+	}
 
 	@Override
 	public boolean equals(Object o) {
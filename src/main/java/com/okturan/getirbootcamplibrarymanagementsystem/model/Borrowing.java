@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.Period;
 import java.util.Objects;
 
 @Entity
@@ -15,6 +16,11 @@ import java.util.Objects;
 @AllArgsConstructor
 public class Borrowing {
 
+	/**
+	 * How long a new loan runs.
+	 */
+	public static final Period LOAN_PERIOD = Period.ofWeeks(2);
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
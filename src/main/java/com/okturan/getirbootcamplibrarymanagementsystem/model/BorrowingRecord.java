@@ -0,0 +1,52 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only view of a borrowing in either the hot {@code borrowings} table or the
+ * archive, for patron history. Circulation writes go through {@link Borrowing}.
+ */
+@Entity
+@Immutable
+@Table(name = "borrowing_history")
+@Getter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class BorrowingRecord {
+
+	@Id
+	private Long id;
+
+	@ToString.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "book_id", nullable = false)
+	private Book book;
+
+	@ToString.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "user_id", nullable = false)
+	private User user;
+
+	@Column(name = "borrow_date", nullable = false)
+	private LocalDate borrowDate;
+
+	@Column(name = "due_date", nullable = false)
+	private LocalDate dueDate;
+
+	@Column(name = "return_date")
+	private LocalDate returnDate;
+
+	@Column(name = "is_returned", nullable = false)
+	private boolean returned;
+
+	@Transient
+	public boolean isOverdue() {
+		return !returned && LocalDate.now().isAfter(dueDate);
+	}
+
+}
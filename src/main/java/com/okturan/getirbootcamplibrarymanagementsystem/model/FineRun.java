@@ -0,0 +1,50 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One nightly fee assessment and its checkpoint. A run charges the days overdue in
+ * {@code (chargedSince, runDate]}; {@code chargedSince} is the previous completed run, or
+ * null on the first run, which charges from each due date.
+ */
+@Entity
+@Table(name = "fine_runs")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class FineRun {
+
+	@Id
+	@Column(name = "run_date")
+	private LocalDate runDate;
+
+	@Column(name = "charged_since")
+	private LocalDate chargedSince;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private FineRunStatus status = FineRunStatus.RUNNING;
+
+	@Column(name = "last_borrowing_id", nullable = false)
+	private long lastBorrowingId;
+
+	@Column(nullable = false)
+	private long entries;
+
+	@Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+	private BigDecimal totalAmount = BigDecimal.ZERO;
+
+	@Column(name = "started_at", nullable = false)
+	private LocalDateTime startedAt;
+
+	@Column(name = "finished_at")
+	private LocalDateTime finishedAt;
+
+}
@@ -0,0 +1,7 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.model;
+
+public enum FineRunStatus {
+
+	RUNNING, COMPLETED
+
+}
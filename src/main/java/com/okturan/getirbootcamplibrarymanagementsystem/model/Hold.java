@@ -0,0 +1,48 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A patron's place in the queue for a book. Holds are served in id order; a READY hold
+ * owns one copy that is kept off the shelf until {@link #pickupDeadline}.
+ */
+@Entity
+@Table(name = "holds")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class Hold {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@ToString.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "book_id", nullable = false)
+	private Book book;
+
+	@ToString.Exclude
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "user_id", nullable = false)
+	private User user;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false, length = 16)
+	private HoldStatus status = HoldStatus.WAITING;
+
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+
+	@Column(name = "ready_at")
+	private LocalDateTime readyAt;
+
+	@Column(name = "pickup_deadline")
+	private LocalDateTime pickupDeadline;
+
+}
@@ -0,0 +1,19 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.model;
+
+/**
+ * Lifecycle of a hold. A hold waits in its book's queue until a returned copy is set aside
+ * for it, then stays ready until the patron borrows the copy or the pickup deadline passes.
+ */
+public enum HoldStatus {
+
+	WAITING, READY, FULFILLED, CANCELLED, EXPIRED;
+
+	/**
+	 * Whether the hold still counts against its book, either in the queue or on the hold
+	 * shelf.
+	 */
+	public boolean isOpen() {
+		return this == WAITING || this == READY;
+	}
+
+}
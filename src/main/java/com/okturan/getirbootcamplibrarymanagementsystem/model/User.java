@@ -2,6 +2,7 @@ package com.okturan.getirbootcamplibrarymanagementsystem.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -41,7 +42,12 @@ public class User {
 
 	private LocalDate dateOfBirth;
 
+	/**
+	 * Loaded with the user. A list of borrowings fetches its patrons in one join, so their
+	 * roles are then read in batches rather than one select per patron.
+	 */
 	@ElementCollection(fetch = FetchType.EAGER)
+	@BatchSize(size = 100)
 	@CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
 	@Enumerated(EnumType.STRING)
 	@Column(name = "role")
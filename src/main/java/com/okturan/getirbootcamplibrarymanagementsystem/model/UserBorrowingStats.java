@@ -0,0 +1,29 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A patron's borrowing counters. Written only through the guarded updates in
+ * {@code UserBorrowingStatsRepository}, never by saving the entity.
+ */
+@Entity
+@Table(name = "user_borrowing_stats")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBorrowingStats {
+
+	@Id
+	@Column(name = "user_id")
+	private Long userId;
+
+	@Column(name = "total_borrowings", nullable = false)
+	private long totalBorrowings;
+
+	@Column(name = "active_borrowings", nullable = false)
+	private long activeBorrowings;
+
+}
@@ -0,0 +1,64 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookAvailabilityDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.publisher.Sinks.EmitResult;
+
+import java.util.List;
+
+/**
+ * Feeds committed availability changes from the outbox to the Server-Sent Events
+ * subscribers of {@code /api/books/availability/stream}. Updates are live only: nothing
+ * is buffered while no one is subscribed, and a subscriber that cannot keep up misses
+ * updates rather than holding up the others.
+ */
+@Slf4j
+@Component
+public class BookAvailabilityStream implements OutboxConsumer {
+
+	// Stays open when the last subscriber leaves, unlike the buffering multicast sinks
+	private final Sinks.Many<BookAvailabilityDTO> sink = Sinks.many().multicast().directBestEffort();
+
+	private final ObjectMapper objectMapper;
+
+	public BookAvailabilityStream(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	public Flux<BookAvailabilityDTO> updates() {
+		return sink.asFlux();
+	}
+
+	@Override
+	public void accept(List<OutboxEvent> events) {
+		int emitted = 0;
+		for (OutboxEvent event : events) {
+			if (OutboxEvent.BOOK_AVAILABILITY_CHANGED.equals(event.eventType())) {
+				try {
+					BookAvailabilityDTO update = objectMapper.readValue(event.payload(), BookAvailabilityDTO.class);
+					EmitResult result = sink.tryEmitNext(update);
+					if (result.isSuccess()) {
+						emitted++;
+					}
+					else if (result != EmitResult.FAIL_ZERO_SUBSCRIBER) {
+						log.warn("Dropped availability update of outbox event {}: {}", event.id(), result);
+					}
+				}
+				catch (JsonProcessingException ex) {
+					// Redelivering would not make it readable; skip it rather than hold up the outbox
+					log.error("Skipping unreadable outbox event {}", event.id(), ex);
+				}
+			}
+		}
+		if (emitted > 0) {
+			log.info("Availability changed → emitted updates for {} books", emitted);
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.outbox;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Receives committed outbox events from {@link OutboxRelay}, a batch at a time and oldest
+ * first. Consumers pick out the event types they handle. Delivery is at least once: a
+ * batch is redelivered to every consumer if any of them throws, or if the process stops
+ * before the batch is deleted.
+ */
+public interface OutboxConsumer {
+
+	void accept(List<OutboxEvent> events);
+
+}
@@ -0,0 +1,115 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.outbox;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.config.SchedulingConfig;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxEvent;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes committed outbox events to every {@link OutboxConsumer}, a batch of
+ * {@code library.outbox.batch-size} at a time in id order, and deletes each batch once
+ * all consumers have taken it. A poll stops after {@code library.outbox.max-batches}
+ * batches and the next one carries on.
+ * <p>
+ * Polls on a single-thread scheduler of its own, so the nightly jobs on the shared
+ * scheduler never hold up publishing. A relay started while another is still running,
+ * such as a manual one, returns at once, so batches never overlap or reorder. Reports
+ * {@code library.outbox.lag}, the age in seconds of the oldest unpublished event at the
+ * last poll, and counts {@code library.outbox.published} events.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+	private final OutboxRepository repository;
+
+	private final List<OutboxConsumer> consumers;
+
+	private final Counter published;
+
+	private final int batchSize;
+
+	private final int maxBatches;
+
+	private final ReentrantLock running = new ReentrantLock();
+
+	private volatile double lagSeconds;
+
+	public OutboxRelay(OutboxRepository repository, List<OutboxConsumer> consumers, MeterRegistry meterRegistry,
+			@Value("${library.outbox.batch-size:500}") int batchSize,
+			@Value("${library.outbox.max-batches:20}") int maxBatches) {
+		this.repository = repository;
+		this.consumers = consumers;
+		this.batchSize = batchSize;
+		this.maxBatches = maxBatches;
+		this.published = Counter.builder("library.outbox.published")
+			.description("Outbox events delivered to every consumer")
+			.register(meterRegistry);
+		Gauge.builder("library.outbox.lag", this, relay -> relay.lagSeconds)
+			.description("Age of the oldest unpublished outbox event at the last poll")
+			.baseUnit("seconds")
+			.register(meterRegistry);
+	}
+
+	@Scheduled(fixedDelayString = "${library.outbox.poll-interval:PT0.5S}",
+			scheduler = SchedulingConfig.OUTBOX_SCHEDULER)
+	public void relayPending() {
+		relay();
+	}
+
+	/**
+	 * @return number of events published, {@code 0} if another relay is running
+	 */
+	public int relay() {
+		if (!running.tryLock()) {
+			return 0;
+		}
+		try {
+			return relayBatches();
+		}
+		finally {
+			running.unlock();
+		}
+	}
+
+	private int relayBatches() {
+		int relayed = 0;
+		for (int batch = 0; batch < maxBatches; batch++) {
+			List<OutboxEvent> events = repository.findOldest(batchSize);
+			if (batch == 0) {
+				lagSeconds = events.isEmpty() ? 0
+						: Duration.between(events.get(0).createdAt(), LocalDateTime.now()).toMillis() / 1000.0;
+			}
+			if (events.isEmpty()) {
+				break;
+			}
+			consumers.forEach(consumer -> consumer.accept(events));
+			repository.deleteAll(events.stream().map(OutboxEvent::id).toList());
+			published.increment(events.size());
+			relayed += events.size();
+			if (events.size() < batchSize) {
+				break;
+			}
+		}
+		if (relayed > 0) {
+			log.debug("Relayed {} outbox events", relayed);
+		}
+		return relayed;
+	}
+
+	public double lagSeconds() {
+		return lagSeconds;
+	}
+
+}
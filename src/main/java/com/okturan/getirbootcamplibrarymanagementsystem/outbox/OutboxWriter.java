@@ -0,0 +1,64 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends events to the outbox in the caller's transaction, so they are published only
+ * if the write that raised them commits. Pending entity changes are flushed first: the
+ * row locks they take order the event ids of concurrent writers to the same row.
+ */
+@Component
+public class OutboxWriter {
+
+	private final OutboxRepository repository;
+
+	private final ObjectMapper objectMapper;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public OutboxWriter(OutboxRepository repository, ObjectMapper objectMapper) {
+		this.repository = repository;
+		this.objectMapper = objectMapper;
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void append(String eventType, long aggregateId, Object payload) {
+		appendAll(eventType, Map.of(aggregateId, payload));
+	}
+
+	/**
+	 * Appends one event per aggregate id, in the map's iteration order.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void appendAll(String eventType, Map<Long, ?> payloads) {
+		if (payloads.isEmpty()) {
+			return;
+		}
+		Map<Long, String> json = new LinkedHashMap<>();
+		payloads.forEach((aggregateId, payload) -> json.put(aggregateId, toJson(payload)));
+		entityManager.flush();
+		repository.insertAll(eventType, json, LocalDateTime.now());
+	}
+
+	private String toJson(Object payload) {
+		try {
+			return objectMapper.writeValueAsString(payload);
+		}
+		catch (JsonProcessingException ex) {
+			throw new IllegalArgumentException("Cannot serialize outbox payload " + payload.getClass(), ex);
+		}
+	}
+
+}
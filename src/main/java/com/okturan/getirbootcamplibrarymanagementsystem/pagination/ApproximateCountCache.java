@@ -0,0 +1,95 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.pagination;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers {@code COUNT(*)} results per filter shape for clients that accept approximate
+ * totals. Every committed write bumps its scope's epoch; a cached total is reused until
+ * its scope has seen {@code max-writes} further writes or it is older than
+ * {@code max-age}, so the reported total drifts by at most that many rows.
+ */
+@Component
+public class ApproximateCountCache {
+
+	private final Map<CountScope, AtomicLong> epochs = new EnumMap<>(CountScope.class);
+
+	private final Map<String, Entry> entries;
+
+	private final long maxWrites;
+
+	private final long maxAgeNanos;
+
+	public ApproximateCountCache(@Value("${library.pagination.approximate-count.max-writes:100}") long maxWrites,
+			@Value("${library.pagination.approximate-count.max-age:5m}") Duration maxAge,
+			@Value("${library.pagination.approximate-count.max-entries:1000}") int maxEntries) {
+		this.maxWrites = maxWrites;
+		this.maxAgeNanos = maxAge.toNanos();
+		for (CountScope scope : CountScope.values()) {
+			epochs.put(scope, new AtomicLong());
+		}
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Returns the cached total for {@code key} if it is still within bounds, otherwise runs
+	 * {@code exactCount} and caches its result. Keys must encode every filter value that
+	 * affects the count.
+	 */
+	public long get(CountScope scope, String key, LongSupplier exactCount) {
+		String scopedKey = scope + ":" + key;
+		long epoch = epochs.get(scope).get();
+		long now = System.nanoTime();
+		Entry cached;
+		synchronized (entries) {
+			cached = entries.get(scopedKey);
+		}
+		if (cached != null && epoch - cached.epoch() <= maxWrites && now - cached.computedAt() <= maxAgeNanos) {
+			return cached.count();
+		}
+		long count = exactCount.getAsLong();
+		synchronized (entries) {
+			entries.put(scopedKey, new Entry(count, epoch, now));
+		}
+		return count;
+	}
+
+	/**
+	 * Turns a slice into a page whose total comes from {@link #get}. The total is raised
+	 * if it contradicts the slice, so a drifted count never hides a page that exists.
+	 */
+	public <T> Page<T> page(Slice<T> slice, CountScope scope, String key, LongSupplier exactCount) {
+		long seen = slice.getPageable().isPaged() ? slice.getPageable().getOffset() + slice.getNumberOfElements()
+				: slice.getNumberOfElements();
+		long total = Math.max(get(scope, key, exactCount), slice.hasNext() ? seen + 1 : seen);
+		return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+	}
+
+	/**
+	 * Records a write to {@code scope} once the current transaction commits.
+	 */
+	public void recordWrite(CountScope scope) {
+		AtomicLong epoch = epochs.get(scope);
+		AfterCommit.run(epoch::incrementAndGet);
+	}
+
+	private record Entry(long count, long epoch, long computedAt) {
+	}
+
+}
@@ -0,0 +1,10 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.pagination;
+
+/**
+ * Groups of tables whose writes invalidate cached totals together.
+ */
+public enum CountScope {
+
+	BOOKS, BORROWINGS
+
+}
@@ -0,0 +1,118 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns a keyset position plus the sort it was produced under into an opaque URL-safe
+ * token and back. Key values carry a type tag so dates and numbers survive the round
+ * trip and bind to the seek predicate with their real types.
+ */
+public final class CursorCodec {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private CursorCodec() {
+	}
+
+	public static String encode(KeysetScrollPosition position, Sort sort) {
+		List<Order> orders = sort.stream().map(o -> new Order(o.getProperty(), o.getDirection().name())).toList();
+		List<Key> keys = new ArrayList<>();
+		position.getKeys().forEach((property, value) -> keys.add(Key.of(property, value)));
+		try {
+			byte[] json = MAPPER.writeValueAsBytes(new Payload(orders, keys));
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+		}
+		catch (JsonProcessingException e) {
+			throw new IllegalStateException("Could not encode cursor", e);
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the token was not produced by {@link #encode}
+	 */
+	public static Cursor decode(String token) {
+		Payload payload;
+		try {
+			payload = MAPPER.readValue(Base64.getUrlDecoder().decode(token), Payload.class);
+		}
+		catch (IllegalArgumentException | java.io.IOException e) {
+			throw new IllegalArgumentException("Invalid cursor", e);
+		}
+		if (payload.sort() == null || payload.keys() == null || payload.keys().isEmpty()) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+		Sort sort = Sort.by(payload.sort().stream().map(Order::toSortOrder).toList());
+		Map<String, Object> keys = new LinkedHashMap<>();
+		payload.keys().forEach(key -> keys.put(key.property(), key.toValue()));
+		return new Cursor(ScrollPosition.forward(keys), sort);
+	}
+
+	public record Cursor(KeysetScrollPosition position, Sort sort) {
+	}
+
+	private record Payload(List<Order> sort, List<Key> keys) {
+	}
+
+	private record Order(String property, String direction) {
+
+		Sort.Order toSortOrder() {
+			try {
+				return new Sort.Order(Sort.Direction.valueOf(direction), property);
+			}
+			catch (RuntimeException e) {
+				throw new IllegalArgumentException("Invalid cursor", e);
+			}
+		}
+
+	}
+
+	private record Key(String property, String type, String value) {
+
+		static Key of(String property, Object value) {
+			String type = switch (value) {
+				case String s -> "string";
+				case Long l -> "long";
+				case Integer i -> "int";
+				case Boolean b -> "bool";
+				case LocalDate d -> "date";
+				case LocalDateTime t -> "datetime";
+				case null -> throw new IllegalStateException("Cannot page past a null " + property);
+				default -> throw new IllegalStateException(
+						"Unsupported cursor key type " + value.getClass().getSimpleName() + " for " + property);
+			};
+			return new Key(property, type, value.toString());
+		}
+
+		Object toValue() {
+			try {
+				return switch (type) {
+					case "string" -> value;
+					case "long" -> Long.valueOf(value);
+					case "int" -> Integer.valueOf(value);
+					case "bool" -> Boolean.valueOf(value);
+					case "date" -> LocalDate.parse(value);
+					case "datetime" -> LocalDateTime.parse(value);
+					default -> throw new IllegalArgumentException("Invalid cursor");
+				};
+			}
+			catch (RuntimeException e) {
+				throw new IllegalArgumentException("Invalid cursor", e);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.pagination;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+
+/**
+ * One page request in cursor mode. Continuation requests reuse the sort recorded in the
+ * cursor, so changing {@code sort} mid-scroll cannot skip or repeat rows; the page size
+ * always comes from the request. The entity id is appended to the sort by Spring Data as
+ * the tie-breaker. A keyset seek compares each sort key with the last row's value, which
+ * a null cannot take part in, so only properties the schema declares not null can be
+ * sorted on.
+ */
+public record CursorRequest(ScrollPosition position, Sort sort, int size) {
+
+	/**
+	 * @param cursor token from a previous page, or blank for the first page
+	 * @param entity the entity the sort properties belong to
+	 * @throws IllegalArgumentException if the sort names a property that may be null
+	 */
+	public static CursorRequest of(String cursor, Pageable pageable, Class<?> entity) {
+		CursorRequest request;
+		if (cursor == null || cursor.isBlank()) {
+			request = new CursorRequest(ScrollPosition.keyset(), pageable.getSort(), pageable.getPageSize());
+		}
+		else {
+			CursorCodec.Cursor decoded = CursorCodec.decode(cursor);
+			request = new CursorRequest(decoded.position(), decoded.sort(), pageable.getPageSize());
+		}
+		for (Sort.Order order : request.sort()) {
+			if (!isNonNull(entity, order.getProperty())) {
+				throw new IllegalArgumentException(
+						"Cursor pages can only be sorted by non-null properties, not " + order.getProperty());
+			}
+		}
+		return request;
+	}
+
+	private static boolean isNonNull(Class<?> type, String path) {
+		for (String name : path.split("\\.")) {
+			Field field = ReflectionUtils.findField(type, name);
+			if (field == null) {
+				return false;
+			}
+			Column column = field.getAnnotation(Column.class);
+			JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+			if (!field.getType().isPrimitive() && !field.isAnnotationPresent(Id.class)
+					&& (column == null || column.nullable()) && (joinColumn == null || joinColumn.nullable())) {
+				return false;
+			}
+			type = field.getType();
+		}
+		return true;
+	}
+
+	public Limit limit() {
+		return Limit.of(size);
+	}
+
+}
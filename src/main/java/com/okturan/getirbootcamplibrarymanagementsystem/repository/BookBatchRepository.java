@@ -0,0 +1,84 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for bulk catalog loads. Hibernate cannot batch inserts of
+ * {@code IDENTITY} ids, so these statements go through JDBC batching instead. Entity
+ * callbacks do not run here: callers must set {@code isbnKey} themselves.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookBatchRepository {
+
+	private static final String INSERT = """
+			INSERT INTO books (title, author, isbn, isbn_key, publication_date, genre, total_copies, available_copies)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+			""";
+
+	private static final String UPDATE = """
+			UPDATE books SET title = ?, author = ?, isbn = ?, publication_date = ?, genre = ?
+			WHERE id = ?
+			""";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	/**
+	 * @return book ids keyed by ISBN key, for the keys that exist
+	 */
+	public Map<Long, Long> findIdsByIsbnKeys(Collection<Long> isbnKeys) {
+		Map<Long, Long> ids = new HashMap<>();
+		if (isbnKeys.isEmpty()) {
+			return ids;
+		}
+		jdbcTemplate.query("SELECT id, isbn_key FROM books WHERE isbn_key IN (:keys)", Map.of("keys", isbnKeys),
+				rs -> {
+					ids.put(rs.getLong("isbn_key"), rs.getLong("id"));
+				});
+		return ids;
+	}
+
+	public void insert(List<Book> books) {
+		if (books.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT, books, books.size(), (ps, book) -> {
+			ps.setString(1, book.getTitle());
+			ps.setString(2, book.getAuthor());
+			ps.setString(3, book.getIsbn());
+			ps.setLong(4, book.getIsbnKey());
+			ps.setDate(5, Date.valueOf(book.getPublicationDate()));
+			ps.setString(6, book.getGenre());
+			ps.setInt(7, book.getTotalCopies());
+			ps.setInt(8, book.getAvailableCopies());
+		});
+	}
+
+	/**
+	 * Overwrites the catalog fields of existing books, leaving circulation state and copy
+	 * counts alone.
+	 */
+	public void update(List<Book> books) {
+		if (books.isEmpty()) {
+			return;
+		}
+		jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE, books, books.size(), (ps, book) -> {
+			ps.setString(1, book.getTitle());
+			ps.setString(2, book.getAuthor());
+			ps.setString(3, book.getIsbn());
+			ps.setDate(4, Date.valueOf(book.getPublicationDate()));
+			ps.setString(5, book.getGenre());
+			ps.setLong(6, book.getId());
+		});
+	}
+
+}
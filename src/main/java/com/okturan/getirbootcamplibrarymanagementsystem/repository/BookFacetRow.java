@@ -0,0 +1,8 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+/**
+ * Projection of the book fields the facet counters group by, used to build them without
+ * loading entities.
+ */
+public record BookFacetRow(long id, String genre, String author, boolean available) {
+}
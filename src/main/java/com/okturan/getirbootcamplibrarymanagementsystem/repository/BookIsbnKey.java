@@ -0,0 +1,8 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+/**
+ * Projection of a book's id and canonical ISBN key, used to build the ISBN index without
+ * loading entities.
+ */
+public record BookIsbnKey(long id, long isbnKey) {
+}
@@ -0,0 +1,40 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FacetCountDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Catalog reads that select straight into {@link BookResponseDTO}, with availability
+ * computed in SQL. No entities are hydrated, so there are no dirty-checking snapshots and
+ * no mapping pass. A {@code null} specification matches every book.
+ */
+public interface BookProjections {
+
+	Page<BookResponseDTO> findResponses(Specification<Book> spec, Pageable pageable);
+
+	/**
+	 * Like {@link #findResponses} without the count query; reads one extra row to tell
+	 * whether a next slice exists.
+	 */
+	Slice<BookResponseDTO> findResponseSlice(Specification<Book> spec, Pageable pageable);
+
+	/**
+	 * @return the books with the given ids, in no particular order
+	 */
+	List<BookResponseDTO> findResponsesByIdIn(Collection<Long> ids);
+
+	/**
+	 * Groups the matching books by {@code attribute} (such as {@code "genre"}) with a
+	 * single {@code GROUP BY}, largest groups first.
+	 */
+	List<FacetCountDTO> countFacets(Specification<Book> spec, String attribute);
+
+}
@@ -0,0 +1,108 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FacetCountDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+class BookProjectionsImpl implements BookProjections {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public Page<BookResponseDTO> findResponses(Specification<Book> spec, Pageable pageable) {
+		TypedQuery<BookResponseDTO> query = select(spec, pageable.getSort());
+		if (pageable.isPaged()) {
+			query.setFirstResult(Math.toIntExact(pageable.getOffset())).setMaxResults(pageable.getPageSize());
+		}
+		// Skips the count when the page itself shows the total, as Spring Data does
+		return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+	}
+
+	@Override
+	public Slice<BookResponseDTO> findResponseSlice(Specification<Book> spec, Pageable pageable) {
+		TypedQuery<BookResponseDTO> query = select(spec, pageable.getSort());
+		if (pageable.isUnpaged()) {
+			return new SliceImpl<>(query.getResultList());
+		}
+		List<BookResponseDTO> rows = query.setFirstResult(Math.toIntExact(pageable.getOffset()))
+			.setMaxResults(pageable.getPageSize() + 1)
+			.getResultList();
+		boolean hasNext = rows.size() > pageable.getPageSize();
+		return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+	}
+
+	@Override
+	public List<BookResponseDTO> findResponsesByIdIn(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		return select((root, query, cb) -> root.get("id").in(ids), Sort.unsorted()).getResultList();
+	}
+
+	@Override
+	public List<FacetCountDTO> countFacets(Specification<Book> spec, String attribute) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<FacetCountDTO> query = cb.createQuery(FacetCountDTO.class);
+		Root<Book> book = query.from(Book.class);
+		Expression<String> value = book.get(attribute);
+		Expression<Long> total = cb.count(book);
+		query.select(cb.construct(FacetCountDTO.class, value,
+				cb.sum(cb.<Long>selectCase().when(cb.gt(book.get("availableCopies"), 0), 1L).otherwise(0L)),
+				total));
+		Predicate where = spec == null ? null : spec.toPredicate(book, query, cb);
+		if (where != null) {
+			query.where(where);
+		}
+		query.groupBy(value).orderBy(cb.desc(total), cb.asc(value));
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	private TypedQuery<BookResponseDTO> select(Specification<Book> spec, Sort sort) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<BookResponseDTO> query = cb.createQuery(BookResponseDTO.class);
+		Root<Book> book = query.from(Book.class);
+		query.select(cb.construct(BookResponseDTO.class, book.get("id"), book.get("title"), book.get("author"),
+				book.get("isbn"), book.get("publicationDate"), book.get("genre"),
+				cb.<Boolean>selectCase().when(cb.gt(book.get("availableCopies"), 0), true).otherwise(false),
+				book.get("totalCopies"), book.get("availableCopies")));
+		Predicate where = spec == null ? null : spec.toPredicate(book, query, cb);
+		if (where != null) {
+			query.where(where);
+		}
+		query.orderBy(QueryUtils.toOrders(sort, book, cb));
+		return entityManager.createQuery(query);
+	}
+
+	private long count(Specification<Book> spec) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Book> book = query.from(Book.class);
+		query.select(cb.count(book));
+		Predicate where = spec == null ? null : spec.toPredicate(book, query, cb);
+		if (where != null) {
+			query.where(where);
+		}
+		return entityManager.createQuery(query).getSingleResult();
+	}
+
+}
@@ -1,18 +1,120 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.repository;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookExportDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookProjections {
 
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+	Optional<Book> findByIsbnKey(long isbnKey);
 
-	Optional<Book> findByIsbn(String isbn);
+	boolean existsByIsbnKey(long isbnKey);
 
-	boolean existsByIsbn(String isbn);
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.repository.BookIsbnKey(b.id, b.isbnKey)
+			FROM Book b WHERE b.id > :afterId AND b.isbnKey IS NOT NULL ORDER BY b.id
+			""")
+	List<BookIsbnKey> findIsbnKeysAfter(@Param("afterId") long afterId, Limit limit);
+
+	List<Book> findByIsbnKeyIsNull();
+
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.repository.BookFacetRow(b.id, b.genre, b.author,
+				CASE WHEN b.availableCopies > 0 THEN true ELSE false END)
+			FROM Book b WHERE b.id > :afterId ORDER BY b.id
+			""")
+	List<BookFacetRow> findFacetRowsAfter(@Param("afterId") long afterId, Limit limit);
+
+	/**
+	 * Streams every book in id order from a server-side cursor. Must be consumed and
+	 * closed inside a transaction.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportQueries.FETCH_SIZE))
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.dto.BookExportDTO(
+				b.id, b.title, b.author, b.isbn, b.publicationDate, b.genre, b.totalCopies, b.availableCopies)
+			FROM Book b ORDER BY b.id""")
+	Stream<BookExportDTO> streamAllForExport();
+
+	Window<Book> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+	List<Book> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+	@Query("SELECT b.id FROM Book b WHERE b.id IN :ids AND b.availableCopies > 0")
+	Set<Long> findAvailableIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Takes one copy off the shelf if any is left. The check and the decrement are one
+	 * statement, so concurrent borrows serialize on the row lock instead of racing.
+	 * @return 1 if a copy was taken, 0 if none was left or the book does not exist
+	 */
+	@Modifying
+	@Query("UPDATE Book b SET b.availableCopies = b.availableCopies - 1 WHERE b.id = :id AND b.availableCopies > 0")
+	int takeCopy(@Param("id") long id);
+
+	/**
+	 * Puts one copy back on the shelf.
+	 * @return 0 if every copy was already on the shelf
+	 */
+	@Modifying
+	@Query("""
+			UPDATE Book b SET b.availableCopies = b.availableCopies + 1
+			WHERE b.id = :id AND b.availableCopies < b.totalCopies""")
+	int returnCopy(@Param("id") long id);
+
+	/**
+	 * Changes how many copies the library owns, moving the shelf count by the same amount.
+	 * @return 0 if more copies are on loan than the new total allows
+	 */
+	@Modifying
+	@Query("""
+			UPDATE Book b SET b.availableCopies = b.availableCopies + :total - b.totalCopies, b.totalCopies = :total
+			WHERE b.id = :id AND b.availableCopies + :total - b.totalCopies >= 0""")
+	int resizeCopies(@Param("id") long id, @Param("total") int total);
+
+	/**
+	 * Reads the shelf count as the database holds it, bypassing any managed entity.
+	 */
+	@Query("SELECT b.availableCopies FROM Book b WHERE b.id = :id")
+	int findAvailableCopiesById(@Param("id") long id);
+
+	/**
+	 * Re-derives {@code available_copies} from the open borrowings and the copies set aside
+	 * for ready holds, for every book whose count has drifted. Books with more copies out
+	 * than they own are left alone, since the check constraint would refuse them.
+	 * @return number of books corrected
+	 */
+	@Modifying
+	@Query(value = """
+			UPDATE books SET available_copies = total_copies - (
+			    SELECT COUNT(*) FROM borrowings br WHERE br.book_id = books.id AND br.is_returned = false) - (
+			    SELECT COUNT(*) FROM holds h WHERE h.book_id = books.id AND h.status = 'READY')
+			WHERE available_copies <> total_copies - (
+			    SELECT COUNT(*) FROM borrowings br WHERE br.book_id = books.id AND br.is_returned = false) - (
+			    SELECT COUNT(*) FROM holds h WHERE h.book_id = books.id AND h.status = 'READY')
+			AND total_copies >= (
+			    SELECT COUNT(*) FROM borrowings br WHERE br.book_id = books.id AND br.is_returned = false) + (
+			    SELECT COUNT(*) FROM holds h WHERE h.book_id = books.id AND h.status = 'READY')
+			""", nativeQuery = true)
+	int repairAvailableCopies();
 
 }
\ No newline at end of file
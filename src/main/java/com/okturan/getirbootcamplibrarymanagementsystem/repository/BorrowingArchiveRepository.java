@@ -0,0 +1,65 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC moves from {@code borrowings} to {@code borrowings_archive}. Rows keep their
+ * ids, so anything recorded against a borrowing still finds it through the
+ * {@code borrowing_history} view.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BorrowingArchiveRepository {
+
+	private static final String ARCHIVABLE = """
+			SELECT id FROM borrowings
+			WHERE is_returned = true AND return_date < :cutoff
+			ORDER BY id
+			LIMIT :limit
+			""";
+
+	private static final String COPY = """
+			INSERT INTO borrowings_archive (id, book_id, user_id, borrow_date, due_date, return_date, archived_at)
+			SELECT id, book_id, user_id, borrow_date, due_date, return_date, :archivedAt FROM borrowings
+			WHERE id IN (:ids) AND is_returned = true
+			""";
+
+	private static final String DELETE = "DELETE FROM borrowings WHERE id IN (:ids) AND is_returned = true";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	/**
+	 * @return up to {@code limit} ids of borrowings returned before {@code cutoff}, lowest
+	 * first
+	 */
+	public List<Long> findArchivable(LocalDate cutoff, int limit) {
+		return jdbcTemplate.queryForList(ARCHIVABLE,
+				new MapSqlParameterSource("cutoff", Date.valueOf(cutoff)).addValue("limit", limit), Long.class);
+	}
+
+	/**
+	 * Copies the borrowings into the archive and deletes them from the hot table. Both
+	 * statements must run in the caller's transaction.
+	 * @return number of borrowings moved
+	 */
+	public int move(List<Long> ids, LocalDateTime archivedAt) {
+		MapSqlParameterSource params = new MapSqlParameterSource("ids", ids).addValue("archivedAt",
+				Timestamp.valueOf(archivedAt));
+		int copied = jdbcTemplate.update(COPY, params);
+		int deleted = jdbcTemplate.update(DELETE, params);
+		if (copied != deleted) {
+			throw new IllegalStateException("Archived " + copied + " borrowings but deleted " + deleted);
+		}
+		return deleted;
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingExportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.BorrowingRecord;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Reads that span every borrowing a patron ever made, archived or not, through the
+ * {@code borrowing_history} view. Read-only: circulation goes through
+ * {@link BorrowingRepository}.
+ */
+@org.springframework.stereotype.Repository
+public interface BorrowingHistoryRepository extends org.springframework.data.repository.Repository<BorrowingRecord, Long> {
+
+	/**
+	 * Fetches each borrowing's book with it; the patron is the one asked for.
+	 */
+	@EntityGraph(attributePaths = "book")
+	Slice<BorrowingRecord> findSliceByUser(User user, Pageable pageable);
+
+	@EntityGraph(attributePaths = "book")
+	Window<BorrowingRecord> findByUser(User user, ScrollPosition position, Sort sort, Limit limit);
+
+	long countByUser(User user);
+
+	/**
+	 * Streams, in id order, the borrowings lent or returned on or after {@code since} whose
+	 * returned flag is one of {@code returned}. Must be consumed and closed inside a
+	 * transaction.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportQueries.FETCH_SIZE))
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingExportDTO(
+				b.id, b.user.id, b.book.id, b.borrowDate, b.dueDate, b.returnDate, b.returned)
+			FROM BorrowingRecord b
+			WHERE (b.borrowDate >= :since OR b.returnDate >= :since) AND b.returned IN :returned
+			ORDER BY b.id""")
+	Stream<BorrowingExportDTO> streamForExport(@Param("since") LocalDate since,
+			@Param("returned") Collection<Boolean> returned);
+
+}
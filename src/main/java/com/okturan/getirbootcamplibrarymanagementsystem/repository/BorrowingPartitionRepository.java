@@ -0,0 +1,96 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Catalog reads and DDL for the monthly {@code borrowings} partitions on PostgreSQL. A
+ * partition is named after its month, {@code borrowings_pYYYY_MM}, which is how its range
+ * is read back.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BorrowingPartitionRepository {
+
+	private static final String PREFIX = "borrowings_p";
+
+	private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+	private static final String IS_PARTITIONED = """
+			SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid
+			WHERE c.relname = 'borrowings' AND pg_table_is_visible(c.oid))
+			""";
+
+	private static final String PARTITIONS = """
+			SELECT c.relname FROM pg_inherits i
+			JOIN pg_class c ON c.oid = i.inhrelid
+			JOIN pg_class p ON p.oid = i.inhparent
+			WHERE p.relname = 'borrowings' AND pg_table_is_visible(p.oid)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	/**
+	 * @return whether {@code borrowings} is a partitioned PostgreSQL table; false on H2,
+	 * where it is a plain one
+	 */
+	public boolean isPartitioned() {
+		String product = jdbcTemplate
+			.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+		return "PostgreSQL".equals(product)
+				&& Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class));
+	}
+
+	/**
+	 * @return the months that have a partition; the default partition is left out
+	 */
+	public List<YearMonth> findPartitionMonths() {
+		return jdbcTemplate.queryForList(PARTITIONS, String.class)
+			.stream()
+			.map(BorrowingPartitionRepository::month)
+			.flatMap(Optional::stream)
+			.sorted()
+			.toList();
+	}
+
+	/**
+	 * Fails if the default partition already holds rows for the month.
+	 */
+	public void create(YearMonth month) {
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF borrowings FOR VALUES FROM ('%s') TO ('%s')"
+			.formatted(name(month), Date.valueOf(month.atDay(1)), Date.valueOf(month.plusMonths(1).atDay(1))));
+	}
+
+	public boolean isEmpty(YearMonth month) {
+		return !Boolean.TRUE.equals(jdbcTemplate
+			.queryForObject("SELECT EXISTS (SELECT 1 FROM %s)".formatted(name(month)), Boolean.class));
+	}
+
+	/**
+	 * Detaches the month's partition and drops it. Callers check it is empty first.
+	 */
+	public void detachAndDrop(YearMonth month) {
+		jdbcTemplate.execute("ALTER TABLE borrowings DETACH PARTITION " + name(month));
+		jdbcTemplate.execute("DROP TABLE " + name(month));
+	}
+
+	private static String name(YearMonth month) {
+		return PREFIX + month.format(SUFFIX);
+	}
+
+	private static Optional<YearMonth> month(String partition) {
+		if (!partition.startsWith(PREFIX)) {
+			return Optional.empty();
+		}
+		return Optional.of(YearMonth.parse(partition.substring(PREFIX.length()), SUFFIX));
+	}
+
+}
@@ -3,41 +3,130 @@ package com.okturan.getirbootcamplibrarymanagementsystem.repository;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 @Repository
 public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
 
-	Page<Borrowing> findByUser(User user, Pageable pageable);
+	/**
+	 * The patron of a borrowing, for ownership checks that need nothing else.
+	 */
+	@Query("SELECT b.user.id FROM Borrowing b WHERE b.id = :id")
+	Optional<Long> findUserIdById(@Param("id") Long id);
 
+	/**
+	 * A single borrowing with its book and patron, which every response names.
+	 */
+	@EntityGraph(attributePaths = { "book", "user" })
+	Optional<Borrowing> findWithBookAndUserById(Long id);
+
+	/**
+	 * The list reads below fetch each borrowing's book and patron in the same select, as
+	 * every response names them; page totals come from a separate count without the joins.
+	 */
+	@EntityGraph(attributePaths = { "book", "user" })
 	Page<Borrowing> findByReturned(boolean returned, Pageable pageable);
 
-	Page<Borrowing> findByDueDateBeforeAndReturned(LocalDate currentDate, boolean returned, Pageable pageable);
+	/**
+	 * Overdue page without a count query; the total comes from the overdue summary.
+	 * <p>
+	 * The due-date reads here also bound the borrow date, which the borrowings table is
+	 * partitioned by on PostgreSQL. No loan falls due before it starts
+	 * ({@code ck_borrowings_due_date}), so a loan due before a date was also borrowed
+	 * before it, whatever its loan period; the bound lets the planner skip the partitions
+	 * of later months.
+	 */
+	default List<Borrowing> findByDueDateBeforeAndReturned(LocalDate currentDate, boolean returned,
+			Pageable pageable) {
+		return findByDueDateBeforeAndBorrowDateBeforeAndReturned(currentDate, currentDate, returned,
+				pageable);
+	}
 
-	boolean existsByBookAndReturnedFalse(Book book);
+	@EntityGraph(attributePaths = { "book", "user" })
+	List<Borrowing> findByDueDateBeforeAndBorrowDateBeforeAndReturned(LocalDate currentDate, LocalDate borrowedBefore,
+			boolean returned, Pageable pageable);
+
+	@EntityGraph(attributePaths = { "book", "user" })
+	Window<Borrowing> findByReturned(boolean returned, ScrollPosition position, Sort sort, Limit limit);
+
+	default Window<Borrowing> findByDueDateBeforeAndReturned(LocalDate currentDate, boolean returned,
+			ScrollPosition position, Sort sort, Limit limit) {
+		return findByDueDateBeforeAndBorrowDateBeforeAndReturned(currentDate, currentDate, returned,
+				position, sort, limit);
+	}
+
+	@EntityGraph(attributePaths = { "book", "user" })
+	Window<Borrowing> findByDueDateBeforeAndBorrowDateBeforeAndReturned(LocalDate currentDate,
+			LocalDate borrowedBefore, boolean returned, ScrollPosition position, Sort sort, Limit limit);
 
-	long countByUser(User user);
+	boolean existsByBookAndReturnedFalse(Book book);
 
 	long countByUserAndReturnedFalse(User user);
 
 	long countByUserAndReturnedFalseAndDueDateBefore(User user, LocalDate date);
 
-	long countByDueDateBeforeAndReturned(LocalDate date, boolean returned);
+	/**
+	 * All three overdue counts in a single pass over the overdue range.
+	 */
+	default OverdueSummary summarizeOverdue(LocalDate date) {
+		return summarizeOverdue(date, date);
+	}
+
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.repository.OverdueSummary(
+				COUNT(b), COUNT(DISTINCT b.user.id), COUNT(DISTINCT b.book.id))
+			FROM Borrowing b
+			WHERE b.dueDate < :date AND b.borrowDate < :borrowedBefore AND b.returned = false""")
+	OverdueSummary summarizeOverdue(@Param("date") LocalDate date, @Param("borrowedBefore") LocalDate borrowedBefore);
+
+	default List<BorrowingRow> findOverdueRows(LocalDate date) {
+		return findOverdueRows(date, date);
+	}
+
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRow(
+				b.id, b.user.id, b.book.id, b.returned)
+			FROM Borrowing b
+			WHERE b.dueDate < :date AND b.borrowDate < :borrowedBefore AND b.returned = false""")
+	List<BorrowingRow> findOverdueRows(@Param("date") LocalDate date, @Param("borrowedBefore") LocalDate borrowedBefore);
+
+	/**
+	 * Open borrowings that fell due in {@code [from, to)}, i.e. turned overdue between two
+	 * days.
+	 */
+	default List<BorrowingRow> findOpenRowsDueBetween(LocalDate from, LocalDate to) {
+		return findOpenRowsDueBetween(from, to, to);
+	}
 
-	@Query("SELECT COUNT(DISTINCT b.user.id) FROM Borrowing b WHERE b.dueDate < :date AND b.returned = false")
-	long countDistinctUsersByDueDateBeforeAndReturnedFalse(@Param("date") LocalDate date);
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRow(
+				b.id, b.user.id, b.book.id, b.returned)
+			FROM Borrowing b
+			WHERE b.dueDate >= :from AND b.dueDate < :to AND b.borrowDate < :borrowedBefore AND b.returned = false""")
+	List<BorrowingRow> findOpenRowsDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("borrowedBefore") LocalDate borrowedBefore);
 
-	@Query("SELECT COUNT(DISTINCT b.book.id) FROM Borrowing b WHERE b.dueDate < :date AND b.returned = false")
-	long countDistinctBooksByDueDateBeforeAndReturnedFalse(@Param("date") LocalDate date);
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRow(
+				b.id, b.user.id, b.book.id, b.returned)
+			FROM Borrowing b WHERE b.id IN :ids""")
+	List<BorrowingRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
 
 	@Query("SELECT b.book.id FROM Borrowing b WHERE b.book.id IN :bookIds AND b.returned = false")
 	Set<Long> findBorrowedBookIdsByBookIds(@Param("bookIds") List<Long> bookIds);
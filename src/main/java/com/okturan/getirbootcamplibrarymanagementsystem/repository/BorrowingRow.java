@@ -0,0 +1,7 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+/**
+ * Owner, book and state of a borrowing, read without loading the entity.
+ */
+public record BorrowingRow(Long id, Long userId, Long bookId, boolean returned) {
+}
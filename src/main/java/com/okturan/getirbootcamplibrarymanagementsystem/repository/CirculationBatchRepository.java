@@ -0,0 +1,146 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for batch checkout and return, one round trip per statement kind
+ * rather than per item. Each update carries its own guard, so the returned row counts say
+ * which items went through. Nothing here touches the persistence context: callers must
+ * refresh any managed entity they keep.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CirculationBatchRepository {
+
+	private static final String TAKE_COPY = """
+			UPDATE books SET available_copies = available_copies - 1 WHERE id = ? AND available_copies > 0
+			""";
+
+	private static final String RETURN_COPY = """
+			UPDATE books SET available_copies = available_copies + 1 WHERE id = ? AND available_copies < total_copies
+			""";
+
+	private static final String INSERT = """
+			INSERT INTO borrowings (book_id, user_id, borrow_date, due_date, is_returned)
+			VALUES (?, ?, ?, ?, false)
+			""";
+
+	private static final String CLOSE = """
+			UPDATE borrowings SET is_returned = true, return_date = ? WHERE id = ? AND is_returned = false
+			""";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	/**
+	 * Takes one copy of each book, in order; a book listed twice gives up two copies.
+	 * @return per book, whether a copy was taken
+	 */
+	public boolean[] takeCopies(List<Long> bookIds) {
+		if (bookIds.isEmpty()) {
+			return new boolean[0];
+		}
+		return succeeded(jdbcTemplate.getJdbcTemplate()
+			.batchUpdate(TAKE_COPY, bookIds, bookIds.size(), (ps, bookId) -> ps.setLong(1, bookId)));
+	}
+
+	/**
+	 * @return per book, whether a copy was put back
+	 */
+	public boolean[] returnCopies(List<Long> bookIds) {
+		if (bookIds.isEmpty()) {
+			return new boolean[0];
+		}
+		return succeeded(jdbcTemplate.getJdbcTemplate()
+			.batchUpdate(RETURN_COPY, bookIds, bookIds.size(), (ps, bookId) -> ps.setLong(1, bookId)));
+	}
+
+	/**
+	 * Inserts the borrowings and assigns their generated ids.
+	 */
+	public void insert(List<Borrowing> borrowings) {
+		if (borrowings.isEmpty()) {
+			return;
+		}
+		KeyHolder keys = new GeneratedKeyHolder();
+		jdbcTemplate.getJdbcTemplate()
+			.batchUpdate(connection -> connection.prepareStatement(INSERT, new String[] { "id" }),
+					new BatchPreparedStatementSetter() {
+						@Override
+						public void setValues(PreparedStatement ps, int i) throws SQLException {
+							Borrowing borrowing = borrowings.get(i);
+							ps.setLong(1, borrowing.getBook().getId());
+							ps.setLong(2, borrowing.getUser().getId());
+							ps.setDate(3, Date.valueOf(borrowing.getBorrowDate()));
+							ps.setDate(4, Date.valueOf(borrowing.getDueDate()));
+						}
+
+						@Override
+						public int getBatchSize() {
+							return borrowings.size();
+						}
+					}, keys);
+		List<Map<String, Object>> generated = keys.getKeyList();
+		for (int i = 0; i < borrowings.size(); i++) {
+			borrowings.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+		}
+	}
+
+	/**
+	 * Marks the borrowings returned unless they already are.
+	 * @return per borrowing, whether this call returned it
+	 */
+	public boolean[] close(List<Long> borrowingIds, LocalDate returnDate) {
+		if (borrowingIds.isEmpty()) {
+			return new boolean[0];
+		}
+		Date date = Date.valueOf(returnDate);
+		return succeeded(jdbcTemplate.getJdbcTemplate()
+			.batchUpdate(CLOSE, borrowingIds, borrowingIds.size(), (ps, id) -> {
+				ps.setDate(1, date);
+				ps.setLong(2, id);
+			}));
+	}
+
+	/**
+	 * @return shelf counts keyed by book id, for the books that exist
+	 */
+	public Map<Long, Integer> findAvailableCopies(Collection<Long> bookIds) {
+		Map<Long, Integer> copies = new HashMap<>();
+		if (bookIds.isEmpty()) {
+			return copies;
+		}
+		jdbcTemplate.query("SELECT id, available_copies FROM books WHERE id IN (:ids)", Map.of("ids", bookIds),
+				rs -> {
+					copies.put(rs.getLong("id"), rs.getInt("available_copies"));
+				});
+		return copies;
+	}
+
+	private static boolean[] succeeded(int[][] counts) {
+		boolean[] result = new boolean[Arrays.stream(counts).mapToInt(batch -> batch.length).sum()];
+		int i = 0;
+		for (int[] batch : counts) {
+			for (int count : batch) {
+				result[i++] = count > 0;
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+/**
+ * Shared settings of the streaming export queries.
+ */
+final class ExportQueries {
+
+	/**
+	 * Rows the JDBC driver fetches per round trip. Without it PostgreSQL materializes the
+	 * whole result set in memory before the first row is returned.
+	 */
+	static final String FETCH_SIZE = "500";
+
+	private ExportQueries() {
+	}
+
+}
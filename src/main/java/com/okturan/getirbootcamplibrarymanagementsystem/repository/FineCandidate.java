@@ -0,0 +1,9 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import java.time.LocalDate;
+
+/**
+ * A borrowing a fee assessment may charge; {@code returnDate} is null while it is open.
+ */
+public record FineCandidate(long borrowingId, long userId, LocalDate dueDate, LocalDate returnDate) {
+}
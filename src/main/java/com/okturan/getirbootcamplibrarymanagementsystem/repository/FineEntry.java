@@ -0,0 +1,9 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * A ledger entry to write: the fee one assessment charges one borrowing.
+ */
+public record FineEntry(long borrowingId, long userId, BigDecimal amount) {
+}
@@ -0,0 +1,87 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC reads and writes for the fee assessment, which walks every borrowing once a
+ * night. Candidates are read as rows in borrowing id order, a chunk at a time, and ledger
+ * entries are written as one batch per chunk.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FineLedgerRepository {
+
+	private static final String CANDIDATES = """
+			SELECT id, user_id, due_date, return_date FROM borrowings
+			WHERE id > :afterId AND due_date < :runDate AND %s
+			ORDER BY id
+			LIMIT :limit
+			""";
+
+	/** Open, or returned after the window being charged began. */
+	private static final String SINCE_LAST_RUN = "(is_returned = false OR return_date > :since)";
+
+	/** Open, or returned late. */
+	private static final String FIRST_RUN = "(is_returned = false OR return_date > due_date)";
+
+	private static final String INSERT = """
+			INSERT INTO fines (borrowing_id, user_id, assessed_on, amount) VALUES (?, ?, ?, ?)
+			""";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	/**
+	 * @param chargedSince the previous completed run, or null to charge from each due date
+	 * @return up to {@code limit} borrowings after {@code afterId} that were overdue at some
+	 * point in the window being charged
+	 */
+	public List<FineCandidate> findCandidates(long afterId, LocalDate runDate, LocalDate chargedSince, int limit) {
+		MapSqlParameterSource params = new MapSqlParameterSource().addValue("afterId", afterId)
+			.addValue("runDate", Date.valueOf(runDate))
+			.addValue("limit", limit);
+		String sql;
+		if (chargedSince != null) {
+			params.addValue("since", Date.valueOf(chargedSince));
+			sql = CANDIDATES.formatted(SINCE_LAST_RUN);
+		}
+		else {
+			sql = CANDIDATES.formatted(FIRST_RUN);
+		}
+		return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+			Date returnDate = rs.getDate("return_date");
+			return new FineCandidate(rs.getLong("id"), rs.getLong("user_id"), rs.getDate("due_date").toLocalDate(),
+					returnDate != null ? returnDate.toLocalDate() : null);
+		});
+	}
+
+	public void insert(LocalDate assessedOn, List<FineEntry> entries) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		Date date = Date.valueOf(assessedOn);
+		jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT, entries, entries.size(), (ps, entry) -> {
+			ps.setLong(1, entry.borrowingId());
+			ps.setLong(2, entry.userId());
+			ps.setDate(3, date);
+			ps.setBigDecimal(4, entry.amount());
+		});
+	}
+
+	/**
+	 * @return the sum of the patron's ledger entries, zero if they have none
+	 */
+	public BigDecimal balance(long userId) {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(amount), 0) FROM fines WHERE user_id = :userId",
+				Map.of("userId", userId), BigDecimal.class);
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRun;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface FineRunRepository extends JpaRepository<FineRun, LocalDate> {
+
+	/**
+	 * The latest completed run before {@code runDate}, whose date the next run charges from.
+	 */
+	Optional<FineRun> findFirstByRunDateBeforeAndStatusOrderByRunDateDesc(LocalDate runDate, FineRunStatus status);
+
+	/**
+	 * The oldest unfinished run before {@code runDate}, which must complete first.
+	 */
+	Optional<FineRun> findFirstByRunDateBeforeAndStatusOrderByRunDateAsc(LocalDate runDate, FineRunStatus status);
+
+	boolean existsByRunDateAfterAndStatus(LocalDate runDate, FineRunStatus status);
+
+	/**
+	 * Moves the checkpoint past a written chunk. Guarded on the previous checkpoint, so if
+	 * two instances resume the same run only one of them commits each chunk.
+	 * @return 1 if advanced, 0 if another runner got there first
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE FineRun r SET r.lastBorrowingId = :to, r.entries = r.entries + :entries,
+				r.totalAmount = r.totalAmount + :amount
+			WHERE r.runDate = :runDate AND r.lastBorrowingId = :from
+				AND r.status = com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus.RUNNING""")
+	int advance(@Param("runDate") LocalDate runDate, @Param("from") long from, @Param("to") long to,
+			@Param("entries") long entries, @Param("amount") BigDecimal amount);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE FineRun r SET r.status = com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus.COMPLETED,
+				r.finishedAt = :finishedAt
+			WHERE r.runDate = :runDate AND r.lastBorrowingId = :at
+				AND r.status = com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus.RUNNING""")
+	int complete(@Param("runDate") LocalDate runDate, @Param("at") long at,
+			@Param("finishedAt") LocalDateTime finishedAt);
+
+}
@@ -0,0 +1,9 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus;
+
+/**
+ * An open hold as the queue index needs it, read without loading the entity.
+ */
+public record HoldQueueRow(Long id, Long bookId, HoldStatus status) {
+}
@@ -0,0 +1,99 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Hold;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+	/**
+	 * The patron of a hold, for ownership checks that need nothing else.
+	 */
+	@Query("SELECT h.user.id FROM Hold h WHERE h.id = :id")
+	Optional<Long> findUserIdById(@Param("id") Long id);
+
+	/**
+	 * Every waiting or ready hold in queue order, for rebuilding the in-memory queues.
+	 */
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.repository.HoldQueueRow(h.id, h.book.id, h.status)
+			FROM Hold h
+			WHERE h.status IN (com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.WAITING,
+				com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.READY)
+			ORDER BY h.id""")
+	List<HoldQueueRow> findOpenQueueRows();
+
+	/**
+	 * The oldest waiting holds of a book, head of the queue first.
+	 */
+	@Query("""
+			SELECT h.id FROM Hold h
+			WHERE h.book.id = :bookId AND h.status = com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.WAITING
+			ORDER BY h.id""")
+	List<Long> findWaitingIds(@Param("bookId") long bookId, Limit limit);
+
+	@Query("""
+			SELECT h.id FROM Hold h
+			WHERE h.book.id = :bookId AND h.user.id = :userId
+				AND h.status = com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.READY""")
+	Optional<Long> findReadyHoldId(@Param("bookId") long bookId, @Param("userId") long userId);
+
+	@Query("""
+			SELECT COUNT(h) > 0 FROM Hold h
+			WHERE h.book.id = :bookId AND h.user.id = :userId
+				AND h.status IN (com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.WAITING,
+					com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.READY)""")
+	boolean existsOpenHold(@Param("bookId") long bookId, @Param("userId") long userId);
+
+	/**
+	 * Holds of a book that joined the queue before the given one. Only used until the
+	 * queue index is built.
+	 */
+	@Query("""
+			SELECT COUNT(h) FROM Hold h
+			WHERE h.book.id = :bookId AND h.id < :holdId
+				AND h.status = com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.WAITING""")
+	long countWaitingAhead(@Param("bookId") long bookId, @Param("holdId") long holdId);
+
+	@Query("""
+			SELECT h FROM Hold h JOIN FETCH h.book
+			WHERE h.user.id = :userId
+				AND h.status IN (com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.WAITING,
+					com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.READY)
+			ORDER BY h.id""")
+	List<Hold> findOpenByUserId(@Param("userId") long userId);
+
+	List<Hold> findByStatusAndPickupDeadlineBefore(HoldStatus status, LocalDateTime deadline, Limit limit);
+
+	/**
+	 * Sets the copy aside for a waiting hold.
+	 * @return 1 if the hold was still waiting, otherwise 0
+	 */
+	@Modifying
+	@Query("""
+			UPDATE Hold h SET h.status = com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.READY,
+				h.readyAt = :readyAt, h.pickupDeadline = :pickupDeadline
+			WHERE h.id = :id AND h.status = com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus.WAITING""")
+	int markReady(@Param("id") long id, @Param("readyAt") LocalDateTime readyAt,
+			@Param("pickupDeadline") LocalDateTime pickupDeadline);
+
+	/**
+	 * Moves a hold from one state to another, so two callers racing on the same hold
+	 * cannot both act on it.
+	 * @return 1 if the hold was in {@code from}, otherwise 0
+	 */
+	@Modifying
+	@Query("UPDATE Hold h SET h.status = :to WHERE h.id = :id AND h.status = :from")
+	int transition(@Param("id") long id, @Param("from") HoldStatus from, @Param("to") HoldStatus to);
+
+}
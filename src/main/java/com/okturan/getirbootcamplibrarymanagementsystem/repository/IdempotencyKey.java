@@ -0,0 +1,8 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+/**
+ * An idempotency key; keys are scoped to the user who sent them.
+ */
+public record IdempotencyKey(long userId, String key) {
+
+}
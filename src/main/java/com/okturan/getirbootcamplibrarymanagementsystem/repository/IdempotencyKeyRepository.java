@@ -0,0 +1,135 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Plain JDBC access to {@code idempotency_keys}. Every statement addresses one key by
+ * primary key except the sweep, which runs on the {@code created_at} index. Runs outside
+ * any transaction: the filter claims a key before the request opens one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyRepository {
+
+	private static final String INSERT = """
+			INSERT INTO idempotency_keys (user_id, idempotency_key, fingerprint, owner, created_at, heartbeat_at)
+			VALUES (:userId, :key, :fingerprint, :owner, :createdAt, :createdAt)
+			""";
+
+	private static final String FIND = """
+			SELECT fingerprint, status, content_type, body, created_at FROM idempotency_keys
+			WHERE user_id = :userId AND idempotency_key = :key
+			""";
+
+	private static final String COMPLETE = """
+			UPDATE idempotency_keys SET status = :status, content_type = :contentType, body = :body
+			WHERE user_id = :userId AND idempotency_key = :key AND owner = :owner AND status IS NULL
+			""";
+
+	private static final String DELETE = """
+			DELETE FROM idempotency_keys
+			WHERE user_id = :userId AND idempotency_key = :key AND owner = :owner AND status IS NULL
+			""";
+
+	private static final String HEARTBEAT = """
+			UPDATE idempotency_keys SET heartbeat_at = :now
+			WHERE user_id = :userId AND idempotency_key = :key AND owner = :owner AND status IS NULL
+			""";
+
+	private static final String DELETE_STALE = """
+			DELETE FROM idempotency_keys
+			WHERE user_id = :userId AND idempotency_key = :key
+				AND (created_at < :expiredBefore OR (status IS NULL AND heartbeat_at < :abandonedBefore))
+			""";
+
+	private static final String DELETE_EXPIRED = "DELETE FROM idempotency_keys WHERE created_at < :expiredBefore";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	/**
+	 * Records the key as taken by a request that {@code owner} is serving.
+	 * @return {@code false} if the key is already recorded
+	 */
+	public boolean insert(long userId, String key, String fingerprint, String owner, LocalDateTime createdAt) {
+		try {
+			return jdbcTemplate.update(INSERT,
+					key(userId, key).addValue("fingerprint", fingerprint)
+						.addValue("owner", owner)
+						.addValue("createdAt", Timestamp.valueOf(createdAt))) == 1;
+		}
+		catch (DuplicateKeyException ex) {
+			return false;
+		}
+	}
+
+	public Optional<IdempotencyRecord> find(long userId, String key) {
+		return jdbcTemplate.query(FIND, key(userId, key), (rs, rowNum) -> {
+			int status = rs.getInt("status");
+			Integer recorded = rs.wasNull() ? null : status;
+			return new IdempotencyRecord(rs.getString("fingerprint"), recorded,
+					rs.getString("content_type"), rs.getString("body"), rs.getTimestamp("created_at").toLocalDateTime());
+		}).stream().findFirst();
+	}
+
+	/**
+	 * @return {@code false} if {@code owner} no longer holds the key
+	 */
+	public boolean complete(long userId, String key, String owner, int status, String contentType, String body) {
+		return jdbcTemplate.update(COMPLETE, key(userId, key).addValue("owner", owner)
+			.addValue("status", status)
+			.addValue("contentType", contentType)
+			.addValue("body", body)) == 1;
+	}
+
+	/**
+	 * Deletes the key if {@code owner} still holds it unfinished.
+	 */
+	public void delete(long userId, String key, String owner) {
+		jdbcTemplate.update(DELETE, key(userId, key).addValue("owner", owner));
+	}
+
+	/**
+	 * Confirms in one batch that {@code owner} is still serving the requests under the
+	 * given keys.
+	 */
+	public void heartbeat(String owner, Collection<IdempotencyKey> keys, LocalDateTime now) {
+		Timestamp at = Timestamp.valueOf(now);
+		jdbcTemplate.batchUpdate(HEARTBEAT, keys.stream()
+			.map(k -> key(k.userId(), k.key()).addValue("owner", owner).addValue("now", at))
+			.toArray(SqlParameterSource[]::new));
+	}
+
+	/**
+	 * Deletes the key if it has expired, or if the request holding it has not finished and
+	 * its owner has sent no heartbeat since {@code abandonedBefore}.
+	 * @return {@code true} if the key was deleted
+	 */
+	public boolean deleteStale(long userId, String key, LocalDateTime expiredBefore, LocalDateTime abandonedBefore) {
+		return jdbcTemplate.update(DELETE_STALE,
+				key(userId, key).addValue("expiredBefore", Timestamp.valueOf(expiredBefore))
+					.addValue("abandonedBefore", Timestamp.valueOf(abandonedBefore))) > 0;
+	}
+
+	/**
+	 * @return number of keys deleted
+	 */
+	public int deleteExpired(LocalDateTime expiredBefore) {
+		return jdbcTemplate.update(DELETE_EXPIRED,
+				new MapSqlParameterSource("expiredBefore", Timestamp.valueOf(expiredBefore)));
+	}
+
+	private static MapSqlParameterSource key(long userId, String key) {
+		return new MapSqlParameterSource("userId", userId).addValue("key", key);
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request recorded under an idempotency key: the fingerprint of the request that took
+ * the key and, once it finished, the response to replay. {@code status} is {@code null}
+ * while that request is still being served.
+ */
+public record IdempotencyRecord(String fingerprint, Integer status, String contentType, String body,
+		LocalDateTime createdAt) {
+
+	public boolean isCompleted() {
+		return status != null;
+	}
+
+}
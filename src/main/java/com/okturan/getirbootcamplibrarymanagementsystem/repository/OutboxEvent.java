@@ -0,0 +1,13 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event recorded in the outbox by a committed write, with its payload as JSON.
+ */
+public record OutboxEvent(long id, String eventType, long aggregateId, String payload, LocalDateTime createdAt) {
+
+	/** A book's copy counts changed; the payload is its {@code BookAvailabilityDTO}. */
+	public static final String BOOK_AVAILABILITY_CHANGED = "BOOK_AVAILABILITY_CHANGED";
+
+}
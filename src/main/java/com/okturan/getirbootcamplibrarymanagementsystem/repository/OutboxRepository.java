@@ -0,0 +1,63 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access to {@code outbox_events}. Appends join the caller's transaction;
+ * the relay reads and deletes in primary-key order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxRepository {
+
+	private static final String INSERT = """
+			INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at)
+			VALUES (:eventType, :aggregateId, :payload, :createdAt)
+			""";
+
+	private static final String OLDEST = """
+			SELECT id, event_type, aggregate_id, payload, created_at FROM outbox_events
+			ORDER BY id
+			LIMIT :limit
+			""";
+
+	private static final String DELETE = "DELETE FROM outbox_events WHERE id IN (:ids)";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+
+	/**
+	 * Appends one event per aggregate id, in the map's iteration order, as one JDBC batch.
+	 */
+	public void insertAll(String eventType, Map<Long, String> payloads, LocalDateTime createdAt) {
+		MapSqlParameterSource[] rows = payloads.entrySet()
+			.stream()
+			.map(payload -> new MapSqlParameterSource("eventType", eventType).addValue("aggregateId", payload.getKey())
+				.addValue("payload", payload.getValue())
+				.addValue("createdAt", Timestamp.valueOf(createdAt)))
+			.toArray(MapSqlParameterSource[]::new);
+		jdbcTemplate.batchUpdate(INSERT, rows);
+	}
+
+	/**
+	 * @return up to {@code limit} of the oldest events, lowest id first
+	 */
+	public List<OutboxEvent> findOldest(int limit) {
+		return jdbcTemplate.query(OLDEST, new MapSqlParameterSource("limit", limit),
+				(rs, rowNum) -> new OutboxEvent(rs.getLong("id"), rs.getString("event_type"),
+						rs.getLong("aggregate_id"), rs.getString("payload"),
+						rs.getTimestamp("created_at").toLocalDateTime()));
+	}
+
+	public int deleteAll(List<Long> ids) {
+		return jdbcTemplate.update(DELETE, new MapSqlParameterSource("ids", ids));
+	}
+
+}
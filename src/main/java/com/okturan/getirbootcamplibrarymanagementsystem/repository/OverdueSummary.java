@@ -0,0 +1,8 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+/**
+ * Counts of the open borrowings past their due date, and of the distinct patrons and books
+ * they involve.
+ */
+public record OverdueSummary(long total, long users, long books) {
+}
@@ -0,0 +1,105 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.UserBorrowingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserBorrowingStatsRepository extends JpaRepository<UserBorrowingStats, Long> {
+
+	/**
+	 * Counts {@code count} new borrowings unless that would take the patron past
+	 * {@code maxActive} open ones. The row lock it takes serializes a patron's borrows, so
+	 * two concurrent ones cannot both pass the limit.
+	 * @return 1 if counted, 0 if over the limit or the patron has no row yet
+	 */
+	@Modifying
+	@Query("""
+			UPDATE UserBorrowingStats s
+			SET s.totalBorrowings = s.totalBorrowings + :count, s.activeBorrowings = s.activeBorrowings + :count
+			WHERE s.userId = :userId AND s.activeBorrowings + :count <= :maxActive""")
+	int recordBorrows(@Param("userId") long userId, @Param("count") int count, @Param("maxActive") long maxActive);
+
+	/**
+	 * Reads the patron's open borrowings and locks their row until the transaction ends,
+	 * so the headroom a batch is sized by cannot be spent by a concurrent borrow.
+	 * @return the open borrowings, or {@code null} if the patron has no row yet
+	 */
+	@Query(value = "SELECT active_borrowings FROM user_borrowing_stats WHERE user_id = :userId FOR UPDATE",
+			nativeQuery = true)
+	Long lockActiveBorrowings(@Param("userId") long userId);
+
+	/**
+	 * @return 1 if counted, 0 if the row is missing or would go negative
+	 */
+	@Modifying
+	@Query("""
+			UPDATE UserBorrowingStats s SET s.activeBorrowings = s.activeBorrowings - :count
+			WHERE s.userId = :userId AND s.activeBorrowings >= :count""")
+	int recordReturns(@Param("userId") long userId, @Param("count") int count);
+
+	/**
+	 * Creates the patron's row from their borrowings, archived ones included, if it does not
+	 * exist yet.
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO user_borrowing_stats (user_id, total_borrowings, active_borrowings)
+			SELECT :userId, COUNT(*), COALESCE(SUM(CASE WHEN br.is_returned = false THEN 1 ELSE 0 END), 0)
+			FROM borrowing_history br
+			WHERE br.user_id = :userId
+			HAVING NOT EXISTS (SELECT 1 FROM user_borrowing_stats s WHERE s.user_id = :userId)
+			""", nativeQuery = true)
+	int createIfMissing(@Param("userId") long userId);
+
+	/**
+	 * Adds rows for patrons who have borrowings but no counters, such as borrowings seeded
+	 * outside the circulation service.
+	 */
+	@Modifying
+	@Query(value = """
+			INSERT INTO user_borrowing_stats (user_id, total_borrowings, active_borrowings)
+			SELECT br.user_id, COUNT(*), SUM(CASE WHEN br.is_returned = false THEN 1 ELSE 0 END)
+			FROM borrowing_history br
+			WHERE NOT EXISTS (SELECT 1 FROM user_borrowing_stats s WHERE s.user_id = br.user_id)
+			GROUP BY br.user_id
+			""", nativeQuery = true)
+	int insertMissing();
+
+	/**
+	 * Patrons whose counters disagree with the borrowing history, as read without locks;
+	 * each is re-checked under its row lock by {@link #repairCounts(long)}.
+	 */
+	@Query(value = """
+			SELECT s.user_id FROM user_borrowing_stats s
+			WHERE s.total_borrowings <> (SELECT COUNT(*) FROM borrowing_history br WHERE br.user_id = s.user_id)
+			OR s.active_borrowings <> (SELECT COUNT(*) FROM borrowing_history br
+			    WHERE br.user_id = s.user_id AND br.is_returned = false)
+			""", nativeQuery = true)
+	List<Long> findDriftedUserIds();
+
+	/**
+	 * Re-derives one patron's counters from the borrowing history. Run it after
+	 * {@link #lockActiveBorrowings(long)} in the same transaction: a borrow or return
+	 * holds the row lock until it commits, so the history read here then includes it.
+	 * @return 1 if the counters were corrected, 0 if they were already right
+	 */
+	@Modifying
+	@Query(value = """
+			UPDATE user_borrowing_stats SET
+			    total_borrowings = (SELECT COUNT(*) FROM borrowing_history br WHERE br.user_id = :userId),
+			    active_borrowings = (SELECT COUNT(*) FROM borrowing_history br
+			        WHERE br.user_id = :userId AND br.is_returned = false)
+			WHERE user_id = :userId AND (
+			    total_borrowings <> (SELECT COUNT(*) FROM borrowing_history br WHERE br.user_id = :userId)
+			    OR active_borrowings <> (SELECT COUNT(*) FROM borrowing_history br
+			        WHERE br.user_id = :userId AND br.is_returned = false))
+			""", nativeQuery = true)
+	int repairCounts(@Param("userId") long userId);
+
+}
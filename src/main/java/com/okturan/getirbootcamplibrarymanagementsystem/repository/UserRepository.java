@@ -2,10 +2,19 @@ package com.okturan.getirbootcamplibrarymanagementsystem.repository;
 
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -16,6 +25,23 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
 	Optional<User> findByEmail(String email);
 
+	/* ---------- keyset paging ---------- */
+
+	Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+	/* ---------- export ---------- */
+
+	/**
+	 * Streams every user with their roles in id order, one row per role. Must be consumed
+	 * and closed inside a transaction.
+	 */
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportQueries.FETCH_SIZE))
+	@Query("""
+			SELECT new com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRoleRow(
+				u.id, u.username, u.email, u.firstName, u.lastName, u.address, u.phoneNumber, u.dateOfBirth, r)
+			FROM User u LEFT JOIN u.roles r ORDER BY u.id""")
+	Stream<UserRoleRow> streamAllForExport();
+
 	/* ---------- role‑based helpers ---------- */
 
 	/**
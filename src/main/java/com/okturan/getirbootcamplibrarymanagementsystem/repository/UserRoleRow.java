@@ -0,0 +1,13 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+
+import java.time.LocalDate;
+
+/**
+ * A user's exportable columns joined with one of their roles; a user with several roles
+ * spans consecutive rows.
+ */
+public record UserRoleRow(Long id, String username, String email, String firstName, String lastName, String address,
+		String phoneNumber, LocalDate dateOfBirth, Role role) {
+}
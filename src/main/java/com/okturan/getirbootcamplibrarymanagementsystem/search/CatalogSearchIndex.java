@@ -0,0 +1,137 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.search;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.index.RebuildableIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM full-text index over title, author and genre. Queries never touch the database;
+ * only the page of books finally returned is loaded by id.
+ * <p>
+ * Changes are applied after commit. A rebuild fills a fresh segment from the database
+ * while the old one keeps serving, replays any changes committed in the meantime and then
+ * swaps the new segment in atomically.
+ */
+@Slf4j
+@Component
+public class CatalogSearchIndex implements RebuildableIndex {
+
+	private static final int REBUILD_BATCH_SIZE = 1000;
+
+	private final BookRepository bookRepository;
+
+	private final boolean enabled;
+
+	private final AtomicReference<SearchSegment> current = new AtomicReference<>(new SearchSegment());
+
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+
+	private final Object writeMonitor = new Object();
+
+	/** Changes committed while a rebuild is running; guarded by {@link #writeMonitor}. */
+	private List<Consumer<SearchSegment>> pendingChanges;
+
+	private volatile boolean ready;
+
+	public CatalogSearchIndex(BookRepository bookRepository,
+			@Value("${library.search.engine.enabled:false}") boolean enabled) {
+		this.bookRepository = bookRepository;
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Whether searches should be answered from this index.
+	 */
+	public boolean isServing() {
+		return enabled && ready;
+	}
+
+	public void index(Book book) {
+		if (enabled) {
+			IndexedBook snapshot = IndexedBook.of(book);
+			AfterCommit.run(() -> apply(segment -> segment.add(snapshot)));
+		}
+	}
+
+	public void remove(Long bookId) {
+		if (enabled) {
+			AfterCommit.run(() -> apply(segment -> segment.remove(bookId)));
+		}
+	}
+
+	/**
+	 * Returns ids of matching books, most relevant first. Blank arguments are ignored.
+	 */
+	public List<Long> search(String title, String author, String genre) {
+		return current.get()
+			.search(TextAnalyzer.tokenize(title), TextAnalyzer.tokenize(author),
+					genre == null || genre.isBlank() ? null : genre);
+	}
+
+	@Override
+	public void rebuild() {
+		if (!enabled) {
+			log.info("Catalog search engine disabled; searches use the database");
+			return;
+		}
+		if (!rebuildLock.tryLock()) {
+			throw new IllegalStateException("A search index rebuild is already running");
+		}
+		try {
+			synchronized (writeMonitor) {
+				pendingChanges = new ArrayList<>();
+			}
+			SearchSegment fresh = new SearchSegment();
+			try {
+				// Keyset batches, so books deleted mid-rebuild cannot shift unread rows
+				long lastId = 0;
+				List<Book> batch;
+				do {
+					batch = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(REBUILD_BATCH_SIZE));
+					batch.forEach(book -> fresh.add(IndexedBook.of(book)));
+					if (!batch.isEmpty()) {
+						lastId = batch.get(batch.size() - 1).getId();
+					}
+				}
+				while (batch.size() == REBUILD_BATCH_SIZE);
+			}
+			catch (RuntimeException e) {
+				synchronized (writeMonitor) {
+					pendingChanges = null;
+				}
+				throw e;
+			}
+			synchronized (writeMonitor) {
+				pendingChanges.forEach(change -> change.accept(fresh));
+				pendingChanges = null;
+				current.set(fresh);
+				ready = true;
+			}
+			log.info("Catalog search index rebuilt with {} books", fresh.size());
+		}
+		finally {
+			rebuildLock.unlock();
+		}
+	}
+
+	private void apply(Consumer<SearchSegment> change) {
+		synchronized (writeMonitor) {
+			change.accept(current.get());
+			if (pendingChanges != null) {
+				pendingChanges.add(change);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.search;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+
+/**
+ * Immutable snapshot of the searchable fields of a book, taken when the change is
+ * recorded so later mutations of the entity cannot leak into the index.
+ */
+record IndexedBook(long id, String title, String author, String genre) {
+
+	static IndexedBook of(Book book) {
+		return new IndexedBook(book.getId(), book.getTitle(), book.getAuthor(), book.getGenre());
+	}
+
+}
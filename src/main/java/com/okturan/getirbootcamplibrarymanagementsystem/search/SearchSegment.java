@@ -0,0 +1,197 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One generation of the catalog search index: per-field posting lists with term
+ * frequencies plus the document lengths BM25 needs. Mutated incrementally under a write
+ * lock; a full rebuild produces a new segment instead of touching this one.
+ */
+final class SearchSegment {
+
+	private static final double K1 = 1.2;
+
+	private static final double B = 0.75;
+
+	private final FieldPostings title = new FieldPostings();
+
+	private final FieldPostings author = new FieldPostings();
+
+	private final Map<String, Set<Long>> genres = new HashMap<>();
+
+	private final Map<Long, IndexedBook> documents = new HashMap<>();
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	void add(IndexedBook book) {
+		lock.writeLock().lock();
+		try {
+			removeUnlocked(book.id());
+			documents.put(book.id(), book);
+			title.add(book.id(), TextAnalyzer.tokenize(book.title()));
+			author.add(book.id(), TextAnalyzer.tokenize(book.author()));
+			genres.computeIfAbsent(TextAnalyzer.fold(book.genre()), g -> new HashSet<>()).add(book.id());
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			removeUnlocked(id);
+		}
+		finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	int size() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns ids of documents matching every query token, best BM25 score first and ties
+	 * broken by id. Each token matches as a prefix of an indexed term, which keeps the
+	 * old substring filter's "tolk" → "Tolkien" behaviour for partial input.
+	 */
+	List<Long> search(List<String> titleTokens, List<String> authorTokens, String genre) {
+		lock.readLock().lock();
+		try {
+			Map<Long, Double> scores = null;
+			scores = title.match(titleTokens, documents.size(), scores);
+			scores = author.match(authorTokens, documents.size(), scores);
+			if (genre != null) {
+				Set<Long> genreDocs = genres.getOrDefault(TextAnalyzer.fold(genre), Set.of());
+				if (scores == null) {
+					scores = new HashMap<>();
+					for (Long id : genreDocs) {
+						scores.put(id, 0.0);
+					}
+				}
+				else {
+					scores.keySet().retainAll(genreDocs);
+				}
+			}
+			if (scores == null) {
+				return List.of();
+			}
+			List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+			ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+				.thenComparing(Map.Entry.comparingByKey()));
+			return ranked.stream().map(Map.Entry::getKey).toList();
+		}
+		finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private void removeUnlocked(long id) {
+		IndexedBook existing = documents.remove(id);
+		if (existing == null) {
+			return;
+		}
+		title.remove(id, TextAnalyzer.tokenize(existing.title()));
+		author.remove(id, TextAnalyzer.tokenize(existing.author()));
+		String genreKey = TextAnalyzer.fold(existing.genre());
+		Set<Long> genreDocs = genres.get(genreKey);
+		if (genreDocs != null) {
+			genreDocs.remove(id);
+			if (genreDocs.isEmpty()) {
+				genres.remove(genreKey);
+			}
+		}
+	}
+
+	/**
+	 * Sorted term dictionary for one field, mapping each term to the documents containing
+	 * it and how often.
+	 */
+	private static final class FieldPostings {
+
+		private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+
+		private final Map<Long, Integer> lengths = new HashMap<>();
+
+		private long totalLength;
+
+		void add(long id, List<String> tokens) {
+			for (String token : tokens) {
+				postings.computeIfAbsent(token, t -> new HashMap<>()).merge(id, 1, Integer::sum);
+			}
+			lengths.put(id, tokens.size());
+			totalLength += tokens.size();
+		}
+
+		void remove(long id, List<String> tokens) {
+			for (String token : tokens) {
+				Map<Long, Integer> docs = postings.get(token);
+				if (docs != null) {
+					docs.remove(id);
+					if (docs.isEmpty()) {
+						postings.remove(token);
+					}
+				}
+			}
+			Integer length = lengths.remove(id);
+			if (length != null) {
+				totalLength -= length;
+			}
+		}
+
+		/**
+		 * Intersects {@code scores} with the documents matching every token and adds this
+		 * field's BM25 contribution. A {@code null} input means "no constraint yet"; an
+		 * empty token list leaves the input untouched.
+		 */
+		Map<Long, Double> match(List<String> tokens, int documentCount, Map<Long, Double> scores) {
+			if (tokens.isEmpty()) {
+				return scores;
+			}
+			double avgLength = lengths.isEmpty() ? 1.0 : (double) totalLength / lengths.size();
+			for (String token : tokens) {
+				Map<Long, Double> tokenScores = new HashMap<>();
+				for (Map.Entry<String, Map<Long, Integer>> term : postings
+					.subMap(token, true, token + Character.MAX_VALUE, false)
+					.entrySet()) {
+					Map<Long, Integer> docs = term.getValue();
+					double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+					for (Map.Entry<Long, Integer> posting : docs.entrySet()) {
+						int tf = posting.getValue();
+						double norm = K1 * (1 - B + B * lengths.getOrDefault(posting.getKey(), 0) / avgLength);
+						tokenScores.merge(posting.getKey(), idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+					}
+				}
+				if (scores == null) {
+					scores = tokenScores;
+				}
+				else {
+					scores.keySet().retainAll(tokenScores.keySet());
+					for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+						entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+					}
+				}
+			}
+			return scores;
+		}
+
+	}
+
+}
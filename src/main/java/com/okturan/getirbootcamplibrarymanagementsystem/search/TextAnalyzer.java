@@ -0,0 +1,41 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Case- and accent-folding tokenizer shared by indexing and querying, so "Çalıkuşu",
+ * "calikusu" and "CALIKUSU" all produce the same term.
+ */
+public final class TextAnalyzer {
+
+	private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+	private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private TextAnalyzer() {
+	}
+
+	/**
+	 * Lower-cases the text and strips diacritics. The Turkish dotless i is folded to a
+	 * plain i so both spellings of a name match.
+	 */
+	public static String fold(String text) {
+		if (text == null) {
+			return "";
+		}
+		String lower = text.toLowerCase(Locale.ROOT).replace('ı', 'i');
+		return COMBINING_MARKS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+	}
+
+	/**
+	 * Splits folded text on anything that is not a letter or digit.
+	 */
+	public static List<String> tokenize(String text) {
+		return Arrays.stream(SEPARATORS.split(fold(text))).filter(token -> !token.isEmpty()).toList();
+	}
+
+}
@@ -36,12 +36,8 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .map(role -> new SimpleGrantedAuthority(role.getAuthority()))
                 .collect(Collectors.toList());
 
-        // Create and return a UserDetails object
-        return new org.springframework.security.core.userdetails.User(user.getUsername(), user.getPassword(), true,
-                                                                      true, // accountNonExpired
-                                                                      true, // credentialsNonExpired
-                                                                      true, // accountNonLocked
-                                                                      authorities);
+        // Create and return a UserDetails object carrying the user id for ownership checks
+        return new LibraryUserDetails(user.getId(), user.getUsername(), user.getPassword(), authorities);
     }
 
 }
@@ -0,0 +1,26 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.security;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * The authenticated principal. Carries the user's id next to the username so ownership
+ * checks can compare ids without loading the user again.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class LibraryUserDetails extends User {
+
+    private final Long id;
+
+    public LibraryUserDetails(Long id, String username, String password,
+                              Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, true, true, true, true, authorities);
+        this.id = id;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.ImportFormat;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.ImportReportDTO;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.UUID;
+
+public interface BookImportService {
+
+	/**
+	 * Streams book records from {@code body} and upserts them by ISBN in batched chunks,
+	 * each committed on its own. Invalid and repeated records are rejected individually;
+	 * the rest of the body is still imported.
+	 * @return the final report, whose job id can also be polled while the import runs
+	 */
+	ImportReportDTO importBooks(InputStream body, ImportFormat format, Charset charset);
+
+	ImportReportDTO getImportJob(UUID jobId);
+
+}
@@ -1,14 +1,22 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.service;
 
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookAvailabilityDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookFacetsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookSearchFilterDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.CacheStatsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import reactor.core.publisher.Flux;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface BookService {
 
 
@@ -22,16 +30,57 @@ public interface BookService {
 
 	Page<BookResponseDTO> search(BookSearchFilterDTO filter, Pageable pageable);
 
+	Slice<BookResponseDTO> getAllBooksSlice(Pageable pageable);
+
+	Slice<BookResponseDTO> searchSlice(BookSearchFilterDTO filter, Pageable pageable);
+
+	/**
+	 * Like {@link #getAllBooks(Pageable)} but the total may lag recent writes, which lets
+	 * it skip the count query most of the time.
+	 */
+	Page<BookResponseDTO> getAllBooksWithApproximateTotal(Pageable pageable);
+
+	Page<BookResponseDTO> searchWithApproximateTotal(BookSearchFilterDTO filter, Pageable pageable);
+
+	Window<BookResponseDTO> getAllBooks(CursorRequest request);
+
+	Window<BookResponseDTO> search(BookSearchFilterDTO filter, CursorRequest request);
+
+	/**
+	 * Counts the books matching the filter per genre and per author.
+	 */
+	BookFacetsDTO getFacets(BookSearchFilterDTO filter);
+
+	/**
+	 * Rebuilds the catalog search index from the database while the current one keeps
+	 * serving, then swaps it in.
+	 */
+	void rebuildSearchIndex();
+
 	BookResponseDTO updateBook(Long id, BookRequestDTO bookRequestDTO);
 
 	void deleteBook(Long id);
 
+	List<CacheStatsDTO> getCacheStats();
+
+	void clearCache();
+
 	/**
 	 * Stream real-time book availability updates
 	 * @return Flux of BookAvailabilityDTO containing availability updates
 	 */
 	Flux<BookAvailabilityDTO> streamBookAvailabilityUpdates();
 
+	/**
+	 * Records the book's availability in the outbox; must run in the transaction that
+	 * changed it.
+	 */
 	void emitAvailabilityUpdate(Book book);
 
+	/**
+	 * Records one update per distinct book in the outbox, carrying each book's copy
+	 * count as of the call. Subscribers receive them once the transaction commits.
+	 */
+	void emitAvailabilityUpdates(Collection<Book> books);
+
 }
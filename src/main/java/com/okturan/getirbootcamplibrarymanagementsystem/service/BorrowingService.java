@@ -1,11 +1,16 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.service;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationResultDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingHistoryDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingResponseDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.OverdueReportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 
 public interface BorrowingService {
 
@@ -13,17 +18,39 @@ public interface BorrowingService {
 
 	BorrowingResponseDTO returnBook(Long borrowingId);
 
+	/**
+	 * Returns and checks out many items for one patron in a single transaction, reporting
+	 * an outcome per item.
+	 */
+	BatchCirculationResultDTO processBatch(BatchCirculationRequestDTO request);
+
 	BorrowingResponseDTO getBorrowingById(Long borrowingId);
 
 	BorrowingHistoryDTO getCurrentUserBorrowingHistory(Pageable pageable);
 
 	BorrowingHistoryDTO getUserBorrowingHistory(Long userId, Pageable pageable);
 
+	Slice<BorrowingResponseDTO> getCurrentUserBorrowingsSlice(Pageable pageable);
+
+	/**
+	 * Like {@link #getCurrentUserBorrowingHistory} but the totals may lag recent borrows
+	 * and returns, which lets it skip the count queries most of the time.
+	 */
+	BorrowingHistoryDTO getCurrentUserBorrowingHistoryWithApproximateTotals(Pageable pageable);
+
 	Page<BorrowingResponseDTO> getAllActiveBorrowings(Pageable pageable);
 
 	Page<BorrowingResponseDTO> getAllOverdueBorrowings(Pageable pageable);
 
-	boolean isOwner(Long borrowingId, String username);
+	Window<BorrowingResponseDTO> getCurrentUserBorrowings(CursorRequest request);
+
+	Window<BorrowingResponseDTO> getUserBorrowings(Long userId, CursorRequest request);
+
+	Window<BorrowingResponseDTO> getAllActiveBorrowings(CursorRequest request);
+
+	Window<BorrowingResponseDTO> getAllOverdueBorrowings(CursorRequest request);
+
+	boolean isOwner(Long borrowingId, Long userId);
 
 	OverdueReportDTO generateOverdueReport(Pageable pageable);
 
@@ -0,0 +1,28 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.export.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Full-table exports for downstream systems. Each method streams rows from a database
+ * cursor straight to {@code out}, so memory use does not grow with the table, and holds
+ * its connection only while writing.
+ */
+public interface ExportService {
+
+	void exportBooks(ExportFormat format, OutputStream out) throws IOException;
+
+	void exportUsers(ExportFormat format, OutputStream out) throws IOException;
+
+	/**
+	 * @param since only borrowings lent or returned on or after this date; {@code null}
+	 * for all
+	 * @param returned only returned or only active borrowings; {@code null} for both
+	 */
+	void exportBorrowings(LocalDate since, Boolean returned, ExportFormat format, OutputStream out)
+			throws IOException;
+
+}
@@ -0,0 +1,20 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineBalanceDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineRunDTO;
+
+import java.time.LocalDate;
+
+public interface FineService {
+
+	/**
+	 * Charges late fees through {@code runDate}, resuming the day's run from its checkpoint
+	 * if it was interrupted. Does nothing if the day's run already completed.
+	 */
+	FineRunDTO assessFines(LocalDate runDate);
+
+	FineBalanceDTO getCurrentUserBalance();
+
+	FineBalanceDTO getUserBalance(Long userId);
+
+}
@@ -0,0 +1,47 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldResponseDTO;
+
+import java.util.List;
+
+public interface HoldService {
+
+	HoldResponseDTO placeHold(HoldRequestDTO holdRequestDTO);
+
+	HoldResponseDTO getHold(Long holdId);
+
+	List<HoldResponseDTO> getCurrentUserHolds();
+
+	void cancelHold(Long holdId);
+
+	boolean isOwner(Long holdId, Long userId);
+
+	/**
+	 * Sets a returned copy aside for the head of the book's queue. Must run in the
+	 * returning transaction.
+	 * @return whether a hold took the copy, in which case it must not go back on the shelf
+	 */
+	boolean handOff(Long bookId);
+
+	/**
+	 * Fulfils the borrower's ready hold on the book. Must run in the borrowing transaction.
+	 * @return whether a copy was set aside for the borrower, in which case the borrow must
+	 * not take another one from the shelf
+	 */
+	boolean claim(Long bookId, Long userId);
+
+	/**
+	 * Whether a copy of the book may be waiting on the hold shelf, so a borrow must not be
+	 * turned away just because no copy is on the open shelf.
+	 */
+	boolean hasReadyHolds(Long bookId);
+
+	/**
+	 * Expires ready holds past their pickup deadline and passes each copy to the next
+	 * hold in line or back to the shelf.
+	 * @return number of holds expired
+	 */
+	int expireOverdueHolds();
+
+}
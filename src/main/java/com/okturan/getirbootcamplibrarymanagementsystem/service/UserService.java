@@ -4,8 +4,10 @@ import com.okturan.getirbootcamplibrarymanagementsystem.dto.AdminUserUpdateDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserDetailsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserUpdateDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 
 public interface UserService {
 
@@ -19,6 +21,8 @@ public interface UserService {
 
 	Page<UserDetailsDTO> getAllUsers(Pageable pageable);
 
+	Window<UserDetailsDTO> getAllUsers(CursorRequest request);
+
 	UserDetailsDTO findById(Long id);
 
 	void deleteUser(Long id);
@@ -0,0 +1,229 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.BookRecordReader;
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.ImportFormat;
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.ImportJob;
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.ImportJobRegistry;
+import com.okturan.getirbootcamplibrarymanagementsystem.bulkimport.ImportRecord;
+import com.okturan.getirbootcamplibrarymanagementsystem.cache.BookCache;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.ImportReportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.BookFacetIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.IsbnIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.mapper.BookMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.ApproximateCountCache;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CountScope;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookBatchRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.search.CatalogSearchIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.BookImportService;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.Isbn;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.LongLongHashMap;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class BookImportServiceImpl implements BookImportService {
+
+	private final BookBatchRepository batchRepository;
+
+	private final BookMapper bookMapper;
+
+	private final Validator validator;
+
+	private final ObjectMapper objectMapper;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ImportJobRegistry jobRegistry;
+
+	private final CatalogSearchIndex searchIndex;
+
+	private final IsbnIndex isbnIndex;
+
+	private final BookFacetIndex facetIndex;
+
+	private final BookCache bookCache;
+
+	private final ApproximateCountCache countCache;
+
+	private final int chunkSize;
+
+	public BookImportServiceImpl(BookBatchRepository batchRepository, BookMapper bookMapper, Validator validator,
+			ObjectMapper objectMapper, TransactionTemplate transactionTemplate, ImportJobRegistry jobRegistry,
+			CatalogSearchIndex searchIndex, IsbnIndex isbnIndex, BookFacetIndex facetIndex,
+			BookCache bookCache, ApproximateCountCache countCache, @Value("${library.import.chunk-size:1000}") int chunkSize) {
+		this.batchRepository = batchRepository;
+		this.bookMapper = bookMapper;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.transactionTemplate = transactionTemplate;
+		this.jobRegistry = jobRegistry;
+		this.searchIndex = searchIndex;
+		this.isbnIndex = isbnIndex;
+		this.facetIndex = facetIndex;
+		this.bookCache = bookCache;
+		this.countCache = countCache;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public ImportReportDTO importBooks(InputStream body, ImportFormat format, Charset charset) {
+		ImportJob job = jobRegistry.start(format);
+		log.info("Import {} started ({})", job.getId(), format);
+
+		// Canonical ISBN key -> first row that used it; only keys go in, never rows
+		LongLongHashMap seenIsbns = new LongLongHashMap(chunkSize);
+		List<StagedBook> chunk = new ArrayList<>(chunkSize);
+		try (BookRecordReader reader = BookRecordReader.open(format, body, charset, objectMapper)) {
+			ImportRecord record;
+			while ((record = reader.next()) != null) {
+				job.recordRead();
+				StagedBook staged = stage(record, seenIsbns, job);
+				if (staged != null) {
+					chunk.add(staged);
+					if (chunk.size() == chunkSize) {
+						writeChunk(chunk, job);
+						chunk.clear();
+					}
+				}
+			}
+			writeChunk(chunk, job);
+			job.complete();
+		}
+		catch (IOException e) {
+			job.fail("Could not read the import body: " + e.getMessage());
+			throw new UncheckedIOException(e);
+		}
+		catch (RuntimeException e) {
+			job.fail(e.getMessage());
+			throw e;
+		}
+		ImportReportDTO report = job.toReport();
+		log.info("Import {} finished: {} inserted, {} updated, {} rejected", job.getId(), report.inserted(),
+				report.updated(), report.rejected());
+		return report;
+	}
+
+	@Override
+	public ImportReportDTO getImportJob(UUID jobId) {
+		return jobRegistry.find(jobId)
+			.map(ImportJob::toReport)
+			.orElseThrow(() -> new EntityNotFoundException("Import job not found: " + jobId));
+	}
+
+	/**
+	 * Validates a record and claims its ISBN for this import.
+	 * @return the book to write, or {@code null} if the record was rejected
+	 */
+	private StagedBook stage(ImportRecord record, LongLongHashMap seenIsbns, ImportJob job) {
+		if (record.error() != null) {
+			job.reject(record.row(), null, record.error());
+			return null;
+		}
+		BookRequestDTO dto = record.book();
+		Set<ConstraintViolation<BookRequestDTO>> violations = validator.validate(dto);
+		if (!violations.isEmpty()) {
+			job.reject(record.row(), dto.isbn(), violations.stream()
+				.map(ConstraintViolation::getMessage)
+				.sorted()
+				.collect(Collectors.joining("; ")));
+			return null;
+		}
+		long isbnKey = Isbn.toKey(dto.isbn());
+		long firstRow = seenIsbns.get(isbnKey, 0L);
+		if (firstRow != 0L) {
+			job.reject(record.row(), dto.isbn(), "Duplicate ISBN; first seen on row " + firstRow);
+			return null;
+		}
+		seenIsbns.put(isbnKey, record.row());
+
+		Book book = bookMapper.mapToEntity(dto);
+		book.syncIsbnKey();
+		return new StagedBook(record.row(), book);
+	}
+
+	/**
+	 * Upserts one chunk in its own transaction: ISBNs already in the catalog are updated
+	 * in place, the rest inserted, each as a single JDBC batch. A chunk that fails is
+	 * rejected as a whole and the import moves on.
+	 */
+	private void writeChunk(List<StagedBook> chunk, ImportJob job) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		List<Book> books = chunk.stream().map(StagedBook::book).toList();
+		try {
+			int inserted = transactionTemplate.execute(status -> upsert(books));
+			job.recordWritten(inserted, books.size() - inserted);
+		}
+		catch (DataAccessException e) {
+			String reason = "Batch rejected: " + e.getMostSpecificCause().getMessage();
+			log.warn("Import {} rejected rows {}-{}: {}", job.getId(), chunk.get(0).row(),
+					chunk.get(chunk.size() - 1).row(), e.getMostSpecificCause().getMessage());
+			chunk.forEach(staged -> job.reject(staged.row(), staged.book().getIsbn(), reason));
+		}
+	}
+
+	/**
+	 * @return how many of the books were inserted
+	 */
+	private int upsert(List<Book> books) {
+		List<Long> keys = books.stream().map(Book::getIsbnKey).toList();
+		Map<Long, Long> existingIds = batchRepository.findIdsByIsbnKeys(keys);
+
+		List<Book> inserts = new ArrayList<>();
+		List<Book> updates = new ArrayList<>();
+		for (Book book : books) {
+			Long id = existingIds.get(book.getIsbnKey());
+			if (id == null) {
+				inserts.add(book);
+			}
+			else {
+				book.setId(id);
+				updates.add(book);
+			}
+		}
+		batchRepository.update(updates);
+		batchRepository.insert(inserts);
+
+		if (!inserts.isEmpty()) {
+			Map<Long, Long> insertedIds = batchRepository
+				.findIdsByIsbnKeys(inserts.stream().map(Book::getIsbnKey).toList());
+			inserts.forEach(book -> book.setId(insertedIds.get(book.getIsbnKey())));
+			countCache.recordWrite(CountScope.BOOKS);
+		}
+		// The in-memory structures apply these after the chunk commits
+		for (Book book : books) {
+			searchIndex.index(book);
+			isbnIndex.put(book.getId(), book.getIsbnKey(), null);
+			// Imported rows carry no availability; updated books keep their counted one
+			facetIndex.putKeepingAvailability(book);
+		}
+		updates.forEach(book -> bookCache.evict(book.getId()));
+		return inserts.size();
+	}
+
+	private record StagedBook(long row, Book book) {
+	}
+
+}
@@ -1,119 +1,305 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.service.impl;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.cache.BookCache;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookAvailabilityDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookFacetsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookSearchFilterDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.CacheStatsDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.BookFacetIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.HoldQueueIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.IsbnIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.SoldOutTable;
 import com.okturan.getirbootcamplibrarymanagementsystem.mapper.BookMapper;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
-import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.outbox.BookAvailabilityStream;
+import com.okturan.getirbootcamplibrarymanagementsystem.outbox.OutboxWriter;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.ApproximateCountCache;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CountScope;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
-import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxEvent;
+import com.okturan.getirbootcamplibrarymanagementsystem.search.CatalogSearchIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.search.TextAnalyzer;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.BookService;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.HoldService;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.Isbn;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Sinks;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookServiceImpl implements BookService {
 
-	private final BookRepository bookRepository;
+	private static final int ID_BATCH_SIZE = 1000;
 
-	private final BorrowingRepository borrowingRepository;
+	private final BookRepository bookRepository;
 
 	private final BookMapper bookMapper;
 
-	private final Sinks.Many<BookAvailabilityDTO> availabilitySink = Sinks.many().multicast().onBackpressureBuffer();
+	private final CatalogSearchIndex searchIndex;
+
+	private final ApproximateCountCache countCache;
+
+	private final BookCache bookCache;
+
+	private final IsbnIndex isbnIndex;
+
+	private final BookFacetIndex facetIndex;
+
+	private final SoldOutTable soldOutTable;
+
+	private final HoldQueueIndex holdQueueIndex;
+
+	private final OutboxWriter outboxWriter;
+
+	private final BookAvailabilityStream availabilityStream;
+
+	/** Looked up on use, since the hold service broadcasts availability through this one. */
+	private final ObjectProvider<HoldService> holdService;
 
 	/* ---------- CRUD ---------- */
 
 	@Override
 	@Transactional
 	public BookResponseDTO createBook(BookRequestDTO dto) {
-		if (bookRepository.existsByIsbn(dto.isbn())) {
+		long isbnKey = Isbn.toKey(dto.isbn());
+		if (isbnTaken(isbnKey)) {
 			throw new IllegalArgumentException("Book with ISBN " + dto.isbn() + " already exists");
 		}
 		Book savedBook = bookRepository.save(bookMapper.mapToEntity(dto));
+		searchIndex.index(savedBook);
+		countCache.recordWrite(CountScope.BOOKS);
+		bookCache.evict(savedBook.getId());
+		isbnIndex.put(savedBook.getId(), isbnKey, null);
+		facetIndex.put(savedBook);
 		log.info("Created book {} ({})", savedBook.getTitle(), savedBook.getId());
 		return bookMapper.mapToDTO(savedBook);
 	}
 
+	// Not transactional: cache hits should not check out a connection, and a miss runs
+	// the repository's own read-only transaction
 	@Override
-	@Transactional(readOnly = true)
 	public BookResponseDTO getBookById(Long id) {
-		Book book = findByIdOrThrow(id);
-		calculateAvailability(book);
-		return bookMapper.mapToDTO(book);
+		return bookCache.getById(id, () -> bookRepository.findById(id).map(bookMapper::mapToDTO))
+			.orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
 	}
 
+	/**
+	 * Accepts any spelling of the ISBN, including ISBN-10 and raw EAN-13 barcode digits.
+	 */
 	@Override
-	@Transactional(readOnly = true)
 	public BookResponseDTO getBookByIsbn(String isbn) {
-		Book book = bookRepository.findByIsbn(isbn)
+		long isbnKey = Isbn.toKey(isbn);
+		if (!isbnIndex.isReady()) {
+			return bookRepository.findByIsbnKey(isbnKey)
+				.map(bookMapper::mapToDTO)
+				.orElseThrow(() -> new EntityNotFoundException("Book not found: " + isbn));
+		}
+		long id = isbnIndex.findBookId(isbnKey);
+		if (id == IsbnIndex.NOT_FOUND) {
+			throw new EntityNotFoundException("Book not found: " + isbn);
+		}
+		return bookCache.getById(id, () -> bookRepository.findById(id).map(bookMapper::mapToDTO))
 			.orElseThrow(() -> new EntityNotFoundException("Book not found: " + isbn));
-		calculateAvailability(book);
-		return bookMapper.mapToDTO(book);
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public Page<BookResponseDTO> getAllBooks(Pageable pageable) {
-		Page<Book> booksPage = bookRepository.findAll(pageable);
-		calculateBatchAvailability(booksPage.getContent()); // Essential for DTO mapping
-		return booksPage.map(bookMapper::mapToDTO);
+		return bookRepository.findResponses(null, pageable);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<BookResponseDTO> search(BookSearchFilterDTO filter, Pageable pageable) {
+		if (useSearchIndex(filter)) {
+			List<Long> ranked = rankedIds(filter);
+			return PageableExecutionUtils.getPage(rankedSlice(ranked, filter, pageable).getContent(), pageable,
+					() -> countRanked(ranked, filter));
+		}
+		return bookRepository.findResponses(createBookSpecification(filter), pageable);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<BookResponseDTO> getAllBooksSlice(Pageable pageable) {
+		return bookRepository.findResponseSlice(null, pageable);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<BookResponseDTO> searchSlice(BookSearchFilterDTO filter, Pageable pageable) {
+		if (useSearchIndex(filter)) {
+			return rankedSlice(rankedIds(filter), filter, pageable);
+		}
+		return bookRepository.findResponseSlice(createBookSpecification(filter), pageable);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<BookResponseDTO> getAllBooksWithApproximateTotal(Pageable pageable) {
+		return countCache.page(bookRepository.findResponseSlice(null, pageable), CountScope.BOOKS, "all",
+				bookRepository::count);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<BookResponseDTO> searchWithApproximateTotal(BookSearchFilterDTO filter, Pageable pageable) {
+		if (useSearchIndex(filter)) {
+			List<Long> ranked = rankedIds(filter);
+			return countCache.page(rankedSlice(ranked, filter, pageable), CountScope.BOOKS,
+					"ranked:" + filterKey(filter), () -> countRanked(ranked, filter));
+		}
+		Specification<Book> spec = createBookSpecification(filter);
+		return countCache.page(bookRepository.findResponseSlice(spec, pageable), CountScope.BOOKS,
+				"search:" + filterKey(filter), () -> bookRepository.count(spec));
+	}
+
+	private static String filterKey(BookSearchFilterDTO f) {
+		return String.join("|", f.author().map(String::toLowerCase).orElse(""),
+				f.title().map(String::toLowerCase).orElse(""), f.genre().map(String::toLowerCase).orElse(""),
+				f.available().map(String::valueOf).orElse(""));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Window<BookResponseDTO> getAllBooks(CursorRequest request) {
+		return bookRepository.findAllBy(request.position(), request.sort(), request.limit()).map(bookMapper::mapToDTO);
 	}
 
 	/**
-	 * Calculates if a book is available based on whether it's currently borrowed out
-	 * @param book the book to check
+	 * Cursor mode always seeks through the database so pages stay stable across
+	 * requests; relevance ranking is only offered in offset mode.
 	 */
-	private void calculateAvailability(Book book) {
-		boolean isBorrowed = borrowingRepository.existsByBookAndReturnedFalse(book);
-		book.setAvailable(!isBorrowed);
+	@Override
+	@Transactional(readOnly = true)
+	public Window<BookResponseDTO> search(BookSearchFilterDTO filter, CursorRequest request) {
+		return bookRepository
+			.findBy(createBookSpecification(filter),
+					q -> q.sortBy(request.sort()).limit(request.size()).scroll(request.position()))
+			.map(bookMapper::mapToDTO);
 	}
 
 	/**
-	 * Optimized method to calculate availability for a list of books in a single database
-	 * query
-	 * @param books the list of books to check
+	 * Answered from the in-memory counters unless the filter has a title, which they do
+	 * not track, or they are still being built; then a {@code GROUP BY} per facet runs
+	 * instead. Not transactional so that the counter path never checks out a connection.
 	 */
-	private void calculateBatchAvailability(List<Book> books) {
-		if (books.isEmpty()) {
-			return;
+	@Override
+	public BookFacetsDTO getFacets(BookSearchFilterDTO filter) {
+		if (facetIndex.isReady() && !hasText(filter.title())) {
+			return facetIndex.facets(filter.genre().orElse(null), filter.author().orElse(null),
+					filter.available().orElse(null));
 		}
+		Specification<Book> spec = createBookSpecification(filter);
+		return new BookFacetsDTO(bookRepository.countFacets(spec, "genre"), bookRepository.countFacets(spec, "author"));
+	}
 
-		// Extract all book IDs
-		List<Long> bookIds = books.stream().map(Book::getId).toList();
+	@Override
+	public void rebuildSearchIndex() {
+		searchIndex.rebuild();
+	}
 
-		// Get all book IDs that are currently borrowed in a single query
-		Set<Long> borrowedBookIds = borrowingRepository.findBorrowedBookIdsByBookIds(bookIds);
+	private List<Long> rankedIds(BookSearchFilterDTO filter) {
+		return searchIndex.search(filter.title().orElse(null), filter.author().orElse(null),
+				filter.genre().orElse(null));
+	}
 
-		// Set availability flag for each book
-		books.forEach(book -> book.setAvailable(!borrowedBookIds.contains(book.getId())));
+	/**
+	 * Answers a text search from the in-memory index. Results are ordered by relevance,
+	 * so the pageable's sort is ignored; only the requested page is loaded from the
+	 * database. Availability is checked a batch of ranked ids at a time, only until the
+	 * page and one match past it are found, so a page's cost does not grow with the
+	 * number of books the search matches.
+	 */
+	private Slice<BookResponseDTO> rankedSlice(List<Long> ranked, BookSearchFilterDTO filter, Pageable pageable) {
+		long needed = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() + 1 : Long.MAX_VALUE;
+		List<Long> matches = ranked;
+		if (filter.available().isPresent()) {
+			boolean wanted = filter.available().get();
+			matches = new ArrayList<>();
+			for (int i = 0; i < ranked.size() && matches.size() < needed; i += ID_BATCH_SIZE) {
+				List<Long> batch = ranked.subList(i, Math.min(i + ID_BATCH_SIZE, ranked.size()));
+				Set<Long> availableIds = bookRepository.findAvailableIdsByIdIn(batch);
+				batch.stream().filter(id -> availableIds.contains(id) == wanted).forEach(matches::add);
+			}
+		}
+
+		int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), matches.size()) : 0;
+		int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), matches.size()) : matches.size();
+		List<Long> pageIds = matches.subList(from, to);
+		Map<Long, BookResponseDTO> booksById = bookRepository.findResponsesByIdIn(pageIds)
+			.stream()
+			.collect(Collectors.toMap(BookResponseDTO::id, Function.identity()));
+		List<BookResponseDTO> content = pageIds.stream().map(booksById::get).filter(Objects::nonNull).toList();
+		return new SliceImpl<>(content, pageable, matches.size() > to);
 	}
 
-	@Override
-	@Transactional(readOnly = true)
-	public Page<BookResponseDTO> search(BookSearchFilterDTO filter, Pageable pageable) {
-		Specification<Book> spec = createBookSpecification(filter); // New helper method
-		Page<Book> booksPage = bookRepository.findAll(spec, pageable);
-		calculateBatchAvailability(booksPage.getContent()); // Set transient field for DTO mapping
-		return booksPage.map(bookMapper::mapToDTO);
+	/**
+	 * Counts the ranked ids that pass the availability filter; only an exact total needs
+	 * every hit checked.
+	 */
+	private long countRanked(List<Long> ranked, BookSearchFilterDTO filter) {
+		if (filter.available().isEmpty()) {
+			return ranked.size();
+		}
+		long availableCount = 0;
+		for (int i = 0; i < ranked.size(); i += ID_BATCH_SIZE) {
+			availableCount += bookRepository
+				.findAvailableIdsByIdIn(ranked.subList(i, Math.min(i + ID_BATCH_SIZE, ranked.size())))
+				.size();
+		}
+		return filter.available().get() ? availableCount : ranked.size() - availableCount;
+	}
+
+	/**
+	 * Whether a text search can be answered from the index. A title or author with no
+	 * letters or digits, such as {@code "?!"}, yields no terms to look up; the database
+	 * still matches it as a substring, so such filters go there instead.
+	 */
+	private boolean useSearchIndex(BookSearchFilterDTO filter) {
+		if (!searchIndex.isServing() || !(hasText(filter.title()) || hasText(filter.author()))) {
+			return false;
+		}
+		return hasTermsOrIsBlank(filter.title()) && hasTermsOrIsBlank(filter.author());
+	}
+
+	private static boolean hasTermsOrIsBlank(Optional<String> value) {
+		return !hasText(value) || !TextAnalyzer.tokenize(value.get()).isEmpty();
+	}
+
+	private static boolean hasText(Optional<String> value) {
+		return value.isPresent() && !value.get().isBlank();
 	}
 
 	private Specification<Book> createBookSpecification(BookSearchFilterDTO f) {
@@ -130,18 +316,11 @@ public class BookServiceImpl implements BookService {
 			}
 
 			if (f.available().isPresent()) {
-				jakarta.persistence.criteria.Subquery<Long> subquery = query.subquery(Long.class);
-				jakarta.persistence.criteria.Root<Borrowing> borrowingRoot = subquery.from(Borrowing.class);
-				subquery.select(borrowingRoot.get("book").get("id"));
-				subquery.where(
-						cb.equal(borrowingRoot.get("book").get("id"), root.get("id")),
-						cb.isFalse(borrowingRoot.get("returned"))
-				);
-
-				if (f.available().get()) { // We want available books (book ID NOT IN subquery)
-					predicates.add(cb.not(cb.exists(subquery)));
-				} else { // We want unavailable books (book ID IN subquery)
-					predicates.add(cb.exists(subquery));
+				// Availability lives on the row, so this is a plain indexed predicate
+				if (f.available().get()) {
+					predicates.add(cb.gt(root.get("availableCopies"), 0));
+				} else {
+					predicates.add(cb.equal(root.get("availableCopies"), 0));
 				}
 			}
 			return cb.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
@@ -152,21 +331,27 @@ public class BookServiceImpl implements BookService {
 	@Transactional
 	public BookResponseDTO updateBook(Long id, BookRequestDTO dto) {
 		Book book = findByIdOrThrow(id);
+		int previousAvailable = book.getAvailableCopies();
+		Long previousIsbnKey = book.getIsbnKey();
+		long isbnKey = Isbn.toKey(dto.isbn());
 
-		calculateAvailability(book); // Ensure book.getAvailable() is populated
-		Boolean wasAvailable = book.getAvailable(); // Now it's correctly true/false
-
-		if (!book.getIsbn().equals(dto.isbn()) && bookRepository.existsByIsbn(dto.isbn())) {
+		if (!Objects.equals(previousIsbnKey, isbnKey) && isbnTaken(isbnKey)) {
 			throw new IllegalArgumentException("Book with ISBN " + dto.isbn() + " already exists");
 		}
 
 		bookMapper.updateEntityFromDto(dto, book);
+		if (dto.totalCopies() != null && dto.totalCopies() != book.getTotalCopies()) {
+			resizeCopies(book, dto.totalCopies());
+		}
 		Book updated = bookRepository.save(book);
+		searchIndex.index(updated);
+		countCache.recordWrite(CountScope.BOOKS);
+		bookCache.evict(updated.getId());
+		isbnIndex.put(updated.getId(), isbnKey, previousIsbnKey);
+		facetIndex.put(updated);
 		log.info("Updated book {} ({})", updated.getTitle(), updated.getId());
 
-		calculateAvailability(updated); // Recalculate for the DTO and for comparison
-
-		if (!wasAvailable.equals(updated.getAvailable())) { // Use .equals for Boolean comparison
+		if (previousAvailable != updated.getAvailableCopies()) {
 			emitAvailabilityUpdate(updated);
 		}
 
@@ -176,41 +361,95 @@ public class BookServiceImpl implements BookService {
 	@Override
 	@Transactional
 	public void deleteBook(Long id) {
-		if (!bookRepository.existsById(id)) {
-			throw new EntityNotFoundException("Book not found with id: " + id);
+		Book book = findByIdOrThrow(id);
+		bookRepository.delete(book);
+		searchIndex.remove(id);
+		countCache.recordWrite(CountScope.BOOKS);
+		bookCache.evict(id);
+		if (book.getIsbnKey() != null) {
+			isbnIndex.remove(id, book.getIsbnKey());
 		}
-		bookRepository.deleteById(id);
+		facetIndex.remove(id);
+		holdQueueIndex.removeBook(id);
+		AfterCommit.run(() -> soldOutTable.restocked(id));
 		log.info("Deleted book {}", id);
 	}
 
+	/* ---------- Cache administration ---------- */
+
+	@Override
+	public List<CacheStatsDTO> getCacheStats() {
+		return bookCache.stats();
+	}
+
+	@Override
+	public void clearCache() {
+		bookCache.clear();
+		log.info("Cleared book cache");
+	}
+
 	/* ---------- Streaming ---------- */
 
 	@Override
 	public Flux<BookAvailabilityDTO> streamBookAvailabilityUpdates() {
 		log.info("Subscribed to book availability updates");
-		return availabilitySink.asFlux()
+		return availabilityStream.updates()
 			.publishOn(Schedulers.boundedElastic())
 			.doOnCancel(() -> log.info("Unsubscribed from book availability updates"));
 	}
 
 	/* ---------- Internal helpers ---------- */
 
+	private boolean isbnTaken(long isbnKey) {
+		return isbnIndex.isReady() ? isbnIndex.findBookId(isbnKey) != IsbnIndex.NOT_FOUND
+				: bookRepository.existsByIsbnKey(isbnKey);
+	}
+
+	/**
+	 * Applies a new copy total through the conditional update, which refuses to drop the
+	 * total below the copies on loan. Like a returned copy, each added one goes to the head
+	 * of the hold queue if anyone is waiting for it.
+	 */
+	private void resizeCopies(Book book, int totalCopies) {
+		if (bookRepository.resizeCopies(book.getId(), totalCopies) == 0) {
+			throw new IllegalArgumentException("Book " + book.getId() + " has more than " + totalCopies
+					+ " copies on loan");
+		}
+		for (int added = totalCopies - book.getTotalCopies(); added > 0
+				&& holdService.getObject().handOff(book.getId()); added--) {
+			bookRepository.takeCopy(book.getId());
+		}
+		book.setTotalCopies(totalCopies);
+		book.setAvailableCopies(bookRepository.findAvailableCopiesById(book.getId()));
+		if (book.isAvailable()) {
+			Long id = book.getId();
+			AfterCommit.run(() -> soldOutTable.restocked(id));
+		}
+	}
+
 	private Book findByIdOrThrow(Long id) {
 		return bookRepository.findById(id)
 			.orElseThrow(() -> new EntityNotFoundException("Book not found with id: " + id));
 	}
 
+	/**
+	 * Records the book's availability in the outbox in the current transaction; the relay
+	 * publishes it once the transaction has committed, so subscribers never see a change
+	 * that is later rolled back. The cached copy of the book is dropped after commit since
+	 * its availability flag is now stale.
+	 */
+	@Override
 	public void emitAvailabilityUpdate(Book book) {
-		// Calculate availability based on borrowing status
-		calculateAvailability(book);
+		emitAvailabilityUpdates(List.of(book));
+	}
 
-		// Generate timestamp in the service layer
+	@Override
+	public void emitAvailabilityUpdates(Collection<Book> books) {
 		String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
-
-		// Pass the timestamp to the mapper
-		BookAvailabilityDTO dto = bookMapper.createAvailabilityDTO(book, timestamp);
-		availabilitySink.tryEmitNext(dto);
-		log.info("Availability changed → emitted update for book {}", book.getId());
+		Map<Long, BookAvailabilityDTO> updates = new LinkedHashMap<>();
+		books.forEach(book -> updates.put(book.getId(), bookMapper.createAvailabilityDTO(book, timestamp)));
+		updates.keySet().forEach(bookCache::evict);
+		outboxWriter.appendAll(OutboxEvent.BOOK_AVAILABILITY_CHANGED, updates);
 	}
 
 }
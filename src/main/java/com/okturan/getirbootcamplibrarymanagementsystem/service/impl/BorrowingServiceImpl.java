@@ -1,32 +1,64 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.service.impl;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationResultDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchItemResultDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingHistoryDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingResponseDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.OverdueReportDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.PageDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.exception.BookNotAvailableException;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.BookFacetIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.OverdueSummaryIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.SoldOutTable;
 import com.okturan.getirbootcamplibrarymanagementsystem.mapper.BorrowingMapper;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.UserBorrowingStats;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.ApproximateCountCache;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CountScope;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingHistoryRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.CirculationBatchRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OverdueSummary;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserBorrowingStatsRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.BookService;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.BorrowingService;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.HoldService;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Service("borrowingService")
@@ -35,45 +67,311 @@ public class BorrowingServiceImpl implements BorrowingService {
 
 	private final BorrowingRepository borrowingRepo;
 
+	private final BorrowingHistoryRepository historyRepo;
+
 	private final BookRepository bookRepo;
 
+	private final CirculationBatchRepository batchRepo;
+
 	private final UserRepository userRepo;
 
 	private final BookService bookService; // used only to broadcast availability
 
+	private final HoldService holdService;
+
 	private final BorrowingMapper mapper;
 
+	private final ApproximateCountCache countCache;
+
+	private final BookFacetIndex facetIndex;
+
+	private final OverdueSummaryIndex overdueIndex;
+
+	private final SoldOutTable soldOutTable;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final UserBorrowingStatsRepository statsRepo;
+
+	/** Open borrowings a patron may hold at once; zero or less means no limit. */
+	@Value("${library.borrow.max-active:0}")
+	private long maxActiveBorrowings;
+
 	/* ─────────── borrow / return ─────────── */
 
 	private static boolean hasAdminOrLibrarian(User user) {
 		return user.hasRole(Role.ADMIN) || user.hasRole(Role.LIBRARIAN);
 	}
 
+	/**
+	 * Turns away borrows of a book known to be sold out before opening a transaction,
+	 * unless a copy may be waiting on the hold shelf for the borrower. Otherwise a copy is
+	 * taken with one conditional {@code UPDATE}, so there is no read of availability that
+	 * a concurrent borrow could invalidate. Joins the caller's transaction when there is
+	 * one.
+	 */
 	@Override
-	@Transactional
 	public BorrowingResponseDTO borrowBook(BorrowingRequestDTO req) {
 		log.info("Borrow request – book {}", req.bookId());
 
-		User borrower = resolveBorrower(req.userId());
+		if (soldOutTable.isSoldOut(req.bookId()) && !holdService.hasReadyHolds(req.bookId())) {
+			throw new BookNotAvailableException(req.bookId());
+		}
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return lend(req);
+		}
+		return transactionTemplate.execute(status -> lend(req));
+	}
+
+	private BorrowingResponseDTO lend(BorrowingRequestDTO req) {
+		User borrower = resolveBorrower(currentUser(), req.userId());
 		Book book = bookRepo.findById(req.bookId())
 			.orElseThrow(() -> new EntityNotFoundException("Book not found " + req.bookId()));
 
-		// Check if the book is already borrowed
-		if (borrowingRepo.existsByBookAndReturnedFalse(book)) {
-			throw new IllegalStateException("Book is currently borrowed by another patron and not available for borrowing. Please try again when the book has been returned.");
+		countBorrows(borrower.getId(), 1);
+		// A copy set aside for the borrower's hold is already off the shelf
+		boolean fromShelf = !holdService.claim(book.getId(), borrower.getId());
+		if (fromShelf && bookRepo.takeCopy(book.getId()) == 0) {
+			throw new BookNotAvailableException(book.getId());
 		}
 
 		Borrowing borrowing = new Borrowing();
 		mapper.initBorrowing(borrowing, book, borrower);
-
 		borrowingRepo.save(borrowing);
 
+		book.setAvailableCopies(bookRepo.findAvailableCopiesById(book.getId()));
+		// Only taking a copy locks the book's row; a hold claim leaves the shelf as it was
+		if (fromShelf && !book.isAvailable()) {
+			markSoldOut(book.getId());
+		}
+		recordCirculationWrite();
+		facetIndex.put(book);
+
 		// Emit availability update (availability is determined by borrowing status)
 		bookService.emitAvailabilityUpdate(book);
 
 		return mapper.mapToDTO(borrowing);
 	}
 
+	/**
+	 * Marks the book. Only called once this transaction has taken a copy of it and so holds
+	 * its row lock, so any return of it commits, and clears the mark, afterwards. The mark
+	 * is dropped again on rollback.
+	 */
+	private void markSoldOut(Long bookId) {
+		soldOutTable.markSoldOut(bookId);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status != STATUS_COMMITTED) {
+						soldOutTable.restocked(bookId);
+					}
+				}
+			});
+		}
+	}
+
+	/**
+	 * Returns first, so a patron can hand back a copy and take it again in one visit, then
+	 * checks out. The patron, the books and the borrowings are each read once, and every
+	 * write is a guarded JDBC batch. Items that fail are reported rather than thrown, so
+	 * the rest of the batch still commits.
+	 */
+	@Override
+	@Transactional
+	public BatchCirculationResultDTO processBatch(BatchCirculationRequestDTO req) {
+		if (req.borrowBookIds().isEmpty() && req.returnBorrowingIds().isEmpty()) {
+			throw new IllegalArgumentException("Batch must borrow or return at least one item");
+		}
+		log.info("Batch request – {} borrows, {} returns", req.borrowBookIds().size(),
+				req.returnBorrowingIds().size());
+
+		User current = currentUser();
+		// Staff may return for anyone, but must name the patron they check out to
+		User patron = req.userId() != null || !hasAdminOrLibrarian(current) ? resolveBorrower(current, req.userId())
+				: null;
+		if (patron == null && !req.borrowBookIds().isEmpty()) {
+			throw new AccessDeniedException("Admins/Librarians must specify a patron userId");
+		}
+
+		Map<Long, BorrowingRow> rows = new HashMap<>();
+		if (!req.returnBorrowingIds().isEmpty()) {
+			borrowingRepo.findRowsByIdIn(req.returnBorrowingIds()).forEach(row -> rows.put(row.id(), row));
+		}
+		Set<Long> bookIds = new HashSet<>(req.borrowBookIds());
+		rows.values().forEach(row -> bookIds.add(row.bookId()));
+		Map<Long, Book> books = new HashMap<>();
+		bookRepo.findAllById(bookIds).forEach(book -> books.put(book.getId(), book));
+
+		List<BatchItemResultDTO> returned = returnAll(req.returnBorrowingIds(), rows,
+				patron != null ? patron.getId() : null);
+		Set<Long> takenFromShelf = new HashSet<>();
+		List<BatchItemResultDTO> borrowed = borrowAll(req.borrowBookIds(), books, patron, takenFromShelf);
+
+		Set<Long> touched = new HashSet<>();
+		for (BatchItemResultDTO result : returned) {
+			if (result.status() == BatchItemResultDTO.Status.RETURNED) {
+				touched.add(result.bookId());
+			}
+		}
+		for (BatchItemResultDTO result : borrowed) {
+			if (result.status() == BatchItemResultDTO.Status.BORROWED) {
+				touched.add(result.bookId());
+			}
+		}
+		if (!touched.isEmpty()) {
+			refreshCopies(touched, takenFromShelf, books);
+			recordCirculationWrite();
+		}
+		return new BatchCirculationResultDTO(borrowed, returned);
+	}
+
+	private List<BatchItemResultDTO> returnAll(List<Long> borrowingIds, Map<Long, BorrowingRow> rows, Long patronId) {
+		if (borrowingIds.isEmpty()) {
+			return List.of();
+		}
+		BatchItemResultDTO[] results = new BatchItemResultDTO[borrowingIds.size()];
+		List<Integer> pending = new ArrayList<>();
+		for (int i = 0; i < borrowingIds.size(); i++) {
+			Long id = borrowingIds.get(i);
+			BorrowingRow row = rows.get(id);
+			if (row == null) {
+				results[i] = BatchItemResultDTO.failed(null, id, BatchItemResultDTO.Status.NOT_FOUND);
+			}
+			else if (patronId != null && !patronId.equals(row.userId())) {
+				results[i] = BatchItemResultDTO.failed(row.bookId(), id, BatchItemResultDTO.Status.FORBIDDEN);
+			}
+			else if (row.returned()) {
+				results[i] = BatchItemResultDTO.failed(row.bookId(), id,
+						BatchItemResultDTO.Status.ALREADY_RETURNED);
+			}
+			else {
+				pending.add(i);
+			}
+		}
+
+		// A borrowing listed twice, or returned concurrently, is closed only once
+		boolean[] closed = batchRepo.close(pending.stream().map(borrowingIds::get).toList(), LocalDate.now());
+		List<Long> bookIds = new ArrayList<>();
+		Map<Long, Integer> returnsByUser = new HashMap<>();
+		for (int p = 0; p < pending.size(); p++) {
+			int i = pending.get(p);
+			BorrowingRow row = rows.get(borrowingIds.get(i));
+			if (closed[p]) {
+				results[i] = new BatchItemResultDTO(row.bookId(), row.id(), BatchItemResultDTO.Status.RETURNED, null);
+				returnsByUser.merge(row.userId(), 1, Integer::sum);
+				overdueIndex.returned(row.id());
+				if (!holdService.handOff(row.bookId())) {
+					bookIds.add(row.bookId());
+				}
+			}
+			else {
+				results[i] = BatchItemResultDTO.failed(row.bookId(), row.id(),
+						BatchItemResultDTO.Status.ALREADY_RETURNED);
+			}
+		}
+		returnsByUser.forEach(this::countReturns);
+		boolean[] shelved = batchRepo.returnCopies(bookIds);
+		for (int b = 0; b < shelved.length; b++) {
+			if (!shelved[b]) {
+				log.warn("Book {} already had every copy on the shelf; run the availability repair", bookIds.get(b));
+			}
+		}
+		return List.of(results);
+	}
+
+	/**
+	 * @param takenFromShelf collects the books a copy was taken of, whose rows this
+	 * transaction now holds locked
+	 */
+	private List<BatchItemResultDTO> borrowAll(List<Long> bookIds, Map<Long, Book> books, User patron,
+			Set<Long> takenFromShelf) {
+		if (bookIds.isEmpty()) {
+			return List.of();
+		}
+		BatchItemResultDTO[] results = new BatchItemResultDTO[bookIds.size()];
+		List<Integer> reserved = new ArrayList<>();
+		List<Integer> pending = new ArrayList<>();
+		// Its returns are counted first. A copy that turns out to be gone still uses up
+		// headroom, as no further copies are taken once the shelf has been reached.
+		long headroom = borrowHeadroom(patron.getId());
+		for (int i = 0; i < bookIds.size(); i++) {
+			Long bookId = bookIds.get(i);
+			if (!books.containsKey(bookId)) {
+				results[i] = BatchItemResultDTO.failed(bookId, null, BatchItemResultDTO.Status.NOT_FOUND);
+			}
+			else if (reserved.size() + pending.size() >= headroom) {
+				results[i] = BatchItemResultDTO.failed(bookId, null, BatchItemResultDTO.Status.LIMIT_REACHED);
+			}
+			else if (holdService.claim(bookId, patron.getId())) {
+				reserved.add(i);
+			}
+			else if (soldOutTable.isSoldOut(bookId)) {
+				results[i] = BatchItemResultDTO.failed(bookId, null, BatchItemResultDTO.Status.NOT_AVAILABLE);
+			}
+			else {
+				pending.add(i);
+			}
+		}
+
+		boolean[] taken = batchRepo.takeCopies(pending.stream().map(bookIds::get).toList());
+		List<Borrowing> borrowings = new ArrayList<>();
+		List<Integer> lent = new ArrayList<>();
+		for (int i : reserved) {
+			Borrowing borrowing = new Borrowing();
+			mapper.initBorrowing(borrowing, books.get(bookIds.get(i)), patron);
+			borrowings.add(borrowing);
+			lent.add(i);
+		}
+		for (int p = 0; p < pending.size(); p++) {
+			int i = pending.get(p);
+			if (taken[p]) {
+				takenFromShelf.add(bookIds.get(i));
+				Borrowing borrowing = new Borrowing();
+				mapper.initBorrowing(borrowing, books.get(bookIds.get(i)), patron);
+				borrowings.add(borrowing);
+				lent.add(i);
+			}
+			else {
+				results[i] = BatchItemResultDTO.failed(bookIds.get(i), null,
+						BatchItemResultDTO.Status.NOT_AVAILABLE);
+			}
+		}
+		if (!borrowings.isEmpty()) {
+			countBorrows(patron.getId(), borrowings.size());
+		}
+		batchRepo.insert(borrowings);
+		for (int b = 0; b < borrowings.size(); b++) {
+			Borrowing borrowing = borrowings.get(b);
+			results[lent.get(b)] = new BatchItemResultDTO(borrowing.getBook().getId(), borrowing.getId(),
+					BatchItemResultDTO.Status.BORROWED, borrowing.getDueDate());
+		}
+		return List.of(results);
+	}
+
+	/**
+	 * Re-reads the shelf counts the batch changed and publishes them together. Only books
+	 * in {@code locked} are marked sold out; the others were reached through hold claims
+	 * or hand-offs, which take no lock on the book's row.
+	 */
+	private void refreshCopies(Set<Long> bookIds, Set<Long> locked, Map<Long, Book> books) {
+		List<Book> changed = new ArrayList<>();
+		batchRepo.findAvailableCopies(bookIds).forEach((id, available) -> {
+			Book book = books.get(id);
+			book.setAvailableCopies(available);
+			if (book.isAvailable()) {
+				AfterCommit.run(() -> soldOutTable.restocked(id));
+			}
+			else if (locked.contains(id)) {
+				markSoldOut(id);
+			}
+			facetIndex.put(book);
+			changed.add(book);
+		});
+		bookService.emitAvailabilityUpdates(changed);
+	}
+
 	/* ─────────── look‑ups ─────────── */
 
 	@Override
@@ -81,7 +379,7 @@ public class BorrowingServiceImpl implements BorrowingService {
 	public BorrowingResponseDTO returnBook(Long borrowingId) {
 		log.info("Return request – borrowing {}", borrowingId);
 
-		Borrowing borrowing = borrowingRepo.findById(borrowingId)
+		Borrowing borrowing = borrowingRepo.findWithBookAndUserById(borrowingId)
 			.orElseThrow(() -> new EntityNotFoundException("Borrowing not found " + borrowingId));
 
 		if (borrowing.isReturned()) {
@@ -92,6 +390,20 @@ public class BorrowingServiceImpl implements BorrowingService {
 		borrowingRepo.save(borrowing);
 
 		Book book = borrowing.getBook();
+		Long bookId = book.getId();
+		recordCirculationWrite();
+		countReturns(borrowing.getUser().getId(), 1);
+		overdueIndex.returned(borrowingId);
+		// The copy goes to the head of the hold queue if anyone is waiting for it
+		if (holdService.handOff(bookId)) {
+			return mapper.mapToDTO(borrowing);
+		}
+		if (bookRepo.returnCopy(bookId) == 0) {
+			log.warn("Book {} already had every copy on the shelf; run the availability repair", bookId);
+		}
+		book.setAvailableCopies(bookRepo.findAvailableCopiesById(bookId));
+		facetIndex.put(book);
+		AfterCommit.run(() -> soldOutTable.restocked(bookId));
 		// Emit availability update (availability is determined by borrowing status)
 		bookService.emitAvailabilityUpdate(book);
 
@@ -102,7 +414,8 @@ public class BorrowingServiceImpl implements BorrowingService {
 	@Transactional(readOnly = true)
 	public BorrowingResponseDTO getBorrowingById(Long id) {
 		return mapper.mapToDTO(
-				borrowingRepo.findById(id).orElseThrow(() -> new EntityNotFoundException("Borrowing not found " + id)));
+				borrowingRepo.findWithBookAndUserById(id)
+					.orElseThrow(() -> new EntityNotFoundException("Borrowing not found " + id)));
 	}
 
 	@Override
@@ -119,6 +432,41 @@ public class BorrowingServiceImpl implements BorrowingService {
 		return historyForUser(user, pageable);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<BorrowingResponseDTO> getCurrentUserBorrowingsSlice(Pageable pageable) {
+		return historyRepo.findSliceByUser(currentUser(), pageable).map(mapper::mapToDTO);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BorrowingHistoryDTO getCurrentUserBorrowingHistoryWithApproximateTotals(Pageable pageable) {
+		User user = currentUser();
+		String userKey = "user=" + user.getId();
+		LocalDate today = LocalDate.now();
+
+		long totalUserBorrowings = countCache.get(CountScope.BORROWINGS, userKey,
+				() -> historyRepo.countByUser(user));
+		long currentUserBorrowings = countCache.get(CountScope.BORROWINGS, userKey + ":current",
+				() -> borrowingRepo.countByUserAndReturnedFalse(user));
+		long overdueUserBorrowings = countCache.get(CountScope.BORROWINGS, userKey + ":overdue@" + today,
+				() -> borrowingRepo.countByUserAndReturnedFalseAndDueDateBefore(user, today));
+
+		// The page total is the user's borrowing count, which is already cached above
+		Page<BorrowingResponseDTO> page = countCache
+			.page(historyRepo.findSliceByUser(user, pageable), CountScope.BORROWINGS, userKey,
+					() -> totalUserBorrowings)
+			.map(mapper::mapToDTO);
+
+		return new BorrowingHistoryDTO(
+				user.getId(), user.getUsername(),
+				PageDTO.from(page),
+				(int) totalUserBorrowings,
+				(int) currentUserBorrowings,
+				(int) overdueUserBorrowings
+		);
+	}
+
 	@Override
 	@Transactional(readOnly = true)
 	public Page<BorrowingResponseDTO> getAllActiveBorrowings(Pageable pageable) {
@@ -128,25 +476,52 @@ public class BorrowingServiceImpl implements BorrowingService {
 	@Override
 	@Transactional(readOnly = true)
 	public Page<BorrowingResponseDTO> getAllOverdueBorrowings(Pageable pageable) {
-		return borrowingRepo.findByDueDateBeforeAndReturned(LocalDate.now(), false, pageable)
-				.map(mapper::mapToDTO);
+		LocalDate today = overdueIndex.today();
+		return overduePage(today, overdueSummary(today), pageable);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Window<BorrowingResponseDTO> getCurrentUserBorrowings(CursorRequest request) {
+		return historyRepo.findByUser(currentUser(), request.position(), request.sort(), request.limit())
+			.map(mapper::mapToDTO);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Window<BorrowingResponseDTO> getUserBorrowings(Long userId, CursorRequest request) {
+		User user = userRepo.findById(userId)
+				.orElseThrow(() -> new EntityNotFoundException("User not found " + userId));
+		return historyRepo.findByUser(user, request.position(), request.sort(), request.limit())
+			.map(mapper::mapToDTO);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Window<BorrowingResponseDTO> getAllActiveBorrowings(CursorRequest request) {
+		return borrowingRepo.findByReturned(false, request.position(), request.sort(), request.limit())
+			.map(mapper::mapToDTO);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Window<BorrowingResponseDTO> getAllOverdueBorrowings(CursorRequest request) {
+		return borrowingRepo
+			.findByDueDateBeforeAndReturned(LocalDate.now(), false, request.position(), request.sort(), request.limit())
+			.map(mapper::mapToDTO);
 	}
 
 	/* ─────────── helpers ─────────── */
 
 	@Override
 	@Transactional(readOnly = true)
-	public boolean isOwner(Long borrowingId, String username) {
-		return borrowingRepo.findById(borrowingId)
+	public boolean isOwner(Long borrowingId, Long userId) {
+		return borrowingRepo.findUserIdById(borrowingId)
 			.orElseThrow(() -> new EntityNotFoundException("Borrowing not found " + borrowingId))
-			.getUser()
-			.getUsername()
-			.equals(username);
+			.equals(userId);
 	}
 
-	private User resolveBorrower(Long targetUserId) {
-		User current = currentUser();
-
+	private User resolveBorrower(User current, Long targetUserId) {
 		// When an explicit userId is supplied
 		if (targetUserId != null) {
 			if (!hasAdminOrLibrarian(current)) {
@@ -172,14 +547,73 @@ public class BorrowingServiceImpl implements BorrowingService {
 		return current;
 	}
 
-	private BorrowingHistoryDTO historyForUser(User user, Pageable pageable) {
-		Page<Borrowing> borrowingsPageEntity = borrowingRepo.findByUser(user, pageable);
-		PageDTO<BorrowingResponseDTO> borrowingsPageDTO = PageDTO.from(borrowingsPageEntity.map(mapper::mapToDTO));
+	/**
+	 * Counts new borrowings against the patron's limit, creating their counter row on
+	 * their first borrow.
+	 */
+	private void countBorrows(long userId, int count) {
+		long limit = maxActiveBorrowings > 0 ? maxActiveBorrowings : Long.MAX_VALUE;
+		if (statsRepo.recordBorrows(userId, count, limit) == 1) {
+			return;
+		}
+		if (statsRepo.createIfMissing(userId) == 1 && statsRepo.recordBorrows(userId, count, limit) == 1) {
+			return;
+		}
+		throw new IllegalStateException("Patron has reached the limit of " + maxActiveBorrowings + " open borrowings");
+	}
 
-		// Fetch overall stats for the user
-		long totalUserBorrowings = borrowingRepo.countByUser(user);
-		long currentUserBorrowings = borrowingRepo.countByUserAndReturnedFalse(user);
-		long overdueUserBorrowings = borrowingRepo.countByUserAndReturnedFalseAndDueDateBefore(user, LocalDate.now());
+	/**
+	 * How many more borrowings the patron may open, locking their counter row so it stays
+	 * true for the rest of the transaction.
+	 */
+	private long borrowHeadroom(long userId) {
+		if (maxActiveBorrowings <= 0) {
+			return Long.MAX_VALUE;
+		}
+		Long active = statsRepo.lockActiveBorrowings(userId);
+		if (active == null) {
+			statsRepo.createIfMissing(userId);
+			active = statsRepo.lockActiveBorrowings(userId);
+		}
+		return Math.max(0, maxActiveBorrowings - (active != null ? active : 0));
+	}
+
+	/**
+	 * A missing row is created from the borrowings table, which already has the returns.
+	 */
+	private void countReturns(long userId, int count) {
+		if (statsRepo.recordReturns(userId, count) == 0 && statsRepo.createIfMissing(userId) == 0) {
+			log.warn("Borrowing counters of user {} drifted; run the borrowing stats repair", userId);
+		}
+	}
+
+	/**
+	 * A borrow or return changes both borrowing counts and book availability.
+	 */
+	private void recordCirculationWrite() {
+		countCache.recordWrite(CountScope.BORROWINGS);
+		countCache.recordWrite(CountScope.BOOKS);
+	}
+
+	/**
+	 * Takes the counts from the patron's counter row and the overdue index; the page is
+	 * read as a slice, so only patrons without a counter row yet are counted in the
+	 * database.
+	 */
+	private BorrowingHistoryDTO historyForUser(User user, Pageable pageable) {
+		Optional<UserBorrowingStats> stats = statsRepo.findById(user.getId());
+		long totalUserBorrowings = stats.map(UserBorrowingStats::getTotalBorrowings)
+			.orElseGet(() -> historyRepo.countByUser(user));
+		long currentUserBorrowings = stats.map(UserBorrowingStats::getActiveBorrowings)
+			.orElseGet(() -> borrowingRepo.countByUserAndReturnedFalse(user));
+		long overdueUserBorrowings = overdueIndex.isReady() ? overdueIndex.overdueCount(user.getId())
+				: borrowingRepo.countByUserAndReturnedFalseAndDueDateBefore(user, LocalDate.now());
+
+		List<BorrowingResponseDTO> content = historyRepo.findSliceByUser(user, pageable)
+			.map(mapper::mapToDTO)
+			.getContent();
+		PageDTO<BorrowingResponseDTO> borrowingsPageDTO = PageDTO
+			.from(PageableExecutionUtils.getPage(content, pageable, () -> totalUserBorrowings));
 
 		return new BorrowingHistoryDTO(
 				user.getId(), user.getUsername(),
@@ -196,28 +630,41 @@ public class BorrowingServiceImpl implements BorrowingService {
 			.orElseThrow(() -> new EntityNotFoundException("User not found " + auth.getName()));
 	}
 
+	/**
+	 * Reads one page of overdue borrowings; the counts come from the materialized summary,
+	 * so the report costs a single query on {@code borrowings}.
+	 */
 	@Override
 	@Transactional(readOnly = true)
 	public OverdueReportDTO generateOverdueReport(Pageable pageable) {
 		log.info("Generating overdue books report");
 
-		// Get paginated list of overdue borrowings
-		Page<BorrowingResponseDTO> overdueBorrowingsPage = getAllOverdueBorrowings(pageable);
-
-		// Calculate summary statistics
-		LocalDate today = LocalDate.now();
-		long totalOverdueCount = borrowingRepo.countByDueDateBeforeAndReturned(today, false);
-		long distinctUsersWithOverdueCount = borrowingRepo.countDistinctUsersByDueDateBeforeAndReturnedFalse(today);
-		long distinctBooksOverdueCount = borrowingRepo.countDistinctBooksByDueDateBeforeAndReturnedFalse(today);
+		LocalDate today = overdueIndex.today();
+		OverdueSummary summary = overdueSummary(today);
+		Page<BorrowingResponseDTO> overdueBorrowingsPage = overduePage(today, summary, pageable);
 
-		// Create and return the report
 		return new OverdueReportDTO(
 				PageDTO.from(overdueBorrowingsPage),
-				(int) totalOverdueCount,
-				(int) distinctUsersWithOverdueCount,
-				(int) distinctBooksOverdueCount,
+				(int) summary.total(),
+				(int) summary.users(),
+				(int) summary.books(),
 				today
 		);
 	}
 
+	/**
+	 * The in-memory summary, or one aggregate query until it has been built.
+	 */
+	private OverdueSummary overdueSummary(LocalDate today) {
+		return overdueIndex.isReady() ? overdueIndex.summary() : borrowingRepo.summarizeOverdue(today);
+	}
+
+	private Page<BorrowingResponseDTO> overduePage(LocalDate today, OverdueSummary summary, Pageable pageable) {
+		List<BorrowingResponseDTO> content = borrowingRepo.findByDueDateBeforeAndReturned(today, false, pageable)
+			.stream()
+			.map(mapper::mapToDTO)
+			.toList();
+		return PageableExecutionUtils.getPage(content, pageable, summary::total);
+	}
+
 }
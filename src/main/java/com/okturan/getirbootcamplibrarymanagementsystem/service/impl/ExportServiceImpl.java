@@ -0,0 +1,119 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookExportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingExportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserExportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.export.ExportFormat;
+import com.okturan.getirbootcamplibrarymanagementsystem.export.RecordWriter;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingHistoryRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRoleRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.ExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+	private final BookRepository bookRepository;
+
+	private final UserRepository userRepository;
+
+	private final BorrowingHistoryRepository borrowingHistoryRepository;
+
+	private final ObjectMapper objectMapper;
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportBooks(ExportFormat format, OutputStream out) throws IOException {
+		try (Stream<BookExportDTO> rows = bookRepository.streamAllForExport();
+				RecordWriter<BookExportDTO> writer = RecordWriter.open(format, BookExportDTO.class, out,
+						objectMapper)) {
+			log.info("Exported {} books as {}", writeAll(rows.iterator(), writer), format);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportUsers(ExportFormat format, OutputStream out) throws IOException {
+		try (Stream<UserRoleRow> rows = userRepository.streamAllForExport();
+				RecordWriter<UserExportDTO> writer = RecordWriter.open(format, UserExportDTO.class, out,
+						objectMapper)) {
+			log.info("Exported {} users as {}", writeAll(new UserRows(rows.iterator()), writer), format);
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportBorrowings(LocalDate since, Boolean returned, ExportFormat format, OutputStream out)
+			throws IOException {
+		List<Boolean> returnedValues = returned == null ? List.of(true, false) : List.of(returned);
+		try (Stream<BorrowingExportDTO> rows = borrowingHistoryRepository
+			.streamForExport(since == null ? LocalDate.EPOCH : since, returnedValues);
+				RecordWriter<BorrowingExportDTO> writer = RecordWriter.open(format, BorrowingExportDTO.class, out,
+						objectMapper)) {
+			log.info("Exported {} borrowings as {}", writeAll(rows.iterator(), writer), format);
+		}
+	}
+
+	private static <T extends Record> long writeAll(Iterator<T> rows, RecordWriter<T> writer) throws IOException {
+		long count = 0;
+		while (rows.hasNext()) {
+			writer.write(rows.next());
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Folds the consecutive per-role rows of each user into one export row.
+	 */
+	private static final class UserRows implements Iterator<UserExportDTO> {
+
+		private final Iterator<UserRoleRow> rows;
+
+		private UserRoleRow pending;
+
+		UserRows(Iterator<UserRoleRow> rows) {
+			this.rows = rows;
+			this.pending = rows.hasNext() ? rows.next() : null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return pending != null;
+		}
+
+		@Override
+		public UserExportDTO next() {
+			UserRoleRow user = pending;
+			Set<Role> roles = EnumSet.noneOf(Role.class);
+			while (pending != null && pending.id().equals(user.id())) {
+				if (pending.role() != null) {
+					roles.add(pending.role());
+				}
+				pending = rows.hasNext() ? rows.next() : null;
+			}
+			return new UserExportDTO(user.id(), user.username(), user.email(), user.firstName(), user.lastName(),
+					user.address(), user.phoneNumber(), user.dateOfBirth(), roles);
+		}
+
+	}
+
+}
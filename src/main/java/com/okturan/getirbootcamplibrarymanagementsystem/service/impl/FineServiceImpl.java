@@ -0,0 +1,172 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service.impl;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineBalanceDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineRunDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.fines.FinePolicy;
+import com.okturan.getirbootcamplibrarymanagementsystem.mapper.FineMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRun;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineCandidate;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineEntry;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineLedgerRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineRunRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.FineService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nightly late fees. A run walks the borrowings in id order a chunk at a time; each chunk
+ * is read, charged and written as one batch in its own transaction, which also moves the
+ * run's checkpoint past it. A crash loses at most the chunk in flight, and the next call
+ * for the same day resumes after the last committed one.
+ */
+@Slf4j
+@Service
+public class FineServiceImpl implements FineService {
+
+	private final FineRunRepository runRepo;
+
+	private final FineLedgerRepository ledgerRepo;
+
+	private final UserRepository userRepo;
+
+	private final FinePolicy policy;
+
+	private final FineMapper mapper;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final int chunkSize;
+
+	public FineServiceImpl(FineRunRepository runRepo, FineLedgerRepository ledgerRepo, UserRepository userRepo,
+			FinePolicy policy, FineMapper mapper, TransactionTemplate transactionTemplate,
+			@Value("${library.fines.chunk-size:5000}") int chunkSize) {
+		this.runRepo = runRepo;
+		this.ledgerRepo = ledgerRepo;
+		this.userRepo = userRepo;
+		this.policy = policy;
+		this.mapper = mapper;
+		this.transactionTemplate = transactionTemplate;
+		this.chunkSize = chunkSize;
+	}
+
+	@Scheduled(cron = "${library.fines.cron:0 0 2 * * *}")
+	public void assessNightly() {
+		assessFines(LocalDate.now());
+	}
+
+	/**
+	 * Finishes any earlier run left unfinished first, so each day is charged once and in
+	 * order. A day still to come cannot be charged, as its returns are not known yet.
+	 */
+	@Override
+	public FineRunDTO assessFines(LocalDate runDate) {
+		if (runDate.isAfter(LocalDate.now())) {
+			throw new IllegalArgumentException("Fees cannot be assessed for a future date: " + runDate);
+		}
+		if (runRepo.existsByRunDateAfterAndStatus(runDate, FineRunStatus.COMPLETED)) {
+			throw new IllegalArgumentException("Fees are already assessed past " + runDate);
+		}
+		runRepo.findFirstByRunDateBeforeAndStatusOrderByRunDateAsc(runDate, FineRunStatus.RUNNING)
+			.ifPresent(unfinished -> assessFines(unfinished.getRunDate()));
+
+		FineRun run = transactionTemplate.execute(status -> start(runDate));
+		long checkpoint = run.getLastBorrowingId();
+		while (run.getStatus() == FineRunStatus.RUNNING) {
+			long from = checkpoint;
+			Long next = transactionTemplate.execute(status -> {
+				Long advanced = assessChunk(run, from);
+				if (advanced == null) {
+					status.setRollbackOnly();
+				}
+				return advanced;
+			});
+			if (next == null) {
+				log.warn("Fee run for {} is being resumed elsewhere; stopping at borrowing {}", runDate, from);
+				break;
+			}
+			checkpoint = next;
+		}
+		return mapper.mapToDTO(runRepo.findById(runDate).orElseThrow());
+	}
+
+	private FineRun start(LocalDate runDate) {
+		return runRepo.findById(runDate).orElseGet(() -> {
+			LocalDate since = runRepo
+				.findFirstByRunDateBeforeAndStatusOrderByRunDateDesc(runDate, FineRunStatus.COMPLETED)
+				.map(FineRun::getRunDate)
+				.orElse(null);
+			log.info("Starting fee run for {}, charging since {}", runDate, since);
+			return runRepo.save(new FineRun(runDate, since, FineRunStatus.RUNNING, 0, 0, BigDecimal.ZERO,
+					LocalDateTime.now(), null));
+		});
+	}
+
+	/**
+	 * Charges the chunk after {@code from}, or completes the run when there is none.
+	 * @return the new checkpoint, the old one once the run completes, or null if another
+	 * runner committed this chunk first
+	 */
+	private Long assessChunk(FineRun run, long from) {
+		List<FineCandidate> chunk = ledgerRepo.findCandidates(from, run.getRunDate(), run.getChargedSince(),
+				chunkSize);
+		if (chunk.isEmpty()) {
+			if (runRepo.complete(run.getRunDate(), from, LocalDateTime.now()) == 0) {
+				return null;
+			}
+			run.setStatus(FineRunStatus.COMPLETED);
+			log.info("Fee run for {} completed at borrowing {}", run.getRunDate(), from);
+			return from;
+		}
+
+		List<FineEntry> entries = new ArrayList<>(chunk.size());
+		BigDecimal total = BigDecimal.ZERO;
+		for (FineCandidate candidate : chunk) {
+			BigDecimal fee = policy.charge(candidate, run.getChargedSince(), run.getRunDate());
+			if (fee.signum() > 0) {
+				entries.add(new FineEntry(candidate.borrowingId(), candidate.userId(), fee));
+				total = total.add(fee);
+			}
+		}
+		long to = chunk.get(chunk.size() - 1).borrowingId();
+		if (runRepo.advance(run.getRunDate(), from, to, entries.size(), total) == 0) {
+			return null;
+		}
+		ledgerRepo.insert(run.getRunDate(), entries);
+		return to;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public FineBalanceDTO getCurrentUserBalance() {
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		User user = userRepo.findByUsername(auth.getName())
+			.orElseThrow(() -> new EntityNotFoundException("User not found " + auth.getName()));
+		return new FineBalanceDTO(user.getId(), ledgerRepo.balance(user.getId()));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public FineBalanceDTO getUserBalance(Long userId) {
+		if (!userRepo.existsById(userId)) {
+			throw new EntityNotFoundException("User not found " + userId);
+		}
+		return new FineBalanceDTO(userId, ledgerRepo.balance(userId));
+	}
+
+}
@@ -0,0 +1,306 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service.impl;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.BookFacetIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.HoldQueueIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.SoldOutTable;
+import com.okturan.getirbootcamplibrarymanagementsystem.mapper.HoldMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Hold;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.ApproximateCountCache;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CountScope;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.HoldRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.BookService;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.HoldService;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.AfterCommit;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Hold queues. The database is the record of every hold; {@link HoldQueueIndex} mirrors
+ * the open ones so returns and position lookups rarely need to query it. Every state
+ * change is a guarded {@code UPDATE}, so a return, a cancellation and the expiry job
+ * racing on one hold cannot both act on it.
+ */
+@Slf4j
+@Service("holdService")
+public class HoldServiceImpl implements HoldService {
+
+	/** Waiting holds tried per hand-off once the index's head turns out stale. */
+	private static final int HAND_OFF_CANDIDATES = 5;
+
+	private static final int EXPIRY_BATCH_SIZE = 100;
+
+	private final HoldRepository holdRepo;
+
+	private final BookRepository bookRepo;
+
+	private final UserRepository userRepo;
+
+	private final HoldMapper mapper;
+
+	private final HoldQueueIndex queueIndex;
+
+	private final BookService bookService; // used only to broadcast availability
+
+	private final BookFacetIndex facetIndex;
+
+	private final SoldOutTable soldOutTable;
+
+	private final ApproximateCountCache countCache;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final Duration pickupWindow;
+
+	public HoldServiceImpl(HoldRepository holdRepo, BookRepository bookRepo, UserRepository userRepo,
+			HoldMapper mapper, HoldQueueIndex queueIndex, BookService bookService, BookFacetIndex facetIndex,
+			SoldOutTable soldOutTable, ApproximateCountCache countCache, TransactionTemplate transactionTemplate,
+			@Value("${library.holds.pickup-window:3d}") Duration pickupWindow) {
+		this.holdRepo = holdRepo;
+		this.bookRepo = bookRepo;
+		this.userRepo = userRepo;
+		this.mapper = mapper;
+		this.queueIndex = queueIndex;
+		this.bookService = bookService;
+		this.facetIndex = facetIndex;
+		this.soldOutTable = soldOutTable;
+		this.countCache = countCache;
+		this.transactionTemplate = transactionTemplate;
+		this.pickupWindow = pickupWindow;
+	}
+
+	/* ─────────── patron requests ─────────── */
+
+	@Override
+	@Transactional
+	public HoldResponseDTO placeHold(HoldRequestDTO req) {
+		log.info("Hold request – book {}", req.bookId());
+
+		User patron = resolvePatron(currentUser(), req.userId());
+		Book book = bookRepo.findById(req.bookId())
+			.orElseThrow(() -> new EntityNotFoundException("Book not found " + req.bookId()));
+
+		if (book.isAvailable()) {
+			throw new IllegalStateException("Book has copies on the shelf; borrow it instead");
+		}
+		if (holdRepo.existsOpenHold(book.getId(), patron.getId())) {
+			throw new IllegalStateException("Patron already has a hold on this book");
+		}
+
+		Hold hold = new Hold();
+		hold.setBook(book);
+		hold.setUser(patron);
+		hold.setStatus(HoldStatus.WAITING);
+		hold.setCreatedAt(LocalDateTime.now());
+		holdRepo.save(hold);
+		queueIndex.enqueued(hold.getId(), book.getId());
+
+		// The index learns of the hold on commit; until then it joins the back of the line
+		Integer position = queueIndex.isReady() ? queueIndex.waitingCount(book.getId()) + 1
+				: (int) holdRepo.countWaitingAhead(book.getId(), hold.getId()) + 1;
+		return mapper.mapToDTO(hold, position);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public HoldResponseDTO getHold(Long holdId) {
+		Hold hold = holdRepo.findById(holdId)
+			.orElseThrow(() -> new EntityNotFoundException("Hold not found " + holdId));
+		return mapper.mapToDTO(hold, position(hold));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<HoldResponseDTO> getCurrentUserHolds() {
+		return holdRepo.findOpenByUserId(currentUser().getId())
+			.stream()
+			.map(hold -> mapper.mapToDTO(hold, position(hold)))
+			.toList();
+	}
+
+	@Override
+	@Transactional
+	public void cancelHold(Long holdId) {
+		Hold hold = holdRepo.findById(holdId)
+			.orElseThrow(() -> new EntityNotFoundException("Hold not found " + holdId));
+		HoldStatus status = hold.getStatus();
+		if (!status.isOpen() || holdRepo.transition(holdId, status, HoldStatus.CANCELLED) == 0) {
+			throw new IllegalStateException("Hold is no longer open");
+		}
+
+		Long bookId = hold.getBook().getId();
+		queueIndex.closed(holdId, bookId);
+		if (status == HoldStatus.READY) {
+			releaseCopy(bookId);
+		}
+		log.info("Cancelled hold {} on book {}", holdId, bookId);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean isOwner(Long holdId, Long userId) {
+		return holdRepo.findUserIdById(holdId)
+			.orElseThrow(() -> new EntityNotFoundException("Hold not found " + holdId))
+			.equals(userId);
+	}
+
+	/* ─────────── circulation ─────────── */
+
+	/**
+	 * Tries the head the index knows first, then the oldest waiting holds in the table in
+	 * case that head was cancelled or served by a transaction the index has not seen yet.
+	 */
+	@Override
+	public boolean handOff(Long bookId) {
+		if (!queueIndex.hasWaiting(bookId)) {
+			return false;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		LocalDateTime deadline = now.plus(pickupWindow);
+
+		Long head = queueIndex.head(bookId);
+		if (head != null && holdRepo.markReady(head, now, deadline) == 1) {
+			return promoted(head, bookId);
+		}
+		for (Long candidate : holdRepo.findWaitingIds(bookId, Limit.of(HAND_OFF_CANDIDATES))) {
+			if (holdRepo.markReady(candidate, now, deadline) == 1) {
+				return promoted(candidate, bookId);
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean claim(Long bookId, Long userId) {
+		if (!queueIndex.hasReadyHolds(bookId)) {
+			return false;
+		}
+		Optional<Long> holdId = holdRepo.findReadyHoldId(bookId, userId);
+		if (holdId.isEmpty() || holdRepo.transition(holdId.get(), HoldStatus.READY, HoldStatus.FULFILLED) == 0) {
+			return false;
+		}
+		queueIndex.closed(holdId.get(), bookId);
+		log.info("Hold {} picked up by user {}", holdId.get(), userId);
+		return true;
+	}
+
+	@Override
+	public boolean hasReadyHolds(Long bookId) {
+		return queueIndex.hasReadyHolds(bookId);
+	}
+
+	/**
+	 * Each hold expires in its own transaction, so one failure does not keep the others'
+	 * copies off the shelf.
+	 */
+	@Override
+	@Scheduled(fixedDelayString = "${library.holds.expiry-interval:PT1M}")
+	public int expireOverdueHolds() {
+		List<Hold> overdue = holdRepo.findByStatusAndPickupDeadlineBefore(HoldStatus.READY, LocalDateTime.now(),
+				Limit.of(EXPIRY_BATCH_SIZE));
+		int expired = 0;
+		for (Hold hold : overdue) {
+			Long holdId = hold.getId();
+			Long bookId = hold.getBook().getId();
+			Boolean done = transactionTemplate.execute(status -> {
+				if (holdRepo.transition(holdId, HoldStatus.READY, HoldStatus.EXPIRED) == 0) {
+					return false;
+				}
+				queueIndex.closed(holdId, bookId);
+				releaseCopy(bookId);
+				return true;
+			});
+			if (Boolean.TRUE.equals(done)) {
+				expired++;
+			}
+		}
+		if (expired > 0) {
+			log.info("Expired {} holds past their pickup deadline", expired);
+		}
+		return expired;
+	}
+
+	/* ─────────── helpers ─────────── */
+
+	private boolean promoted(Long holdId, Long bookId) {
+		queueIndex.promoted(holdId, bookId);
+		log.info("Copy of book {} set aside for hold {}", bookId, holdId);
+		return true;
+	}
+
+	/**
+	 * Passes a copy freed from the hold shelf to the next hold in line, or puts it back on
+	 * the open shelf.
+	 */
+	private void releaseCopy(Long bookId) {
+		if (handOff(bookId)) {
+			return;
+		}
+		if (bookRepo.returnCopy(bookId) == 0) {
+			log.warn("Book {} already had every copy on the shelf; run the availability repair", bookId);
+		}
+		bookRepo.findById(bookId).ifPresent(book -> {
+			book.setAvailableCopies(bookRepo.findAvailableCopiesById(bookId));
+			countCache.recordWrite(CountScope.BOOKS);
+			facetIndex.put(book);
+			AfterCommit.run(() -> soldOutTable.restocked(bookId));
+			bookService.emitAvailabilityUpdate(book);
+		});
+	}
+
+	private Integer position(Hold hold) {
+		if (hold.getStatus() != HoldStatus.WAITING) {
+			return null;
+		}
+		Integer position = queueIndex.position(hold.getId());
+		return position != null ? position
+				: (int) holdRepo.countWaitingAhead(hold.getBook().getId(), hold.getId()) + 1;
+	}
+
+	private User resolvePatron(User current, Long targetUserId) {
+		boolean staff = current.hasRole(Role.ADMIN) || current.hasRole(Role.LIBRARIAN);
+		if (targetUserId == null) {
+			if (staff) {
+				throw new AccessDeniedException("Admins/Librarians must specify a patron userId");
+			}
+			return current;
+		}
+		if (!staff) {
+			throw new AccessDeniedException("Only admins or librarians can place holds for other users");
+		}
+		User target = userRepo.findById(targetUserId)
+			.orElseThrow(() -> new EntityNotFoundException("User not found " + targetUserId));
+		if (target.hasRole(Role.ADMIN) || target.hasRole(Role.LIBRARIAN)) {
+			throw new IllegalArgumentException("Cannot place holds for admins or librarians");
+		}
+		return target;
+	}
+
+	private User currentUser() {
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		return userRepo.findByUsername(auth.getName())
+			.orElseThrow(() -> new EntityNotFoundException("User not found " + auth.getName()));
+	}
+
+}
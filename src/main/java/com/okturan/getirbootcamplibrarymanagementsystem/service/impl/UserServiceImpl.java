@@ -5,6 +5,7 @@ import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserDetailsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserUpdateDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.mapper.UserMapper;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.CursorRequest;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
@@ -12,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -55,6 +57,13 @@ public class UserServiceImpl implements UserService {
 		return usersPage.map(userMapper::mapToDetailsDTO);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public Window<UserDetailsDTO> getAllUsers(CursorRequest request) {
+		return userRepository.findAllBy(request.position(), request.sort(), request.limit())
+			.map(userMapper::mapToDetailsDTO);
+	}
+
 	@Override
 	@Transactional(readOnly = true)
 	public UserDetailsDTO findById(Long id) {
@@ -0,0 +1,59 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.util;
+
+/**
+ * Canonical numeric form of an ISBN. Hyphens and spaces are ignored and ISBN-10s are
+ * converted to their 978-prefixed ISBN-13, so every spelling of the same book maps to
+ * one {@code long}.
+ * <p>
+ * Check digits are recomputed rather than verified; request validation rejects bad
+ * ISBNs before they get here.
+ */
+public final class Isbn {
+
+	private Isbn() {
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the input is not 10 or 13 ISBN characters long
+	 */
+	public static long toKey(String isbn) {
+		if (isbn == null) {
+			throw new IllegalArgumentException("ISBN is required");
+		}
+		StringBuilder digits = new StringBuilder(13);
+		for (int i = 0; i < isbn.length(); i++) {
+			char c = isbn.charAt(i);
+			if (c >= '0' && c <= '9' || c == 'X' || c == 'x') {
+				digits.append(c);
+			}
+			else if (c != '-' && c != ' ') {
+				throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+			}
+		}
+		if (digits.length() == 10) {
+			digits.setLength(9);
+			digits.insert(0, "978");
+		}
+		else if (digits.length() == 13) {
+			digits.setLength(12);
+		}
+		else {
+			throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+		}
+		if (digits.indexOf("X") >= 0 || digits.indexOf("x") >= 0) {
+			throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+		}
+		long key = Long.parseLong(digits, 0, 12, 10);
+		return key * 10 + checkDigit13(key);
+	}
+
+	private static int checkDigit13(long first12) {
+		int sum = 0;
+		for (int position = 11; position >= 0; position--, first12 /= 10) {
+			int digit = (int) (first12 % 10);
+			sum += (position % 2 == 0) ? digit : 3 * digit;
+		}
+		return (10 - sum % 10) % 10;
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> long} map with linear probing, kept in two parallel
+ * primitive arrays so lookups neither box nor allocate. Deletion shifts the following
+ * cluster back instead of leaving tombstones, so probe lengths stay short under churn.
+ * <p>
+ * Key {@code 0} marks an empty slot and cannot be stored. Not thread-safe.
+ */
+public final class LongLongHashMap {
+
+	private static final long EMPTY = 0L;
+
+	private static final float LOAD_FACTOR = 0.6f;
+
+	private long[] keys;
+
+	private long[] values;
+
+	private int mask;
+
+	private int shift;
+
+	private int size;
+
+	private int resizeAt;
+
+	public LongLongHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(4, (int) Math.ceil(expectedSize / LOAD_FACTOR)) - 1) << 1;
+		allocate(capacity);
+	}
+
+	/**
+	 * @return the value for {@code key}, or {@code missing} when absent
+	 */
+	public long get(long key, long missing) {
+		checkKey(key);
+		for (int slot = slot(key);; slot = (slot + 1) & mask) {
+			long existing = keys[slot];
+			if (existing == key) {
+				return values[slot];
+			}
+			if (existing == EMPTY) {
+				return missing;
+			}
+		}
+	}
+
+	public boolean containsKey(long key) {
+		checkKey(key);
+		for (int slot = slot(key);; slot = (slot + 1) & mask) {
+			long existing = keys[slot];
+			if (existing == key) {
+				return true;
+			}
+			if (existing == EMPTY) {
+				return false;
+			}
+		}
+	}
+
+	public void put(long key, long value) {
+		checkKey(key);
+		int slot = slot(key);
+		while (keys[slot] != EMPTY) {
+			if (keys[slot] == key) {
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size >= resizeAt) {
+			rehash(keys.length << 1);
+		}
+	}
+
+	/**
+	 * @return whether a mapping was removed
+	 */
+	public boolean remove(long key) {
+		checkKey(key);
+		int slot = slot(key);
+		while (keys[slot] != key) {
+			if (keys[slot] == EMPTY) {
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		// Backward-shift deletion: move later entries of the cluster into the gap when
+		// the gap lies between their home slot and where they currently sit
+		int gap = slot;
+		for (int next = (gap + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+			int home = slot(keys[next]);
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		keys[gap] = EMPTY;
+		values[gap] = 0L;
+		size--;
+		return true;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	private int slot(long key) {
+		// Fibonacci hashing: the top bits of the product spread sequential keys such as
+		// ISBNs across the table
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		allocate(capacity);
+		size = 0;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+		mask = capacity - 1;
+		shift = Long.numberOfLeadingZeros(mask);
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static void checkKey(long key) {
+		if (key == EMPTY) {
+			throw new IllegalArgumentException("Key 0 is reserved for empty slots");
+		}
+	}
+
+}
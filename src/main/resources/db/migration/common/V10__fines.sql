@@ -0,0 +1,30 @@
+-- Late-fee ledger. Each nightly assessment appends one entry per borrowing it charged,
+-- for the days overdue since the previous completed assessment, so a patron's balance
+-- is the sum of their entries.
+CREATE TABLE fines (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    borrowing_id BIGINT         NOT NULL,
+    user_id      BIGINT         NOT NULL,
+    assessed_on  DATE           NOT NULL,
+    amount       NUMERIC(12, 2) NOT NULL,
+    CONSTRAINT uk_fines_borrowing_assessed UNIQUE (borrowing_id, assessed_on),
+    CONSTRAINT fk_fines_borrowing FOREIGN KEY (borrowing_id) REFERENCES borrowings (id) ON DELETE CASCADE,
+    CONSTRAINT fk_fines_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_fines_user ON fines (user_id);
+
+-- One row per assessment day. last_borrowing_id is the checkpoint: chunks are written in
+-- borrowing id order and advance it in the same transaction, so an interrupted run
+-- resumes after the last chunk it committed.
+CREATE TABLE fine_runs (
+    run_date          DATE           NOT NULL PRIMARY KEY,
+    charged_since     DATE,
+    status            VARCHAR(16)    NOT NULL,
+    last_borrowing_id BIGINT         NOT NULL,
+    entries           BIGINT         NOT NULL,
+    total_amount      NUMERIC(14, 2) NOT NULL,
+    started_at        TIMESTAMP      NOT NULL,
+    finished_at       TIMESTAMP,
+    CONSTRAINT ck_fine_runs_status CHECK (status IN ('RUNNING', 'COMPLETED'))
+);
@@ -0,0 +1,17 @@
+-- Responses to borrow and return requests sent with an Idempotency-Key header, so a
+-- client retrying after a lost response gets the original answer instead of a second
+-- attempt. A row without a status is a request still being served. Rows older than
+-- library.idempotency.ttl are swept.
+CREATE TABLE idempotency_keys (
+    user_id         BIGINT       NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint     CHAR(64)     NOT NULL,
+    status          INTEGER,
+    content_type    VARCHAR(255),
+    body            TEXT,
+    created_at      TIMESTAMP    NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (user_id, idempotency_key),
+    CONSTRAINT fk_idempotency_keys_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
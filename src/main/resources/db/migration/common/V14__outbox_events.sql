@@ -0,0 +1,11 @@
+-- Transactional outbox. Writes append their events here in their own transaction and
+-- OutboxRelay publishes committed rows to the in-JVM consumers, oldest id first, deleting
+-- each batch once every consumer has taken it. Writers flush their pending changes before
+-- appending, so two events about the same row get ids in the order the row was written.
+CREATE TABLE outbox_events (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    event_type   VARCHAR(64) NOT NULL,
+    aggregate_id BIGINT      NOT NULL,
+    payload      TEXT        NOT NULL,
+    created_at   TIMESTAMP   NOT NULL
+);
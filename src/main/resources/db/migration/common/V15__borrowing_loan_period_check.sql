@@ -0,0 +1,7 @@
+-- Every loan runs Borrowing.LOAN_PERIOD (two weeks). BorrowingRepository bounds the
+-- borrow date of due-date queries by it so they prune borrowings partitions on
+-- PostgreSQL; a row with any other due date would silently drop out of the overdue
+-- report, the overdue summary and the fine rollover. Reject such rows instead. A loan
+-- renewal feature has to drop this check together with those bounds.
+ALTER TABLE borrowings ADD CONSTRAINT ck_borrowings_loan_period
+    CHECK (due_date = borrow_date + INTERVAL '14' DAY);
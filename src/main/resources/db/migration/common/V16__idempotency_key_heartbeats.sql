@@ -0,0 +1,8 @@
+-- An unfinished key now names the instance serving its request, which refreshes
+-- heartbeat_at while the request runs. Only a key whose heartbeat has stopped is taken
+-- over by a retry, however long the request takes; the owner guards the completion and
+-- release of a key against an instance that lost it.
+ALTER TABLE idempotency_keys ADD COLUMN owner VARCHAR(36);
+ALTER TABLE idempotency_keys ADD COLUMN heartbeat_at TIMESTAMP;
+UPDATE idempotency_keys SET heartbeat_at = created_at;
+ALTER TABLE idempotency_keys ALTER COLUMN heartbeat_at SET NOT NULL;
@@ -0,0 +1,8 @@
+-- V15 tied every due date to borrow_date + 14 days, which would freeze the loan length
+-- (no renewals, no per-patron periods). BorrowingRepository now bounds the borrow date of
+-- its due-date queries by the due-date bound itself, which only needs a loan not to fall
+-- due before it starts.
+ALTER TABLE borrowings DROP CONSTRAINT ck_borrowings_loan_period;
+
+ALTER TABLE borrowings ADD CONSTRAINT ck_borrowings_due_date
+    CHECK (due_date >= borrow_date);
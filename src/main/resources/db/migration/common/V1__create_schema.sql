@@ -0,0 +1,49 @@
+-- Schema as Hibernate generated it before migrations were introduced. Databases that
+-- already have these tables are baselined at version 1 and start from V2.
+
+CREATE TABLE users (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username      VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    first_name    VARCHAR(255),
+    last_name     VARCHAR(255),
+    address       VARCHAR(255),
+    phone_number  VARCHAR(255),
+    date_of_birth DATE,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT       NOT NULL,
+    role    VARCHAR(255) CHECK (role IN ('ADMIN', 'LIBRARIAN', 'PATRON')),
+    CONSTRAINT fk_user_roles_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE books (
+    id                  BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title               VARCHAR(255) NOT NULL,
+    author              VARCHAR(255) NOT NULL,
+    isbn                VARCHAR(255) NOT NULL,
+    isbn_key            BIGINT,
+    publication_date    DATE         NOT NULL,
+    genre               VARCHAR(100) NOT NULL,
+    active_borrowing_id BIGINT,
+    CONSTRAINT uk_books_isbn UNIQUE (isbn)
+);
+
+CREATE UNIQUE INDEX uk_books_isbn_key ON books (isbn_key);
+CREATE INDEX idx_books_active_borrowing_id ON books (active_borrowing_id);
+
+CREATE TABLE borrowings (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    book_id     BIGINT  NOT NULL,
+    user_id     BIGINT  NOT NULL,
+    borrow_date DATE    NOT NULL,
+    due_date    DATE    NOT NULL,
+    return_date DATE,
+    is_returned BOOLEAN NOT NULL,
+    CONSTRAINT fk_borrowings_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_borrowings_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
@@ -0,0 +1,21 @@
+-- Composite indexes behind the repository queries. IndexCoverageTest fails when a query
+-- method is added without one.
+
+-- existsByBookAndReturnedFalse, findBorrowedBookIdsByBookIds, active-pointer repair
+CREATE INDEX IF NOT EXISTS idx_borrowings_book_returned ON borrowings (book_id, is_returned);
+
+-- Borrowing history per user (findByUser, countByUser...), newest loans first
+CREATE INDEX IF NOT EXISTS idx_borrowings_user_borrow_date ON borrowings (user_id, borrow_date);
+
+-- Overdue lists, counts and report
+CREATE INDEX IF NOT EXISTS idx_borrowings_due_returned ON borrowings (due_date, is_returned);
+
+-- Active and returned borrowing lists
+CREATE INDEX IF NOT EXISTS idx_borrowings_returned_id ON borrowings (is_returned, id);
+
+-- Eager role loading and existsByRolesContaining
+CREATE INDEX IF NOT EXISTS idx_user_roles_user ON user_roles (user_id);
+CREATE INDEX IF NOT EXISTS idx_user_roles_role ON user_roles (role);
+
+-- Default catalog sort
+CREATE INDEX IF NOT EXISTS idx_books_title ON books (title);
@@ -0,0 +1,12 @@
+-- Copy-level inventory. Borrow and return change available_copies with a conditional
+-- UPDATE on the book row, and the check constraint backs the WHERE clauses up.
+ALTER TABLE books ADD COLUMN total_copies INTEGER DEFAULT 1 NOT NULL;
+ALTER TABLE books ADD COLUMN available_copies INTEGER DEFAULT 1 NOT NULL;
+
+UPDATE books SET available_copies = 0 WHERE active_borrowing_id IS NOT NULL;
+
+ALTER TABLE books ADD CONSTRAINT ck_books_copies
+    CHECK (available_copies >= 0 AND available_copies <= total_copies);
+
+DROP INDEX IF EXISTS idx_books_active_borrowing_id;
+ALTER TABLE books DROP COLUMN active_borrowing_id;
@@ -0,0 +1,19 @@
+-- Hold queue. A hold waits in line per book in id order; on return the head of the line
+-- becomes READY and keeps the returned copy off the shelf until it is picked up or its
+-- pickup deadline passes.
+CREATE TABLE holds (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    book_id         BIGINT      NOT NULL,
+    user_id         BIGINT      NOT NULL,
+    status          VARCHAR(16) NOT NULL,
+    created_at      TIMESTAMP   NOT NULL,
+    ready_at        TIMESTAMP,
+    pickup_deadline TIMESTAMP,
+    CONSTRAINT ck_holds_status CHECK (status IN ('WAITING', 'READY', 'FULFILLED', 'CANCELLED', 'EXPIRED')),
+    CONSTRAINT fk_holds_book FOREIGN KEY (book_id) REFERENCES books (id) ON DELETE CASCADE,
+    CONSTRAINT fk_holds_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE INDEX idx_holds_book_status ON holds (book_id, status, id);
+CREATE INDEX idx_holds_user_status ON holds (user_id, status);
+CREATE INDEX idx_holds_status_deadline ON holds (status, pickup_deadline);
@@ -0,0 +1,15 @@
+-- Per-patron borrowing counters, kept in step with borrowings by the circulation service
+-- so the history page and the borrow limit do not count a patron's borrowings. Rows are
+-- created on a patron's first borrow; the repair job re-derives any that drift.
+CREATE TABLE user_borrowing_stats (
+    user_id           BIGINT NOT NULL PRIMARY KEY,
+    total_borrowings  BIGINT NOT NULL,
+    active_borrowings BIGINT NOT NULL,
+    CONSTRAINT ck_user_borrowing_stats_counts CHECK (active_borrowings >= 0 AND active_borrowings <= total_borrowings),
+    CONSTRAINT fk_user_borrowing_stats_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+INSERT INTO user_borrowing_stats (user_id, total_borrowings, active_borrowings)
+SELECT user_id, COUNT(*), SUM(CASE WHEN is_returned = FALSE THEN 1 ELSE 0 END)
+FROM borrowings
+GROUP BY user_id;
@@ -0,0 +1,3 @@
+-- H2 has no partial indexes; the composite V2 indexes already serve these queries. Kept
+-- so both vendors share the same version history.
+SELECT 1;
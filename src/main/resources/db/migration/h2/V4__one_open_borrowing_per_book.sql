@@ -0,0 +1,6 @@
+-- At most one open borrowing per book. H2 has no partial indexes, so the unique index goes
+-- on a generated column that is NULL once the borrowing is returned.
+
+ALTER TABLE borrowings
+    ADD COLUMN open_book_id BIGINT GENERATED ALWAYS AS (CASE WHEN is_returned THEN NULL ELSE book_id END);
+CREATE UNIQUE INDEX uk_borrowings_open_book ON borrowings (open_book_id);
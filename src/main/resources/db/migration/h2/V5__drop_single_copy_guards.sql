@@ -0,0 +1,6 @@
+-- A book may now have several copies out at once, so the one-open-borrowing guard and its
+-- generated column go. The conditional decrement of books.available_copies (V6) takes its
+-- place.
+
+DROP INDEX IF EXISTS uk_borrowings_open_book;
+ALTER TABLE borrowings DROP COLUMN IF EXISTS open_book_id;
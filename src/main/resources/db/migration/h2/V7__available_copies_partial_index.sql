@@ -0,0 +1,2 @@
+-- H2 has no partial indexes. Kept so both vendors share the same version history.
+SELECT 1;
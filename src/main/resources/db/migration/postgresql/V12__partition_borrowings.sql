@@ -0,0 +1,72 @@
+-- Range-partitions borrowings by borrow_date, one partition a month, so date-bounded
+-- reads (the overdue rollover, overdue lists and counts) prune to the months they can
+-- touch. Monthly partitions are created ahead of time and emptied ones detached by
+-- BorrowingPartitionMaintenance; the default partition only catches rows outside them.
+--
+-- The primary key has to include the partition key. Ids still come from one identity
+-- sequence, so they stay unique on their own. Nothing references borrowings by foreign
+-- key any more (V11 dropped the last one).
+--
+-- Rewrites the table: run it in a maintenance window on large data sets.
+
+DROP VIEW borrowing_history;
+
+ALTER TABLE borrowings RENAME TO borrowings_unpartitioned;
+
+CREATE TABLE borrowings (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    book_id     BIGINT  NOT NULL,
+    user_id     BIGINT  NOT NULL,
+    borrow_date DATE    NOT NULL,
+    due_date    DATE    NOT NULL,
+    return_date DATE,
+    is_returned BOOLEAN NOT NULL,
+    CONSTRAINT pk_borrowings PRIMARY KEY (id, borrow_date),
+    CONSTRAINT fk_borrowings_book FOREIGN KEY (book_id) REFERENCES books (id),
+    CONSTRAINT fk_borrowings_user FOREIGN KEY (user_id) REFERENCES users (id)
+) PARTITION BY RANGE (borrow_date);
+
+CREATE TABLE borrowings_default PARTITION OF borrowings DEFAULT;
+
+-- One partition per month from the oldest borrowing to three months ahead
+DO $$
+DECLARE
+    first_day DATE := date_trunc('month', LEAST(COALESCE((SELECT MIN(borrow_date) FROM borrowings_unpartitioned),
+            CURRENT_DATE), CURRENT_DATE))::date;
+    last_day  DATE := date_trunc('month', CURRENT_DATE + INTERVAL '3 months')::date;
+BEGIN
+    WHILE first_day <= last_day LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF borrowings FOR VALUES FROM (%L) TO (%L)',
+                'borrowings_p' || to_char(first_day, 'YYYY_MM'), first_day, (first_day + INTERVAL '1 month')::date);
+        first_day := (first_day + INTERVAL '1 month')::date;
+    END LOOP;
+END
+$$;
+
+INSERT INTO borrowings (id, book_id, user_id, borrow_date, due_date, return_date, is_returned)
+SELECT id, book_id, user_id, borrow_date, due_date, return_date, is_returned
+FROM borrowings_unpartitioned;
+
+-- Archived borrowings keep their ids, so new ones must start past both tables
+SELECT setval(pg_get_serial_sequence('borrowings', 'id'),
+        GREATEST(COALESCE((SELECT MAX(id) FROM borrowings_unpartitioned), 0),
+                 COALESCE((SELECT MAX(id) FROM borrowings_archive), 0)) + 1, false);
+
+DROP TABLE borrowings_unpartitioned;
+
+-- The V2, V3 and V5 borrowing indexes, now built on every partition. Lookups by id
+-- use the primary key, which leads with it.
+CREATE INDEX idx_borrowings_book_returned ON borrowings (book_id, is_returned);
+CREATE INDEX idx_borrowings_user_borrow_date ON borrowings (user_id, borrow_date);
+CREATE INDEX idx_borrowings_due_returned ON borrowings (due_date, is_returned);
+CREATE INDEX idx_borrowings_returned_id ON borrowings (is_returned, id);
+CREATE INDEX idx_borrowings_open_user_due ON borrowings (user_id, due_date) WHERE is_returned = false;
+CREATE INDEX idx_borrowings_open_due ON borrowings (due_date) WHERE is_returned = false;
+CREATE INDEX idx_borrowings_open_book ON borrowings (book_id) WHERE is_returned = false;
+
+CREATE VIEW borrowing_history AS
+SELECT id, book_id, user_id, borrow_date, due_date, return_date, is_returned
+FROM borrowings
+UNION ALL
+SELECT id, book_id, user_id, borrow_date, due_date, return_date, TRUE
+FROM borrowings_archive;
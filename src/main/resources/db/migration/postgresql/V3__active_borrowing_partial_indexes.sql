@@ -0,0 +1,14 @@
+-- Only a small share of borrowings is ever open, so partial indexes over the open ones
+-- stay small and hot where the composite V2 indexes cover the whole history.
+
+-- countByUserAndReturnedFalse, countByUserAndReturnedFalseAndDueDateBefore
+CREATE INDEX IF NOT EXISTS idx_borrowings_open_user_due ON borrowings (user_id, due_date) WHERE is_returned = false;
+
+-- Overdue lists, counts and report
+CREATE INDEX IF NOT EXISTS idx_borrowings_open_due ON borrowings (due_date) WHERE is_returned = false;
+
+-- existsByBookAndReturnedFalse, findBorrowedBookIdsByBookIds, active-pointer repair
+CREATE INDEX IF NOT EXISTS idx_borrowings_open_book ON borrowings (book_id) WHERE is_returned = false;
+
+-- Available-books filter
+CREATE INDEX IF NOT EXISTS idx_books_available_title ON books (title) WHERE active_borrowing_id IS NULL;
@@ -0,0 +1,9 @@
+-- At most one open borrowing per book. This is the authoritative guard behind the
+-- in-memory borrow claims; the application maps a violation to 409 Conflict.
+--
+-- Fails if the data already holds a book lent twice. Find such books with
+--   SELECT book_id FROM borrowings WHERE is_returned = false GROUP BY book_id HAVING COUNT(*) > 1;
+-- and return the extra borrowings before migrating.
+
+DROP INDEX IF EXISTS idx_borrowings_open_book;
+CREATE UNIQUE INDEX uk_borrowings_open_book ON borrowings (book_id) WHERE is_returned = false;
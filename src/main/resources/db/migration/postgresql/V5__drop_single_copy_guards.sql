@@ -0,0 +1,9 @@
+-- A book may now have several copies out at once, so the one-open-borrowing guard goes.
+-- The conditional decrement of books.available_copies (V6) takes its place. The plain
+-- partial index from V3 comes back for the open-borrowing lookups by book.
+
+DROP INDEX IF EXISTS uk_borrowings_open_book;
+CREATE INDEX IF NOT EXISTS idx_borrowings_open_book ON borrowings (book_id) WHERE is_returned = false;
+
+-- Its predicate reads active_borrowing_id, which V6 drops; V7 rebuilds it on the copy count
+DROP INDEX IF EXISTS idx_books_available_title;
@@ -0,0 +1,2 @@
+-- Available-books filter
+CREATE INDEX IF NOT EXISTS idx_books_available_title ON books (title) WHERE available_copies > 0;
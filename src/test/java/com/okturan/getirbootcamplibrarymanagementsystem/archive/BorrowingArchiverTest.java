@@ -0,0 +1,77 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.archive;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRun;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingArchiveRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BorrowingArchiverTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 20);
+
+    private final BorrowingArchiveRepository archiveRepository = mock(BorrowingArchiveRepository.class);
+
+    private final FineRunRepository fineRunRepository = mock(FineRunRepository.class);
+
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    private final BorrowingArchiver archiver = new BorrowingArchiver(archiveRepository, fineRunRepository,
+            transactionTemplate, 365, 2, 3);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(archiveRepository.move(anyList(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+        when(fineRunRepository.findFirstByRunDateBeforeAndStatusOrderByRunDateDesc(TODAY.plusDays(1),
+                FineRunStatus.COMPLETED)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void archive_ShouldMoveChunksUntilNoneAreLeft() {
+        LocalDate cutoff = TODAY.minusDays(365);
+        when(archiveRepository.findArchivable(cutoff, 2)).thenReturn(List.of(1L, 2L))
+            .thenReturn(List.of(3L))
+            .thenReturn(List.of());
+
+        assertEquals(3, archiver.archive(TODAY));
+        verify(archiveRepository, times(2)).move(anyList(), any(LocalDateTime.class));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void archive_ShouldStopAfterMaxChunks() {
+        when(archiveRepository.findArchivable(any(LocalDate.class), eq(2))).thenReturn(List.of(1L, 2L));
+
+        assertEquals(6, archiver.archive(TODAY));
+        verify(archiveRepository, times(3)).move(anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void archive_ShouldKeepBorrowingsTheNextFeeRunMayCharge() {
+        LocalDate lastRun = TODAY.minusDays(400);
+        when(fineRunRepository.findFirstByRunDateBeforeAndStatusOrderByRunDateDesc(TODAY.plusDays(1),
+                FineRunStatus.COMPLETED)).thenReturn(Optional.of(new FineRun(lastRun, null, FineRunStatus.COMPLETED,
+                        0, 0, BigDecimal.ZERO, LocalDateTime.now(), LocalDateTime.now())));
+        when(archiveRepository.findArchivable(lastRun, 2)).thenReturn(List.of());
+
+        assertEquals(0, archiver.archive(TODAY));
+        verify(archiveRepository).findArchivable(lastRun, 2);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.benchmark;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.mapper.BookMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares bytes allocated per catalog page when reading entities and mapping them
+ * against selecting straight into {@link BookResponseDTO}. Excluded from the default
+ * build; run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@ActiveProfiles("test")
+class BookReadAllocationBenchmarkTest {
+
+    private static final int BOOKS = 2_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int ROUNDS = 5;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Title " + i);
+            book.setAuthor("Author " + (i % 97));
+            book.setIsbn(isbn13(100_000_000L + i));
+            book.setPublicationDate(LocalDate.of(2000, 1, 1).plusDays(i));
+            book.setGenre("Genre " + (i % 11));
+            book.setAvailableCopies(i % 3 == 0 ? 0 : 1);
+            entityManager.persist(book);
+            if (i % 500 == 499) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void projectionAllocatesLessThanEntityHydration() {
+        Function<Pageable, Page<BookResponseDTO>> entities = pageable -> bookRepository.findAll(pageable)
+            .map(bookMapper::mapToDTO);
+        Function<Pageable, Page<BookResponseDTO>> projections = pageable -> bookRepository.findResponses(null,
+                pageable);
+
+        // warm up both paths so class loading and query plan caching stay out of the numbers
+        bytesPerPage(entities);
+        bytesPerPage(projections);
+
+        long entityBytes = Long.MAX_VALUE;
+        long projectionBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            entityBytes = Math.min(entityBytes, bytesPerPage(entities));
+            projectionBytes = Math.min(projectionBytes, bytesPerPage(projections));
+        }
+
+        System.out.printf("catalog page of %d: entity+mapper %,d B, projection %,d B (%.1f%%)%n", PAGE_SIZE,
+                entityBytes, projectionBytes, 100.0 * projectionBytes / entityBytes);
+        assertTrue(projectionBytes < entityBytes);
+    }
+
+    private long bytesPerPage(Function<Pageable, Page<BookResponseDTO>> read) {
+        long threadId = Thread.currentThread().threadId();
+        int pages = BOOKS / PAGE_SIZE;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int page = 0; page < pages; page++) {
+            read.apply(PageRequest.of(page, PAGE_SIZE, Sort.by("title")));
+            entityManager.clear();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / pages;
+    }
+
+    private static String isbn13(long body) {
+        String digits = "978" + String.format("%09d", body);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+
+}
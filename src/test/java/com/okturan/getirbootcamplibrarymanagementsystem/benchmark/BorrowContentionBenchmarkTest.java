@@ -0,0 +1,193 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.benchmark;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.exception.BookNotAvailableException;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.BorrowingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many patrons race to borrow the same multi-copy books. Each borrow takes a copy with a
+ * conditional decrement, and sold-out books are turned away in memory. Checks that no
+ * book lends more copies than it owns and that every shelf count matches its open
+ * borrowings. Excluded from the default build; run with {@code mvn -Pbenchmark test}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "library.borrow.max-active=0")
+@ActiveProfiles("test")
+class BorrowContentionBenchmarkTest {
+
+    private static final int PATRONS = 16;
+    private static final int BOOKS = 300;
+    private static final int COPIES = 4;
+
+    @Autowired
+    private BorrowingService borrowingService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> bookIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedPatrons() {
+        for (int i = 0; i < PATRONS; i++) {
+            User patron = new User("bench-patron-" + i, "unused", "bench-patron-" + i + "@example.com");
+            patron.addRole(Role.PATRON);
+            userIds.add(userRepository.save(patron).getId());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        Map<String, List<Long>> books = Map.of("ids", bookIds);
+        named.update("DELETE FROM borrowings WHERE book_id IN (:ids)", books);
+        named.update("DELETE FROM books WHERE id IN (:ids)", books);
+        Map<String, List<Long>> users = Map.of("ids", userIds);
+        named.update("DELETE FROM user_roles WHERE user_id IN (:ids)", users);
+        named.update("DELETE FROM users WHERE id IN (:ids)", users);
+    }
+
+    @Test
+    void conditionalDecrementNeverOversells() throws Exception {
+        List<Long> books = seedBooks();
+
+        Result result = race(books, borrowingService::borrowBook);
+
+        System.out.printf("%d patrons x %d books x %d copies: %,.0f attempts/s (%d lent, %d rejected, %d failed)%n",
+                PATRONS, BOOKS, COPIES, result.throughput(), result.lent(), result.rejected(), result.failed());
+
+        assertNoOverselling(books);
+        assertEquals((long) BOOKS * COPIES, result.lent());
+        assertEquals(0, result.failed());
+    }
+
+    private List<Long> seedBooks() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Contended " + i);
+            book.setAuthor("Bench");
+            book.setIsbn(isbn13(700_000_000L + i));
+            book.setPublicationDate(LocalDate.of(2024, 1, 1));
+            book.setGenre("Bench");
+            book.setTotalCopies(COPIES);
+            book.setAvailableCopies(COPIES);
+            books.add(book);
+        }
+        List<Long> ids = bookRepository.saveAll(books).stream().map(Book::getId).toList();
+        bookIds.addAll(ids);
+        return ids;
+    }
+
+    /**
+     * Every patron walks the same list of books at once, so each book sees all of them
+     * arrive together.
+     */
+    private Result race(List<Long> books, Consumer<BorrowingRequestDTO> borrow) throws Exception {
+        AtomicLong lent = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(PATRONS);
+        try {
+            List<Future<?>> patrons = new ArrayList<>();
+            for (int p = 0; p < PATRONS; p++) {
+                String username = "bench-patron-" + p;
+                patrons.add(executor.submit(() -> {
+                    SecurityContextHolder.getContext()
+                        .setAuthentication(UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+                    start.await();
+                    for (Long bookId : books) {
+                        try {
+                            borrow.accept(new BorrowingRequestDTO(bookId, null));
+                            lent.incrementAndGet();
+                        }
+                        catch (BookNotAvailableException e) {
+                            rejected.incrementAndGet();
+                        }
+                        catch (RuntimeException e) {
+                            // Lock timeouts and other database-side losses
+                            failed.incrementAndGet();
+                        }
+                    }
+                    SecurityContextHolder.clearContext();
+                    return null;
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<?> patron : patrons) {
+                patron.get();
+            }
+            double seconds = (System.nanoTime() - began) / 1e9;
+            return new Result(lent.get(), rejected.get(), failed.get(), PATRONS * books.size() / seconds);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertNoOverselling(List<Long> books) {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        List<Long> oversold = named.queryForList("""
+                SELECT book_id FROM borrowings WHERE is_returned = false AND book_id IN (:ids)
+                GROUP BY book_id HAVING COUNT(*) > %d""".formatted(COPIES), Map.of("ids", books), Long.class);
+        assertEquals(List.of(), oversold);
+        Set<Long> inconsistent = Set.copyOf(named.queryForList("""
+                SELECT b.id FROM books b
+                WHERE b.id IN (:ids) AND b.available_copies <> b.total_copies - (
+                    SELECT COUNT(*) FROM borrowings br WHERE br.book_id = b.id AND br.is_returned = false)""",
+                Map.of("ids", books), Long.class));
+        assertEquals(Set.of(), inconsistent);
+    }
+
+    private static String isbn13(long body) {
+        String digits = "978" + String.format("%09d", body);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+
+    private record Result(long lent, long rejected, long failed, double throughput) {
+    }
+
+}
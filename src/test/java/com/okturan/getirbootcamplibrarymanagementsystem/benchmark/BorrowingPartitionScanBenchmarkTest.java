@@ -0,0 +1,153 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares the date-bounded borrowing scans on a plain table against the same rows range
+ * partitioned by month of borrow date, as V12 lays them out on PostgreSQL. Loads
+ * {@code benchmark.partition.rows} (50M by default) loans over ten years into a scratch
+ * schema, runs each query with the bounds {@code BorrowingRepository} adds, and prints
+ * the best of five timings. Needs a PostgreSQL database:
+ * <pre>
+ * mvn -Pbenchmark test -Dtest=BorrowingPartitionScanBenchmarkTest \
+ *     -Dbenchmark.postgres.url=jdbc:postgresql://localhost:5432/library \
+ *     -Dbenchmark.postgres.username=library_app -Dbenchmark.postgres.password=...
+ * </pre>
+ * Skipped when no URL is given. Excluded from the default build.
+ */
+@Tag("benchmark")
+class BorrowingPartitionScanBenchmarkTest {
+
+    private static final String SCHEMA = "partition_benchmark";
+    private static final long ROWS = Long.getLong("benchmark.partition.rows", 50_000_000L);
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+    private static final LocalDate FIRST_BORROW = TODAY.minusYears(10);
+    private static final int LOAN_DAYS = 14;
+    private static final int ROUNDS = 5;
+
+    private static final Pattern PARTITION_SCAN = Pattern.compile(" on p\\d{4}_\\d{2}( |$)");
+
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void load() {
+        String url = System.getProperty("benchmark.postgres.url");
+        assumeTrue(url != null, "benchmark.postgres.url is not set");
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(url, System.getProperty("benchmark.postgres.username"),
+                System.getProperty("benchmark.postgres.password")));
+
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbc.execute("CREATE SCHEMA " + SCHEMA);
+        String columns = """
+                (id BIGINT NOT NULL, book_id BIGINT NOT NULL, user_id BIGINT NOT NULL, borrow_date DATE NOT NULL,
+                 due_date DATE NOT NULL, return_date DATE, is_returned BOOLEAN NOT NULL)""";
+        jdbc.execute("CREATE TABLE " + SCHEMA + ".flat " + columns);
+        jdbc.execute("CREATE TABLE " + SCHEMA + ".partitioned " + columns + " PARTITION BY RANGE (borrow_date)");
+        for (LocalDate month = FIRST_BORROW.withDayOfMonth(1); !month.isAfter(TODAY); month = month.plusMonths(1)) {
+            jdbc.execute("CREATE TABLE %s.p%s PARTITION OF %s.partitioned FOR VALUES FROM ('%s') TO ('%s')"
+                    .formatted(SCHEMA, month.toString().substring(0, 7).replace('-', '_'), SCHEMA, month,
+                            month.plusMonths(1)));
+        }
+
+        // Spread evenly over ten years. Loans from the last two months are mostly still
+        // out; older ones are returned except for one in a thousand.
+        long days = TODAY.toEpochDay() - FIRST_BORROW.toEpochDay();
+        jdbc.update("""
+                INSERT INTO %s.flat
+                SELECT g, g %% 100000, g %% 1000000, d, d + %d,
+                       CASE WHEN is_open THEN NULL ELSE d + (g %% %d)::int END, NOT is_open
+                FROM generate_series(1, ?) g,
+                     LATERAL (SELECT (?::date + (g * ? / ?)::int) AS d) b,
+                     LATERAL (SELECT (d >= ?::date AND g %% 4 <> 0) OR g %% 1000 = 0 AS is_open) o
+                """.formatted(SCHEMA, LOAN_DAYS, LOAN_DAYS + 7), ROWS, Date.valueOf(FIRST_BORROW), days, ROWS,
+                Date.valueOf(TODAY.minusMonths(2)));
+        jdbc.execute("INSERT INTO " + SCHEMA + ".partitioned SELECT * FROM " + SCHEMA + ".flat");
+        for (String table : List.of("flat", "partitioned")) {
+            jdbc.execute("CREATE INDEX ON %s.%s (due_date, is_returned)".formatted(SCHEMA, table));
+            jdbc.execute("CREATE INDEX ON %s.%s (due_date) WHERE is_returned = false".formatted(SCHEMA, table));
+            jdbc.execute("ANALYZE %s.%s".formatted(SCHEMA, table));
+        }
+    }
+
+    @AfterAll
+    static void drop() {
+        if (jdbc != null) {
+            jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+    }
+
+    @Test
+    void overdueRollover_ShouldPruneToTheMonthsBorrowedOneLoanEarlier() {
+        LocalDate from = TODAY.minusDays(1);
+        String sql = """
+                SELECT id, user_id, book_id FROM {table}
+                WHERE due_date >= '%s' AND due_date < '%s' AND borrow_date >= '%s' AND borrow_date < '%s'
+                AND is_returned = false""".formatted(from, TODAY, from.minusDays(LOAN_DAYS), TODAY.minusDays(LOAN_DAYS));
+        compare("overdue rollover", sql);
+        assertTrue(scannedPartitions(sql) <= 2);
+    }
+
+    @Test
+    void overdueSummary_ShouldSkipTheMonthsNothingIsOverdueIn() {
+        compare("overdue summary", """
+                SELECT COUNT(*), COUNT(DISTINCT user_id), COUNT(DISTINCT book_id) FROM {table}
+                WHERE due_date < '%s' AND borrow_date < '%s' AND is_returned = false"""
+                .formatted(TODAY, TODAY.minusDays(LOAN_DAYS)));
+    }
+
+    @Test
+    void borrowedInAMonth_ShouldReadOnePartition() {
+        LocalDate month = TODAY.minusYears(3).withDayOfMonth(1);
+        String sql = "SELECT COUNT(*) FROM {table} WHERE borrow_date >= '%s' AND borrow_date < '%s'"
+                .formatted(month, month.plusMonths(1));
+        compare("one month of loans", sql);
+        assertEquals(1, scannedPartitions(sql));
+    }
+
+    private static void compare(String label, String sql) {
+        long flat = bestOf(on("flat", sql));
+        long partitioned = bestOf(on("partitioned", sql));
+        System.out.printf("%s over %,d rows: plain %,d ms, partitioned %,d ms (%.1fx)%n", label, ROWS, flat,
+                partitioned, (double) flat / Math.max(partitioned, 1));
+    }
+
+    private static String on(String table, String sql) {
+        return sql.replace("{table}", SCHEMA + "." + table);
+    }
+
+    private static long bestOf(String sql) {
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            jdbc.queryForList(sql);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    /**
+     * @return partitions the plan reads; index names also start with the partition's, so
+     * only a bare partition name counts
+     */
+    private static long scannedPartitions(String sql) {
+        return jdbc.queryForList("EXPLAIN " + on("partitioned", sql), String.class)
+            .stream()
+            .filter(line -> PARTITION_SCAN.matcher(line).find())
+            .count();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.bootstrap;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingPartitionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BorrowingPartitionMaintenanceTest {
+
+    private static final YearMonth NOW = YearMonth.of(2025, 6);
+
+    private final BorrowingPartitionRepository partitionRepository = mock(BorrowingPartitionRepository.class);
+
+    private final BorrowingPartitionMaintenance maintenance = new BorrowingPartitionMaintenance(partitionRepository,
+            2, 12);
+
+    @Test
+    void maintain_ShouldCreateMissingMonthsAhead() {
+        when(partitionRepository.isPartitioned()).thenReturn(true);
+        when(partitionRepository.findPartitionMonths()).thenReturn(List.of(NOW.minusMonths(1), NOW));
+
+        assertEquals(2, maintenance.maintain(NOW));
+        verify(partitionRepository).create(NOW.plusMonths(1));
+        verify(partitionRepository).create(NOW.plusMonths(2));
+        verify(partitionRepository, never()).create(NOW);
+    }
+
+    @Test
+    void maintain_ShouldDropOnlyOldPartitionsTheArchiverEmptied() {
+        YearMonth emptied = NOW.minusMonths(14);
+        YearMonth stillOpen = NOW.minusMonths(13);
+        YearMonth recent = NOW.minusMonths(6);
+        when(partitionRepository.isPartitioned()).thenReturn(true);
+        when(partitionRepository.findPartitionMonths()).thenReturn(List.of(emptied, stillOpen, recent, NOW,
+                NOW.plusMonths(1), NOW.plusMonths(2)));
+        when(partitionRepository.isEmpty(emptied)).thenReturn(true);
+        when(partitionRepository.isEmpty(stillOpen)).thenReturn(false);
+
+        assertEquals(1, maintenance.maintain(NOW));
+        verify(partitionRepository).detachAndDrop(emptied);
+        verify(partitionRepository, never()).detachAndDrop(stillOpen);
+        verify(partitionRepository, never()).isEmpty(recent);
+    }
+
+    @Test
+    void maintain_ShouldDoNothing_WhenTheTableIsNotPartitioned() {
+        when(partitionRepository.isPartitioned()).thenReturn(false);
+
+        assertEquals(0, maintenance.maintain(NOW));
+        verify(partitionRepository, never()).create(any());
+        verify(partitionRepository, never()).findPartitionMonths();
+    }
+
+}
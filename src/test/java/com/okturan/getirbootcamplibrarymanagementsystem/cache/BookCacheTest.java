@@ -0,0 +1,68 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.cache;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.CacheStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookCacheTest {
+
+    private BookCache cache;
+
+    private AtomicInteger loads;
+
+    private final BookResponseDTO dune = new BookResponseDTO(1L, "Dune", "Frank Herbert", "9780441013593",
+            LocalDate.of(1965, 8, 1), "Science Fiction", true, 1, 1);
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookCache(1_000_000, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void evict_ShouldDropCachedBookAndCachedMiss() {
+        cache.getById(1L, () -> load(Optional.of(dune)));
+        cache.getById(2L, () -> load(Optional.empty()));
+
+        cache.evict(1L);
+        cache.evict(2L);
+
+        cache.getById(1L, () -> load(Optional.of(dune)));
+        cache.getById(2L, () -> load(Optional.of(dune)));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void stats_ShouldReportHitsMissesAndWeight() {
+        cache.getById(1L, () -> load(Optional.of(dune)));
+        cache.getById(1L, () -> load(Optional.of(dune)));
+        cache.getById(99L, () -> load(Optional.empty()));
+
+        List<CacheStatsDTO> stats = cache.stats();
+        CacheStatsDTO byId = stats.get(0);
+
+        assertEquals("books-by-id", byId.name());
+        assertEquals(1, byId.hitCount());
+        assertEquals(2, byId.missCount());
+        assertEquals(2, byId.entries());
+        assertTrue(byId.weightedSize() > 0);
+
+        cache.clear();
+        assertEquals(0, cache.stats().get(0).entries());
+    }
+
+    private Optional<BookResponseDTO> load(Optional<BookResponseDTO> result) {
+        loads.incrementAndGet();
+        return result;
+    }
+
+}
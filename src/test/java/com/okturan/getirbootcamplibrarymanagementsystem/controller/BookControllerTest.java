@@ -2,9 +2,12 @@ package com.okturan.getirbootcamplibrarymanagementsystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookAvailabilityDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookFacetsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookSearchFilterDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FacetCountDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.BookImportService;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.BookService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,6 +41,9 @@ public class BookControllerTest {
     @Mock
     private BookService bookService;
 
+    @Mock
+    private BookImportService bookImportService;
+
     private ObjectMapper objectMapper;
 
     private BookRequestDTO bookRequestDTO;
@@ -48,7 +54,7 @@ public class BookControllerTest {
     @BeforeEach
     void setUp() {
         // Initialize controller and MockMvc
-        BookController bookController = new BookController(bookService);
+        BookController bookController = new BookController(bookService, bookImportService);
         mockMvc = MockMvcBuilders.standaloneSetup(bookController)
                 .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
                 .build();
@@ -73,7 +79,9 @@ public class BookControllerTest {
             "978-3-16-148410-0",
             LocalDate.of(2020, 1, 1),
             "Fiction",
-            true
+            true,
+            1,
+            1
         );
 
         bookSearchFilterDTO = new BookSearchFilterDTO(
@@ -88,6 +96,8 @@ public class BookControllerTest {
             "Test Book",
             "978-3-16-148410-0",
             true,
+            1,
+            1,
             "2023-05-15T14:30:45.123Z"
         );
     }
@@ -166,6 +176,21 @@ public class BookControllerTest {
                 .andExpect(jsonPath("$.content[0].title").value("Test Book"));
     }
 
+    @Test
+    void getFacets_ShouldReturnCountsForFilter() throws Exception {
+        BookFacetsDTO facets = new BookFacetsDTO(List.of(new FacetCountDTO("Fiction", 3, 5)),
+                List.of(new FacetCountDTO("Test Author", 1, 2)));
+        when(bookService.getFacets(new BookSearchFilterDTO(Optional.empty(), Optional.empty(), Optional.of("Fiction"),
+                Optional.empty()))).thenReturn(facets);
+
+        mockMvc.perform(get("/api/books/facets").param("genre", "Fiction"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.genres[0].value").value("Fiction"))
+                .andExpect(jsonPath("$.genres[0].available").value(3))
+                .andExpect(jsonPath("$.genres[0].total").value(5))
+                .andExpect(jsonPath("$.authors[0].value").value("Test Author"));
+    }
+
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void updateBook_ShouldReturnUpdatedBook() throws Exception {
@@ -0,0 +1,56 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserExportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final UserExportDTO ada = new UserExportDTO(1L, "ada", "ada@example.com", "Ada", "Lovelace, Countess",
+            "12 \"Marylebone\" St", null, LocalDate.of(1815, 12, 10), EnumSet.of(Role.PATRON, Role.ADMIN));
+
+    @Test
+    void csv_ShouldWriteHeaderAndEscapeFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RecordWriter<UserExportDTO> writer = RecordWriter.open(ExportFormat.CSV, UserExportDTO.class, out,
+                objectMapper)) {
+            writer.write(ada);
+        }
+
+        assertEquals("""
+                id,username,email,firstName,lastName,address,phoneNumber,dateOfBirth,roles\r
+                1,ada,ada@example.com,Ada,"Lovelace, Countess","12 ""Marylebone"" St",,1815-12-10,ADMIN|PATRON\r
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjson_ShouldWriteOneObjectPerLineWithoutClosingTheStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        UserExportDTO grace = new UserExportDTO(2L, "grace", "grace@example.com", null, null, null, null, null,
+                Set.of());
+        try (RecordWriter<UserExportDTO> writer = RecordWriter.open(ExportFormat.NDJSON, UserExportDTO.class, out,
+                objectMapper)) {
+            writer.write(ada);
+            writer.write(grace);
+        }
+        out.write('x');
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("ada", objectMapper.readTree(lines[0]).get("username").asText());
+        assertEquals("grace", objectMapper.readTree(lines[1]).get("username").asText());
+        assertEquals("x", lines[2]);
+    }
+
+}
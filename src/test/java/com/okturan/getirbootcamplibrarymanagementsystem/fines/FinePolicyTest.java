@@ -0,0 +1,52 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.fines;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineCandidate;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FinePolicyTest {
+
+    private static final LocalDate DUE = LocalDate.of(2025, 5, 1);
+
+    private final FinePolicy policy = new FinePolicy(new BigDecimal("0.25"), new BigDecimal("2.00"));
+
+    private static FineCandidate open() {
+        return new FineCandidate(1L, 1L, DUE, null);
+    }
+
+    @Test
+    void charge_ShouldChargeFromTheDueDate_OnTheFirstRun() {
+        assertEquals(new BigDecimal("0.75"), policy.charge(open(), null, DUE.plusDays(3)));
+    }
+
+    @Test
+    void charge_ShouldChargeOnlyTheDaysSinceThePreviousRun() {
+        assertEquals(new BigDecimal("0.25"), policy.charge(open(), DUE.plusDays(3), DUE.plusDays(4)));
+        assertEquals(new BigDecimal("0.50"), policy.charge(open(), DUE.plusDays(4), DUE.plusDays(6)),
+                "a skipped night is charged by the next run");
+    }
+
+    @Test
+    void charge_ShouldStopAtTheCap() {
+        assertEquals(new BigDecimal("0.25"), policy.charge(open(), DUE.plusDays(7), DUE.plusDays(9)));
+        assertEquals(0, policy.charge(open(), DUE.plusDays(9), DUE.plusDays(10)).signum());
+    }
+
+    @Test
+    void charge_ShouldStopAtTheReturnDate() {
+        FineCandidate returned = new FineCandidate(1L, 1L, DUE, DUE.plusDays(2));
+
+        assertEquals(new BigDecimal("0.50"), policy.charge(returned, null, DUE.plusDays(5)));
+        assertEquals(0, policy.charge(returned, DUE.plusDays(2), DUE.plusDays(5)).signum());
+    }
+
+    @Test
+    void charge_ShouldBeZero_WhenNotYetOverdue() {
+        assertEquals(0, policy.charge(open(), null, DUE).signum());
+    }
+
+}
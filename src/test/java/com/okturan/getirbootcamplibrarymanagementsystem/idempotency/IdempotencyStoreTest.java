@@ -0,0 +1,149 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.idempotency;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.IdempotencyKey;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.IdempotencyKeyRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.IdempotencyRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(repository, 100, Duration.ofHours(24), Duration.ofMinutes(1), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void claim_ShouldTakeTheKey_WithASingleInsert() {
+        when(repository.insert(eq(1L), eq("k"), eq("f"), anyString(), any())).thenReturn(true);
+
+        assertTrue(store.claim(1L, "k", "f").isEmpty());
+        verify(repository, never()).find(anyLong(), anyString());
+    }
+
+    @Test
+    void claim_ShouldReturnTheRecordedRequest_WhenTheKeyIsTaken() {
+        IdempotencyRecord recorded = new IdempotencyRecord("f", 201, "application/json", "{}", LocalDateTime.now());
+        when(repository.insert(eq(1L), eq("k"), eq("f"), anyString(), any())).thenReturn(false);
+        when(repository.deleteStale(eq(1L), eq("k"), any(), any())).thenReturn(false);
+        when(repository.find(1L, "k")).thenReturn(Optional.of(recorded));
+
+        assertEquals(Optional.of(recorded), store.claim(1L, "k", "f"));
+    }
+
+    @Test
+    void claim_ShouldTakeOverAKeyWhoseRequestWasAbandoned() {
+        when(repository.insert(eq(1L), eq("k"), eq("f"), anyString(), any())).thenReturn(false, true);
+        when(repository.deleteStale(eq(1L), eq("k"), any(), any())).thenReturn(true);
+
+        assertTrue(store.claim(1L, "k", "f").isEmpty());
+        verify(repository, times(2)).insert(eq(1L), eq("k"), eq("f"), anyString(), any());
+    }
+
+    @Test
+    void claim_ShouldAnswerFromMemory_OnceTheResponseIsRecorded() {
+        when(repository.insert(eq(1L), eq("k"), eq("f"), anyString(), any())).thenReturn(true);
+        when(repository.complete(eq(1L), eq("k"), anyString(), eq(200), eq("application/json"), eq("{\"id\":7}")))
+            .thenReturn(true);
+        store.claim(1L, "k", "f");
+        store.complete(1L, "k", "f", 200, "application/json", "{\"id\":7}");
+
+        IdempotencyRecord replayed = store.claim(1L, "k", "f").orElseThrow();
+
+        assertEquals(200, replayed.status());
+        assertEquals("{\"id\":7}", replayed.body());
+        verify(repository).insert(eq(1L), eq("k"), eq("f"), anyString(), any());
+        verify(repository).complete(eq(1L), eq("k"), anyString(), eq(200), eq("application/json"), eq("{\"id\":7}"));
+    }
+
+    @Test
+    void complete_ShouldNotCacheTheResponse_WhenTheKeyWasTakenOver() {
+        when(repository.insert(eq(1L), eq("k"), eq("f"), anyString(), any())).thenReturn(true);
+        store.claim(1L, "k", "f");
+        when(repository.complete(eq(1L), eq("k"), anyString(), anyInt(), any(), any())).thenReturn(false);
+        store.complete(1L, "k", "f", 200, "application/json", "{}");
+
+        store.claim(1L, "k", "f");
+
+        verify(repository, times(2)).insert(eq(1L), eq("k"), eq("f"), anyString(), any());
+    }
+
+    @Test
+    void heartbeat_ShouldRefreshOnlyTheKeysStillBeingServed() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 2, 12, 0);
+        when(repository.insert(eq(1L), anyString(), eq("f"), anyString(), any())).thenReturn(true);
+        store.claim(1L, "served", "f");
+        store.claim(1L, "released", "f");
+        store.release(1L, "released");
+
+        assertEquals(1, store.heartbeat(now));
+        verify(repository).heartbeat(anyString(), eq(List.of(new IdempotencyKey(1L, "served"))), eq(now));
+    }
+
+    @Test
+    void heartbeat_ShouldStillCoverTheWinner_OfTwoConcurrentClaims() throws Exception {
+        CountDownLatch loserDone = new CountDownLatch(1);
+        AtomicInteger inserts = new AtomicInteger();
+        when(repository.insert(eq(1L), eq("k"), eq("f"), anyString(), any())).thenAnswer(invocation -> {
+            if (inserts.getAndIncrement() == 0) {
+                // The winner's insert is still running while the duplicate loses
+                assertTrue(loserDone.await(5, TimeUnit.SECONDS));
+                return true;
+            }
+            return false;
+        });
+        when(repository.deleteStale(eq(1L), eq("k"), any(), any())).thenReturn(false);
+        when(repository.find(1L, "k"))
+            .thenReturn(Optional.of(new IdempotencyRecord("f", null, null, null, LocalDateTime.now())));
+
+        CompletableFuture<Optional<IdempotencyRecord>> winner = CompletableFuture
+            .supplyAsync(() -> store.claim(1L, "k", "f"));
+        while (inserts.get() == 0) {
+            Thread.onSpinWait();
+        }
+        Optional<IdempotencyRecord> loser = store.claim(1L, "k", "f");
+        loserDone.countDown();
+
+        assertTrue(winner.get(5, TimeUnit.SECONDS).isEmpty());
+        assertFalse(loser.orElseThrow().isCompleted());
+        assertEquals(1, store.heartbeat(LocalDateTime.now()));
+        verify(repository).heartbeat(anyString(), eq(List.of(new IdempotencyKey(1L, "k"))), any());
+    }
+
+    @Test
+    void constructor_ShouldRefuseAnAbandonTimeoutCloseToTheHeartbeatInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyStore(repository, 100,
+                Duration.ofHours(24), Duration.ofSeconds(20), Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void sweep_ShouldDeleteKeysRecordedBeforeTheTtl() {
+        LocalDateTime now = LocalDateTime.of(2025, 6, 2, 12, 0);
+        when(repository.deleteExpired(now.minusHours(24))).thenReturn(3);
+
+        assertEquals(3, store.sweep(now));
+    }
+
+}
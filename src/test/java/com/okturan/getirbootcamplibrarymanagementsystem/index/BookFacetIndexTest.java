@@ -0,0 +1,54 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FacetCountDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookFacetRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookFacetIndexTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+
+    private final BookFacetIndex index = new BookFacetIndex(bookRepository);
+
+    @Test
+    void put_ShouldCountTheCommittedAvailability_NotTheEntitys() {
+        // Arrange: the entity still shows the copy a later borrow has since taken
+        Book book = new Book();
+        book.setId(1L);
+        book.setGenre("Fiction");
+        book.setAuthor("Jane Austen");
+        book.setAvailableCopies(1);
+        when(bookRepository.findFacetRowsAfter(0L, Limit.of(1)))
+                .thenReturn(List.of(new BookFacetRow(1L, "Fiction", "Jane Austen", false)));
+
+        // Act
+        index.put(book);
+
+        // Assert
+        assertEquals(List.of(new FacetCountDTO("Fiction", 0, 1)), index.facets(null, null, null).genres());
+    }
+
+    @Test
+    void put_ShouldDropABookDeletedBeforeItsRefresh() {
+        Book book = new Book();
+        book.setId(1L);
+        book.setGenre("Fiction");
+        when(bookRepository.findFacetRowsAfter(0L, Limit.of(1)))
+                .thenReturn(List.of(new BookFacetRow(1L, "Fiction", "Jane Austen", true)))
+                .thenReturn(List.of(new BookFacetRow(2L, "History", "Mary Beard", true)));
+        index.put(book);
+
+        index.put(book);
+
+        assertEquals(List.of(), index.facets(null, null, null).genres());
+    }
+
+}
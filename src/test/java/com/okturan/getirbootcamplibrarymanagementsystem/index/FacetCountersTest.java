@@ -0,0 +1,76 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookFacetsDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FacetCountDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetCountersTest {
+
+    private FacetCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new FacetCounters();
+        counters.put(1L, "Fiction", "Jane Austen", true);
+        counters.put(2L, "Fiction", "Jane Austen", false);
+        counters.put(3L, "Fiction", "Leo Tolstoy", true);
+        counters.put(4L, "History", "Mary Beard", true);
+    }
+
+    @Test
+    void facets_ShouldSplitAvailableAndTotal_LargestFirst() {
+        BookFacetsDTO facets = counters.facets(null, null, null);
+
+        assertEquals(List.of(new FacetCountDTO("Fiction", 2, 3), new FacetCountDTO("History", 1, 1)),
+                facets.genres());
+        assertEquals(List.of(new FacetCountDTO("Jane Austen", 1, 2), new FacetCountDTO("Leo Tolstoy", 1, 1),
+                new FacetCountDTO("Mary Beard", 1, 1)), facets.authors());
+    }
+
+    @Test
+    void facets_ShouldApplyGenreAuthorAndAvailabilityFilters() {
+        assertEquals(List.of(new FacetCountDTO("Jane Austen", 1, 2), new FacetCountDTO("Leo Tolstoy", 1, 1)),
+                counters.facets("fiction", null, null).authors());
+        assertEquals(List.of(new FacetCountDTO("Fiction", 1, 2)), counters.facets(null, "AUSTEN", null).genres());
+        assertEquals(List.of(new FacetCountDTO("Fiction", 0, 1)), counters.facets(null, null, false).genres());
+        assertEquals(List.of(new FacetCountDTO("Fiction", 2, 2), new FacetCountDTO("History", 1, 1)),
+                counters.facets(null, null, true).genres());
+    }
+
+    @Test
+    void put_ShouldMoveBookBetweenGroups_WithoutCountingItTwice() {
+        counters.put(4L, "Fiction", "Mary Beard", false);
+        counters.put(4L, "Fiction", "Mary Beard", false);
+
+        BookFacetsDTO facets = counters.facets(null, null, null);
+
+        assertEquals(List.of(new FacetCountDTO("Fiction", 2, 4)), facets.genres());
+        assertEquals(4, counters.size());
+    }
+
+    @Test
+    void put_ShouldKeepAvailability_WhenNoneIsGiven() {
+        counters.put(2L, "Drama", "Jane Austen", null);
+        counters.put(5L, "Drama", "New Author", null);
+
+        assertEquals(List.of(new FacetCountDTO("Drama", 1, 2)),
+                counters.facets("drama", null, null).genres());
+    }
+
+    @Test
+    void remove_ShouldDropEmptyGroups() {
+        counters.remove(4L);
+        counters.remove(4L);
+
+        BookFacetsDTO facets = counters.facets(null, null, null);
+
+        assertEquals(List.of(new FacetCountDTO("Fiction", 2, 3)), facets.genres());
+        assertTrue(facets.authors().stream().noneMatch(count -> count.value().equals("Mary Beard")));
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.HoldQueueRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.HoldRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HoldQueueIndexTest {
+
+    private final HoldRepository holdRepository = mock(HoldRepository.class);
+
+    private final HoldQueueIndex index = new HoldQueueIndex(holdRepository);
+
+    @BeforeEach
+    void rebuild() {
+        when(holdRepository.findOpenQueueRows()).thenReturn(List.of(
+                new HoldQueueRow(1L, 7L, HoldStatus.READY),
+                new HoldQueueRow(2L, 7L, HoldStatus.WAITING),
+                new HoldQueueRow(3L, 7L, HoldStatus.WAITING),
+                new HoldQueueRow(4L, 7L, HoldStatus.WAITING)));
+        index.rebuild();
+    }
+
+    @Test
+    void position_ShouldCountFromTheHeadOfTheQueue() {
+        assertEquals(2L, index.head(7L));
+        assertEquals(1, index.position(2L));
+        assertEquals(3, index.position(4L));
+        assertNull(index.position(1L), "ready holds are out of the queue");
+        assertTrue(index.hasReadyHolds(7L));
+    }
+
+    @Test
+    void promoted_ShouldMoveEveryoneUp() {
+        index.promoted(2L, 7L);
+
+        assertEquals(3L, index.head(7L));
+        assertEquals(1, index.position(3L));
+        assertEquals(2, index.position(4L));
+        assertNull(index.position(2L));
+    }
+
+    @Test
+    void closed_ShouldRenumberOnlyTheHoldsBehind_WhenLeavingFromTheMiddle() {
+        index.closed(3L, 7L);
+
+        assertEquals(1, index.position(2L));
+        assertEquals(2, index.position(4L));
+        assertEquals(2, index.waitingCount(7L));
+    }
+
+    @Test
+    void enqueued_ShouldKeepIdOrder_WhenAnOlderHoldCommitsLate() {
+        index.enqueued(6L, 7L);
+        index.enqueued(5L, 7L);
+        index.enqueued(5L, 7L);
+
+        assertEquals(4, index.position(5L));
+        assertEquals(5, index.position(6L));
+        assertEquals(5, index.waitingCount(7L));
+    }
+
+    @Test
+    void closed_ShouldForgetBook_WhenNoHoldIsLeft() {
+        index.closed(1L, 7L);
+        index.closed(2L, 7L);
+        index.closed(3L, 7L);
+        index.closed(4L, 7L);
+
+        assertFalse(index.hasWaiting(7L));
+        assertFalse(index.hasReadyHolds(7L));
+        assertNull(index.head(7L));
+    }
+
+    @Test
+    void closed_ShouldForgetAReadyHold_WhoseQueueIsGone() {
+        assertDoesNotThrow(() -> index.closed(1L, 8L));
+
+        assertFalse(index.hasWaiting(8L));
+        assertEquals(2L, index.head(7L));
+    }
+
+    @Test
+    void queries_ShouldStayConservative_UntilRebuilt() {
+        HoldQueueIndex fresh = new HoldQueueIndex(holdRepository);
+
+        assertTrue(fresh.hasWaiting(99L));
+        assertTrue(fresh.hasReadyHolds(99L));
+        assertNull(fresh.position(2L));
+    }
+
+}
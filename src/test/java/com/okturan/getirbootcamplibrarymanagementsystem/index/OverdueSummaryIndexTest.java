@@ -0,0 +1,108 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OverdueSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OverdueSummaryIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 20);
+
+    private final BorrowingRepository borrowingRepository = mock(BorrowingRepository.class);
+
+    private final MutableClock clock = new MutableClock(TODAY);
+
+    private final OverdueSummaryIndex index = new OverdueSummaryIndex(borrowingRepository, clock);
+
+    @BeforeEach
+    void rebuild() {
+        when(borrowingRepository.findOverdueRows(TODAY)).thenReturn(List.of(
+                new BorrowingRow(1L, 10L, 7L, false),
+                new BorrowingRow(2L, 10L, 8L, false),
+                new BorrowingRow(3L, 11L, 7L, false)));
+        index.rebuild();
+    }
+
+    @Test
+    void summary_ShouldCountDistinctPatronsAndBooks() {
+        assertTrue(index.isReady());
+        assertEquals(new OverdueSummary(3, 2, 2), index.summary());
+    }
+
+    @Test
+    void returned_ShouldDropOnlyCountsThatReachZero() {
+        index.returned(1L);
+        assertEquals(new OverdueSummary(2, 2, 2), index.summary());
+
+        index.returned(3L);
+        assertEquals(new OverdueSummary(1, 1, 1), index.summary());
+    }
+
+    @Test
+    void returned_ShouldIgnoreBorrowingsThatAreNotOverdue() {
+        index.returned(99L);
+        index.returned(1L);
+        index.returned(1L);
+
+        assertEquals(new OverdueSummary(2, 2, 2), index.summary());
+    }
+
+    @Test
+    void today_ShouldAddBorrowingsThatFellDue_WhenTheDateChanges() {
+        LocalDate tomorrow = TODAY.plusDays(1);
+        when(borrowingRepository.findOpenRowsDueBetween(TODAY, tomorrow)).thenReturn(List.of(
+                new BorrowingRow(4L, 12L, 9L, false)));
+        clock.set(tomorrow);
+
+        assertEquals(tomorrow, index.today());
+        assertEquals(new OverdueSummary(4, 3, 3), index.summary());
+        verify(borrowingRepository, times(1)).findOpenRowsDueBetween(TODAY, tomorrow);
+    }
+
+    @Test
+    void isReady_ShouldBeFalse_UntilRebuilt() {
+        assertFalse(new OverdueSummaryIndex(borrowingRepository, clock).isReady());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(LocalDate date) {
+            set(date);
+        }
+
+        void set(LocalDate date) {
+            instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+    }
+
+}
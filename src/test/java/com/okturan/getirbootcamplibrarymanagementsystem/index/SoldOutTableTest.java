@@ -0,0 +1,45 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SoldOutTableTest {
+
+    private final SoldOutTable table = new SoldOutTable(1024);
+
+    @Test
+    void markSoldOut_ShouldHoldUntilRestocked() {
+        assertFalse(table.isSoldOut(42L));
+
+        table.markSoldOut(42L);
+
+        assertTrue(table.isSoldOut(42L));
+
+        table.restocked(42L);
+
+        assertFalse(table.isSoldOut(42L));
+    }
+
+    @Test
+    void restocked_ShouldNotClearAnotherBooksMark() {
+        SoldOutTable tiny = new SoldOutTable(2);
+        tiny.markSoldOut(1L);
+
+        // Two slots, so several of these share book 1's slot
+        LongStream.rangeClosed(2, 20).forEach(tiny::restocked);
+
+        assertTrue(tiny.isSoldOut(1L));
+    }
+
+    @Test
+    void isSoldOut_ShouldNeverReportABookThatWasNotMarked_WhenSlotsCollide() {
+        SoldOutTable tiny = new SoldOutTable(2);
+        LongStream.rangeClosed(1, 10).forEach(tiny::markSoldOut);
+
+        assertTrue(LongStream.rangeClosed(11, 1_000).noneMatch(tiny::isSoldOut));
+    }
+
+}
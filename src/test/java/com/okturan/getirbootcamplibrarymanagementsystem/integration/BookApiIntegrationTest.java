@@ -7,6 +7,7 @@ import com.okturan.getirbootcamplibrarymanagementsystem.dto.LoginDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.security.CustomUserDetailsService;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.Isbn;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -28,6 +30,7 @@ import java.time.LocalDate;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -54,6 +57,9 @@ public class BookApiIntegrationTest {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private String adminToken;
     private String patronToken;
     private Long createdBookId; // Book created in setUp for general use in tests
@@ -226,6 +232,180 @@ public class BookApiIntegrationTest {
     }
     // ---
 
+    @Test
+    void searchBooks_ShouldWalkAllPages_WhenUsingCursor() throws Exception {
+        createPagingBooks();
+
+        MvcResult first = mockMvc.perform(get("/api/books/search")
+                                .param("genre", "Cursor Genre")
+                                .param("cursor", "")
+                                .param("size", "2")
+                                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].title", contains("Alpha", "Mu")))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist())
+                .andReturn();
+        String nextCursor = objectMapper.readTree(first.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/books/search")
+                                .param("genre", "Cursor Genre")
+                                .param("cursor", nextCursor)
+                                .param("size", "2")
+                                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].title", contains("Zeta")))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchBooks_ShouldOmitTotals_WhenCountIsNone() throws Exception {
+        mockMvc.perform(get("/api/books/search")
+                                .param("title", "Test Book")
+                                .param("count", "none")
+                                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Test Book"))
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void searchBooks_ShouldReturnLaterSlice_WhenCountIsNone() throws Exception {
+        createPagingBooks();
+
+        mockMvc.perform(get("/api/books/search")
+                                .param("genre", "Cursor Genre")
+                                .param("count", "none")
+                                .param("page", "1")
+                                .param("size", "2")
+                                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].title", contains("Zeta")))
+                .andExpect(jsonPath("$.number").value(1))
+                .andExpect(jsonPath("$.last").value(true));
+    }
+
+    @Test
+    void getAllBooks_ShouldReturnTotals_WhenCountIsApproximate() throws Exception {
+        mockMvc.perform(get("/api/books")
+                                .param("count", "approximate")
+                                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$.totalElements").value(greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    void getAllBooks_ShouldReturnFirstPage_WhenCursorIsEmpty() throws Exception {
+        mockMvc.perform(get("/api/books")
+                                .param("cursor", "")
+                                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$.size").value(20));
+    }
+
+    @Test
+    void getAllBooks_ShouldReturnBadRequest_WhenCursorIsInvalid() throws Exception {
+        mockMvc.perform(get("/api/books")
+                                .param("cursor", "not-a-cursor")
+                                .header("Authorization", patronToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void createPagingBooks() throws Exception {
+        for (String[] book : new String[][] {
+                {"Zeta", "978-0-306-40615-7"}, {"Alpha", "978-3-16-148410-0"}, {"Mu", "978-0-7432-7356-5"}}) {
+            mockMvc.perform(post("/api/books")
+                                    .header("Authorization", adminToken)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsString(new BookRequestDTO(
+                                            book[0], "Cursor Author", book[1], LocalDate.of(2020, 1, 1), "Cursor Genre"))))
+                    .andExpect(status().isCreated());
+        }
+    }
+
+    @Test
+    void importBooks_ShouldUpsertByIsbnAndReportRejectedRows_WhenCsv() throws Exception {
+        String csv = """
+                title,author,isbn,publication_date,genre,shelf
+                "Dune, Deluxe Edition",Frank Herbert,978-0-306-40615-7,1965-08-01,Science Fiction,A1
+                Test Book Reprint,Test Author,9781566199094,2021-02-02,Test Genre,B2
+                Broken,Nobody,123,2021-02-02,Test Genre,C3
+                Dune Again,Frank Herbert,9780306406157,1965-08-01,Science Fiction,A1
+                """;
+
+        MvcResult result = mockMvc.perform(post("/api/books/import")
+                                .header("Authorization", adminToken)
+                                .contentType("text/csv")
+                                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.rowsRead").value(4))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.errors[0].message").value("ISBN is invalid"))
+                .andExpect(jsonPath("$.errors[1].row").value(4))
+                .andExpect(jsonPath("$.errors[1].message").value("Duplicate ISBN; first seen on row 1"))
+                .andReturn();
+
+        // The setup book was matched through its unhyphenated ISBN and updated, not duplicated
+        assertEquals("Test Book Reprint",
+                jdbcTemplate.queryForObject("SELECT title FROM books WHERE id = ?", String.class, createdBookId));
+        assertEquals("Dune, Deluxe Edition",
+                bookRepository.findByIsbnKey(Isbn.toKey("978-0-306-40615-7")).orElseThrow().getTitle());
+
+        String jobId = objectMapper.readTree(result.getResponse().getContentAsString()).get("jobId").asText();
+        mockMvc.perform(get("/api/books/import/{jobId}", jobId)
+                                .header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1));
+    }
+
+    @Test
+    void importBooks_ShouldRejectMalformedLines_WhenNdjson() throws Exception {
+        String ndjson = """
+                {"title":"Alpha","author":"Cursor Author","isbn":"978-3-16-148410-0","publicationDate":"2020-01-01","genre":"Cursor Genre"}
+                {"title":"Broken",
+
+                {"title":"Mu","author":"Cursor Author","isbn":"978-0-7432-7356-5","publicationDate":"2020-01-01"}
+                """;
+
+        mockMvc.perform(post("/api/books/import")
+                                .header("Authorization", adminToken)
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.format").value("NDJSON"))
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.rejected").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("Malformed JSON")))
+                .andExpect(jsonPath("$.errors[1].message").value("Genre is required"));
+    }
+
+    @Test
+    void importBooks_ShouldReturnBadRequest_WhenCsvHeaderIsMissingAColumn() throws Exception {
+        mockMvc.perform(post("/api/books/import")
+                                .header("Authorization", adminToken)
+                                .contentType("text/csv")
+                                .content("title,author,isbn\nDune,Frank Herbert,978-0-306-40615-7\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importBooks_ShouldReturnForbidden_WhenCalledByPatron() throws Exception {
+        mockMvc.perform(post("/api/books/import")
+                                .header("Authorization", patronToken)
+                                .contentType("text/csv")
+                                .content("title,author,isbn,publicationDate,genre\n"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void updateBook_ShouldUpdateBook_WhenCalledByAdmin_UsingToken() throws Exception {
         BookRequestDTO updateDTO = new BookRequestDTO(
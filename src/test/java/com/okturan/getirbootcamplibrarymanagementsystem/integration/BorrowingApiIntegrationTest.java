@@ -1,6 +1,7 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.LoginDTO;
@@ -20,6 +21,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -165,6 +167,120 @@ public class BorrowingApiIntegrationTest {
         borrowingId = objectMapper.readTree(response).get("id").asLong();
     }
     
+    @Test
+    void borrowBook_ShouldReturnConflict_WhenBookIsAlreadyBorrowed() throws Exception {
+        // Arrange
+        String request = objectMapper.writeValueAsString(new BorrowingRequestDTO(createdBookId, null));
+        mockMvc.perform(post("/api/borrowings/borrow")
+                .header("Authorization", patronToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request))
+                .andExpect(status().isCreated());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/borrowings/borrow")
+                .header("Authorization", patronToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
+    @Test
+    void borrowBook_ShouldLendEveryCopy_ThenReturnConflict() throws Exception {
+        // Arrange
+        BookRequestDTO twoCopies = new BookRequestDTO("Popular Book", "Test Author", "978-0-306-40615-7",
+                LocalDate.of(2020, 1, 1), "Test Genre", 2);
+        MvcResult created = mockMvc.perform(post("/api/books")
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(twoCopies)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.totalCopies").value(2))
+                .andExpect(jsonPath("$.availableCopies").value(2))
+                .andReturn();
+        long bookId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        String request = objectMapper.writeValueAsString(new BorrowingRequestDTO(bookId, null));
+
+        // Act & Assert
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/borrowings/borrow")
+                    .header("Authorization", patronToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(request))
+                    .andExpect(status().isCreated());
+        }
+        mockMvc.perform(post("/api/borrowings/borrow")
+                .header("Authorization", patronToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/books/" + bookId)
+                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.totalCopies").value(2))
+                .andExpect(jsonPath("$.availableCopies").value(0));
+    }
+
+    @Test
+    void processBatch_ShouldReportEachItem_AndReturnInTheSameCall() throws Exception {
+        // Arrange
+        BookRequestDTO twoCopies = new BookRequestDTO("Popular Book", "Test Author", "978-0-306-40615-7",
+                LocalDate.of(2020, 1, 1), "Test Genre", 2);
+        MvcResult created = mockMvc.perform(post("/api/books")
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(twoCopies)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long popularId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+        BatchCirculationRequestDTO checkout = new BatchCirculationRequestDTO(null,
+                List.of(createdBookId, popularId, popularId, popularId, 999_999L), null);
+
+        // Act & Assert
+        MvcResult result = mockMvc.perform(post("/api/borrowings/batch")
+                .header("Authorization", patronToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(checkout)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.borrowed[*].status",
+                        contains("BORROWED", "BORROWED", "BORROWED", "NOT_AVAILABLE", "NOT_FOUND")))
+                .andExpect(jsonPath("$.borrowed[0].borrowingId").isNumber())
+                .andExpect(jsonPath("$.borrowed[0].dueDate").value(LocalDate.now().plusDays(14).toString()))
+                .andExpect(jsonPath("$.returned", hasSize(0)))
+                .andReturn();
+        long lent = objectMapper.readTree(result.getResponse().getContentAsString())
+                .get("borrowed").get(0).get("borrowingId").asLong();
+
+        BatchCirculationRequestDTO checkin = new BatchCirculationRequestDTO(null, null, List.of(lent, lent));
+        mockMvc.perform(post("/api/borrowings/batch")
+                .header("Authorization", patronToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(checkin)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.returned[*].status", contains("RETURNED", "ALREADY_RETURNED")));
+        mockMvc.perform(get("/api/books/" + createdBookId)
+                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableCopies").value(1));
+        mockMvc.perform(get("/api/books/" + popularId)
+                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availableCopies").value(0));
+    }
+
+    @Test
+    void processBatch_ShouldRequirePatron_WhenStaffBorrows() throws Exception {
+        BatchCirculationRequestDTO checkout = new BatchCirculationRequestDTO(null, List.of(createdBookId), null);
+
+        mockMvc.perform(post("/api/borrowings/batch")
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(checkout)))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void borrowBook_ShouldCreateBorrowing_WhenCalledByAdminForPatron() throws Exception {
         // Arrange
@@ -271,6 +387,38 @@ public class BorrowingApiIntegrationTest {
                 .andExpect(jsonPath("$.returnDate").isNotEmpty());
     }
     
+    @Test
+    void returnBook_ShouldReturnForbidden_WhenCalledByAnotherPatron() throws Exception {
+        // Borrow a book as the test patron
+        MvcResult result = mockMvc.perform(post("/api/borrowings/borrow")
+                .header("Authorization", patronToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequestDTO(createdBookId, null))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long borrowingId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        // Another patron may neither read nor return it
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UserRegistrationDTO("otherpatron", "password123", "other@example.com"))))
+                .andExpect(status().isCreated());
+        MvcResult login = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO("otherpatron", "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        String otherToken = "Bearer " + objectMapper.readTree(login.getResponse().getContentAsString()).get("token").asText();
+
+        mockMvc.perform(get("/api/borrowings/" + borrowingId)
+                .header("Authorization", otherToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/borrowings/" + borrowingId + "/return")
+                .header("Authorization", otherToken))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void returnBook_ShouldUpdateBorrowing_WhenCalledByAdmin() throws Exception {
         // First borrow a book as patron
@@ -388,4 +536,21 @@ public class BorrowingApiIntegrationTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.content").isArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBorrowingHistory_ShouldRejectACursorSortOnANullableColumn() throws Exception {
+        mockMvc.perform(get("/api/borrowings/history")
+                        .param("cursor", "")
+                        .param("sort", "returnDate")
+                        .header("Authorization", patronToken))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("returnDate")));
+
+        mockMvc.perform(get("/api/borrowings/history")
+                        .param("cursor", "")
+                        .param("sort", "dueDate")
+                        .header("Authorization", patronToken))
+                .andExpect(status().isOk());
+    }
+
+}
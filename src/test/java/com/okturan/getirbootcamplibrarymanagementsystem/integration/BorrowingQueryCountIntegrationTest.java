@@ -0,0 +1,183 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.LoginDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserRegistrationDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Guards the borrowing list endpoints against N+1 selects: a page of 100 must cost as
+ * many statements as a page of 10. Every listed borrowing has its own book and, on the
+ * staff lists, its own patron, so a lazy association read per row would show up as 90
+ * extra statements.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class BorrowingQueryCountIntegrationTest {
+
+    private static final int ROWS = 120;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private String adminToken;
+    private String patronToken;
+    private long patronId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper.findAndRegisterModules();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        adminToken = login("admin", "admin123");
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UserRegistrationDTO("countedpatron", "password123", "counted@example.com"))))
+                .andExpect(status().isCreated());
+        patronToken = login("countedpatron", "password123");
+        User patron = userRepository.findByUsername("countedpatron").orElseThrow();
+        patronId = patron.getId();
+
+        // Each row its own book and patron; all overdue so every staff list is full
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < ROWS; i++) {
+            Book book = new Book();
+            book.setTitle("Counted Book " + i);
+            book.setAuthor("Author");
+            book.setIsbn(isbn13(200_000_000L + i));
+            book.setPublicationDate(LocalDate.of(2020, 1, 1));
+            book.setGenre("Fiction");
+            book.setTotalCopies(2);
+            book.setAvailableCopies(1);
+            bookRepository.save(book);
+
+            User borrower = new User("counted-borrower-" + i, "unused", "counted-borrower-" + i + "@example.com");
+            borrower.addRole(Role.PATRON);
+            userRepository.save(borrower);
+
+            borrowingRepository.save(borrowing(book, borrower, today.minusDays(20), null));
+            borrowingRepository.save(borrowing(book, patron, today.minusDays(60), today.minusDays(50)));
+        }
+    }
+
+    private static Borrowing borrowing(Book book, User user, LocalDate borrowDate, LocalDate returnDate) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setBook(book);
+        borrowing.setUser(user);
+        borrowing.setBorrowDate(borrowDate);
+        borrowing.setDueDate(borrowDate.plus(Borrowing.LOAN_PERIOD));
+        borrowing.setReturnDate(returnDate);
+        borrowing.setReturned(returnDate != null);
+        return borrowing;
+    }
+
+    @Test
+    void listEndpoints_ShouldRunAConstantNumberOfStatements_WhateverThePageSize() throws Exception {
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("/api/borrowings/active", adminToken);
+        endpoints.put("/api/borrowings/active?cursor=", adminToken);
+        endpoints.put("/api/borrowings/overdue", adminToken);
+        endpoints.put("/api/borrowings/overdue?cursor=", adminToken);
+        endpoints.put("/api/borrowings/reports/overdue", adminToken);
+        endpoints.put("/api/borrowings/users/" + patronId + "/history", adminToken);
+        endpoints.put("/api/borrowings/users/" + patronId + "/history?cursor=", adminToken);
+        endpoints.put("/api/borrowings/history", patronToken);
+        endpoints.put("/api/borrowings/history?count=none", patronToken);
+        endpoints.put("/api/borrowings/history?count=approximate", patronToken);
+        endpoints.put("/api/borrowings/history?cursor=", patronToken);
+
+        List<String> growing = new ArrayList<>();
+        for (Map.Entry<String, String> endpoint : endpoints.entrySet()) {
+            // Warm up once so lazily built caches and summaries are not counted
+            statements(endpoint.getKey(), endpoint.getValue(), 10);
+            long small = statements(endpoint.getKey(), endpoint.getValue(), 10);
+            long large = statements(endpoint.getKey(), endpoint.getValue(), 100);
+            if (small != large) {
+                growing.add("%s: %d statements for 10 rows, %d for 100".formatted(endpoint.getKey(), small, large));
+            }
+        }
+        assertTrue(growing.isEmpty(), String.join("\n", growing));
+    }
+
+    /**
+     * @return statements prepared while serving one page of {@code size}, read from a
+     * cleared persistence context
+     */
+    private long statements(String path, String token, int size) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        mockMvc.perform(get(path + (path.contains("?") ? "&" : "?") + "size=" + size)
+                .header("Authorization", token))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return "Bearer " + objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private static String isbn13(long body) {
+        String digits = "978" + String.format("%09d", body);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+
+}
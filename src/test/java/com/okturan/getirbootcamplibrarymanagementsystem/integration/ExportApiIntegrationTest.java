@@ -0,0 +1,117 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.LoginDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserRegistrationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Exports are written on an async thread outside the test transaction, so they only see
+ * committed rows such as the bootstrap admin.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class ExportApiIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String adminToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        adminToken = login("admin", "admin123");
+    }
+
+    @Test
+    void exportUsers_ShouldStreamNdjsonWithoutPasswords() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/export/users")
+                                .header("Authorization", adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string("Content-Disposition", containsString("users.ndjson")))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode admin = null;
+        for (String line : body.split("\n")) {
+            JsonNode user = objectMapper.readTree(line);
+            assertFalse(user.has("password"));
+            if ("admin".equals(user.get("username").asText())) {
+                admin = user;
+            }
+        }
+        assertNotNull(admin);
+        assertEquals("ADMIN", admin.get("roles").get(0).asText());
+    }
+
+    @Test
+    void exportBorrowings_ShouldStreamCsvHeader_WhenFiltered() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/export/borrowings")
+                                .param("format", "CSV")
+                                .param("since", "2024-01-31")
+                                .param("returned", "false")
+                                .header("Authorization", adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string(startsWith("id,userId,bookId,borrowDate,dueDate,returnDate,returned\r\n")));
+    }
+
+    @Test
+    void exportBooks_ShouldReturnBadRequest_WhenFormatIsUnknown() throws Exception {
+        mockMvc.perform(get("/api/export/books")
+                                .param("format", "xml")
+                                .header("Authorization", adminToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportBooks_ShouldReturnForbidden_WhenCalledByPatron() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                        new UserRegistrationDTO("exportpatron", "password123", "exportpatron@example.com"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/export/books")
+                                .header("Authorization", login("exportpatron", "password123")))
+                .andExpect(status().isForbidden());
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(new LoginDTO(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return "Bearer " + objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+}
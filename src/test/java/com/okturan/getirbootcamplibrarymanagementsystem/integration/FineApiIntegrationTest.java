@@ -0,0 +1,145 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.LoginDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserRegistrationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class FineApiIntegrationTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.now().minusDays(7);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String adminToken;
+    private String patronToken;
+    private long patronId;
+    private long bookId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper.findAndRegisterModules();
+
+        adminToken = login("admin", "admin123");
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UserRegistrationDTO("finedpatron", "password123", "fined@example.com"))))
+                .andExpect(status().isCreated());
+        patronToken = login("finedpatron", "password123");
+        patronId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'finedpatron'", Long.class);
+
+        MvcResult created = mockMvc.perform(post("/api/books")
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookRequestDTO("Late Book", "Test Author",
+                        "978-0-596-52068-7", LocalDate.of(2020, 1, 1), "Test Genre", 2))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        bookId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return "Bearer " + objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private void borrowing(LocalDate dueDate, LocalDate returnDate) {
+        jdbcTemplate.update("""
+                INSERT INTO borrowings (book_id, user_id, borrow_date, due_date, return_date, is_returned)
+                VALUES (?, ?, ?, ?, ?, ?)""", bookId, patronId, Date.valueOf(dueDate.minusDays(14)),
+                Date.valueOf(dueDate), returnDate != null ? Date.valueOf(returnDate) : null, returnDate != null);
+    }
+
+    private void assess(LocalDate date) throws Exception {
+        mockMvc.perform(post("/api/fines/runs")
+                .param("date", date.toString())
+                .header("Authorization", adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+    }
+
+    @Test
+    void assessFines_ShouldChargeEachNightOnce_AndShowInTheBalance() throws Exception {
+        // Arrange: four days overdue, two days late on return, and not yet due
+        borrowing(RUN_DATE.minusDays(4), null);
+        borrowing(RUN_DATE.minusDays(6), RUN_DATE.minusDays(4));
+        borrowing(RUN_DATE.plusDays(3), null);
+
+        // Act
+        assess(RUN_DATE);
+        assess(RUN_DATE);
+        assess(RUN_DATE.plusDays(1));
+
+        // Assert: 4 + 2 days on the first run, one more day on the next
+        mockMvc.perform(get("/api/fines/me/balance")
+                .header("Authorization", patronToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(patronId))
+                .andExpect(jsonPath("$.balance").value(1.75));
+        mockMvc.perform(get("/api/fines/users/" + patronId + "/balance")
+                .header("Authorization", adminToken))
+                .andExpect(jsonPath("$.balance").value(1.75));
+    }
+
+    @Test
+    void assessFines_ShouldRejectADayBeforeACompletedRun() throws Exception {
+        assess(RUN_DATE);
+
+        mockMvc.perform(post("/api/fines/runs")
+                .param("date", RUN_DATE.minusDays(1).toString())
+                .header("Authorization", adminToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void assessFines_ShouldRejectAFutureDate() throws Exception {
+        mockMvc.perform(post("/api/fines/runs")
+                .param("date", LocalDate.now().plusDays(1).toString())
+                .header("Authorization", adminToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void fineEndpoints_ShouldBeRestrictedToStaff() throws Exception {
+        mockMvc.perform(post("/api/fines/runs")
+                .header("Authorization", patronToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/fines/users/" + patronId + "/balance")
+                .header("Authorization", patronToken))
+                .andExpect(status().isForbidden());
+    }
+
+}
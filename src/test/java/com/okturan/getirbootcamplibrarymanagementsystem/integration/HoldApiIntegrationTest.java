@@ -0,0 +1,195 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.LoginDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserRegistrationDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Not transactional: the hold queue index only learns of holds after commit, so each call
+ * commits and the rows are removed afterwards.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class HoldApiIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String adminToken;
+    private String borrowerToken;
+    private String firstInLineToken;
+    private String secondInLineToken;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper.findAndRegisterModules();
+
+        adminToken = login("admin", "admin123");
+        borrowerToken = registerAndLogin("holdborrower");
+        firstInLineToken = registerAndLogin("holdfirst");
+        secondInLineToken = registerAndLogin("holdsecond");
+
+        BookRequestDTO singleCopy = new BookRequestDTO("Queued Book", "Test Author", "978-1-59327-584-6",
+                LocalDate.of(2020, 1, 1), "Test Genre", 1);
+        MvcResult created = mockMvc.perform(post("/api/books")
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(singleCopy)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        bookId = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        jdbcTemplate.update("DELETE FROM borrowings WHERE book_id = ?", bookId);
+        // Through the API, so the in-memory indexes forget the book and its holds too
+        mockMvc.perform(delete("/api/books/" + bookId)
+                .header("Authorization", adminToken))
+                .andExpect(status().isNoContent());
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id IN (SELECT id FROM users WHERE username LIKE 'hold%')");
+        jdbcTemplate.update("DELETE FROM users WHERE username LIKE 'hold%'");
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return "Bearer " + objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private String registerAndLogin(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UserRegistrationDTO(username, "password123", username + "@example.com"))))
+                .andExpect(status().isCreated());
+        return login(username, "password123");
+    }
+
+    private MvcResult borrow(String token, int expectedStatus) throws Exception {
+        return mockMvc.perform(post("/api/borrowings/borrow")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequestDTO(bookId, null))))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+    }
+
+    private long placeHold(String token, int expectedPosition) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/holds")
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new HoldRequestDTO(bookId, null))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("WAITING"))
+                .andExpect(jsonPath("$.position").value(expectedPosition))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    @Test
+    void returnBook_ShouldHandCopyToTheHeadOfTheQueue() throws Exception {
+        // Arrange
+        MvcResult lent = borrow(borrowerToken, 201);
+        long borrowingId = objectMapper.readTree(lent.getResponse().getContentAsString()).get("id").asLong();
+        long firstHold = placeHold(firstInLineToken, 1);
+        long secondHold = placeHold(secondInLineToken, 2);
+
+        // Act
+        mockMvc.perform(post("/api/borrowings/" + borrowingId + "/return")
+                .header("Authorization", borrowerToken))
+                .andExpect(status().isOk());
+
+        // Assert
+        mockMvc.perform(get("/api/holds/" + firstHold)
+                .header("Authorization", firstInLineToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("READY"))
+                .andExpect(jsonPath("$.position").value(nullValue()))
+                .andExpect(jsonPath("$.pickupDeadline").isNotEmpty());
+        mockMvc.perform(get("/api/holds/" + secondHold)
+                .header("Authorization", secondInLineToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.position").value(1));
+        mockMvc.perform(get("/api/books/" + bookId)
+                .header("Authorization", adminToken))
+                .andExpect(jsonPath("$.availableCopies").value(0));
+
+        borrow(secondInLineToken, 409);
+        borrow(firstInLineToken, 201);
+        mockMvc.perform(get("/api/holds/" + firstHold)
+                .header("Authorization", firstInLineToken))
+                .andExpect(jsonPath("$.status").value("FULFILLED"));
+    }
+
+    @Test
+    void cancelHold_ShouldLeaveTheQueue() throws Exception {
+        // Arrange
+        borrow(borrowerToken, 201);
+        long firstHold = placeHold(firstInLineToken, 1);
+        long secondHold = placeHold(secondInLineToken, 2);
+
+        // Act
+        mockMvc.perform(delete("/api/holds/" + firstHold)
+                .header("Authorization", firstInLineToken))
+                .andExpect(status().isNoContent());
+
+        // Assert
+        mockMvc.perform(get("/api/holds/me")
+                .header("Authorization", firstInLineToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/holds/me")
+                .header("Authorization", secondInLineToken))
+                .andExpect(jsonPath("$[0].id").value(secondHold))
+                .andExpect(jsonPath("$[0].position").value(1));
+    }
+
+    @Test
+    void placeHold_ShouldRejectBooksOnTheShelf_AndOtherPatronsHolds() throws Exception {
+        mockMvc.perform(post("/api/holds")
+                .header("Authorization", firstInLineToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new HoldRequestDTO(bookId, null))))
+                .andExpect(status().isBadRequest());
+
+        borrow(borrowerToken, 201);
+        long hold = placeHold(firstInLineToken, 1);
+
+        mockMvc.perform(get("/api/holds/" + hold)
+                .header("Authorization", secondInLineToken))
+                .andExpect(status().isForbidden());
+    }
+
+}
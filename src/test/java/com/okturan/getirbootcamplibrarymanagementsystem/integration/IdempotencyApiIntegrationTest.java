@@ -0,0 +1,217 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.LoginDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserRegistrationDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.idempotency.IdempotencyStore;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class IdempotencyApiIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String patronToken;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper.findAndRegisterModules();
+        String adminToken = login("admin", "admin123");
+
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UserRegistrationDTO("retryingpatron", "password123", "retrying@example.com"))))
+                .andExpect(status().isCreated());
+        patronToken = login("retryingpatron", "password123");
+
+        MvcResult result = mockMvc.perform(post("/api/books")
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookRequestDTO("Retried Book", "Test Author",
+                        "978-1-56619-909-4", LocalDate.of(2020, 1, 1), "Test Genre"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        bookId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    @Test
+    void borrow_ShouldReplayTheFirstResponse_WhenRetriedWithTheSameKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MvcResult first = borrow(key, bookId)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn();
+        MvcResult retry = borrow(key, bookId)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+
+        assertEquals(first.getResponse().getContentAsString(), retry.getResponse().getContentAsString());
+        long borrowingId = objectMapper.readTree(first.getResponse().getContentAsString()).get("id").asLong();
+        assertEquals(1, borrowingsOfBook());
+        assertTrue(borrowingRepository.existsById(borrowingId));
+    }
+
+    @Test
+    void return_ShouldReplayTheFirstResponse_InsteadOfFailingAsAlreadyReturned() throws Exception {
+        MvcResult borrowed = borrow(UUID.randomUUID().toString(), bookId).andExpect(status().isCreated()).andReturn();
+        long borrowingId = objectMapper.readTree(borrowed.getResponse().getContentAsString()).get("id").asLong();
+        String key = UUID.randomUUID().toString();
+
+        giveBack(borrowingId, key).andExpect(status().isOk()).andExpect(header().doesNotExist("Idempotent-Replayed"));
+        giveBack(borrowingId, key).andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(borrowingId))
+                .andExpect(jsonPath("$.returned").value(true));
+
+        // Without the key the retry runs again and fails
+        giveBack(borrowingId, null).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void borrow_ShouldReplayARecordedFailure_AndNotRetryIt() throws Exception {
+        borrow(UUID.randomUUID().toString(), bookId).andExpect(status().isCreated());
+        String key = UUID.randomUUID().toString();
+
+        borrow(key, bookId).andExpect(status().isConflict()).andExpect(header().doesNotExist("Idempotent-Replayed"));
+        borrow(key, bookId).andExpect(status().isConflict()).andExpect(header().string("Idempotent-Replayed", "true"));
+    }
+
+    @Test
+    void borrow_ShouldRefuseAKeyReusedForADifferentRequest() throws Exception {
+        String key = UUID.randomUUID().toString();
+        borrow(key, bookId).andExpect(status().isCreated());
+
+        borrow(key, bookId + 1000).andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key was already used for a different request"));
+    }
+
+    @Test
+    void borrow_ShouldRejectAnOverlongKey() throws Exception {
+        borrow("k".repeat(256), bookId).andExpect(status().isBadRequest());
+
+        assertEquals(0, borrowingsOfBook());
+    }
+
+    @Test
+    void sweep_ShouldDeleteKeysOlderThanTheTtl() throws Exception {
+        borrow(UUID.randomUUID().toString(), bookId).andExpect(status().isCreated());
+
+        assertEquals(0, idempotencyStore.sweep(LocalDateTime.now()));
+        assertEquals(1, idempotencyStore.sweep(LocalDateTime.now().plusHours(25)));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM idempotency_keys", Integer.class));
+    }
+
+    @Test
+    void claim_ShouldTakeOverAKey_OnlyOnceItsOwnerStopsSendingHeartbeats() {
+        long userId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE username = 'retryingpatron'", Long.class);
+        IdempotencyStore serving = store();
+        IdempotencyStore retrying = store();
+        assertTrue(serving.claim(userId, "slow", "f").isEmpty());
+
+        // Running far longer than abandon-after, but its instance is alive
+        setKeyTimes(userId, "created_at", LocalDateTime.now().minusMinutes(10));
+        assertEquals(1, serving.heartbeat(LocalDateTime.now()));
+        assertFalse(retrying.claim(userId, "slow", "f").orElseThrow().isCompleted());
+
+        // Its instance stopped sending heartbeats
+        setKeyTimes(userId, "heartbeat_at", LocalDateTime.now().minusMinutes(2));
+        assertTrue(retrying.claim(userId, "slow", "f").isEmpty());
+
+        // The original request can no longer record or release the key
+        serving.complete(userId, "slow", "f", 201, "application/json", "{}");
+        serving.release(userId, "slow");
+        assertNull(jdbcTemplate.queryForObject(
+                "SELECT status FROM idempotency_keys WHERE user_id = ? AND idempotency_key = 'slow'", Integer.class,
+                userId));
+        assertFalse(serving.claim(userId, "slow", "f").orElseThrow().isCompleted());
+    }
+
+    private IdempotencyStore store() {
+        return new IdempotencyStore(idempotencyKeyRepository, 100, Duration.ofHours(24), Duration.ofMinutes(1),
+                Duration.ofSeconds(10));
+    }
+
+    private void setKeyTimes(long userId, String column, LocalDateTime at) {
+        jdbcTemplate.update("UPDATE idempotency_keys SET " + column + " = ? WHERE user_id = ?", Timestamp.valueOf(at),
+                userId);
+    }
+
+    private long borrowingsOfBook() {
+        return borrowingRepository.findAll()
+            .stream()
+            .filter(borrowing -> borrowing.getBook().getId().equals(bookId))
+            .count();
+    }
+
+    private ResultActions borrow(String key, Long bookId) throws Exception {
+        var request = post("/api/borrowings/borrow")
+                .header("Authorization", patronToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequestDTO(bookId, null)));
+        return mockMvc.perform(key == null ? request : request.header("Idempotency-Key", key));
+    }
+
+    private ResultActions giveBack(long borrowingId, String key) throws Exception {
+        var request = post("/api/borrowings/" + borrowingId + "/return").header("Authorization", patronToken);
+        return mockMvc.perform(key == null ? request : request.header("Idempotency-Key", key));
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return "Bearer " + objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+}
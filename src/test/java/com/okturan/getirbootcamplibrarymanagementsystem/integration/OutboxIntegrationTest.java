@@ -0,0 +1,144 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookAvailabilityDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.LoginDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.UserRegistrationDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.outbox.BookAvailabilityStream;
+import com.okturan.getirbootcamplibrarymanagementsystem.outbox.OutboxRelay;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.Disposable;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class OutboxIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private BookAvailabilityStream availabilityStream;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<BookAvailabilityDTO> received = new CopyOnWriteArrayList<>();
+
+    private Disposable subscription;
+
+    private String adminToken;
+    private String patronToken;
+    private Long bookId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        objectMapper.findAndRegisterModules();
+        adminToken = login("admin", "admin123");
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UserRegistrationDTO("outboxpatron", "password123", "outbox@example.com"))))
+                .andExpect(status().isCreated());
+        patronToken = login("outboxpatron", "password123");
+
+        MvcResult result = mockMvc.perform(post("/api/books")
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookRequestDTO("Outbox Book", "Test Author",
+                        "978-1-56619-909-4", LocalDate.of(2020, 1, 1), "Test Genre"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        bookId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asLong();
+
+        outboxRelay.relay();
+        subscription = availabilityStream.updates()
+            .filter(update -> update.id().equals(bookId))
+            .subscribe(received::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscription.dispose();
+    }
+
+    @Test
+    void borrowAndReturn_ShouldReachSubscribersOnlyThroughTheRelay_InOrder() throws Exception {
+        MvcResult borrowed = mockMvc.perform(post("/api/borrowings/borrow")
+                .header("Authorization", patronToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BorrowingRequestDTO(bookId, null))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long borrowingId = objectMapper.readTree(borrowed.getResponse().getContentAsString()).get("id").asLong();
+        mockMvc.perform(post("/api/borrowings/" + borrowingId + "/return").header("Authorization", patronToken))
+                .andExpect(status().isOk());
+
+        // Written with the transactions, not yet published
+        assertTrue(received.isEmpty());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE event_type = ? AND aggregate_id = ?", Integer.class,
+                OutboxEvent.BOOK_AVAILABILITY_CHANGED, bookId));
+
+        assertTrue(outboxRelay.relay() >= 2);
+
+        assertEquals(List.of(0, 1), received.stream().map(BookAvailabilityDTO::availableCopies).toList());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class));
+        assertEquals(0, outboxRelay.relay());
+    }
+
+    @Test
+    void updateBook_ShouldPublishTheNewCopyCount_WhenCopiesChange() throws Exception {
+        mockMvc.perform(put("/api/books/" + bookId)
+                .header("Authorization", adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BookRequestDTO("Outbox Book", "Test Author",
+                        "978-1-56619-909-4", LocalDate.of(2020, 1, 1), "Test Genre", 3))))
+                .andExpect(status().isOk());
+
+        outboxRelay.relay();
+
+        assertEquals(1, received.size());
+        assertEquals(3, received.get(0).availableCopies());
+        assertEquals(3, received.get(0).totalCopies());
+    }
+
+    private String login(String username, String password) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginDTO(username, password))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return "Bearer " + objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+}
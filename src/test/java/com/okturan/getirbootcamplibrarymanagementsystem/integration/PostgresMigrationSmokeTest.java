@@ -0,0 +1,120 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.integration;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every migration, V12's partitioning of borrowings included, against a real
+ * PostgreSQL and checks the schema the entities and the pruned overdue queries rely on.
+ * Skipped where Docker is not available.
+ */
+@SpringBootTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect")
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+class PostgresMigrationSmokeTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Test
+    void migrations_ShouldPartitionBorrowingsByMonth() {
+        assertEquals("p", jdbcTemplate.queryForObject(
+                "SELECT relkind::text FROM pg_class WHERE relname = 'borrowings'", String.class));
+        String month = "borrowings_p" + LocalDate.now().toString().substring(0, 7).replace('-', '_');
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE c.relname = ?",
+                Integer.class, month));
+    }
+
+    @Test
+    void overdueQueries_ShouldFindLoansAcrossPartitions() {
+        Book book = book();
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        LocalDate today = LocalDate.now();
+        Borrowing overdue = borrowingRepository.saveAndFlush(borrowing(book, admin, today.minusMonths(2)));
+        borrowingRepository.saveAndFlush(borrowing(book, admin, today));
+
+        List<BorrowingRow> rows = borrowingRepository.findOverdueRows(today);
+
+        assertEquals(List.of(overdue.getId()), rows.stream().map(BorrowingRow::id).toList());
+        assertEquals(1, borrowingRepository.summarizeOverdue(today).total());
+    }
+
+    @Test
+    void overdueQueries_ShouldFindALoanOfAnyLength() {
+        Book book = book();
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        LocalDate today = LocalDate.now();
+        Borrowing renewed = borrowing(book, admin, today.minusMonths(3));
+        renewed.setDueDate(today.minusDays(3));
+        borrowingRepository.saveAndFlush(renewed);
+
+        assertEquals(List.of(renewed.getId()), borrowingRepository.findOpenRowsDueBetween(today.minusDays(4), today)
+                .stream().map(BorrowingRow::id).toList());
+    }
+
+    @Test
+    void borrowings_ShouldRejectADueDateBeforeTheBorrowDate() {
+        Book book = book();
+        User admin = userRepository.findByUsername("admin").orElseThrow();
+        Borrowing backwards = borrowing(book, admin, LocalDate.now().minusDays(10));
+        backwards.setDueDate(LocalDate.now().minusDays(20));
+
+        assertThrows(DataIntegrityViolationException.class, () -> borrowingRepository.saveAndFlush(backwards));
+    }
+
+    private Book book() {
+        Book book = new Book();
+        book.setTitle("Partitioned Book");
+        book.setAuthor("Test Author");
+        book.setIsbn("978-1-56619-909-4");
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setGenre("Fiction");
+        return bookRepository.saveAndFlush(book);
+    }
+
+    private static Borrowing borrowing(Book book, User user, LocalDate borrowDate) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setBook(book);
+        borrowing.setUser(user);
+        borrowing.setBorrowDate(borrowDate);
+        borrowing.setDueDate(borrowDate.plus(Borrowing.LOAN_PERIOD));
+        return borrowing;
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookAvailabilityDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookAvailabilityStreamTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BookAvailabilityStream stream = new BookAvailabilityStream(objectMapper);
+
+    @Test
+    void accept_ShouldNotBufferUpdates_WhileNoOneIsSubscribed() throws Exception {
+        stream.accept(List.of(event(1, update(0))));
+
+        List<BookAvailabilityDTO> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = stream.updates().subscribe(received::add);
+        stream.accept(List.of(event(2, update(1))));
+        subscription.dispose();
+
+        assertEquals(List.of(update(1)), received);
+    }
+
+    @Test
+    void accept_ShouldKeepServingLaterSubscribers_AfterTheLastOneLeft() throws Exception {
+        stream.updates().subscribe().dispose();
+
+        List<BookAvailabilityDTO> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = stream.updates().subscribe(received::add);
+        stream.accept(List.of(event(1, update(0))));
+        subscription.dispose();
+
+        assertEquals(1, received.size());
+    }
+
+    private static BookAvailabilityDTO update(int availableCopies) {
+        return new BookAvailabilityDTO(7L, "Stream Book", "978-1-56619-909-4", availableCopies > 0, 1,
+                availableCopies, "2025-06-02T12:00:00Z");
+    }
+
+    private OutboxEvent event(long id, BookAvailabilityDTO update) throws Exception {
+        return new OutboxEvent(id, OutboxEvent.BOOK_AVAILABILITY_CHANGED, update.id(),
+                objectMapper.writeValueAsString(update), LocalDateTime.now());
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.outbox;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxEvent;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxRepository repository;
+
+    private final List<List<OutboxEvent>> delivered = new ArrayList<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(repository, List.of(delivered::add), meterRegistry, 2, 10);
+    }
+
+    @Test
+    void relay_ShouldDeliverBatchesInIdOrder_AndDeleteEachOnceDelivered() {
+        List<OutboxEvent> first = List.of(event(1, 10), event(2, 10));
+        List<OutboxEvent> second = List.of(event(3, 5));
+        when(repository.findOldest(2)).thenReturn(first).thenReturn(second);
+
+        int relayed = relay.relay();
+
+        assertEquals(3, relayed);
+        assertEquals(List.of(first, second), delivered);
+        var order = inOrder(repository);
+        order.verify(repository).deleteAll(List.of(1L, 2L));
+        order.verify(repository).deleteAll(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("library.outbox.published").counter().count());
+    }
+
+    @Test
+    void relay_ShouldKeepTheBatch_WhenAConsumerFails() {
+        relay = new OutboxRelay(repository, List.of(events -> {
+            throw new IllegalStateException("consumer down");
+        }), meterRegistry, 2, 10);
+        when(repository.findOldest(2)).thenReturn(List.of(event(1, 10)));
+
+        assertThrows(IllegalStateException.class, relay::relay);
+        verify(repository, never()).deleteAll(any());
+    }
+
+    @Test
+    void relay_ShouldReportTheAgeOfTheOldestPendingEvent() {
+        when(repository.findOldest(2)).thenReturn(List.of(event(1, 30))).thenReturn(List.of());
+
+        relay.relay();
+        assertEquals(30, meterRegistry.get("library.outbox.lag").gauge().value(), 1);
+
+        relay.relay();
+        assertEquals(0, meterRegistry.get("library.outbox.lag").gauge().value());
+    }
+
+    @Test
+    void relay_ShouldReturnAtOnce_WhileAnotherRelayIsRunning() throws Exception {
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        relay = new OutboxRelay(repository, List.of(events -> {
+            delivering.countDown();
+            try {
+                finish.await();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }), meterRegistry, 2, 10);
+        when(repository.findOldest(2)).thenReturn(List.of(event(1, 10)));
+
+        CompletableFuture<Integer> running = CompletableFuture.supplyAsync(relay::relay);
+        assertTrue(delivering.await(5, TimeUnit.SECONDS));
+
+        assertEquals(0, relay.relay());
+        finish.countDown();
+        assertEquals(1, running.get(5, TimeUnit.SECONDS));
+        verify(repository).findOldest(2);
+    }
+
+    private static OutboxEvent event(long id, int secondsAgo) {
+        return new OutboxEvent(id, OutboxEvent.BOOK_AVAILABILITY_CHANGED, 7L, "{}",
+                LocalDateTime.now().minusSeconds(secondsAgo));
+    }
+
+}
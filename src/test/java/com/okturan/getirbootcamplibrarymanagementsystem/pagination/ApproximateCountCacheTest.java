@@ -0,0 +1,67 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.pagination;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApproximateCountCacheTest {
+
+    private ApproximateCountCache cache;
+
+    private AtomicInteger counted;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ApproximateCountCache(2, Duration.ofMinutes(5), 100);
+        counted = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldReuseTotal_UntilWriteBudgetIsSpent() {
+        assertEquals(10, cache.get(CountScope.BOOKS, "all", this::count));
+        cache.recordWrite(CountScope.BOOKS);
+        cache.recordWrite(CountScope.BOOKS);
+        assertEquals(10, cache.get(CountScope.BOOKS, "all", this::count));
+        assertEquals(1, counted.get());
+
+        cache.recordWrite(CountScope.BOOKS);
+        cache.get(CountScope.BOOKS, "all", this::count);
+        assertEquals(2, counted.get());
+    }
+
+    @Test
+    void get_ShouldKeepScopesAndKeysApart() {
+        cache.get(CountScope.BOOKS, "all", this::count);
+        cache.get(CountScope.BOOKS, "search:a", this::count);
+        cache.get(CountScope.BORROWINGS, "all", this::count);
+        for (int i = 0; i < 5; i++) {
+            cache.recordWrite(CountScope.BORROWINGS);
+        }
+        cache.get(CountScope.BOOKS, "all", this::count);
+
+        assertEquals(3, counted.get());
+    }
+
+    @Test
+    void page_ShouldNotReportFewerRowsThanTheSliceShows() {
+        Page<String> page = cache.page(new SliceImpl<>(List.of("a", "b"), PageRequest.of(3, 2), true),
+                CountScope.BOOKS, "stale", () -> 1);
+
+        assertEquals(9, page.getTotalElements());
+        assertTrue(page.hasNext());
+    }
+
+    private long count() {
+        counted.incrementAndGet();
+        return 10;
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorCodecTest {
+
+    @Test
+    void decode_ShouldRestoreTypedKeysAndSort() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("borrowDate", LocalDate.of(2024, 5, 1));
+        keys.put("title", "Ça & co");
+        keys.put("id", 42L);
+        Sort sort = Sort.by(Sort.Order.desc("borrowDate"), Sort.Order.asc("title"));
+
+        String token = CursorCodec.encode(ScrollPosition.forward(keys), sort);
+        CursorCodec.Cursor cursor = CursorCodec.decode(token);
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(sort, cursor.sort());
+        assertEquals(keys, cursor.position().getKeys());
+        assertEquals(KeysetScrollPosition.Direction.FORWARD, cursor.position().getDirection());
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("not-a-cursor"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decode("e30"));
+    }
+
+    @Test
+    void encode_ShouldRejectNullKeys() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("publicationDate", null);
+        keys.put("id", 1L);
+
+        assertThrows(IllegalStateException.class,
+                () -> CursorCodec.encode(ScrollPosition.forward(keys), Sort.by("publicationDate")));
+    }
+
+}
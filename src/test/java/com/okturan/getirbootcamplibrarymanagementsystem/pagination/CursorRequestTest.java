@@ -0,0 +1,41 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.pagination;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorRequestTest {
+
+    @Test
+    void of_ShouldAcceptNonNullSorts_IncludingJoinedOnes() {
+        CursorRequest request = CursorRequest.of("", PageRequest.of(0, 10, Sort.by("dueDate", "book.title")),
+                Borrowing.class);
+
+        assertEquals(Sort.by("dueDate", "book.title"), request.sort());
+    }
+
+    @Test
+    void of_ShouldRejectANullableSort() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorRequest.of("", PageRequest.of(0, 10, Sort.by("returnDate")), Borrowing.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorRequest.of("", PageRequest.of(0, 10, Sort.by("noSuchProperty")), Borrowing.class));
+    }
+
+    @Test
+    void of_ShouldRejectANullableSort_RecordedInACursor() {
+        String token = CursorCodec.encode(ScrollPosition.forward(Map.of("returnDate", LocalDate.of(2024, 5, 1))),
+                Sort.by("returnDate"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CursorRequest.of(token, PageRequest.of(0, 10), Borrowing.class));
+    }
+
+}
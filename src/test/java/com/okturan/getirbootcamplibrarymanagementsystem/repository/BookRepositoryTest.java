@@ -1,14 +1,27 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.repository;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FacetCountDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.Isbn;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -23,7 +36,7 @@ public class BookRepositoryTest {
     private BookRepository bookRepository;
 
     @Test
-    void findByIsbn_ShouldReturnBook_WhenIsbnExists() {
+    void findByIsbnKey_ShouldReturnBook_WhenIsbnExists() {
         // Arrange
         Book book = new Book();
         book.setTitle("Test Book");
@@ -36,7 +49,7 @@ public class BookRepositoryTest {
         entityManager.flush();
 
         // Act
-        Optional<Book> found = bookRepository.findByIsbn("978-3-16-148410-0");
+        Optional<Book> found = bookRepository.findByIsbnKey(Isbn.toKey("978-3-16-148410-0"));
 
         // Assert
         assertTrue(found.isPresent());
@@ -45,16 +58,16 @@ public class BookRepositoryTest {
     }
 
     @Test
-    void findByIsbn_ShouldReturnEmpty_WhenIsbnDoesNotExist() {
+    void findByIsbnKey_ShouldReturnEmpty_WhenIsbnDoesNotExist() {
         // Act
-        Optional<Book> found = bookRepository.findByIsbn("nonexistent");
+        Optional<Book> found = bookRepository.findByIsbnKey(Isbn.toKey("978-0-00-000000-2"));
 
         // Assert
         assertFalse(found.isPresent());
     }
 
     @Test
-    void existsByIsbn_ShouldReturnTrue_WhenIsbnExists() {
+    void existsByIsbnKey_ShouldReturnTrue_ForAnySpellingOfTheIsbn() {
         // Arrange
         Book book = new Book();
         book.setTitle("Test Book");
@@ -67,16 +80,17 @@ public class BookRepositoryTest {
         entityManager.flush();
 
         // Act
-        boolean exists = bookRepository.existsByIsbn("978-0-13-149505-0");
+        boolean exists = bookRepository.existsByIsbnKey(Isbn.toKey("0131495054"));
 
         // Assert
         assertTrue(exists);
+        assertEquals(9780131495050L, book.getIsbnKey());
     }
 
     @Test
-    void existsByIsbn_ShouldReturnFalse_WhenIsbnDoesNotExist() {
+    void existsByIsbnKey_ShouldReturnFalse_WhenIsbnDoesNotExist() {
         // Act
-        boolean exists = bookRepository.existsByIsbn("nonexistent");
+        boolean exists = bookRepository.existsByIsbnKey(Isbn.toKey("978-0-00-000000-2"));
 
         // Assert
         assertFalse(exists);
@@ -126,4 +140,154 @@ public class BookRepositoryTest {
         Book found = entityManager.find(Book.class, persistedBook.getId());
         assertNull(found);
     }
+
+    @Test
+    void repairAvailableCopies_ShouldSyncShelfCountsWithBorrowings() {
+        // Arrange
+        User user = new User("reader", "password", "reader@example.com");
+        user.setRoles(Set.of(Role.PATRON));
+        entityManager.persist(user);
+
+        Book borrowed = persistBook("Borrowed Book", "978-3-16-148410-0", 3, 3);
+        Book stale = persistBook("Stale Book", "978-0-306-40615-7", 2, 0);
+
+        Borrowing borrowing = new Borrowing();
+        borrowing.setBook(borrowed);
+        borrowing.setUser(user);
+        borrowing.setBorrowDate(LocalDate.now());
+        borrowing.setDueDate(LocalDate.now().plusDays(14));
+        entityManager.persist(borrowing);
+        entityManager.flush();
+
+        // Act
+        int repaired = bookRepository.repairAvailableCopies();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(2, repaired);
+        assertEquals(2, entityManager.find(Book.class, borrowed.getId()).getAvailableCopies());
+        assertEquals(2, entityManager.find(Book.class, stale.getId()).getAvailableCopies());
+        assertEquals(0, bookRepository.repairAvailableCopies());
+    }
+
+    @Test
+    void takeCopy_ShouldStopAtZero_AndReturnCopyAtTheTotal() {
+        // Arrange
+        Book book = persistBook("Popular", "978-3-16-148410-0", 2, 2);
+
+        // Act & Assert
+        assertEquals(1, bookRepository.takeCopy(book.getId()));
+        assertEquals(1, bookRepository.takeCopy(book.getId()));
+        assertEquals(0, bookRepository.takeCopy(book.getId()));
+        assertEquals(0, bookRepository.findAvailableCopiesById(book.getId()));
+
+        assertEquals(1, bookRepository.returnCopy(book.getId()));
+        assertEquals(1, bookRepository.returnCopy(book.getId()));
+        assertEquals(0, bookRepository.returnCopy(book.getId()));
+        assertEquals(2, bookRepository.findAvailableCopiesById(book.getId()));
+    }
+
+    @Test
+    void resizeCopies_ShouldMoveShelfCountByTheDelta_ButNeverBelowCopiesOnLoan() {
+        // Arrange
+        Book book = persistBook("Popular", "978-3-16-148410-0", 5, 2);
+
+        // Act & Assert
+        assertEquals(0, bookRepository.resizeCopies(book.getId(), 2));
+        assertEquals(1, bookRepository.resizeCopies(book.getId(), 3));
+        entityManager.clear();
+        Book resized = entityManager.find(Book.class, book.getId());
+        assertEquals(3, resized.getTotalCopies());
+        assertEquals(0, resized.getAvailableCopies());
+    }
+
+    @Test
+    void save_ShouldNotOverwriteCopyCounts_FromAStaleEntity() {
+        // Arrange
+        Book book = persistBook("Popular", "978-3-16-148410-0", 2, 2);
+        bookRepository.takeCopy(book.getId());
+
+        // Act
+        book.setTitle("Renamed");
+        book.setAvailableCopies(2);
+        entityManager.flush();
+
+        // Assert
+        assertEquals(1, bookRepository.findAvailableCopiesById(book.getId()));
+    }
+
+    @Test
+    void findResponses_ShouldProjectBooksWithAvailabilityComputedInSql() {
+        // Arrange
+        Book onShelf = persistBook("On Shelf", "978-3-16-148410-0", 3, 1);
+        Book lent = persistBook("Lent Out", "978-0-306-40615-7", 1, 0);
+        Specification<Book> lentOnly = (root, query, cb) -> cb.equal(root.get("availableCopies"), 0);
+        entityManager.clear();
+
+        // Act
+        Page<BookResponseDTO> all = bookRepository.findResponses(null, PageRequest.of(0, 10, Sort.by("title")));
+        Page<BookResponseDTO> filtered = bookRepository.findResponses(lentOnly, PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(List.of("Lent Out", "On Shelf"), all.map(BookResponseDTO::title).getContent());
+        assertFalse(all.getContent().get(0).available());
+        assertTrue(all.getContent().get(1).available());
+        assertEquals(3, all.getContent().get(1).totalCopies());
+        assertEquals(1, all.getContent().get(1).availableCopies());
+        assertEquals(List.of(lent.getId()), filtered.map(BookResponseDTO::id).getContent());
+        assertEquals(1, filtered.getTotalElements());
+        assertEquals(List.of(onShelf.getId()),
+                bookRepository.findResponsesByIdIn(List.of(onShelf.getId())).stream().map(BookResponseDTO::id).toList());
+    }
+
+    @Test
+    void findResponseSlice_ShouldReportNextSliceWithoutCounting() {
+        // Arrange
+        persistBook("A", "978-3-16-148410-0", 1, 1);
+        persistBook("B", "978-0-306-40615-7", 1, 1);
+        persistBook("C", "978-0-7432-7356-5", 1, 1);
+
+        // Act
+        Slice<BookResponseDTO> first = bookRepository.findResponseSlice(null, PageRequest.of(0, 2, Sort.by("title")));
+        Slice<BookResponseDTO> last = bookRepository.findResponseSlice(null, PageRequest.of(1, 2, Sort.by("title")));
+
+        // Assert
+        assertEquals(List.of("A", "B"), first.map(BookResponseDTO::title).getContent());
+        assertTrue(first.hasNext());
+        assertEquals(List.of("C"), last.map(BookResponseDTO::title).getContent());
+        assertFalse(last.hasNext());
+    }
+
+    @Test
+    void countFacets_ShouldGroupMatchingBooks_LargestFirst() {
+        // Arrange
+        persistBook("A", "978-3-16-148410-0", 1, 1);
+        persistBook("B", "978-0-306-40615-7", 1, 0);
+        Book other = persistBook("C", "978-0-7432-7356-5", 1, 1);
+        other.setGenre("History");
+        entityManager.flush();
+        Specification<Book> notC = (root, query, cb) -> cb.notEqual(root.get("title"), "C");
+
+        // Act
+        List<FacetCountDTO> genres = bookRepository.countFacets(null, "genre");
+        List<FacetCountDTO> filtered = bookRepository.countFacets(notC, "author");
+
+        // Assert
+        assertEquals(List.of(new FacetCountDTO("Fiction", 1, 2), new FacetCountDTO("History", 1, 1)), genres);
+        assertEquals(List.of(new FacetCountDTO("Author", 1, 2)), filtered);
+    }
+
+    private Book persistBook(String title, String isbn, int totalCopies, int availableCopies) {
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor("Author");
+        book.setIsbn(isbn);
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setGenre("Fiction");
+        book.setTotalCopies(totalCopies);
+        book.setAvailableCopies(availableCopies);
+        entityManager.persist(book);
+        entityManager.flush();
+        return book;
+    }
 }
@@ -0,0 +1,143 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingExportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.BorrowingRecord;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(BorrowingArchiveRepository.class)
+public class BorrowingHistoryRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 5, 20);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BorrowingHistoryRepository historyRepository;
+
+    @Autowired
+    private BorrowingArchiveRepository archiveRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private UserBorrowingStatsRepository statsRepository;
+
+    private User user;
+
+    private Borrowing oldReturn;
+
+    private Borrowing recentReturn;
+
+    private Borrowing open;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("historyuser");
+        user.setPassword("password");
+        user.setEmail("history@example.com");
+        user.setRoles(Set.of(Role.PATRON));
+        entityManager.persist(user);
+
+        Book book = new Book();
+        book.setTitle("Archived Book");
+        book.setAuthor("Author");
+        book.setIsbn("978-0-306-40615-7");
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setGenre("Fiction");
+        book.setTotalCopies(3);
+        book.setAvailableCopies(2);
+        entityManager.persist(book);
+
+        oldReturn = entityManager.persist(borrowing(book, TODAY.minusYears(2), TODAY.minusYears(2).plusDays(10)));
+        recentReturn = entityManager.persist(borrowing(book, TODAY.minusDays(30), TODAY.minusDays(20)));
+        open = entityManager.persist(borrowing(book, TODAY.minusDays(3), null));
+        entityManager.flush();
+    }
+
+    private Borrowing borrowing(Book book, LocalDate borrowDate, LocalDate returnDate) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setUser(user);
+        borrowing.setBook(book);
+        borrowing.setBorrowDate(borrowDate);
+        borrowing.setDueDate(borrowDate.plusDays(14));
+        borrowing.setReturnDate(returnDate);
+        borrowing.setReturned(returnDate != null);
+        return borrowing;
+    }
+
+    private void archiveBefore(LocalDate cutoff) {
+        List<Long> ids = archiveRepository.findArchivable(cutoff, 100);
+        assertEquals(List.of(oldReturn.getId()), ids);
+        assertEquals(1, archiveRepository.move(ids, LocalDateTime.now()));
+        entityManager.clear();
+    }
+
+    @Test
+    void move_ShouldOnlyTakeBorrowingsReturnedBeforeTheCutoff() {
+        archiveBefore(TODAY.minusYears(1));
+
+        assertFalse(borrowingRepository.existsById(oldReturn.getId()));
+        assertTrue(borrowingRepository.existsById(recentReturn.getId()));
+        assertTrue(borrowingRepository.existsById(open.getId()));
+        assertTrue(archiveRepository.findArchivable(TODAY.minusYears(1), 100).isEmpty());
+    }
+
+    @Test
+    void findSliceByUser_ShouldReadAcrossBothTables() {
+        archiveBefore(TODAY.minusYears(1));
+
+        Slice<BorrowingRecord> history = historyRepository.findSliceByUser(user,
+                PageRequest.of(0, 10, Sort.by("borrowDate")));
+
+        assertEquals(List.of(oldReturn.getId(), recentReturn.getId(), open.getId()),
+                history.map(BorrowingRecord::getId).getContent());
+        assertTrue(history.getContent().get(0).isReturned());
+        assertEquals(oldReturn.getReturnDate(), history.getContent().get(0).getReturnDate());
+        assertEquals(3, historyRepository.countByUser(user));
+    }
+
+    @Test
+    void streamForExport_ShouldIncludeArchivedBorrowings() {
+        archiveBefore(TODAY.minusYears(1));
+
+        try (Stream<BorrowingExportDTO> rows = historyRepository.streamForExport(TODAY.minusYears(10), List.of(true))) {
+            assertEquals(List.of(oldReturn.getId(), recentReturn.getId()), rows.map(BorrowingExportDTO::id).toList());
+        }
+    }
+
+    @Test
+    void statsRepair_ShouldKeepArchivedBorrowingsInTheTotal() {
+        statsRepository.createIfMissing(user.getId());
+        archiveBefore(TODAY.minusYears(1));
+
+        assertEquals(List.of(), statsRepository.findDriftedUserIds());
+        assertEquals(3, statsRepository.findById(user.getId()).orElseThrow().getTotalBorrowings());
+    }
+
+}
@@ -9,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
@@ -94,15 +95,6 @@ public class BorrowingRepositoryTest {
         entityManager.flush();
     }
 
-    @Test
-    void findByUser_ShouldReturnUserBorrowings() {
-        // Act
-        Page<Borrowing> borrowings = borrowingRepository.findByUser(user, PageRequest.of(0, 10));
-
-        // Assert
-        assertEquals(3, borrowings.getTotalElements());
-    }
-
     @Test
     void findByReturned_ShouldReturnActiveBorrowings_WhenReturnedIsFalse() {
         // Act
@@ -127,12 +119,33 @@ public class BorrowingRepositoryTest {
     @Test
     void findByDueDateBeforeAndReturned_ShouldReturnOverdueBorrowings() {
         // Act
-        Page<Borrowing> overdueBorrowings = borrowingRepository.findByDueDateBeforeAndReturned(
+        List<Borrowing> overdueBorrowings = borrowingRepository.findByDueDateBeforeAndReturned(
                 LocalDate.now(), false, PageRequest.of(0, 10));
 
         // Assert
-        assertEquals(1, overdueBorrowings.getTotalElements());
-        assertTrue(overdueBorrowings.getContent().contains(overdueBorrowing));
+        assertEquals(List.of(overdueBorrowing), overdueBorrowings);
+    }
+
+    @Test
+    void summarizeOverdue_ShouldCountBorrowingsPatronsAndBooksInOnePass() {
+        // Act
+        OverdueSummary summary = borrowingRepository.summarizeOverdue(LocalDate.now());
+
+        // Assert
+        assertEquals(new OverdueSummary(1, 1, 1), summary);
+        assertEquals(List.of(overdueBorrowing.getId()),
+                borrowingRepository.findOverdueRows(LocalDate.now()).stream().map(BorrowingRow::id).toList());
+    }
+
+    @Test
+    void findOpenRowsDueBetween_ShouldFindBorrowingsThatFellDue_InTheRange() {
+        // Act
+        List<BorrowingRow> fellDue = borrowingRepository.findOpenRowsDueBetween(LocalDate.now().minusDays(7),
+                LocalDate.now());
+
+        // Assert
+        assertEquals(List.of(overdueBorrowing.getId()), fellDue.stream().map(BorrowingRow::id).toList());
+        assertTrue(borrowingRepository.findOpenRowsDueBetween(LocalDate.now().minusDays(5), LocalDate.now()).isEmpty());
     }
 
     @Test
@@ -174,15 +187,6 @@ public class BorrowingRepositoryTest {
         assertTrue(borrowedIds.contains(book2.getId()));
     }
 
-    @Test
-    void countByUser_ShouldReturnTotalBorrowingsCount() {
-        // Act
-        long count = borrowingRepository.countByUser(user);
-
-        // Assert
-        assertEquals(3, count);
-    }
-
     @Test
     void countByUserAndReturnedFalse_ShouldReturnActiveBorrowingsCount() {
         // Act
@@ -200,4 +204,52 @@ public class BorrowingRepositoryTest {
         // Assert
         assertEquals(1, count);
     }
+
+    @Test
+    void saveAndFlush_ShouldAllowSeveralOpenBorrowingsOfABook() {
+        // Arrange
+        Borrowing second = new Borrowing();
+        second.setBook(book1);
+        second.setUser(user);
+        second.setBorrowDate(LocalDate.now());
+        second.setDueDate(LocalDate.now().plusDays(14));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> borrowingRepository.saveAndFlush(second));
+        assertEquals(Set.of(book1.getId()), borrowingRepository.findBorrowedBookIdsByBookIds(List.of(book1.getId())));
+    }
+
+    @Test
+    void overdueQueries_ShouldFindALoanOfAnyLength() {
+        // Arrange: a loan renewed past the default two weeks
+        Borrowing renewed = new Borrowing();
+        renewed.setBook(book2);
+        renewed.setUser(user);
+        renewed.setBorrowDate(LocalDate.now().minusDays(40));
+        renewed.setDueDate(LocalDate.now().minusDays(3));
+        borrowingRepository.saveAndFlush(renewed);
+
+        // Act
+        List<Long> overdue = borrowingRepository.findOverdueRows(LocalDate.now()).stream().map(BorrowingRow::id).toList();
+        List<Long> fellDue = borrowingRepository.findOpenRowsDueBetween(LocalDate.now().minusDays(4), LocalDate.now())
+                .stream().map(BorrowingRow::id).toList();
+
+        // Assert
+        assertTrue(overdue.contains(renewed.getId()));
+        assertTrue(fellDue.contains(renewed.getId()));
+        assertEquals(2, borrowingRepository.summarizeOverdue(LocalDate.now()).total());
+    }
+
+    @Test
+    void saveAndFlush_ShouldRejectADueDateBeforeTheBorrowDate() {
+        // Arrange: the overdue queries bound the borrow date by the due date
+        Borrowing backwards = new Borrowing();
+        backwards.setBook(book1);
+        backwards.setUser(user);
+        backwards.setBorrowDate(LocalDate.now().minusDays(10));
+        backwards.setDueDate(LocalDate.now().minusDays(20));
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> borrowingRepository.saveAndFlush(backwards));
+    }
 }
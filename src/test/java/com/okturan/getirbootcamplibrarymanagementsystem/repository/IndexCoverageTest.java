@@ -0,0 +1,201 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Map.entry;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fails when a repository query has no index to seek on. Derived queries are checked from
+ * their method names; {@code @Query} methods must declare their access path below. An
+ * index supports a query when it leads with the query's first criterion, so derived
+ * queries should name their most selective column first.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class IndexCoverageTest {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(BookRepository.class, BorrowingRepository.class,
+            BorrowingHistoryRepository.class, FineRunRepository.class, HoldRepository.class, UserBorrowingStatsRepository.class, UserRepository.class);
+
+    /** Views to the tables they read; a query on a view needs an index on each. */
+    private static final Map<String, List<String>> VIEWS = Map.of("borrowing_history",
+            List.of("borrowings", "borrowings_archive"));
+
+    /** Reads every row by design, such as the exports. */
+    private static final AccessPath FULL_SCAN = new AccessPath(null, List.of());
+
+    private static final Map<String, AccessPath> DECLARED = Map.ofEntries(
+            entry("BookRepository.findIsbnKeysAfter", seek("books", "id")),
+            entry("BookRepository.findFacetRowsAfter", seek("books", "id")),
+            entry("BookRepository.findAvailableIdsByIdIn", seek("books", "id")),
+            entry("BookRepository.takeCopy", seek("books", "id")),
+            entry("BookRepository.returnCopy", seek("books", "id")),
+            entry("BookRepository.resizeCopies", seek("books", "id")),
+            entry("BookRepository.findAvailableCopiesById", seek("books", "id")),
+            entry("BookRepository.repairAvailableCopies", seek("borrowings", "book_id")),
+            entry("BookRepository.streamAllForExport", FULL_SCAN),
+            entry("BorrowingRepository.summarizeOverdue", seek("borrowings", "due_date", "is_returned")),
+            entry("BorrowingRepository.findOverdueRows", seek("borrowings", "due_date", "is_returned")),
+            entry("BorrowingRepository.findOpenRowsDueBetween", seek("borrowings", "due_date", "is_returned")),
+            entry("BorrowingRepository.findRowsByIdIn", seek("borrowings", "id")),
+            entry("BorrowingRepository.findUserIdById", seek("borrowings", "id")),
+            entry("BorrowingRepository.findBorrowedBookIdsByBookIds", seek("borrowings", "book_id", "is_returned")),
+            entry("BorrowingHistoryRepository.streamForExport", FULL_SCAN),
+            entry("FineRunRepository.advance", seek("fine_runs", "run_date")),
+            entry("FineRunRepository.complete", seek("fine_runs", "run_date")),
+            entry("HoldRepository.findOpenQueueRows", seek("holds", "status")),
+            entry("HoldRepository.findWaitingIds", seek("holds", "book_id", "status")),
+            entry("HoldRepository.findReadyHoldId", seek("holds", "book_id", "status")),
+            entry("HoldRepository.existsOpenHold", seek("holds", "book_id", "status")),
+            entry("HoldRepository.countWaitingAhead", seek("holds", "book_id", "status")),
+            entry("HoldRepository.findOpenByUserId", seek("holds", "user_id", "status")),
+            entry("HoldRepository.findUserIdById", seek("holds", "id")),
+            entry("HoldRepository.markReady", seek("holds", "id")),
+            entry("HoldRepository.transition", seek("holds", "id")),
+            entry("UserBorrowingStatsRepository.lockActiveBorrowings", seek("user_borrowing_stats", "user_id")),
+            entry("UserBorrowingStatsRepository.recordBorrows", seek("user_borrowing_stats", "user_id")),
+            entry("UserBorrowingStatsRepository.recordReturns", seek("user_borrowing_stats", "user_id")),
+            entry("UserBorrowingStatsRepository.createIfMissing", seek("borrowing_history", "user_id")),
+            entry("UserBorrowingStatsRepository.insertMissing", FULL_SCAN),
+            entry("UserBorrowingStatsRepository.findDriftedUserIds", FULL_SCAN),
+            entry("UserBorrowingStatsRepository.repairCounts", seek("user_borrowing_stats", "user_id")),
+            entry("UserRepository.streamAllForExport", FULL_SCAN),
+            // The element collection lives in its own table, which the method name does not say
+            entry("UserRepository.existsByRolesContaining", seek("user_roles", "role")));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /** Table name to the leading column of each of its indexes, lower case. */
+    private Map<String, Set<String>> leadingColumns;
+
+    @BeforeEach
+    void readIndexes() throws SQLException {
+        leadingColumns = new HashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (String table : List.of("books", "borrowings", "borrowings_archive", "fine_runs", "holds", "user_borrowing_stats", "users", "user_roles")) {
+                String name = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+                try (ResultSet indexes = metaData.getIndexInfo(null, null, name, false, false)) {
+                    while (indexes.next()) {
+                        if (indexes.getShort("ORDINAL_POSITION") == 1) {
+                            leadingColumns.computeIfAbsent(table, t -> new HashSet<>())
+                                .add(indexes.getString("COLUMN_NAME").toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void everyRepositoryQuery_ShouldHaveASupportingIndex() {
+        List<String> unsupported = new ArrayList<>();
+        for (Class<?> repository : REPOSITORIES) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (method.isDefault() || method.isSynthetic() || Modifier.isStatic(method.getModifiers())) {
+                    continue;
+                }
+                String name = repository.getSimpleName() + "." + method.getName();
+                AccessPath path = accessPath(repository, method, name);
+                if (path == null) {
+                    unsupported.add(name + " uses @Query; declare its access path in " + getClass().getSimpleName());
+                }
+                else if (!path.columns().isEmpty() && !isSupported(path)) {
+                    unsupported.add(name + " filters " + path + " but no index leads with " + path.columns().get(0));
+                }
+            }
+        }
+        assertTrue(unsupported.isEmpty(), String.join("\n", unsupported));
+    }
+
+    @Test
+    void declaredAccessPaths_ShouldNameExistingMethods() {
+        Set<String> methods = new HashSet<>();
+        REPOSITORIES.forEach(repository -> {
+            for (Method method : repository.getDeclaredMethods()) {
+                methods.add(repository.getSimpleName() + "." + method.getName());
+            }
+        });
+        assertTrue(methods.containsAll(DECLARED.keySet()),
+                "Stale entries: " + DECLARED.keySet().stream().filter(key -> !methods.contains(key)).toList());
+    }
+
+    /**
+     * @return the declared path, the path read from a derived query's name, or
+     * {@code null} for an undeclared {@code @Query} method
+     */
+    private AccessPath accessPath(Class<?> repository, Method method, String name) {
+        if (DECLARED.containsKey(name)) {
+            return DECLARED.get(name);
+        }
+        if (method.isAnnotationPresent(Query.class)) {
+            return null;
+        }
+        Class<?> domainType = ResolvableType.forClass(repository).as(Repository.class).resolveGeneric(0);
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getMappingMetamodel()
+            .getEntityDescriptor(domainType);
+        List<String> columns = new ArrayList<>();
+        for (PartTree.OrPart or : new PartTree(method.getName(), domainType)) {
+            for (Part part : or) {
+                for (String column : persister.getPropertyColumnNames(part.getProperty().toDotPath())) {
+                    columns.add(column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return new AccessPath(persister.getTableName().toLowerCase(Locale.ROOT), columns);
+    }
+
+    private boolean isSupported(AccessPath path) {
+        return VIEWS.getOrDefault(path.table(), List.of(path.table()))
+            .stream()
+            .allMatch(table -> leadingColumns.getOrDefault(table, Set.of()).contains(path.columns().get(0)));
+    }
+
+    private static AccessPath seek(String table, String... columns) {
+        return new AccessPath(table, List.of(columns));
+    }
+
+    private record AccessPath(String table, List<String> columns) {
+
+        @Override
+        public String toString() {
+            return table + columns;
+        }
+
+    }
+
+}
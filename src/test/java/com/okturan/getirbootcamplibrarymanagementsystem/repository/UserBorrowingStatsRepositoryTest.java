@@ -0,0 +1,118 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.repository;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.UserBorrowingStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class UserBorrowingStatsRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserBorrowingStatsRepository statsRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("statsuser");
+        user.setPassword("password");
+        user.setEmail("stats@example.com");
+        user.setRoles(Set.of(Role.PATRON));
+        entityManager.persist(user);
+
+        Book book = new Book();
+        book.setTitle("Counted Book");
+        book.setAuthor("Author");
+        book.setIsbn("978-0-306-40615-7");
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setGenre("Fiction");
+        book.setTotalCopies(2);
+        book.setAvailableCopies(1);
+        entityManager.persist(book);
+
+        entityManager.persist(borrowing(book, false));
+        entityManager.persist(borrowing(book, true));
+        entityManager.flush();
+    }
+
+    private Borrowing borrowing(Book book, boolean returned) {
+        Borrowing borrowing = new Borrowing();
+        borrowing.setUser(user);
+        borrowing.setBook(book);
+        borrowing.setBorrowDate(LocalDate.now().minusDays(3));
+        borrowing.setDueDate(LocalDate.now().plusDays(11));
+        borrowing.setReturned(returned);
+        return borrowing;
+    }
+
+    private UserBorrowingStats reload() {
+        entityManager.clear();
+        return statsRepository.findById(user.getId()).orElseThrow();
+    }
+
+    @Test
+    void createIfMissing_ShouldCountExistingBorrowings_Once() {
+        assertEquals(1, statsRepository.createIfMissing(user.getId()));
+        assertEquals(0, statsRepository.createIfMissing(user.getId()));
+
+        UserBorrowingStats stats = reload();
+        assertEquals(2, stats.getTotalBorrowings());
+        assertEquals(1, stats.getActiveBorrowings());
+    }
+
+    @Test
+    void recordBorrows_ShouldStopAtTheLimit() {
+        statsRepository.createIfMissing(user.getId());
+
+        assertEquals(1, statsRepository.recordBorrows(user.getId(), 1, 2));
+        assertEquals(0, statsRepository.recordBorrows(user.getId(), 1, 2));
+
+        UserBorrowingStats stats = reload();
+        assertEquals(3, stats.getTotalBorrowings());
+        assertEquals(2, stats.getActiveBorrowings());
+    }
+
+    @Test
+    void recordReturns_ShouldNotGoNegative() {
+        statsRepository.createIfMissing(user.getId());
+
+        assertEquals(0, statsRepository.recordReturns(user.getId(), 2));
+        assertEquals(1, statsRepository.recordReturns(user.getId(), 1));
+        assertEquals(0, reload().getActiveBorrowings());
+    }
+
+    @Test
+    void repairCounts_ShouldRederiveDriftedCounters() {
+        statsRepository.createIfMissing(user.getId());
+        statsRepository.recordBorrows(user.getId(), 3, Long.MAX_VALUE);
+
+        assertEquals(List.of(user.getId()), statsRepository.findDriftedUserIds());
+        assertEquals(1, statsRepository.repairCounts(user.getId()));
+        assertEquals(0, statsRepository.repairCounts(user.getId()));
+        assertEquals(List.of(), statsRepository.findDriftedUserIds());
+
+        UserBorrowingStats stats = reload();
+        assertEquals(2, stats.getTotalBorrowings());
+        assertEquals(1, stats.getActiveBorrowings());
+    }
+
+}
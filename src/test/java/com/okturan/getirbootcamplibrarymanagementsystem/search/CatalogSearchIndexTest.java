@@ -0,0 +1,96 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.search;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSearchIndexTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    private CatalogSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CatalogSearchIndex(bookRepository, true);
+    }
+
+    @Test
+    void rebuild_ShouldServeFoldedPrefixMatches() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of(
+                book(1L, "Çalıkuşu", "Reşat Nuri Güntekin", "Novel"),
+                book(2L, "The Hobbit", "J.R.R. Tolkien", "Fantasy"),
+                book(3L, "The Lord of the Rings", "J.R.R. Tolkien", "Fantasy")));
+
+        assertFalse(index.isServing());
+        index.rebuild();
+
+        assertTrue(index.isServing());
+        assertEquals(List.of(1L), index.search("calikusu", null, null));
+        assertEquals(List.of(1L), index.search(null, "RESAT guntekin", null));
+        assertEquals(List.of(2L, 3L), index.search(null, "tolk", null));
+        assertEquals(List.of(3L), index.search("lord rings", "tolkien", "fantasy"));
+        assertEquals(List.of(), index.search("hobbit", null, "novel"));
+    }
+
+    @Test
+    void search_ShouldRankRarerAndDenserMatchesFirst() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of(
+                book(1L, "A Long History of the Sea and the Ships that Sail It", "Author", "History"),
+                book(2L, "Sea", "Author", "Poetry"),
+                book(3L, "Mountains", "Author", "Poetry")));
+        index.rebuild();
+
+        assertEquals(List.of(2L, 1L), index.search("sea", null, null));
+    }
+
+    @Test
+    void indexAndRemove_ShouldApplyIncrementally() {
+        when(bookRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenReturn(List.of());
+        index.rebuild();
+
+        index.index(book(7L, "Dune", "Frank Herbert", "Science Fiction"));
+        assertEquals(List.of(7L), index.search("dune", null, null));
+
+        index.index(book(7L, "Dune Messiah", "Frank Herbert", "Science Fiction"));
+        assertEquals(List.of(7L), index.search("messiah", null, null));
+        assertEquals(List.of(7L), index.search(null, null, "science fiction"));
+
+        index.remove(7L);
+        assertEquals(List.of(), index.search("dune", null, null));
+    }
+
+    @Test
+    void rebuild_ShouldDoNothing_WhenDisabled() {
+        CatalogSearchIndex disabled = new CatalogSearchIndex(bookRepository, false);
+
+        disabled.rebuild();
+
+        assertFalse(disabled.isServing());
+        verifyNoInteractions(bookRepository);
+    }
+
+    private static Book book(Long id, String title, String author, String genre) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title);
+        book.setAuthor(author);
+        book.setGenre(genre);
+        return book;
+    }
+
+}
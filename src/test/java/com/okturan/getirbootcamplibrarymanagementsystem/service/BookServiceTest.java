@@ -1,32 +1,51 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.service;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.cache.BookCache;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookAvailabilityDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookFacetsDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookResponseDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BookSearchFilterDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FacetCountDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.BookFacetIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.IsbnIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.HoldQueueIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.SoldOutTable;
 import com.okturan.getirbootcamplibrarymanagementsystem.mapper.BookMapper;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.outbox.BookAvailabilityStream;
+import com.okturan.getirbootcamplibrarymanagementsystem.outbox.OutboxWriter;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.ApproximateCountCache;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
-import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OutboxEvent;
+import com.okturan.getirbootcamplibrarymanagementsystem.search.CatalogSearchIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.HoldService;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.impl.BookServiceImpl;
+import com.okturan.getirbootcamplibrarymanagementsystem.util.Isbn;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -39,10 +58,40 @@ public class BookServiceTest {
     private BookRepository bookRepository;
 
     @Mock
-    private BorrowingRepository borrowingRepository;
+    private BookMapper bookMapper;
 
     @Mock
-    private BookMapper bookMapper;
+    private CatalogSearchIndex searchIndex;
+
+    @Mock
+    private ApproximateCountCache countCache;
+
+    @Mock
+    private IsbnIndex isbnIndex;
+
+    @Mock
+    private BookFacetIndex facetIndex;
+
+    @Mock
+    private HoldQueueIndex holdQueueIndex;
+
+    @Mock
+    private OutboxWriter outboxWriter;
+
+    @Mock
+    private BookAvailabilityStream availabilityStream;
+
+    @Mock
+    private ObjectProvider<HoldService> holdServiceProvider;
+
+    @Mock
+    private HoldService holdService;
+
+    @Spy
+    private SoldOutTable soldOutTable = new SoldOutTable(1024);
+
+    @Spy
+    private BookCache bookCache = new BookCache(1_000_000, Duration.ofMinutes(10), Duration.ofSeconds(30));
 
     @InjectMocks
     private BookServiceImpl bookService;
@@ -51,6 +100,7 @@ public class BookServiceTest {
     private BookRequestDTO bookRequestDTO;
     private BookResponseDTO bookResponseDTO;
     private BookSearchFilterDTO searchFilterDTO;
+    private final long isbnKey = Isbn.toKey("1234567890");
 
     @BeforeEach
     void setUp() {
@@ -62,7 +112,6 @@ public class BookServiceTest {
         book.setIsbn("1234567890");
         book.setPublicationDate(LocalDate.of(2020, 1, 1));
         book.setGenre("Fiction");
-        book.setAvailable(true);
 
         bookRequestDTO = new BookRequestDTO(
                 "Test Book",
@@ -79,7 +128,9 @@ public class BookServiceTest {
                 "1234567890",
                 LocalDate.of(2020, 1, 1),
                 "Fiction",
-                true
+                true,
+                1,
+                1
         );
 
         searchFilterDTO = new BookSearchFilterDTO(
@@ -93,7 +144,7 @@ public class BookServiceTest {
     @Test
     void createBook_ShouldCreateAndReturnBook() {
         // Arrange
-        when(bookRepository.existsByIsbn(anyString())).thenReturn(false);
+        when(bookRepository.existsByIsbnKey(anyLong())).thenReturn(false);
         when(bookMapper.mapToEntity(any(BookRequestDTO.class))).thenReturn(book);
         when(bookRepository.save(any(Book.class))).thenReturn(book);
         when(bookMapper.mapToDTO(any(Book.class))).thenReturn(bookResponseDTO);
@@ -108,21 +159,35 @@ public class BookServiceTest {
         assertEquals("Test Author", result.author());
         assertEquals("1234567890", result.isbn());
 
-        verify(bookRepository).existsByIsbn("1234567890");
+        verify(bookRepository).existsByIsbnKey(isbnKey);
         verify(bookMapper).mapToEntity(bookRequestDTO);
         verify(bookRepository).save(book);
         verify(bookMapper).mapToDTO(book);
+        verify(isbnIndex).put(1L, isbnKey, null);
+    }
+
+    @Test
+    void createBook_ShouldCheckDuplicatesAgainstIndex_WhenIndexIsReady() {
+        // Arrange
+        when(isbnIndex.isReady()).thenReturn(true);
+        when(isbnIndex.findBookId(isbnKey)).thenReturn(7L);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookService.createBook(bookRequestDTO));
+
+        verify(bookRepository, never()).existsByIsbnKey(anyLong());
+        verify(bookRepository, never()).save(any(Book.class));
     }
 
     @Test
     void createBook_ShouldThrowException_WhenIsbnExists() {
         // Arrange
-        when(bookRepository.existsByIsbn(anyString())).thenReturn(true);
+        when(bookRepository.existsByIsbnKey(anyLong())).thenReturn(true);
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> bookService.createBook(bookRequestDTO));
 
-        verify(bookRepository).existsByIsbn("1234567890");
+        verify(bookRepository).existsByIsbnKey(isbnKey);
         verifyNoInteractions(bookMapper);
         verify(bookRepository, never()).save(any(Book.class));
     }
@@ -131,7 +196,6 @@ public class BookServiceTest {
     void getBookById_ShouldReturnBook() {
         // Arrange
         when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
-        when(borrowingRepository.existsByBookAndReturnedFalse(any(Book.class))).thenReturn(false);
         when(bookMapper.mapToDTO(any(Book.class))).thenReturn(bookResponseDTO);
 
         // Act
@@ -143,7 +207,6 @@ public class BookServiceTest {
         assertEquals("Test Book", result.title());
 
         verify(bookRepository).findById(1L);
-        verify(borrowingRepository).existsByBookAndReturnedFalse(book);
         verify(bookMapper).mapToDTO(book);
     }
 
@@ -156,15 +219,13 @@ public class BookServiceTest {
         assertThrows(EntityNotFoundException.class, () -> bookService.getBookById(1L));
 
         verify(bookRepository).findById(1L);
-        verifyNoInteractions(borrowingRepository);
         verifyNoInteractions(bookMapper);
     }
 
     @Test
     void getBookByIsbn_ShouldReturnBook() {
         // Arrange
-        when(bookRepository.findByIsbn(anyString())).thenReturn(Optional.of(book));
-        when(borrowingRepository.existsByBookAndReturnedFalse(any(Book.class))).thenReturn(false);
+        when(bookRepository.findByIsbnKey(anyLong())).thenReturn(Optional.of(book));
         when(bookMapper.mapToDTO(any(Book.class))).thenReturn(bookResponseDTO);
 
         // Act
@@ -175,20 +236,15 @@ public class BookServiceTest {
         assertEquals(1L, result.id());
         assertEquals("Test Book", result.title());
 
-        verify(bookRepository).findByIsbn("1234567890");
-        verify(borrowingRepository).existsByBookAndReturnedFalse(book);
+        verify(bookRepository).findByIsbnKey(isbnKey);
         verify(bookMapper).mapToDTO(book);
     }
 
     @Test
     void getAllBooks_ShouldReturnPageOfBooks() {
         // Arrange
-        List<Book> books = List.of(book);
-        Page<Book> bookPage = new PageImpl<>(books);
-
-        when(bookRepository.findAll(any(Pageable.class))).thenReturn(bookPage);
-        when(borrowingRepository.findBorrowedBookIdsByBookIds(anyList())).thenReturn(Set.of());
-        when(bookMapper.mapToDTO(any(Book.class))).thenReturn(bookResponseDTO);
+        when(bookRepository.findResponses(isNull(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(bookResponseDTO)));
 
         // Act
         Page<BookResponseDTO> result = bookService.getAllBooks(Pageable.unpaged());
@@ -198,20 +254,15 @@ public class BookServiceTest {
         assertEquals(1, result.getTotalElements());
         assertEquals(bookResponseDTO, result.getContent().get(0));
 
-        verify(bookRepository).findAll(Pageable.unpaged());
-        verify(borrowingRepository).findBorrowedBookIdsByBookIds(List.of(1L));
-        verify(bookMapper).mapToDTO(book);
+        verify(bookRepository).findResponses(null, Pageable.unpaged());
+        verifyNoInteractions(bookMapper);
     }
 
     @Test
     void search_ShouldReturnFilteredBooks() {
         // Arrange
-        List<Book> books = List.of(book);
-        Page<Book> bookPage = new PageImpl<>(books);
-
-        when(bookRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(bookPage);
-        when(borrowingRepository.findBorrowedBookIdsByBookIds(anyList())).thenReturn(Set.of());
-        when(bookMapper.mapToDTO(any(Book.class))).thenReturn(bookResponseDTO);
+        when(bookRepository.findResponses(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(bookResponseDTO)));
 
         // Act
         Page<BookResponseDTO> result = bookService.search(searchFilterDTO, Pageable.unpaged());
@@ -221,16 +272,160 @@ public class BookServiceTest {
         assertEquals(1, result.getTotalElements());
         assertEquals(bookResponseDTO, result.getContent().get(0));
 
-        verify(bookRepository).findAll(any(Specification.class), eq(Pageable.unpaged()));
-        verify(borrowingRepository).findBorrowedBookIdsByBookIds(List.of(1L));
-        verify(bookMapper).mapToDTO(book);
+        verify(bookRepository).findResponses(any(Specification.class), eq(Pageable.unpaged()));
+        verifyNoInteractions(bookMapper);
+    }
+
+    @Test
+    void search_ShouldUseRankedIndex_WhenSearchEngineIsServing() {
+        // Arrange
+        when(searchIndex.isServing()).thenReturn(true);
+        when(searchIndex.search("Test Book", "Test Author", "Fiction")).thenReturn(List.of(2L, 1L, 3L));
+        when(bookRepository.findAvailableIdsByIdIn(List.of(2L, 1L, 3L))).thenReturn(Set.of(1L, 2L));
+        when(bookRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(bookResponseDTO));
+
+        // Act
+        Page<BookResponseDTO> result = bookService.search(searchFilterDTO, Pageable.ofSize(1).withPage(1));
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(bookResponseDTO), result.getContent());
+        verify(bookRepository, never()).findResponses(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void searchSlice_ShouldCheckAvailabilityOnlyUntilThePageIsFull() {
+        // Arrange: 2500 ranked hits, the first batch already fills the page
+        List<Long> ranked = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(searchIndex.isServing()).thenReturn(true);
+        when(searchIndex.search("Test Book", "Test Author", "Fiction")).thenReturn(ranked);
+        when(bookRepository.findAvailableIdsByIdIn(ranked.subList(0, 1000))).thenReturn(Set.of(1L, 2L));
+        when(bookRepository.findResponsesByIdIn(List.of(1L))).thenReturn(List.of(bookResponseDTO));
+
+        // Act
+        Slice<BookResponseDTO> result = bookService.searchSlice(searchFilterDTO, Pageable.ofSize(1));
+
+        // Assert
+        assertEquals(List.of(bookResponseDTO), result.getContent());
+        assertTrue(result.hasNext());
+        verify(bookRepository).findAvailableIdsByIdIn(anyCollection());
+    }
+
+    @Test
+    void search_ShouldUseTheDatabase_WhenTheTitleHasNoSearchableTerms() {
+        // Arrange
+        BookSearchFilterDTO punctuationOnly = new BookSearchFilterDTO(Optional.empty(), Optional.of("?!"),
+                Optional.empty(), Optional.empty());
+        Page<BookResponseDTO> expected = new PageImpl<>(List.of(bookResponseDTO));
+        when(searchIndex.isServing()).thenReturn(true);
+        when(bookRepository.findResponses(any(Specification.class), any(Pageable.class))).thenReturn(expected);
+
+        // Act
+        Page<BookResponseDTO> result = bookService.search(punctuationOnly, Pageable.unpaged());
+
+        // Assert
+        assertEquals(expected, result);
+        verify(searchIndex, never()).search(any(), any(), any());
+    }
+
+    @Test
+    void getBookByIsbn_ShouldResolveThroughIndexAndIdCache_WhenIndexIsReady() {
+        // Arrange
+        when(isbnIndex.isReady()).thenReturn(true);
+        when(isbnIndex.findBookId(isbnKey)).thenReturn(1L);
+        when(isbnIndex.findBookId(Isbn.toKey("0000000000"))).thenReturn(IsbnIndex.NOT_FOUND);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookMapper.mapToDTO(book)).thenReturn(bookResponseDTO);
+
+        // Act
+        bookService.getBookByIsbn("1234567890");
+        BookResponseDTO result = bookService.getBookByIsbn("978-1-234-56789-7");
+        assertThrows(EntityNotFoundException.class, () -> bookService.getBookByIsbn("0000000000"));
+
+        // Assert
+        assertEquals(bookResponseDTO, result);
+        verify(bookRepository).findById(1L);
+        verify(bookRepository, never()).findByIsbnKey(anyLong());
+    }
+
+    @Test
+    void getBookByIsbn_ShouldRejectMalformedIsbn() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBookByIsbn("12345"));
+
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getFacets_ShouldUseCounters_WhenReadyAndNoTitleGiven() {
+        // Arrange
+        BookFacetsDTO counted = new BookFacetsDTO(List.of(new FacetCountDTO("Fiction", 1, 2)), List.of());
+        when(facetIndex.isReady()).thenReturn(true);
+        when(facetIndex.facets("Fiction", null, true)).thenReturn(counted);
+
+        // Act
+        BookFacetsDTO result = bookService.getFacets(
+                new BookSearchFilterDTO(Optional.empty(), Optional.empty(), Optional.of("Fiction"), Optional.of(true)));
+
+        // Assert
+        assertSame(counted, result);
+        verify(bookRepository, never()).countFacets(any(), anyString());
+    }
+
+    @Test
+    void getFacets_ShouldGroupInDatabase_WhenTitleGiven() {
+        // Arrange
+        List<FacetCountDTO> genres = List.of(new FacetCountDTO("Fiction", 1, 1));
+        List<FacetCountDTO> authors = List.of(new FacetCountDTO("Test Author", 1, 1));
+        when(facetIndex.isReady()).thenReturn(true);
+        when(bookRepository.countFacets(any(Specification.class), eq("genre"))).thenReturn(genres);
+        when(bookRepository.countFacets(any(Specification.class), eq("author"))).thenReturn(authors);
+
+        // Act
+        BookFacetsDTO result = bookService.getFacets(searchFilterDTO);
+
+        // Assert
+        assertEquals(new BookFacetsDTO(genres, authors), result);
+        verify(facetIndex, never()).facets(any(), any(), any());
+    }
+
+    @Test
+    void emitAvailabilityUpdate_ShouldEvictCachedBook() {
+        // Arrange
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookMapper.mapToDTO(book)).thenReturn(bookResponseDTO);
+        when(bookMapper.createAvailabilityDTO(eq(book), anyString()))
+                .thenReturn(new BookAvailabilityDTO(1L, "Test Book", "1234567890", true, 1, 1, "now"));
+        bookService.getBookById(1L);
+
+        // Act
+        bookService.emitAvailabilityUpdate(book);
+        bookService.getBookById(1L);
+
+        // Assert
+        verify(bookRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getBookById_ShouldReportUnavailable_WhenEveryCopyIsOnLoan() {
+        // Arrange
+        book.setAvailableCopies(0);
+        BookResponseDTO borrowedDTO = new BookResponseDTO(1L, "Test Book", "Test Author", "1234567890",
+                LocalDate.of(2020, 1, 1), "Fiction", false, 1, 0);
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
+        when(bookMapper.mapToDTO(book)).thenReturn(borrowedDTO);
+
+        // Act
+        BookResponseDTO result = bookService.getBookById(1L);
+
+        // Assert
+        assertFalse(book.isAvailable());
+        assertFalse(result.available());
     }
 
     @Test
     void updateBook_ShouldUpdateAndReturnBook() {
         // Arrange
         when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
-        when(borrowingRepository.existsByBookAndReturnedFalse(any(Book.class))).thenReturn(false);
         when(bookRepository.save(any(Book.class))).thenReturn(book);
         when(bookMapper.mapToDTO(any(Book.class))).thenReturn(bookResponseDTO);
 
@@ -243,60 +438,123 @@ public class BookServiceTest {
         assertEquals("Test Book", result.title());
 
         verify(bookRepository).findById(1L);
-        verify(borrowingRepository, times(2)).existsByBookAndReturnedFalse(book);
         verify(bookMapper).updateEntityFromDto(bookRequestDTO, book);
         verify(bookRepository).save(book);
         verify(bookMapper).mapToDTO(book);
+        verify(isbnIndex).put(1L, isbnKey, null);
     }
 
     @Test
-    void deleteBook_ShouldDeleteBook() {
+    void updateBook_ShouldResizeInventory_AndClearSoldOutMark() {
         // Arrange
-        when(bookRepository.existsById(anyLong())).thenReturn(true);
-        doNothing().when(bookRepository).deleteById(anyLong());
+        book.setAvailableCopies(0);
+        soldOutTable.markSoldOut(1L);
+        BookRequestDTO moreCopies = new BookRequestDTO("Test Book", "Test Author", "1234567890",
+                LocalDate.of(2020, 1, 1), "Fiction", 3);
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
+        when(bookRepository.resizeCopies(1L, 3)).thenReturn(1);
+        when(holdServiceProvider.getObject()).thenReturn(holdService);
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(2);
+        when(bookRepository.save(any(Book.class))).thenReturn(book);
+        when(bookMapper.createAvailabilityDTO(eq(book), anyString()))
+                .thenReturn(new BookAvailabilityDTO(1L, "Test Book", "1234567890", true, 3, 2, "now"));
 
         // Act
-        bookService.deleteBook(1L);
+        bookService.updateBook(1L, moreCopies);
 
         // Assert
-        verify(bookRepository).existsById(1L);
-        verify(bookRepository).deleteById(1L);
+        assertEquals(3, book.getTotalCopies());
+        assertEquals(2, book.getAvailableCopies());
+        assertFalse(soldOutTable.isSoldOut(1L));
+        verify(bookMapper).createAvailabilityDTO(eq(book), anyString());
     }
 
     @Test
-    void deleteBook_ShouldThrowException_WhenBookNotFound() {
+    void updateBook_ShouldHandAddedCopiesToWaitingHolds() {
+        // Arrange: two copies added, one hold waiting
+        book.setTotalCopies(1);
+        book.setAvailableCopies(0);
+        BookRequestDTO moreCopies = new BookRequestDTO("Test Book", "Test Author", "1234567890",
+                LocalDate.of(2020, 1, 1), "Fiction", 3);
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
+        when(bookRepository.resizeCopies(1L, 3)).thenReturn(1);
+        when(holdServiceProvider.getObject()).thenReturn(holdService);
+        when(holdService.handOff(1L)).thenReturn(true).thenReturn(false);
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(1);
+        when(bookRepository.save(any(Book.class))).thenReturn(book);
+
+        // Act
+        bookService.updateBook(1L, moreCopies);
+
+        // Assert
+        verify(holdService, times(2)).handOff(1L);
+        verify(bookRepository).takeCopy(1L);
+        assertEquals(1, book.getAvailableCopies());
+    }
+
+    @Test
+    void updateBook_ShouldRefuseFewerCopiesThanAreOnLoan() {
         // Arrange
-        when(bookRepository.existsById(anyLong())).thenReturn(false);
+        BookRequestDTO oneCopy = new BookRequestDTO("Test Book", "Test Author", "1234567890",
+                LocalDate.of(2020, 1, 1), "Fiction", 2);
+        book.setTotalCopies(5);
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
+        when(bookRepository.resizeCopies(1L, 2)).thenReturn(0);
 
         // Act & Assert
-        assertThrows(EntityNotFoundException.class, () -> bookService.deleteBook(1L));
-
-        verify(bookRepository).existsById(1L);
-        verify(bookRepository, never()).deleteById(anyLong());
+        assertThrows(IllegalArgumentException.class, () -> bookService.updateBook(1L, oneCopy));
+        verify(bookRepository, never()).save(any(Book.class));
     }
 
     @Test
-    void streamBookAvailabilityUpdates_ShouldReturnFlux() {
+    void deleteBook_ShouldDeleteBook() {
         // Arrange
-        BookAvailabilityDTO availabilityDTO = new BookAvailabilityDTO(1L, "Test Book", "1234567890", true, "2023-05-15T14:30:45.123Z");
-        when(borrowingRepository.existsByBookAndReturnedFalse(any(Book.class))).thenReturn(false);
-        when(bookMapper.createAvailabilityDTO(any(Book.class), anyString())).thenReturn(availabilityDTO);
+        book.syncIsbnKey();
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.of(book));
 
         // Act
-        Flux<BookAvailabilityDTO> result = bookService.streamBookAvailabilityUpdates();
+        bookService.deleteBook(1L);
 
         // Assert
-        assertNotNull(result);
+        verify(bookRepository).findById(1L);
+        verify(bookRepository).delete(book);
+        verify(isbnIndex).remove(1L, isbnKey);
+    }
 
-        // Emit an update
-        bookService.emitAvailabilityUpdate(book);
+    @Test
+    void deleteBook_ShouldThrowException_WhenBookNotFound() {
+        // Arrange
+        when(bookRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> bookService.deleteBook(1L));
+
+        verify(bookRepository).findById(1L);
+        verify(bookRepository, never()).delete(any(Book.class));
+    }
+
+    @Test
+    void streamBookAvailabilityUpdates_ShouldStreamTheRelayedUpdates() {
+        // Arrange
+        BookAvailabilityDTO availabilityDTO = new BookAvailabilityDTO(1L, "Test Book", "1234567890", true, 1, 1, "2023-05-15T14:30:45.123Z");
+        when(availabilityStream.updates()).thenReturn(Flux.just(availabilityDTO));
 
-        // Verify the flux emits the update
-        StepVerifier.create(result.take(1))
+        // Act & Assert
+        StepVerifier.create(bookService.streamBookAvailabilityUpdates().take(1))
             .expectNext(availabilityDTO)
             .verifyComplete();
+    }
 
-        verify(borrowingRepository).existsByBookAndReturnedFalse(book);
-        verify(bookMapper).createAvailabilityDTO(eq(book), anyString());
+    @Test
+    void emitAvailabilityUpdates_ShouldAppendOneOutboxEventPerDistinctBook() {
+        // Arrange
+        BookAvailabilityDTO availabilityDTO = new BookAvailabilityDTO(1L, "Test Book", "1234567890", true, 1, 1, "now");
+        when(bookMapper.createAvailabilityDTO(eq(book), anyString())).thenReturn(availabilityDTO);
+
+        // Act
+        bookService.emitAvailabilityUpdates(List.of(book, book));
+
+        // Assert
+        verify(outboxWriter).appendAll(OutboxEvent.BOOK_AVAILABILITY_CHANGED, Map.of(1L, availabilityDTO));
     }
 }
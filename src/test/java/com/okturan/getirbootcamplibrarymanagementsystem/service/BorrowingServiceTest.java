@@ -1,15 +1,31 @@
 package com.okturan.getirbootcamplibrarymanagementsystem.service;
 
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchCirculationResultDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.BatchItemResultDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingHistoryDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingRequestDTO;
 import com.okturan.getirbootcamplibrarymanagementsystem.dto.BorrowingResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.OverdueReportDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.exception.BookNotAvailableException;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.BookFacetIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.OverdueSummaryIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.SoldOutTable;
 import com.okturan.getirbootcamplibrarymanagementsystem.mapper.BorrowingMapper;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.ApproximateCountCache;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Borrowing;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.BorrowingRecord;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
 import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.UserBorrowingStats;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingHistoryRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BorrowingRow;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.CirculationBatchRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.OverdueSummary;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserBorrowingStatsRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
 import com.okturan.getirbootcamplibrarymanagementsystem.service.impl.BorrowingServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,17 +33,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -41,18 +64,45 @@ public class BorrowingServiceTest {
     @Mock
     private BorrowingRepository borrowingRepository;
 
+    @Mock
+    private BorrowingHistoryRepository historyRepository;
+
     @Mock
     private BookRepository bookRepository;
 
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private CirculationBatchRepository batchRepository;
+
     @Mock
     private BookService bookService;
 
+    @Mock
+    private HoldService holdService;
+
     @Mock
     private BorrowingMapper borrowingMapper;
 
+    @Mock
+    private ApproximateCountCache countCache;
+
+    @Mock
+    private BookFacetIndex facetIndex;
+
+    @Mock
+    private OverdueSummaryIndex overdueIndex;
+
+    @Spy
+    private SoldOutTable soldOutTable = new SoldOutTable(1024);
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UserBorrowingStatsRepository statsRepository;
+
     @InjectMocks
     private BorrowingServiceImpl borrowingService;
 
@@ -65,6 +115,11 @@ public class BorrowingServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(statsRepository.recordBorrows(anyLong(), anyInt(), anyLong())).thenReturn(1);
+        lenient().when(statsRepository.recordReturns(anyLong(), anyInt())).thenReturn(1);
+
         // Setup test data
         patronUser = new User();
         patronUser.setId(1L);
@@ -85,7 +140,6 @@ public class BorrowingServiceTest {
         book.setIsbn("1234567890");
         book.setPublicationDate(LocalDate.of(2020, 1, 1));
         book.setGenre("Fiction");
-        book.setAvailable(true);
 
         borrowing = new Borrowing();
         borrowing.setId(1L);
@@ -112,6 +166,11 @@ public class BorrowingServiceTest {
         );
     }
 
+    private BorrowingRecord record() {
+        return new BorrowingRecord(borrowing.getId(), book, patronUser, borrowing.getBorrowDate(),
+                borrowing.getDueDate(), borrowing.getReturnDate(), borrowing.isReturned());
+    }
+
     @Test
     void borrowBook_ShouldBorrowBookForCurrentUser() {
         // Mock authentication
@@ -124,7 +183,7 @@ public class BorrowingServiceTest {
         // Mock repository and mapper
         when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(borrowingRepository.existsByBookAndReturnedFalse(book)).thenReturn(false);
+        when(bookRepository.takeCopy(1L)).thenReturn(1);
         doNothing().when(borrowingMapper).initBorrowing(any(Borrowing.class), eq(book), eq(patronUser));
         when(borrowingRepository.save(any(Borrowing.class))).thenReturn(borrowing);
         when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
@@ -142,13 +201,34 @@ public class BorrowingServiceTest {
 
         verify(userRepository).findByUsername("patron");
         verify(bookRepository).findById(1L);
-        verify(borrowingRepository).existsByBookAndReturnedFalse(book);
+        verify(bookRepository).takeCopy(1L);
         verify(borrowingMapper).initBorrowing(any(Borrowing.class), eq(book), eq(patronUser));
         verify(borrowingRepository).save(any(Borrowing.class));
         verify(borrowingMapper).mapToDTO(any(Borrowing.class));
         verify(bookService).emitAvailabilityUpdate(book);
     }
 
+    @Test
+    void borrowBook_ShouldThrowException_WhenPatronIsAtTheLimit() {
+        // Mock authentication
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+
+        ReflectionTestUtils.setField(borrowingService, "maxActiveBorrowings", 2L);
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(statsRepository.recordBorrows(1L, 1, 2L)).thenReturn(0);
+        when(statsRepository.createIfMissing(1L)).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> borrowingService.borrowBook(borrowingRequestDTO));
+        verify(bookRepository, never()).takeCopy(anyLong());
+        verify(borrowingRepository, never()).save(any(Borrowing.class));
+    }
+
     @Test
     void borrowBook_ShouldThrowException_WhenBookAlreadyBorrowed() {
         // Mock authentication
@@ -161,18 +241,149 @@ public class BorrowingServiceTest {
         // Mock repository
         when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(borrowingRepository.existsByBookAndReturnedFalse(book)).thenReturn(true);
+        when(bookRepository.takeCopy(1L)).thenReturn(0);
 
         // Act & Assert
-        assertThrows(IllegalStateException.class, () -> borrowingService.borrowBook(borrowingRequestDTO));
+        assertThrows(BookNotAvailableException.class, () -> borrowingService.borrowBook(borrowingRequestDTO));
 
         verify(userRepository).findByUsername("patron");
         verify(bookRepository).findById(1L);
-        verify(borrowingRepository).existsByBookAndReturnedFalse(book);
         verify(borrowingMapper, never()).initBorrowing(any(Borrowing.class), any(Book.class), any(User.class));
         verify(borrowingRepository, never()).save(any(Borrowing.class));
     }
 
+    @Test
+    void borrowBook_ShouldTakeCopyFromHoldShelf_WhenPatronHasReadyHold() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+
+        book.setAvailableCopies(0);
+        soldOutTable.markSoldOut(1L);
+        when(holdService.hasReadyHolds(1L)).thenReturn(true);
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(holdService.claim(1L, 1L)).thenReturn(true);
+        when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
+
+        // Act
+        borrowingService.borrowBook(borrowingRequestDTO);
+
+        // Assert
+        verify(bookRepository, never()).takeCopy(anyLong());
+        verify(borrowingRepository).save(any(Borrowing.class));
+    }
+
+    @Test
+    void borrowBook_ShouldNotMarkSoldOut_WhenCopyComesFromHoldShelf() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(holdService.claim(1L, 1L)).thenReturn(true);
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(0);
+        when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
+
+        // Act
+        borrowingService.borrowBook(borrowingRequestDTO);
+
+        // Assert: no row lock was taken, so a concurrent return could clear the mark first
+        assertFalse(soldOutTable.isSoldOut(1L));
+        verify(soldOutTable, never()).markSoldOut(anyLong());
+    }
+
+    @Test
+    void processBatch_ShouldNotMarkSoldOut_WhenCopyComesFromHoldShelf() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book));
+        when(holdService.claim(1L, 1L)).thenReturn(true);
+        when(batchRepository.takeCopies(List.of())).thenReturn(new boolean[0]);
+        doAnswer(invocation -> {
+            invocation.<Borrowing>getArgument(0).setBook(invocation.getArgument(1));
+            return null;
+        }).when(borrowingMapper).initBorrowing(any(Borrowing.class), eq(book), eq(patronUser));
+        when(batchRepository.findAvailableCopies(Set.of(1L))).thenReturn(Map.of(1L, 0));
+
+        // Act
+        BatchCirculationResultDTO result = borrowingService.processBatch(
+                new BatchCirculationRequestDTO(null, List.of(1L), null));
+
+        // Assert
+        assertEquals(BatchItemResultDTO.Status.BORROWED, result.borrowed().get(0).status());
+        verify(soldOutTable, never()).markSoldOut(anyLong());
+    }
+
+    @Test
+    void borrowBook_ShouldRejectWithoutTransaction_WhenBookIsMarkedSoldOut() {
+        // Arrange
+        soldOutTable.markSoldOut(1L);
+
+        // Act & Assert
+        assertThrows(BookNotAvailableException.class, () -> borrowingService.borrowBook(borrowingRequestDTO));
+
+        verifyNoInteractions(transactionTemplate, bookRepository, borrowingRepository);
+    }
+
+    @Test
+    void borrowBook_ShouldMarkSoldOut_WhenLastCopyIsTaken() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.takeCopy(1L)).thenReturn(1);
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(0);
+        when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
+
+        // Act
+        borrowingService.borrowBook(borrowingRequestDTO);
+
+        // Assert
+        assertEquals(0, book.getAvailableCopies());
+        assertTrue(soldOutTable.isSoldOut(1L));
+    }
+
+    @Test
+    void borrowBook_ShouldLeaveBookUnmarked_WhileCopiesRemain() {
+        // Arrange
+        book.setTotalCopies(5);
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(bookRepository.takeCopy(1L)).thenReturn(1);
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(4);
+        when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
+
+        // Act
+        borrowingService.borrowBook(borrowingRequestDTO);
+
+        // Assert
+        assertEquals(4, book.getAvailableCopies());
+        assertFalse(soldOutTable.isSoldOut(1L));
+        verify(soldOutTable, never()).markSoldOut(anyLong());
+        verify(bookService).emitAvailabilityUpdate(book);
+    }
+
     @Test
     void borrowBook_ShouldBorrowBookForSpecifiedUser_WhenAdminUser() {
         // Mock authentication for admin
@@ -189,7 +400,7 @@ public class BorrowingServiceTest {
         when(userRepository.findByUsername("admin")).thenReturn(Optional.of(adminUser));
         when(userRepository.findById(1L)).thenReturn(Optional.of(patronUser));
         when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
-        when(borrowingRepository.existsByBookAndReturnedFalse(book)).thenReturn(false);
+        when(bookRepository.takeCopy(1L)).thenReturn(1);
         doNothing().when(borrowingMapper).initBorrowing(any(Borrowing.class), eq(book), eq(patronUser));
         when(borrowingRepository.save(any(Borrowing.class))).thenReturn(borrowing);
         when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
@@ -208,7 +419,6 @@ public class BorrowingServiceTest {
         verify(userRepository).findByUsername("admin");
         verify(userRepository).findById(1L);
         verify(bookRepository).findById(1L);
-        verify(borrowingRepository).existsByBookAndReturnedFalse(book);
         verify(borrowingMapper).initBorrowing(any(Borrowing.class), eq(book), eq(patronUser));
         verify(borrowingRepository).save(any(Borrowing.class));
         verify(borrowingMapper).mapToDTO(any(Borrowing.class));
@@ -240,8 +450,13 @@ public class BorrowingServiceTest {
 
     @Test
     void returnBook_ShouldReturnBorrowedBook() {
+        book.setAvailableCopies(0);
+        soldOutTable.markSoldOut(1L);
+        when(bookRepository.returnCopy(1L)).thenReturn(1);
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(1);
+
         // Mock repository and mapper
-        when(borrowingRepository.findById(1L)).thenReturn(Optional.of(borrowing));
+        when(borrowingRepository.findWithBookAndUserById(1L)).thenReturn(Optional.of(borrowing));
         doNothing().when(borrowingMapper).returnBook(borrowing);
         when(borrowingRepository.save(borrowing)).thenReturn(borrowing);
         when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
@@ -255,13 +470,35 @@ public class BorrowingServiceTest {
         assertEquals(1L, result.bookId());
         assertEquals("Test Book", result.bookTitle());
 
-        verify(borrowingRepository).findById(1L);
+        verify(borrowingRepository).findWithBookAndUserById(1L);
         verify(borrowingMapper).returnBook(borrowing);
         verify(borrowingRepository).save(borrowing);
         verify(borrowingMapper).mapToDTO(any(Borrowing.class));
+        verify(statsRepository).recordReturns(1L, 1);
+        assertTrue(book.isAvailable());
+        assertFalse(soldOutTable.isSoldOut(1L));
         verify(bookService).emitAvailabilityUpdate(book);
     }
 
+    @Test
+    void returnBook_ShouldHandCopyToHold_InsteadOfShelvingIt() {
+        // Arrange
+        book.setAvailableCopies(0);
+        soldOutTable.markSoldOut(1L);
+        when(borrowingRepository.findWithBookAndUserById(1L)).thenReturn(Optional.of(borrowing));
+        when(holdService.handOff(1L)).thenReturn(true);
+        when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
+
+        // Act
+        borrowingService.returnBook(1L);
+
+        // Assert
+        verify(borrowingRepository).save(borrowing);
+        verify(bookRepository, never()).returnCopy(anyLong());
+        verify(bookService, never()).emitAvailabilityUpdate(any(Book.class));
+        assertTrue(soldOutTable.isSoldOut(1L));
+    }
+
     @Test
     void returnBook_ShouldThrowException_WhenBookAlreadyReturned() {
         // Setup already returned borrowing
@@ -269,12 +506,12 @@ public class BorrowingServiceTest {
         borrowing.setReturnDate(LocalDate.now());
 
         // Mock repository
-        when(borrowingRepository.findById(1L)).thenReturn(Optional.of(borrowing));
+        when(borrowingRepository.findWithBookAndUserById(1L)).thenReturn(Optional.of(borrowing));
 
         // Act & Assert
         assertThrows(IllegalStateException.class, () -> borrowingService.returnBook(1L));
 
-        verify(borrowingRepository).findById(1L);
+        verify(borrowingRepository).findWithBookAndUserById(1L);
         verify(borrowingMapper, never()).returnBook(any(Borrowing.class));
         verify(borrowingRepository, never()).save(any(Borrowing.class));
         verify(bookService, never()).emitAvailabilityUpdate(any(Book.class));
@@ -283,7 +520,7 @@ public class BorrowingServiceTest {
     @Test
     void getBorrowingById_ShouldReturnBorrowing() {
         // Mock repository and mapper
-        when(borrowingRepository.findById(1L)).thenReturn(Optional.of(borrowing));
+        when(borrowingRepository.findWithBookAndUserById(1L)).thenReturn(Optional.of(borrowing));
         when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
 
         // Act
@@ -295,7 +532,7 @@ public class BorrowingServiceTest {
         assertEquals(1L, result.bookId());
         assertEquals("Test Book", result.bookTitle());
 
-        verify(borrowingRepository).findById(1L);
+        verify(borrowingRepository).findWithBookAndUserById(1L);
         verify(borrowingMapper).mapToDTO(any(Borrowing.class));
     }
 
@@ -311,31 +548,30 @@ public class BorrowingServiceTest {
         // Mock repository and mapper
         when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
 
-        List<Borrowing> borrowings = List.of(borrowing);
-        Page<Borrowing> borrowingsPage = new PageImpl<>(borrowings);
-        when(borrowingRepository.findByUser(eq(patronUser), any(Pageable.class))).thenReturn(borrowingsPage);
-        when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
-        when(borrowingRepository.countByUser(patronUser)).thenReturn(1L);
-        when(borrowingRepository.countByUserAndReturnedFalse(patronUser)).thenReturn(1L);
-        when(borrowingRepository.countByUserAndReturnedFalseAndDueDateBefore(eq(patronUser), any(LocalDate.class))).thenReturn(0L);
+        when(statsRepository.findById(1L)).thenReturn(Optional.of(new UserBorrowingStats(1L, 3L, 1L)));
+        when(overdueIndex.isReady()).thenReturn(true);
+        when(overdueIndex.overdueCount(1L)).thenReturn(1L);
+        when(historyRepository.findSliceByUser(eq(patronUser), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(record())));
+        when(borrowingMapper.mapToDTO(any(BorrowingRecord.class))).thenReturn(borrowingResponseDTO);
 
         // Act
-        BorrowingHistoryDTO result = borrowingService.getCurrentUserBorrowingHistory(Pageable.unpaged());
+        BorrowingHistoryDTO result = borrowingService.getCurrentUserBorrowingHistory(PageRequest.of(0, 1));
 
         // Assert
         assertNotNull(result);
         assertEquals(1L, result.userId());
         assertEquals("patron", result.username());
-        assertEquals(1, result.totalBorrowings());
+        assertEquals(3, result.totalBorrowings());
         assertEquals(1, result.currentBorrowings());
-        assertEquals(0, result.overdueBorrowings());
+        assertEquals(1, result.overdueBorrowings());
+        assertEquals(3, result.borrowingsPage().totalElements());
 
         verify(userRepository).findByUsername("patron");
-        verify(borrowingRepository).findByUser(eq(patronUser), any(Pageable.class));
-        verify(borrowingMapper).mapToDTO(any(Borrowing.class));
-        verify(borrowingRepository).countByUser(patronUser);
-        verify(borrowingRepository).countByUserAndReturnedFalse(patronUser);
-        verify(borrowingRepository).countByUserAndReturnedFalseAndDueDateBefore(eq(patronUser), any(LocalDate.class));
+        verify(borrowingMapper).mapToDTO(any(BorrowingRecord.class));
+        verify(historyRepository, never()).countByUser(any(User.class));
+        verify(borrowingRepository, never()).countByUserAndReturnedFalse(any(User.class));
+        verify(borrowingRepository, never()).countByUserAndReturnedFalseAndDueDateBefore(any(User.class), any(LocalDate.class));
     }
 
     @Test
@@ -343,11 +579,13 @@ public class BorrowingServiceTest {
         // Mock repository and mapper
         when(userRepository.findById(1L)).thenReturn(Optional.of(patronUser));
 
-        List<Borrowing> borrowings = List.of(borrowing);
-        Page<Borrowing> borrowingsPage = new PageImpl<>(borrowings);
-        when(borrowingRepository.findByUser(eq(patronUser), any(Pageable.class))).thenReturn(borrowingsPage);
-        when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
-        when(borrowingRepository.countByUser(patronUser)).thenReturn(1L);
+        // No counter row yet and the overdue index still building: counted in the database
+        when(statsRepository.findById(1L)).thenReturn(Optional.empty());
+        when(overdueIndex.isReady()).thenReturn(false);
+        when(historyRepository.findSliceByUser(eq(patronUser), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(record())));
+        when(borrowingMapper.mapToDTO(any(BorrowingRecord.class))).thenReturn(borrowingResponseDTO);
+        when(historyRepository.countByUser(patronUser)).thenReturn(1L);
         when(borrowingRepository.countByUserAndReturnedFalse(patronUser)).thenReturn(1L);
         when(borrowingRepository.countByUserAndReturnedFalseAndDueDateBefore(eq(patronUser), any(LocalDate.class))).thenReturn(0L);
 
@@ -363,9 +601,8 @@ public class BorrowingServiceTest {
         assertEquals(0, result.overdueBorrowings());
 
         verify(userRepository).findById(1L);
-        verify(borrowingRepository).findByUser(eq(patronUser), any(Pageable.class));
-        verify(borrowingMapper).mapToDTO(any(Borrowing.class));
-        verify(borrowingRepository).countByUser(patronUser);
+        verify(borrowingMapper).mapToDTO(any(BorrowingRecord.class));
+        verify(historyRepository).countByUser(patronUser);
         verify(borrowingRepository).countByUserAndReturnedFalse(patronUser);
         verify(borrowingRepository).countByUserAndReturnedFalseAndDueDateBefore(eq(patronUser), any(LocalDate.class));
     }
@@ -393,9 +630,10 @@ public class BorrowingServiceTest {
     @Test
     void getAllOverdueBorrowings_ShouldReturnOverdueBorrowings() {
         // Mock repository and mapper
-        List<Borrowing> borrowings = List.of(borrowing);
-        Page<Borrowing> borrowingsPage = new PageImpl<>(borrowings);
-        when(borrowingRepository.findByDueDateBeforeAndReturned(any(LocalDate.class), eq(false), any(Pageable.class))).thenReturn(borrowingsPage);
+        when(overdueIndex.today()).thenReturn(LocalDate.now());
+        when(overdueIndex.isReady()).thenReturn(true);
+        when(overdueIndex.summary()).thenReturn(new OverdueSummary(1, 1, 1));
+        when(borrowingRepository.findByDueDateBeforeAndReturned(any(LocalDate.class), eq(false), any(Pageable.class))).thenReturn(List.of(borrowing));
         when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
 
         // Act
@@ -410,31 +648,208 @@ public class BorrowingServiceTest {
         verify(borrowingMapper).mapToDTO(any(Borrowing.class));
     }
 
+    @Test
+    void generateOverdueReport_ShouldTakeCountsFromTheMaterializedSummary() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(overdueIndex.today()).thenReturn(today);
+        when(overdueIndex.isReady()).thenReturn(true);
+        when(overdueIndex.summary()).thenReturn(new OverdueSummary(12, 5, 9));
+        when(borrowingRepository.findByDueDateBeforeAndReturned(eq(today), eq(false), any(Pageable.class)))
+                .thenReturn(List.of(borrowing));
+        when(borrowingMapper.mapToDTO(any(Borrowing.class))).thenReturn(borrowingResponseDTO);
+
+        // Act
+        OverdueReportDTO report = borrowingService.generateOverdueReport(PageRequest.of(0, 1));
+
+        // Assert
+        assertEquals(12, report.totalOverdueCount());
+        assertEquals(5, report.distinctUsersWithOverdueCount());
+        assertEquals(9, report.distinctBooksOverdueCount());
+        assertEquals(12, report.overdueBorrowings().totalElements());
+        verify(borrowingRepository, never()).summarizeOverdue(any(LocalDate.class));
+    }
+
+    @Test
+    void generateOverdueReport_ShouldAggregateInOneQuery_UntilSummaryIsBuilt() {
+        // Arrange
+        LocalDate today = LocalDate.now();
+        when(overdueIndex.today()).thenReturn(today);
+        when(overdueIndex.isReady()).thenReturn(false);
+        when(borrowingRepository.summarizeOverdue(today)).thenReturn(new OverdueSummary(0, 0, 0));
+        when(borrowingRepository.findByDueDateBeforeAndReturned(eq(today), eq(false), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        // Act
+        OverdueReportDTO report = borrowingService.generateOverdueReport(PageRequest.of(0, 10));
+
+        // Assert
+        assertEquals(0, report.totalOverdueCount());
+        verify(overdueIndex, never()).summary();
+    }
+
     @Test
     void isOwner_ShouldReturnTrue_WhenUserIsOwner() {
         // Mock repository
-        when(borrowingRepository.findById(1L)).thenReturn(Optional.of(borrowing));
+        when(borrowingRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
 
         // Act
-        boolean result = borrowingService.isOwner(1L, "patron");
+        boolean result = borrowingService.isOwner(1L, 1L);
 
         // Assert
         assertTrue(result);
 
-        verify(borrowingRepository).findById(1L);
+        verify(borrowingRepository).findUserIdById(1L);
+        verify(borrowingRepository, never()).findById(any());
     }
 
     @Test
     void isOwner_ShouldReturnFalse_WhenUserIsNotOwner() {
         // Mock repository
-        when(borrowingRepository.findById(1L)).thenReturn(Optional.of(borrowing));
+        when(borrowingRepository.findUserIdById(1L)).thenReturn(Optional.of(1L));
 
         // Act
-        boolean result = borrowingService.isOwner(1L, "admin");
+        boolean result = borrowingService.isOwner(1L, 2L);
 
         // Assert
         assertFalse(result);
 
-        verify(borrowingRepository).findById(1L);
+        verify(borrowingRepository).findUserIdById(1L);
+    }
+
+    @Test
+    void processBatch_ShouldReportEachItem_AndEmitOnceForTheBatch() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+
+        book.setTotalCopies(2);
+        book.setAvailableCopies(1);
+        when(borrowingRepository.findRowsByIdIn(List.of(7L, 8L, 9L, 404L))).thenReturn(List.of(
+                new BorrowingRow(7L, 1L, 1L, false),
+                new BorrowingRow(8L, 1L, 1L, true),
+                new BorrowingRow(9L, 3L, 1L, false)));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book));
+        when(batchRepository.close(eq(List.of(7L)), any(LocalDate.class))).thenReturn(new boolean[] { true });
+        when(batchRepository.returnCopies(List.of(1L))).thenReturn(new boolean[] { true });
+        when(batchRepository.takeCopies(List.of(1L, 1L))).thenReturn(new boolean[] { true, false });
+        doAnswer(invocation -> {
+            invocation.<List<Borrowing>>getArgument(0).forEach(b -> b.setId(10L));
+            return null;
+        }).when(batchRepository).insert(anyList());
+        doAnswer(invocation -> {
+            Borrowing created = invocation.getArgument(0);
+            created.setBook(invocation.getArgument(1));
+            created.setUser(invocation.getArgument(2));
+            created.setDueDate(LocalDate.now().plusDays(14));
+            return null;
+        }).when(borrowingMapper).initBorrowing(any(Borrowing.class), eq(book), eq(patronUser));
+        when(batchRepository.findAvailableCopies(Set.of(1L))).thenReturn(Map.of(1L, 1));
+
+        // Act
+        BatchCirculationResultDTO result = borrowingService.processBatch(
+                new BatchCirculationRequestDTO(null, List.of(1L, 1L, 99L), List.of(7L, 8L, 9L, 404L)));
+
+        // Assert
+        assertEquals(List.of(BatchItemResultDTO.Status.BORROWED, BatchItemResultDTO.Status.NOT_AVAILABLE,
+                BatchItemResultDTO.Status.NOT_FOUND),
+                result.borrowed().stream().map(BatchItemResultDTO::status).toList());
+        assertEquals(10L, result.borrowed().get(0).borrowingId());
+        assertEquals(List.of(BatchItemResultDTO.Status.RETURNED, BatchItemResultDTO.Status.ALREADY_RETURNED,
+                BatchItemResultDTO.Status.FORBIDDEN, BatchItemResultDTO.Status.NOT_FOUND),
+                result.returned().stream().map(BatchItemResultDTO::status).toList());
+
+        verify(bookRepository).findAllById(any());
+        verify(userRepository).findByUsername("patron");
+        verify(bookService).emitAvailabilityUpdates(List.of(book));
+        verify(bookService, never()).emitAvailabilityUpdate(any(Book.class));
+        verify(borrowingRepository, never()).save(any(Borrowing.class));
+    }
+
+    @Test
+    void processBatch_ShouldSkipSoldOutBooks_WithoutTouchingTheDatabase() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book));
+        soldOutTable.markSoldOut(1L);
+
+        // Act
+        BatchCirculationResultDTO result = borrowingService.processBatch(
+                new BatchCirculationRequestDTO(null, List.of(1L), null));
+
+        // Assert
+        assertEquals(BatchItemResultDTO.Status.NOT_AVAILABLE, result.borrowed().get(0).status());
+        verify(batchRepository).takeCopies(List.of());
+        verify(bookService, never()).emitAvailabilityUpdates(any());
+    }
+
+    @Test
+    void processBatch_ShouldTurnAwayOnlyTheItemsOverTheLimit() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("patron");
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+
+        ReflectionTestUtils.setField(borrowingService, "maxActiveBorrowings", 2L);
+        book.setTotalCopies(3);
+        book.setAvailableCopies(3);
+        when(bookRepository.findAllById(any())).thenReturn(List.of(book));
+        when(statsRepository.lockActiveBorrowings(1L)).thenReturn(1L);
+        when(batchRepository.takeCopies(List.of(1L))).thenReturn(new boolean[] { true });
+        doAnswer(invocation -> {
+            Borrowing created = invocation.getArgument(0);
+            created.setBook(invocation.getArgument(1));
+            created.setUser(invocation.getArgument(2));
+            created.setDueDate(LocalDate.now().plusDays(14));
+            return null;
+        }).when(borrowingMapper).initBorrowing(any(Borrowing.class), eq(book), eq(patronUser));
+        when(batchRepository.findAvailableCopies(Set.of(1L))).thenReturn(Map.of(1L, 2));
+
+        // Act
+        BatchCirculationResultDTO result = borrowingService.processBatch(
+                new BatchCirculationRequestDTO(null, List.of(1L, 1L, 1L), null));
+
+        // Assert
+        assertEquals(List.of(BatchItemResultDTO.Status.BORROWED, BatchItemResultDTO.Status.LIMIT_REACHED,
+                BatchItemResultDTO.Status.LIMIT_REACHED),
+                result.borrowed().stream().map(BatchItemResultDTO::status).toList());
+        verify(statsRepository).recordBorrows(1L, 1, 2L);
+    }
+
+    @Test
+    void processBatch_ShouldThrowException_WhenStaffBorrowsWithoutPatron() {
+        // Arrange
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        when(authentication.getName()).thenReturn("admin");
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(adminUser));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> borrowingService.processBatch(
+                new BatchCirculationRequestDTO(null, List.of(1L), null)));
+
+        verifyNoInteractions(batchRepository);
+    }
+
+    @Test
+    void processBatch_ShouldThrowException_WhenBatchIsEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> borrowingService.processBatch(
+                new BatchCirculationRequestDTO(null, null, null)));
+
+        verifyNoInteractions(batchRepository, userRepository);
     }
 }
@@ -0,0 +1,134 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.FineRunDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.fines.FinePolicy;
+import com.okturan.getirbootcamplibrarymanagementsystem.mapper.FineMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRun;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.FineRunStatus;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineCandidate;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineEntry;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineLedgerRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.FineRunRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.impl.FineServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FineServiceTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2025, 5, 20);
+
+    @Mock
+    private FineRunRepository runRepository;
+
+    @Mock
+    private FineLedgerRepository ledgerRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private FineMapper fineMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final FinePolicy policy = new FinePolicy(new BigDecimal("0.25"), new BigDecimal("10.00"));
+
+    private FineServiceImpl fineService;
+
+    @BeforeEach
+    void setUp() {
+        fineService = new FineServiceImpl(runRepository, ledgerRepository, userRepository, policy, fineMapper,
+                transactionTemplate, 2);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+    }
+
+    private FineRun run(FineRunStatus status, long checkpoint) {
+        return new FineRun(RUN_DATE, RUN_DATE.minusDays(1), status, checkpoint, 0, BigDecimal.ZERO,
+                LocalDateTime.now(), null);
+    }
+
+    @Test
+    void assessFines_ShouldResumeAfterTheCheckpoint_AndWriteEachChunkAsABatch() {
+        // Arrange
+        FineRun interrupted = run(FineRunStatus.RUNNING, 100L);
+        when(runRepository.findById(RUN_DATE)).thenReturn(Optional.of(interrupted));
+        when(ledgerRepository.findCandidates(100L, RUN_DATE, RUN_DATE.minusDays(1), 2)).thenReturn(List.of(
+                new FineCandidate(101L, 1L, RUN_DATE.minusDays(5), null),
+                new FineCandidate(105L, 2L, RUN_DATE.minusDays(3), RUN_DATE.minusDays(2))));
+        when(runRepository.advance(eq(RUN_DATE), eq(100L), eq(105L), eq(1L), any(BigDecimal.class))).thenReturn(1);
+        when(ledgerRepository.findCandidates(105L, RUN_DATE, RUN_DATE.minusDays(1), 2)).thenReturn(List.of());
+        when(runRepository.complete(eq(RUN_DATE), eq(105L), any(LocalDateTime.class))).thenReturn(1);
+        when(fineMapper.mapToDTO(interrupted)).thenReturn(mock(FineRunDTO.class));
+
+        // Act
+        fineService.assessFines(RUN_DATE);
+
+        // Assert: the returned borrowing was charged in an earlier run
+        verify(ledgerRepository).insert(RUN_DATE, List.of(new FineEntry(101L, 1L, new BigDecimal("0.25"))));
+        verify(ledgerRepository, never()).findCandidates(eq(0L), any(), any(), anyInt());
+    }
+
+    @Test
+    void assessFines_ShouldNotReadBorrowings_WhenTheDayIsAlreadyAssessed() {
+        FineRun completed = run(FineRunStatus.COMPLETED, 500L);
+        when(runRepository.findById(RUN_DATE)).thenReturn(Optional.of(completed));
+        when(fineMapper.mapToDTO(completed)).thenReturn(mock(FineRunDTO.class));
+
+        fineService.assessFines(RUN_DATE);
+
+        verifyNoInteractions(ledgerRepository);
+    }
+
+    @Test
+    void assessFines_ShouldStop_WhenAnotherRunnerCommittedTheChunk() {
+        // Arrange
+        FineRun running = run(FineRunStatus.RUNNING, 0L);
+        when(runRepository.findById(RUN_DATE)).thenReturn(Optional.of(running));
+        when(ledgerRepository.findCandidates(0L, RUN_DATE, RUN_DATE.minusDays(1), 2)).thenReturn(List.of(
+                new FineCandidate(1L, 1L, RUN_DATE.minusDays(5), null)));
+        when(runRepository.advance(eq(RUN_DATE), eq(0L), eq(1L), eq(1L), any(BigDecimal.class))).thenReturn(0);
+        when(fineMapper.mapToDTO(running)).thenReturn(mock(FineRunDTO.class));
+
+        // Act
+        fineService.assessFines(RUN_DATE);
+
+        // Assert
+        verify(ledgerRepository, never()).insert(any(), anyList());
+        verify(runRepository, never()).complete(any(), anyLong(), any());
+    }
+
+    @Test
+    void assessFines_ShouldRejectADayBeforeACompletedRun() {
+        when(runRepository.existsByRunDateAfterAndStatus(RUN_DATE, FineRunStatus.COMPLETED)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class, () -> fineService.assessFines(RUN_DATE));
+        verify(runRepository, never()).save(any(FineRun.class));
+    }
+
+    @Test
+    void assessFines_ShouldRejectAFutureDate() {
+        assertThrows(IllegalArgumentException.class, () -> fineService.assessFines(LocalDate.now().plusDays(1)));
+        verifyNoInteractions(runRepository, ledgerRepository);
+    }
+
+}
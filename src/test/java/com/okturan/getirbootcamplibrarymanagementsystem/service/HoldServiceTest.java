@@ -0,0 +1,276 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.service;
+
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldRequestDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.dto.HoldResponseDTO;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.BookFacetIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.HoldQueueIndex;
+import com.okturan.getirbootcamplibrarymanagementsystem.index.SoldOutTable;
+import com.okturan.getirbootcamplibrarymanagementsystem.mapper.HoldMapper;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Book;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Hold;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.HoldStatus;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.Role;
+import com.okturan.getirbootcamplibrarymanagementsystem.model.User;
+import com.okturan.getirbootcamplibrarymanagementsystem.pagination.ApproximateCountCache;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.BookRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.HoldRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.repository.UserRepository;
+import com.okturan.getirbootcamplibrarymanagementsystem.service.impl.HoldServiceImpl;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HoldServiceTest {
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private HoldMapper holdMapper;
+
+    @Mock
+    private HoldQueueIndex queueIndex;
+
+    @Mock
+    private BookService bookService;
+
+    @Mock
+    private BookFacetIndex facetIndex;
+
+    @Mock
+    private ApproximateCountCache countCache;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SoldOutTable soldOutTable = new SoldOutTable(1024);
+
+    private HoldServiceImpl holdService;
+
+    private User patronUser;
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        holdService = new HoldServiceImpl(holdRepository, bookRepository, userRepository, holdMapper, queueIndex,
+                bookService, facetIndex, soldOutTable, countCache, transactionTemplate, Duration.ofDays(3));
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        patronUser = new User();
+        patronUser.setId(1L);
+        patronUser.setUsername("patron");
+        patronUser.setRoles(Set.of(Role.PATRON));
+
+        book = new Book();
+        book.setId(7L);
+        book.setTitle("Test Book");
+        book.setPublicationDate(LocalDate.of(2020, 1, 1));
+        book.setTotalCopies(1);
+        book.setAvailableCopies(0);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void loginAsPatron() {
+        SecurityContextHolder.getContext()
+                .setAuthentication(UsernamePasswordAuthenticationToken.authenticated("patron", null, List.of()));
+        when(userRepository.findByUsername("patron")).thenReturn(Optional.of(patronUser));
+    }
+
+    @Test
+    void placeHold_ShouldJoinTheBackOfTheQueue() {
+        // Arrange
+        loginAsPatron();
+        when(bookRepository.findById(7L)).thenReturn(Optional.of(book));
+        when(holdRepository.save(any(Hold.class))).thenAnswer(invocation -> {
+            invocation.<Hold>getArgument(0).setId(11L);
+            return invocation.getArgument(0);
+        });
+        when(queueIndex.isReady()).thenReturn(true);
+        when(queueIndex.waitingCount(7L)).thenReturn(2);
+        HoldResponseDTO dto = new HoldResponseDTO(11L, 7L, "Test Book", 1L, HoldStatus.WAITING, 3, null, null);
+        when(holdMapper.mapToDTO(any(Hold.class), eq(3))).thenReturn(dto);
+
+        // Act
+        HoldResponseDTO result = holdService.placeHold(new HoldRequestDTO(7L, null));
+
+        // Assert
+        assertEquals(3, result.position());
+        verify(queueIndex).enqueued(11L, 7L);
+        verify(holdRepository, never()).countWaitingAhead(anyLong(), anyLong());
+    }
+
+    @Test
+    void placeHold_ShouldThrowException_WhenBookIsOnTheShelf() {
+        // Arrange
+        loginAsPatron();
+        book.setAvailableCopies(1);
+        when(bookRepository.findById(7L)).thenReturn(Optional.of(book));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> holdService.placeHold(new HoldRequestDTO(7L, null)));
+        verify(holdRepository, never()).save(any(Hold.class));
+    }
+
+    @Test
+    void placeHold_ShouldThrowException_WhenPatronAlreadyQueues() {
+        // Arrange
+        loginAsPatron();
+        when(bookRepository.findById(7L)).thenReturn(Optional.of(book));
+        when(holdRepository.existsOpenHold(7L, 1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> holdService.placeHold(new HoldRequestDTO(7L, null)));
+        verify(holdRepository, never()).save(any(Hold.class));
+    }
+
+    @Test
+    void handOff_ShouldSkipTheDatabase_WhenNobodyWaits() {
+        when(queueIndex.hasWaiting(7L)).thenReturn(false);
+
+        assertFalse(holdService.handOff(7L));
+
+        verifyNoInteractions(holdRepository);
+    }
+
+    @Test
+    void handOff_ShouldPromoteTheIndexedHead() {
+        // Arrange
+        when(queueIndex.hasWaiting(7L)).thenReturn(true);
+        when(queueIndex.head(7L)).thenReturn(11L);
+        when(holdRepository.markReady(eq(11L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(holdService.handOff(7L));
+        verify(queueIndex).promoted(11L, 7L);
+        verify(holdRepository, never()).findWaitingIds(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void handOff_ShouldFallBackToTheTable_WhenIndexedHeadIsStale() {
+        // Arrange
+        when(queueIndex.hasWaiting(7L)).thenReturn(true);
+        when(queueIndex.head(7L)).thenReturn(11L);
+        when(holdRepository.markReady(eq(11L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+        when(holdRepository.findWaitingIds(eq(7L), any(Limit.class))).thenReturn(List.of(12L));
+        when(holdRepository.markReady(eq(12L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(holdService.handOff(7L));
+        verify(queueIndex).promoted(12L, 7L);
+    }
+
+    @Test
+    void claim_ShouldFulfilTheBorrowersReadyHold() {
+        // Arrange
+        when(queueIndex.hasReadyHolds(7L)).thenReturn(true);
+        when(holdRepository.findReadyHoldId(7L, 1L)).thenReturn(Optional.of(11L));
+        when(holdRepository.transition(11L, HoldStatus.READY, HoldStatus.FULFILLED)).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(holdService.claim(7L, 1L));
+        verify(queueIndex).closed(11L, 7L);
+    }
+
+    @Test
+    void cancelHold_ShouldShelveTheCopy_WhenReadyHoldHasNobodyBehindIt() {
+        // Arrange
+        Hold hold = new Hold(11L, book, patronUser, HoldStatus.READY, LocalDateTime.now(), LocalDateTime.now(),
+                LocalDateTime.now().plusDays(3));
+        soldOutTable.markSoldOut(7L);
+        when(holdRepository.findById(11L)).thenReturn(Optional.of(hold));
+        when(holdRepository.transition(11L, HoldStatus.READY, HoldStatus.CANCELLED)).thenReturn(1);
+        when(queueIndex.hasWaiting(7L)).thenReturn(false);
+        when(bookRepository.returnCopy(7L)).thenReturn(1);
+        when(bookRepository.findById(7L)).thenReturn(Optional.of(book));
+        when(bookRepository.findAvailableCopiesById(7L)).thenReturn(1);
+
+        // Act
+        holdService.cancelHold(11L);
+
+        // Assert
+        verify(queueIndex).closed(11L, 7L);
+        assertTrue(book.isAvailable());
+        assertFalse(soldOutTable.isSoldOut(7L));
+        verify(bookService).emitAvailabilityUpdate(book);
+    }
+
+    @Test
+    void cancelHold_ShouldThrowException_WhenHoldIsClosed() {
+        Hold hold = new Hold(11L, book, patronUser, HoldStatus.FULFILLED, LocalDateTime.now(), null, null);
+        when(holdRepository.findById(11L)).thenReturn(Optional.of(hold));
+
+        assertThrows(IllegalStateException.class, () -> holdService.cancelHold(11L));
+        verify(holdRepository, never()).transition(anyLong(), any(), any());
+    }
+
+    @Test
+    void isOwner_ShouldCompareTheHoldsPatronId_WithoutLoadingTheHold() {
+        when(holdRepository.findUserIdById(11L)).thenReturn(Optional.of(1L));
+
+        assertTrue(holdService.isOwner(11L, 1L));
+        assertFalse(holdService.isOwner(11L, 2L));
+        verify(holdRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void isOwner_ShouldThrowException_WhenHoldDoesNotExist() {
+        when(holdRepository.findUserIdById(11L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> holdService.isOwner(11L, 1L));
+    }
+
+    @Test
+    void expireOverdueHolds_ShouldPassCopyToTheNextHoldInLine() {
+        // Arrange
+        Hold hold = new Hold(11L, book, patronUser, HoldStatus.READY, LocalDateTime.now().minusDays(4),
+                LocalDateTime.now().minusDays(4), LocalDateTime.now().minusDays(1));
+        when(holdRepository.findByStatusAndPickupDeadlineBefore(eq(HoldStatus.READY), any(LocalDateTime.class),
+                any(Limit.class))).thenReturn(List.of(hold));
+        when(holdRepository.transition(11L, HoldStatus.READY, HoldStatus.EXPIRED)).thenReturn(1);
+        when(queueIndex.hasWaiting(7L)).thenReturn(true);
+        when(queueIndex.head(7L)).thenReturn(12L);
+        when(holdRepository.markReady(eq(12L), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+
+        // Act
+        int expired = holdService.expireOverdueHolds();
+
+        // Assert
+        assertEquals(1, expired);
+        verify(queueIndex).closed(11L, 7L);
+        verify(queueIndex).promoted(12L, 7L);
+        verify(bookRepository, never()).returnCopy(anyLong());
+    }
+
+}
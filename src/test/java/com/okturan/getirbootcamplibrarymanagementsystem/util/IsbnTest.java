@@ -0,0 +1,32 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnTest {
+
+    @Test
+    void toKey_ShouldMapEverySpellingToTheSameIsbn13() {
+        long key = Isbn.toKey("978-0-13-149505-0");
+
+        assertEquals(9780131495050L, key);
+        assertEquals(key, Isbn.toKey("9780131495050"));
+        assertEquals(key, Isbn.toKey("978 0 13 149505 0"));
+        assertEquals(key, Isbn.toKey("0-13-149505-4"));
+    }
+
+    @Test
+    void toKey_ShouldConvertIsbn10WithCheckCharacterX() {
+        assertEquals(9780806982618L, Isbn.toKey("0-8069-8261-X"));
+    }
+
+    @Test
+    void toKey_ShouldRejectMalformedInput() {
+        assertThrows(IllegalArgumentException.class, () -> Isbn.toKey(null));
+        assertThrows(IllegalArgumentException.class, () -> Isbn.toKey("12345"));
+        assertThrows(IllegalArgumentException.class, () -> Isbn.toKey("978-0-13-14950X-0"));
+        assertThrows(IllegalArgumentException.class, () -> Isbn.toKey("ISBN 0131495054"));
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.okturan.getirbootcamplibrarymanagementsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putGetRemove_ShouldBehaveLikeAMap() {
+        LongLongHashMap map = new LongLongHashMap(2);
+
+        map.put(9780131495050L, 1L);
+        map.put(9780306406157L, 2L);
+        map.put(9780131495050L, 3L);
+
+        assertEquals(2, map.size());
+        assertEquals(3L, map.get(9780131495050L, -1L));
+        assertTrue(map.containsKey(9780306406157L));
+        assertTrue(map.remove(9780306406157L));
+        assertFalse(map.remove(9780306406157L));
+        assertEquals(-1L, map.get(9780306406157L, -1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void randomOperations_ShouldMatchHashMapAcrossResizesAndDeletions() {
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            // A narrow key range forces long clusters and frequent backward shifts
+            long key = 9_780_000_000_000L + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+            else {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 9_780_000_000_000L; key < 9_780_000_002_000L; key++) {
+            assertEquals(expected.getOrDefault(key, -1L), map.get(key, -1L));
+        }
+    }
+
+    @Test
+    void zeroKey_ShouldBeRejected() {
+        LongLongHashMap map = new LongLongHashMap(4);
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(0L, 1L));
+    }
+
+}